@@ -0,0 +1,74 @@
+package analyzer.benchmark;
+
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.model.NginxLogEntry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregatorBenchmark {
+    private static final int LINES = 4096;
+    private static final int PERCENTILE_95 = 95;
+
+    @Param({"100000", "1000000"})
+    private int entriesBeforePercentile;
+
+    private List<NginxLogEntry> entries;
+    private StatisticsAggregator aggregator;
+    private StatisticsAggregator filledAggregator;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setupEntries() {
+        entries = BenchmarkLogs.lines(LINES).stream()
+            .map(NginxLogEntry::parseNginxLogEntry)
+            .flatMap(Optional::stream)
+            .toList();
+        filledAggregator = new StatisticsAggregator();
+        for (int i = 0; i < entriesBeforePercentile; i++) {
+            filledAggregator.addLogEntry(entries.get(i & (LINES - 1)));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupAggregator() {
+        aggregator = new StatisticsAggregator();
+    }
+
+    @Benchmark
+    public StatisticsAggregator addLogEntry() {
+        next = (next + 1) & (LINES - 1);
+        aggregator.addLogEntry(entries.get(next));
+        return aggregator;
+    }
+
+    @Benchmark
+    public int percentileResponseSize() {
+        return filledAggregator.getPercentileResponseSize(PERCENTILE_95);
+    }
+
+    @Benchmark
+    public int percentileResponseSizeAfterAdd() {
+        next = (next + 1) & (LINES - 1);
+        filledAggregator.addLogEntry(entries.get(next));
+        return filledAggregator.getPercentileResponseSize(PERCENTILE_95);
+    }
+}
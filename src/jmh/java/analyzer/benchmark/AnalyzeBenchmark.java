@@ -0,0 +1,62 @@
+package analyzer.benchmark;
+
+import analyzer.analyzer.NginxLogAnalyzer;
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.LocalFileDataSource;
+import analyzer.output.OutputFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class AnalyzeBenchmark {
+    @Param({"1000000", "10000000", "100000000"})
+    private long lines;
+
+    @Param({"none", "expression"})
+    private String filter;
+
+    private Path file;
+    private long fileSize;
+
+    @Setup
+    public void setup() throws IOException {
+        file = BenchmarkLogs.file(lines);
+        fileSize = Files.size(file);
+    }
+
+    @Benchmark
+    public StatisticsAggregator analyze(IngestCounters counters) {
+        AnalyzerConfig config = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            List.of(file), Optional.empty(), Optional.empty(), Optional.empty());
+        if ("expression".equals(filter)) {
+            config.filterExpression(Optional.of("status>=400 || resource~'/api/*'"));
+        }
+
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(config, new LocalFileDataSource(List.of(file)));
+        analyzer.analyze();
+        counters.lines += lines;
+        counters.bytes += fileSize;
+        return analyzer.statisticsAggregator();
+    }
+}
@@ -0,0 +1,52 @@
+package analyzer.benchmark;
+
+import analyzer.generator.LogGenerator;
+import analyzer.generator.LogLineGenerator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class BenchmarkLogs {
+    private static final long SEED = 42;
+    private static final int ADDRESSES = 100_000;
+    private static final int RESOURCES = 10_000;
+    private static final double REQUESTS_PER_SECOND = 100;
+    private static final String FILE_NAME = "access.log";
+    private static final Path CACHE_DIRECTORY = Path.of(System.getProperty("java.io.tmpdir"), "analyzer-bench");
+    private static final LocalDateTime START = LocalDateTime.of(2015, 5, 17, 0, 0);
+
+    public static List<String> lines(int count) {
+        byte[] chunk = lineGenerator().generateChunk(0, count, 0, count / REQUESTS_PER_SECOND);
+        return new String(chunk, StandardCharsets.UTF_8).lines().toList();
+    }
+
+    public static Path file(long lineCount) {
+        Path directory = CACHE_DIRECTORY.resolve(String.valueOf(lineCount));
+        Path file = directory.resolve(FILE_NAME);
+        if (Files.exists(file)) {
+            return file;
+        }
+
+        try {
+            Files.createDirectories(CACHE_DIRECTORY);
+            Path partial = Files.createTempDirectory(CACHE_DIRECTORY, lineCount + "-");
+            new LogGenerator(lineGenerator(), START, REQUESTS_PER_SECOND, Runtime.getRuntime().availableProcessors())
+                .generate(partial, FILE_NAME, lineCount, 1, false);
+            Files.move(partial, directory, StandardCopyOption.ATOMIC_MOVE);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static LogLineGenerator lineGenerator() {
+        return new LogLineGenerator(SEED, ADDRESSES, RESOURCES, 0);
+    }
+}
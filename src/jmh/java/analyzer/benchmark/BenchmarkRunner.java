@@ -0,0 +1,63 @@
+package analyzer.benchmark;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.experimental.UtilityClass;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@UtilityClass
+public class BenchmarkRunner {
+    private static final Logger LOGGER = Logger.getLogger(BenchmarkRunner.class.getName());
+    private static final Path RESULT_FILE = Path.of("target", "jmh-result.json");
+    private static final String ALLOCATED_PER_OPERATION = "gc.alloc.rate.norm";
+    private static final String LINES = "lines";
+    private static final String BYTES = "bytes";
+    private static final double BYTES_PER_MEGABYTE = 1024. * 1024.;
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(RESULT_FILE.toString())
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        results.forEach(BenchmarkRunner::logIngestRate);
+    }
+
+    private static void logIngestRate(RunResult result) {
+        Map<String, Result> secondary = result.getSecondaryResults();
+        if (!secondary.containsKey(LINES) || !secondary.containsKey(BYTES)) {
+            return;
+        }
+
+        double linesPerSecond = secondary.get(LINES).getScore();
+        double operationsPerSecond = result.getPrimaryResult().getScore();
+        double linesPerOperation = linesPerSecond / operationsPerSecond;
+        Result allocated = secondary.get(ALLOCATED_PER_OPERATION);
+        BenchmarkParams params = result.getParams();
+        String paramValues = params.getParamsKeys().stream()
+            .map(key -> key + '=' + params.getParam(key))
+            .collect(Collectors.joining(", ", "(", ")"));
+        LOGGER.log(Level.INFO, String.format(Locale.US, "%s %s: %.1f MB/s, %.0f lines/s, %.1f bytes allocated/line",
+            params.getBenchmark(), paramValues,
+            secondary.get(BYTES).getScore() / BYTES_PER_MEGABYTE, linesPerSecond,
+            allocated == null ? Double.NaN : allocated.getScore() / linesPerOperation));
+    }
+}
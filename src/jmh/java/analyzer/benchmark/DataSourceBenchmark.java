@@ -0,0 +1,50 @@
+package analyzer.benchmark;
+
+import analyzer.datasource.LocalFileDataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DataSourceBenchmark {
+    @Param({"1000000"})
+    private long lines;
+
+    private Path file;
+    private long fileSize;
+
+    @Setup
+    public void setup() throws IOException {
+        file = BenchmarkLogs.file(lines);
+        fileSize = Files.size(file);
+    }
+
+    @Benchmark
+    public long readLines(IngestCounters counters) {
+        try (Stream<String> stream = new LocalFileDataSource(List.of(file)).getDataStream()) {
+            long count = stream.count();
+            counters.lines += count;
+            counters.bytes += fileSize;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package analyzer.benchmark;
+
+import analyzer.analyzer.LogFilter;
+import analyzer.config.AnalyzerConfig;
+import analyzer.filter.FilterList;
+import analyzer.model.NginxLogEntry;
+import analyzer.output.OutputFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+    private static final int LINES = 4096;
+
+    @Param({"none", "field", "expression", "list"})
+    private String filter;
+
+    private List<String> lines;
+    private List<NginxLogEntry> entries;
+    private LogFilter logFilter;
+    private int next;
+
+    @Setup
+    public void setup() {
+        lines = BenchmarkLogs.lines(LINES);
+        entries = lines.stream().map(NginxLogEntry::parseNginxLogEntry).flatMap(Optional::stream).toList();
+        logFilter = new LogFilter(config(filter));
+    }
+
+    @Benchmark
+    public boolean matchByFieldAndValue() {
+        next = (next + 1) & (LINES - 1);
+        return logFilter.matchByFieldAndValue(entries.get(next));
+    }
+
+    @Benchmark
+    public Optional<NginxLogEntry> parseMatching() {
+        next = (next + 1) & (LINES - 1);
+        return logFilter.parseMatching(lines.get(next));
+    }
+
+    private static AnalyzerConfig config(String filter) {
+        boolean field = "field".equals(filter);
+        AnalyzerConfig config = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            List.of(), Optional.empty(), field ? Optional.of("agent") : Optional.empty(),
+            field ? Optional.of("Mozilla*") : Optional.empty());
+        return switch (filter) {
+            case "expression" -> config.filterExpression(Optional.of("status>=400 && method=GET && !agent~'*bot*'"));
+            case "list" -> config.filterList(Optional.of(FilterList.parse(List.of("exclude agent~bot",
+                "exclude agent~python", "exclude ip=10.0.0.0/16", "include resource~/downloads/"))));
+            default -> config;
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package analyzer.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class IngestCounters {
+    public long lines;
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        lines = 0;
+        bytes = 0;
+    }
+}
@@ -0,0 +1,52 @@
+package analyzer.benchmark;
+
+import analyzer.filter.RawLogLine;
+import analyzer.model.NginxLogEntry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    private static final int LINES = 4096;
+
+    private List<String> lines;
+    private RawLogLine rawLogLine;
+    private int next;
+
+    @Setup
+    public void setup() {
+        lines = BenchmarkLogs.lines(LINES);
+        rawLogLine = new RawLogLine();
+    }
+
+    @Benchmark
+    public Optional<NginxLogEntry> parseNginxLogEntry() {
+        return NginxLogEntry.parseNginxLogEntry(nextLine());
+    }
+
+    @Benchmark
+    public boolean tokenizeRawLine() {
+        return rawLogLine.reset(nextLine());
+    }
+
+    private String nextLine() {
+        next = (next + 1) & (LINES - 1);
+        return lines.get(next);
+    }
+}
@@ -1,33 +1,69 @@
 package analyzer;
 
+import analyzer.agent.AgentClassifier;
+import analyzer.agent.AgentRules;
+import analyzer.analyzer.GroupByAggregator;
+import analyzer.analyzer.GroupByField;
+import analyzer.analyzer.MultiReportAnalyzer;
 import analyzer.analyzer.NginxLogAnalyzer;
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.cache.CacheKey;
+import analyzer.cache.ReportCache;
 import analyzer.config.AnalyzerConfig;
+import analyzer.config.ArgumentParsers;
 import analyzer.config.CliParams;
+import analyzer.config.ReportSpec;
+import analyzer.datasource.IndexedFileDataSource;
 import analyzer.datasource.LocalFileDataSource;
 import analyzer.datasource.LogDataSource;
 import analyzer.datasource.LogFileFinder;
+import analyzer.datasource.MergedFileDataSource;
+import analyzer.datasource.SampledFileDataSource;
 import analyzer.datasource.UrlDataSource;
+import analyzer.filter.FilterList;
+import analyzer.geo.GeoIndex;
+import analyzer.index.IndexedField;
+import analyzer.metrics.MetricsServer;
 import analyzer.output.OutputFormat;
 import analyzer.output.ReportGenerator;
+import analyzer.output.ReportModel;
+import analyzer.profile.PipelineProfile;
+import analyzer.profile.PipelineProfile.Stage;
+import analyzer.rate.RateLimit;
+import analyzer.rate.RateTracker;
+import analyzer.route.QueryMode;
+import analyzer.route.RouteRules;
+import analyzer.server.LogTable;
+import analyzer.server.QueryServer;
+import analyzer.session.Sessionizer;
+import analyzer.shard.PartialAggregate;
+import analyzer.shard.Shard;
+import analyzer.shard.ShardAssignment;
+import analyzer.shard.ShardCoordinator;
 import com.beust.jcommander.JCommander;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 import lombok.experimental.UtilityClass;
+import org.apache.commons.io.FileUtils;
 
 @UtilityClass
 public class Main {
     private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
     private static final String MARKDOWN_FORMAT = "markdown";
     private static final String ADOC_FORMAT = "adoc";
+    private static final String LIST_SEPARATOR = ",";
+    private static final long BYTES_PER_MIB = 1024 * 1024;
+    private static final int SECONDS_PER_MINUTE = 60;
 
     public static void main(String[] args) throws IOException {
         CliParams params = new CliParams();
@@ -36,70 +72,306 @@ public class Main {
             .build()
             .parse(args);
 
-        AnalyzerConfig analyzerConfig = setupAnalyzerConfig(params);
+        Optional<Shard> shard = params.shard().map(Shard::parse);
+        AnalyzerConfig analyzerConfig = resolveDataSourceOptions(setupAnalyzerConfig(params, shard));
         LogDataSource dataSource = setupLogDataSource(analyzerConfig);
+        if (params.servePort().isPresent()) {
+            serve(params.servePort().getAsInt(), analyzerConfig, dataSource);
+        } else if (shard.isPresent()) {
+            Path output = params.partialOutput().map(Path::of).orElse(shard.orElseThrow().partialFile(Path.of("")));
+            analyzeShard(shard.orElseThrow(), output, analyzerConfig, dataSource);
+        } else if (params.reportSpec().isPresent()) {
+            List<AnalyzerConfig> reports = ReportSpec.load(Path.of(params.reportSpec().orElseThrow()), analyzerConfig);
+            writeReports(reports, reportDataSource(reports, analyzerConfig, dataSource));
+        } else {
+            report(args, params, analyzerConfig, dataSource);
+        }
+    }
 
+    private static void report(String[] args, CliParams params, AnalyzerConfig analyzerConfig, LogDataSource dataSource)
+        throws IOException {
+        Optional<ReportCache> reportCache =
+            analyzerConfig.cacheDirectory().map(directory -> new ReportCache(Optional.of(directory)));
+        Optional<String> cacheKey = reportCache.isPresent() ? CacheKey.of(analyzerConfig) : Optional.empty();
+        Optional<ReportModel> cachedModel = cacheKey.flatMap(key -> reportCache.orElseThrow().get(key));
+        if (cachedModel.isPresent()) {
+            LOGGER.log(Level.INFO, "Using cached report " + cacheKey.orElseThrow());
+            new ReportGenerator(analyzerConfig, cachedModel.orElseThrow())
+                .saveAndPrintStatistics(analyzerConfig.format());
+        } else {
+            ReportGenerator reportGenerator = buildReport(args, params, analyzerConfig, dataSource);
+            reportGenerator.saveAndPrintStatistics(analyzerConfig.format());
+            cacheKey.ifPresent(key -> reportCache.orElseThrow().put(key, reportGenerator.getReportModel()));
+        }
+    }
+
+    private static LogDataSource reportDataSource(
+        List<AnalyzerConfig> reports, AnalyzerConfig analyzerConfig, LogDataSource dataSource) {
+        if (analyzerConfig.profile() || analyzerConfig.metricsPort().isPresent()) {
+            LOGGER.log(Level.WARNING, "Ignoring --profile and --metrics-port: reports from a spec share one scan"
+                + " that is not timed by stage");
+        }
+        boolean sameFilter = reports.stream()
+            .allMatch(report -> report.filterField().equals(analyzerConfig.filterField())
+                && report.filterValue().equals(analyzerConfig.filterValue()));
+        if (dataSource instanceof IndexedFileDataSource && !sameFilter) {
+            LOGGER.log(Level.WARNING, "Ignoring --use-index: reports in the spec override the indexed filter");
+            return new LocalFileDataSource(analyzerConfig.files());
+        }
+        return dataSource;
+    }
+
+    private static void writeReports(List<AnalyzerConfig> reports, LogDataSource dataSource) throws IOException {
+        MultiReportAnalyzer analyzer = new MultiReportAnalyzer(reports, dataSource);
+        analyzer.analyze();
+        for (int i = 0; i < reports.size(); i++) {
+            AnalyzerConfig report = reports.get(i);
+            new ReportGenerator(report, analyzer.statisticsAggregators().get(i)).saveStatisticsToFile(report.format());
+            LOGGER.log(Level.INFO, "Wrote report " + report.getOutputPath());
+        }
+        LOGGER.log(Level.INFO, reports.size() + " reports from one scan, " + analyzer.parsedLines() + " lines parsed");
+    }
+
+    private static ReportGenerator buildReport(
+        String[] args, CliParams params, AnalyzerConfig analyzerConfig, LogDataSource dataSource) throws IOException {
+        if (params.mergePartials()) {
+            StatisticsAggregator merged = PartialAggregate.mergeAll(analyzerConfig.files(), analyzerConfig);
+            return new ReportGenerator(analyzerConfig, merged);
+        }
+        if (params.workers().isPresent()) {
+            return coordinate(args, params.workers().getAsInt(), analyzerConfig);
+        }
+        return analyze(analyzerConfig, dataSource);
+    }
+
+    private static void analyzeShard(Shard shard, Path output, AnalyzerConfig analyzerConfig, LogDataSource dataSource)
+        throws IOException {
         NginxLogAnalyzer analyzer = new NginxLogAnalyzer(analyzerConfig, dataSource);
         analyzer.analyze();
+        PartialAggregate.write(output, shard, analyzerConfig, analyzer.statisticsAggregator());
+        LOGGER.log(Level.INFO, "Shard " + shard + ": " + analyzerConfig.files().size() + " files, "
+            + analyzer.statisticsAggregator().totalRequests() + " requests written to " + output);
+    }
+
+    private static ReportGenerator coordinate(String[] args, int workers, AnalyzerConfig analyzerConfig)
+        throws IOException {
+        Path directory = Files.createTempDirectory("analyzer-shards");
+        try {
+            List<Path> partials = new ShardCoordinator(args, workers).run(directory);
+            return new ReportGenerator(analyzerConfig, PartialAggregate.mergeAll(partials, analyzerConfig));
+        } finally {
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+    private static ReportGenerator analyze(AnalyzerConfig analyzerConfig, LogDataSource dataSource)
+        throws IOException {
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(analyzerConfig, dataSource);
+        Optional<MetricsServer> metricsServer = analyzerConfig.metricsPort().isPresent()
+            ? Optional.of(new MetricsServer(analyzerConfig.metricsPort().getAsInt(), analyzer.ingestMetrics()))
+            : Optional.empty();
+        try {
+            analyzer.analyze();
+            return new ReportGenerator(analyzer.analyzerConfig(), analyzer.statisticsAggregator());
+        } finally {
+            metricsServer.ifPresent(MetricsServer::close);
+        }
+    }
 
-        ReportGenerator reportGenerator =
-            new ReportGenerator(analyzer.analyzerConfig(), analyzer.statisticsAggregator());
-        reportGenerator.saveStatisticsToFile(analyzerConfig.format());
-        reportGenerator.printStatisticsToConsole(analyzerConfig.format());
+    private static void serve(int port, AnalyzerConfig analyzerConfig, LogDataSource dataSource) throws IOException {
+        LogTable table;
+        try (Stream<String> lines = dataSource.getDataStream()) {
+            table = LogTable.load(lines);
+        }
+        QueryServer server =
+            new QueryServer(port, table, analyzerConfig.files(), Runtime.getRuntime().availableProcessors());
+        LOGGER.log(Level.INFO, "Serving " + table.size() + " entries (" + table.offHeapBytes() / BYTES_PER_MIB
+            + " MiB off-heap) at http://localhost:" + server.port() + QueryServer.PATH);
     }
 
-    private static AnalyzerConfig setupAnalyzerConfig(CliParams params) {
+    private static AnalyzerConfig setupAnalyzerConfig(CliParams params, Optional<Shard> shard) throws IOException {
         Optional<String> filterField = params.filterField();
         Optional<String> filterValue = params.filterValue();
 
-        Optional<LocalDateTime> from = parseDate(params.from());
-        Optional<LocalDateTime> to = parseDate(params.to());
+        Optional<LocalDateTime> from = ArgumentParsers.parseDate(params.from());
+        Optional<LocalDateTime> to = ArgumentParsers.parseDate(params.to());
 
-        OutputFormat format = parseOutputFormat(params.format().orElse(MARKDOWN_FORMAT));
+        OutputFormat format = ArgumentParsers.parseOutputFormat(params.format().orElse(MARKDOWN_FORMAT));
+        Optional<Path> filterFile = params.filterFile().map(Path::of);
+        Optional<FilterList> filterList = filterFile.isPresent()
+            ? Optional.of(FilterList.load(filterFile.orElseThrow()))
+            : Optional.empty();
 
+        Optional<Path> routeFile = params.routeFile().map(Path::of);
+        Optional<Path> agentRulesFile = params.agentRules().map(Path::of);
+        Optional<Path> geoDatabase = params.geoDatabase().map(Path::of);
+        PipelineProfile pipelineProfile = new PipelineProfile(params.profile());
         List<Path> files = new ArrayList<>();
         Optional<String> urlString = Optional.empty();
         if (params.path().startsWith("http://") || params.path().startsWith("https://")) {
             urlString = params.path().describeConstable();
         } else {
             LogFileFinder fileFinder = new LogFileFinder(params.path());
+            pipelineProfile.restart();
             fileFinder.findLogFiles();
             files = fileFinder.files();
+            if (shard.isPresent()) {
+                files = shard.orElseThrow().select(files, parseShardAssignment(params.shardBy()));
+            }
+            pipelineProfile.lap(Stage.FIND, files.size(), 0);
+        }
+
+        return new AnalyzerConfig(from, to, format, files, urlString, filterField, filterValue)
+            .filterExpression(params.filter())
+            .filterList(filterList)
+            .filterFile(filterFile)
+            .useIndex(params.useIndex())
+            .groupBy(parseGroupBy(params.groupBy()))
+            .sampleRate(parseSampleRate(params.sample()))
+            .sampleSeed(params.seed())
+            .profile(params.profile())
+            .pipelineProfile(pipelineProfile)
+            .metricsPort(params.metricsPort())
+            .cacheDirectory(params.cacheDirectory().map(Path::of))
+            .rateLimits(parseRateLimits(params.rateLimit()))
+            .rateKeys(Math.max(1, params.rateKeys().orElse(RateTracker.DEFAULT_MAX_KEYS)))
+            .sessionTimeout(params.sessions() ? parseSessionTimeout(params.sessionTimeout()) : OptionalInt.empty())
+            .routeRules(loadRouteRules(params, routeFile))
+            .routeFile(routeFile)
+            .agentClassifier(loadAgentClassifier(params.agents(), agentRulesFile))
+            .agentRulesFile(agentRulesFile)
+            .geoIndex(loadGeoIndex(geoDatabase))
+            .geoDatabase(geoDatabase)
+            .mergeTolerance(parseMergeTolerance(params.mergeByTime(), params.mergeTolerance()))
+            .memoryBudget(ArgumentParsers.parseByteSize(params.memoryBudget()));
+    }
+
+    private static AnalyzerConfig resolveDataSourceOptions(AnalyzerConfig analyzerConfig) {
+        boolean indexed = usesIndex(analyzerConfig);
+        if (indexed && analyzerConfig.sampleRate().isPresent()) {
+            LOGGER.log(Level.WARNING, "Ignoring --sample: the index already selects the blocks to read");
+            analyzerConfig.sampleRate(OptionalDouble.empty());
+        }
+        if (analyzerConfig.mergeTolerance().isPresent() && (indexed || analyzerConfig.sampleRate().isPresent())) {
+            LOGGER.log(Level.WARNING, "Ignoring --merge-by-time: it cannot be combined with "
+                + (indexed ? "--use-index" : "--sample"));
+            analyzerConfig.mergeTolerance(OptionalInt.empty());
         }
+        return analyzerConfig;
+    }
 
-        return new AnalyzerConfig(from, to, format, files, urlString, filterField, filterValue);
+    private static boolean usesIndex(AnalyzerConfig analyzerConfig) {
+        Optional<String> filterValue = analyzerConfig.filterValue();
+        return analyzerConfig.urlString().isEmpty() && analyzerConfig.useIndex()
+            && analyzerConfig.filterField().flatMap(IndexedField::fromName).isPresent()
+            && filterValue.isPresent() && IndexedFileDataSource.isExactValue(filterValue.orElseThrow());
     }
 
     private static LogDataSource setupLogDataSource(AnalyzerConfig analyzerConfig) {
-        return analyzerConfig.urlString().isPresent()
-            ? new UrlDataSource(analyzerConfig.urlString().orElseThrow())
-            : new LocalFileDataSource(analyzerConfig.files());
+        if (analyzerConfig.urlString().isPresent()) {
+            return new UrlDataSource(analyzerConfig.urlString().orElseThrow());
+        }
+
+        if (usesIndex(analyzerConfig)) {
+            return new IndexedFileDataSource(analyzerConfig.files(),
+                analyzerConfig.filterField().flatMap(IndexedField::fromName).orElseThrow(),
+                analyzerConfig.filterValue().orElseThrow());
+        }
+
+        if (analyzerConfig.sampleRate().isPresent()) {
+            return new SampledFileDataSource(
+                analyzerConfig.files(), analyzerConfig.sampleRate().getAsDouble(), analyzerConfig.sampleSeed());
+        }
+
+        if (analyzerConfig.mergeTolerance().isPresent()) {
+            return new MergedFileDataSource(
+                analyzerConfig.files(), analyzerConfig.mergeTolerance().getAsInt(), analyzerConfig.to());
+        }
+
+        return new LocalFileDataSource(analyzerConfig.files());
     }
 
-    private static Optional<LocalDateTime> parseDate(Optional<String> dateString) {
-        if (dateString.isEmpty()) {
-            return Optional.empty();
+    private static List<GroupByField> parseGroupBy(Optional<String> groupBy) {
+        List<GroupByField> fields = new ArrayList<>();
+        for (String name : groupBy.map(value -> value.split(LIST_SEPARATOR)).orElse(new String[0])) {
+            Optional<GroupByField> field = GroupByField.fromName(name);
+            if (field.isEmpty()) {
+                LOGGER.log(Level.WARNING, "Invalid group-by field: " + name);
+            } else if (fields.size() == GroupByAggregator.MAX_DIMENSIONS) {
+                LOGGER.log(Level.WARNING, "Too many group-by fields, ignoring: " + name);
+            } else if (!fields.contains(field.orElseThrow())) {
+                fields.add(field.orElseThrow());
+            }
         }
+        return fields;
+    }
 
-        try {
-            return Optional.of(LocalDateTime.parse(dateString.orElseThrow(), DateTimeFormatter.ISO_DATE_TIME));
-        } catch (DateTimeParseException firstException) {
+    private static Optional<RouteRules> loadRouteRules(CliParams params, Optional<Path> routeFile)
+        throws IOException {
+        QueryMode queryMode = params.queryKeys() ? QueryMode.KEYS : QueryMode.STRIP;
+        if (routeFile.isPresent()) {
+            return Optional.of(RouteRules.load(routeFile.orElseThrow(), queryMode));
+        }
+        return params.normalizeRoutes() || params.queryKeys()
+            ? Optional.of(new RouteRules(List.of(), queryMode))
+            : Optional.empty();
+    }
+
+    private static Optional<AgentClassifier> loadAgentClassifier(boolean agents, Optional<Path> rulesFile)
+        throws IOException {
+        if (rulesFile.isPresent()) {
+            return Optional.of(new AgentClassifier(AgentRules.load(rulesFile.orElseThrow())));
+        }
+        return agents ? Optional.of(new AgentClassifier(AgentRules.defaults())) : Optional.empty();
+    }
+
+    private static Optional<GeoIndex> loadGeoIndex(Optional<Path> database) throws IOException {
+        return database.isPresent() ? Optional.of(GeoIndex.open(database.orElseThrow())) : Optional.empty();
+    }
+
+    private static List<RateLimit> parseRateLimits(Optional<String> rateLimit) {
+        List<RateLimit> limits = new ArrayList<>();
+        for (String text : rateLimit.map(value -> value.split(LIST_SEPARATOR)).orElse(new String[0])) {
             try {
-                return Optional.of(
-                    LocalDate.parse(dateString.orElseThrow(), DateTimeFormatter.ISO_DATE).atStartOfDay());
-            } catch (DateTimeParseException secondException) {
-                LOGGER.log(Level.WARNING, "Invalid date format: " + dateString);
-                return Optional.empty();
+                limits.add(RateLimit.parse(text));
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Invalid rate limit: " + text);
             }
         }
+        return limits;
     }
 
-    private static OutputFormat parseOutputFormat(String format) {
-        try {
-            return OutputFormat.valueOf(format.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            LOGGER.log(Level.WARNING, "Invalid output format: " + format);
-            return OutputFormat.MARKDOWN;
+    private static OptionalInt parseSessionTimeout(OptionalInt minutes) {
+        if (minutes.isPresent() && minutes.getAsInt() < 1) {
+            LOGGER.log(Level.WARNING, "Invalid session timeout, using the default: " + minutes.getAsInt());
+        }
+        return OptionalInt.of(minutes.isPresent() && minutes.getAsInt() > 0
+            ? minutes.getAsInt() * SECONDS_PER_MINUTE
+            : Sessionizer.DEFAULT_TIMEOUT_SECONDS);
+    }
+
+    private static OptionalInt parseMergeTolerance(boolean mergeByTime, OptionalInt seconds) {
+        if (seconds.isPresent() && seconds.getAsInt() < 0) {
+            LOGGER.log(Level.WARNING, "Invalid merge tolerance, using 0: " + seconds.getAsInt());
+        }
+        return mergeByTime || seconds.isPresent()
+            ? OptionalInt.of(Math.max(0, seconds.orElse(0)))
+            : OptionalInt.empty();
+    }
+
+    private static ShardAssignment parseShardAssignment(Optional<String> shardBy) {
+        Optional<ShardAssignment> assignment = shardBy.flatMap(ShardAssignment::fromName);
+        if (shardBy.isPresent() && assignment.isEmpty()) {
+            LOGGER.log(Level.WARNING, "Invalid shard assignment, assigning by index: " + shardBy.orElseThrow());
+        }
+        return assignment.orElse(ShardAssignment.INDEX);
+    }
+
+    private static OptionalDouble parseSampleRate(OptionalDouble rate) {
+        if (rate.isPresent() && (rate.getAsDouble() <= 0 || rate.getAsDouble() >= 1)) {
+            LOGGER.log(Level.WARNING, "Invalid sample rate, reading all data: " + rate.getAsDouble());
+            return OptionalDouble.empty();
         }
+        return rate;
     }
 }
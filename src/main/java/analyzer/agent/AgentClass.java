@@ -0,0 +1,7 @@
+package analyzer.agent;
+
+public record AgentClass(AgentFamily family, String name, String version, String device) {
+    public String label() {
+        return version.isEmpty() ? name : name + ' ' + version;
+    }
+}
@@ -0,0 +1,37 @@
+package analyzer.agent;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Getter;
+
+public class AgentClassifier {
+    public static final long DEFAULT_CACHE_SIZE = 10_000;
+
+    @Getter private final AgentRules rules;
+    private final Cache<String, AgentClass> cache;
+
+    public AgentClassifier(AgentRules rules) {
+        this(rules, DEFAULT_CACHE_SIZE);
+    }
+
+    public AgentClassifier(AgentRules rules, long maxCachedAgents) {
+        this.rules = rules;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxCachedAgents)
+            .recordStats()
+            .build();
+    }
+
+    public AgentClass classify(String userAgent) {
+        return cache.get(userAgent, rules::classify);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long cachedAgents() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,30 @@
+package analyzer.agent;
+
+import java.util.Optional;
+
+public enum AgentFamily {
+    BROWSER("browser"),
+    CRAWLER("crawler"),
+    LIBRARY("library"),
+    MONITORING("monitoring"),
+    OTHER("other");
+
+    private final String familyName;
+
+    AgentFamily(String familyName) {
+        this.familyName = familyName;
+    }
+
+    public String familyName() {
+        return familyName;
+    }
+
+    public static Optional<AgentFamily> fromName(String name) {
+        for (AgentFamily family : values()) {
+            if (family.familyName.equalsIgnoreCase(name.trim())) {
+                return Optional.of(family);
+            }
+        }
+        return Optional.empty();
+    }
+}
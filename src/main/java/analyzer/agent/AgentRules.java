@@ -0,0 +1,110 @@
+package analyzer.agent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class AgentRules {
+    public static final String UNKNOWN_NAME = "other";
+    public static final String DEFAULT_DEVICE = "desktop";
+    private static final String DEFAULT_RULES = "/agent-rules.txt";
+    private static final String COMMENT_PREFIX = "#";
+    private static final String DEVICE_KIND = "device";
+    private static final String AT_LINE = " at line ";
+    private static final int RULE_PARTS = 3;
+    private static final int PATTERN_PART = 2;
+
+    private final List<Rule> agentRules;
+    private final List<Rule> deviceRules;
+
+    public AgentRules(List<String> lines) {
+        this.agentRules = new ArrayList<>();
+        this.deviceRules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX)) {
+                parseRule(line, i + 1);
+            }
+        }
+    }
+
+    public static AgentRules load(Path path) throws IOException {
+        return new AgentRules(Files.readAllLines(path));
+    }
+
+    public static AgentRules defaults() {
+        try (InputStream stream = AgentRules.class.getResourceAsStream(DEFAULT_RULES)) {
+            if (stream == null) {
+                throw new IllegalStateException("Missing " + DEFAULT_RULES);
+            }
+            return new AgentRules(new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))
+                .lines()
+                .toList());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int size() {
+        return agentRules.size() + deviceRules.size();
+    }
+
+    public AgentClass classify(String userAgent) {
+        AgentFamily family = AgentFamily.OTHER;
+        String name = UNKNOWN_NAME;
+        String version = "";
+        for (Rule rule : agentRules) {
+            Matcher matcher = rule.pattern().matcher(userAgent);
+            if (matcher.find()) {
+                family = rule.family();
+                name = rule.name();
+                version = matcher.groupCount() > 0 && matcher.group(1) != null ? matcher.group(1) : "";
+                break;
+            }
+        }
+
+        String device = DEFAULT_DEVICE;
+        for (Rule rule : deviceRules) {
+            if (rule.pattern().matcher(userAgent).find()) {
+                device = rule.name();
+                break;
+            }
+        }
+        return new AgentClass(family, name, version, family == AgentFamily.BROWSER ? device : "-");
+    }
+
+    private void parseRule(String line, int lineNumber) {
+        String[] parts = line.split("\\s+", RULE_PARTS);
+        if (parts.length < RULE_PARTS) {
+            throw new IllegalArgumentException("Agent rule must be '<family> <name> <regex>'" + AT_LINE
+                + lineNumber + ": " + line);
+        }
+
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(parts[PATTERN_PART]);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid agent pattern" + AT_LINE + lineNumber + ": "
+                + e.getDescription(), e);
+        }
+        if (DEVICE_KIND.equalsIgnoreCase(parts[0])) {
+            deviceRules.add(new Rule(AgentFamily.OTHER, parts[1], pattern));
+        } else {
+            AgentFamily family = AgentFamily.fromName(parts[0]).orElseThrow(() ->
+                new IllegalArgumentException("Unknown agent family '" + parts[0] + "'" + AT_LINE + lineNumber));
+            agentRules.add(new Rule(family, parts[1], pattern));
+        }
+    }
+
+    private record Rule(AgentFamily family, String name, Pattern pattern) {
+    }
+}
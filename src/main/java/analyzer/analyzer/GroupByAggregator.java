@@ -0,0 +1,263 @@
+package analyzer.analyzer;
+
+import analyzer.ip.ClientNames;
+import analyzer.ip.IpCounter;
+import analyzer.model.NginxLogEntry;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import lombok.Getter;
+
+public class GroupByAggregator {
+    public static final int MAX_DIMENSIONS = 3;
+    public static final String OTHER_VALUE = "(прочее)";
+    private static final int KEY_BITS = Long.SIZE;
+    private static final int MAX_BITS_PER_DIMENSION = Integer.SIZE;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_SLOT = -1;
+
+    @Getter private final List<GroupByField> dimensions;
+    private final int bitsPerDimension;
+    private final long dimensionMask;
+    private final ValueDictionary[] dictionaries;
+    private final IpCounter[] addresses;
+    private final Long2IntOpenHashMap slots;
+    private long[] keys;
+    private long[] counts;
+    private long[] byteSums;
+    private int[] byteMaxes;
+    private int size;
+
+    public GroupByAggregator(List<GroupByField> dimensions) {
+        this(dimensions, new ClientNames());
+    }
+
+    public GroupByAggregator(List<GroupByField> dimensions, ClientNames names) {
+        if (dimensions.isEmpty() || dimensions.size() > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("Group-by supports 1 to " + MAX_DIMENSIONS + " fields");
+        }
+
+        this.dimensions = List.copyOf(dimensions);
+        this.bitsPerDimension = Math.min(MAX_BITS_PER_DIMENSION, KEY_BITS / dimensions.size());
+        this.dimensionMask = (1L << bitsPerDimension) - 1;
+        this.dictionaries = new ValueDictionary[dimensions.size()];
+        this.addresses = new IpCounter[dimensions.size()];
+        for (int i = 0; i < dictionaries.length; i++) {
+            dictionaries[i] = new ValueDictionary((int) Math.min(Integer.MAX_VALUE, dimensionMask));
+            if (dimensions.get(i) == GroupByField.IP) {
+                addresses[i] = new IpCounter(names);
+            }
+        }
+        this.slots = new Long2IntOpenHashMap(INITIAL_CAPACITY);
+        this.slots.defaultReturnValue(NO_SLOT);
+        this.keys = new long[INITIAL_CAPACITY];
+        this.counts = new long[INITIAL_CAPACITY];
+        this.byteSums = new long[INITIAL_CAPACITY];
+        this.byteMaxes = new int[INITIAL_CAPACITY];
+    }
+
+    public void addLogEntry(NginxLogEntry entry) {
+        addLogEntry(entry, entry.resource());
+    }
+
+    public void addLogEntry(NginxLogEntry entry, String resource) {
+        long key = 0;
+        for (int i = 0; i < dictionaries.length; i++) {
+            key |= dimensionId(i, entry, resource) << (i * bitsPerDimension);
+        }
+        add(key, 1, entry.bodyBytesSent(), entry.bodyBytesSent());
+    }
+
+    public void merge(GroupByAggregator other) {
+        for (int slot = 0; slot < other.size; slot++) {
+            long key = 0;
+            for (int i = 0; i < dictionaries.length; i++) {
+                long id = (other.keys[slot] >>> (i * other.bitsPerDimension)) & other.dimensionMask;
+                key |= remapId(i, other, (int) id) << (i * bitsPerDimension);
+            }
+            add(key, other.counts[slot], other.byteSums[slot], other.byteMaxes[slot]);
+        }
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int slot = 0; slot < size; slot++) {
+            for (int i = 0; i < dictionaries.length; i++) {
+                writeValue(out, i, (int) ((keys[slot] >>> (i * bitsPerDimension)) & dimensionMask));
+            }
+            out.writeLong(counts[slot]);
+            out.writeLong(byteSums[slot]);
+            out.writeInt(byteMaxes[slot]);
+        }
+    }
+
+    public void mergeFrom(DataInput in) throws IOException {
+        int groups = in.readInt();
+        for (int group = 0; group < groups; group++) {
+            long key = 0;
+            for (int i = 0; i < dictionaries.length; i++) {
+                key |= readId(in, i) << (i * bitsPerDimension);
+            }
+            add(key, in.readLong(), in.readLong(), in.readInt());
+        }
+    }
+
+    public void scale(double factor) {
+        for (int slot = 0; slot < size; slot++) {
+            counts[slot] = Math.round(counts[slot] * factor);
+            byteSums[slot] = Math.round(byteSums[slot] * factor);
+        }
+    }
+
+    public int groupCount() {
+        return size;
+    }
+
+    public List<GroupRow> getTopGroups(int topCount) {
+        PriorityQueue<Integer> top = new PriorityQueue<>(topCount + 1, (a, b) -> Long.compare(counts[a], counts[b]));
+        for (int slot = 0; slot < size; slot++) {
+            if (top.size() < topCount) {
+                top.add(slot);
+            } else if (!top.isEmpty() && counts[slot] > counts[top.peek()]) {
+                top.poll();
+                top.add(slot);
+            }
+        }
+
+        IntArrayList ordered = new IntArrayList(top.size());
+        while (!top.isEmpty()) {
+            ordered.add(top.poll().intValue());
+        }
+
+        List<GroupRow> rows = new ArrayList<>(ordered.size());
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            int slot = ordered.getInt(i);
+            rows.add(new GroupRow(decode(keys[slot]), counts[slot], byteSums[slot], byteMaxes[slot]));
+        }
+        return rows;
+    }
+
+    private long dimensionId(int dimension, NginxLogEntry entry, String resource) {
+        int id = switch (dimensions.get(dimension)) {
+            case IP -> addressId(dimension, entry.ipHigh(), entry.ipLow());
+            case METHOD -> dictionaries[dimension].idOf(entry.httpMethod());
+            case RESOURCE -> dictionaries[dimension].idOf(resource);
+            case AGENT -> dictionaries[dimension].idOf(entry.httpUserAgent());
+            case REFERER -> dictionaries[dimension].idOf(entry.httpReferer());
+            case STATUS -> entry.statusCode();
+            case HOUR -> (int) (entry.localDateTime().toEpochSecond(ZoneOffset.UTC) / SECONDS_PER_HOUR);
+        };
+        return id < 0 || id >= dimensionMask ? dimensionMask : id;
+    }
+
+    private long remapId(int dimension, GroupByAggregator other, int id) {
+        if (id == other.dimensionMask) {
+            return dimensionMask;
+        }
+
+        int remapped = switch (dimensions.get(dimension)) {
+            case STATUS, HOUR -> id;
+            case IP -> {
+                IpCounter otherIds = other.addresses[dimension];
+                yield addressId(dimension, otherIds.highAt(id), otherIds.lowAt(id));
+            }
+            default -> dictionaries[dimension].idOf(other.dictionaries[dimension].valueOf(id));
+        };
+        return remapped < 0 || remapped >= dimensionMask ? dimensionMask : remapped;
+    }
+
+    private void writeValue(DataOutput out, int dimension, int id) throws IOException {
+        out.writeBoolean(id == dimensionMask);
+        if (id == dimensionMask) {
+            return;
+        }
+
+        switch (dimensions.get(dimension)) {
+            case STATUS, HOUR -> out.writeInt(id);
+            case IP -> {
+                out.writeLong(addresses[dimension].highAt(id));
+                out.writeLong(addresses[dimension].lowAt(id));
+            }
+            default -> out.writeUTF(dictionaries[dimension].valueOf(id));
+        }
+    }
+
+    private long readId(DataInput in, int dimension) throws IOException {
+        if (in.readBoolean()) {
+            return dimensionMask;
+        }
+
+        int id = switch (dimensions.get(dimension)) {
+            case STATUS, HOUR -> in.readInt();
+            case IP -> addressId(dimension, in.readLong(), in.readLong());
+            default -> dictionaries[dimension].idOf(in.readUTF());
+        };
+        return id < 0 || id >= dimensionMask ? dimensionMask : id;
+    }
+
+    private int addressId(int dimension, long high, long low) {
+        IpCounter ids = addresses[dimension];
+        int id = ids.find(high, low);
+        return id == IpCounter.NOT_FOUND && ids.size() < dimensionMask ? ids.slotOf(high, low) : id;
+    }
+
+    private void add(long key, long count, long byteSum, int byteMax) {
+        int slot = slots.get(key);
+        if (slot == NO_SLOT) {
+            slot = newSlot(key);
+        }
+
+        counts[slot] += count;
+        byteSums[slot] += byteSum;
+        byteMaxes[slot] = Math.max(byteMaxes[slot], byteMax);
+    }
+
+    private int newSlot(long key) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            byteSums = Arrays.copyOf(byteSums, capacity);
+            byteMaxes = Arrays.copyOf(byteMaxes, capacity);
+        }
+
+        int slot = size++;
+        keys[slot] = key;
+        slots.put(key, slot);
+        return slot;
+    }
+
+    private List<String> decode(long key) {
+        List<String> values = new ArrayList<>(dictionaries.length);
+        for (int i = 0; i < dictionaries.length; i++) {
+            int id = (int) ((key >>> (i * bitsPerDimension)) & dimensionMask);
+            values.add(decodeValue(i, id));
+        }
+        return values;
+    }
+
+    private String decodeValue(int dimension, int id) {
+        if (id == dimensionMask) {
+            return OTHER_VALUE;
+        }
+
+        return switch (dimensions.get(dimension)) {
+            case STATUS -> String.valueOf(id);
+            case HOUR -> LocalDateTime.ofEpochSecond((long) id * SECONDS_PER_HOUR, 0, ZoneOffset.UTC).toString();
+            case IP -> addresses[dimension].formatAt(id);
+            default -> dictionaries[dimension].valueOf(id);
+        };
+    }
+
+    public record GroupRow(List<String> values, long count, long bytesSum, int bytesMax) {
+    }
+}
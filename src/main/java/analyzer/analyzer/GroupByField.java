@@ -0,0 +1,32 @@
+package analyzer.analyzer;
+
+import java.util.Optional;
+
+public enum GroupByField {
+    IP("ip"),
+    METHOD("method"),
+    RESOURCE("resource"),
+    STATUS("status"),
+    AGENT("agent"),
+    REFERER("referer"),
+    HOUR("hour");
+
+    private final String fieldName;
+
+    GroupByField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public static Optional<GroupByField> fromName(String name) {
+        for (GroupByField field : values()) {
+            if (field.fieldName.equalsIgnoreCase(name.trim())) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+}
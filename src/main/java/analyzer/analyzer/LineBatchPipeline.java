@@ -0,0 +1,138 @@
+package analyzer.analyzer;
+
+import analyzer.analyzer.LogFilter.RawMatch;
+import analyzer.metrics.IngestMetrics;
+import analyzer.model.NginxLogEntry;
+import analyzer.profile.AggregationEvent;
+import analyzer.profile.FilterBatchEvent;
+import analyzer.profile.ParseBatchEvent;
+import analyzer.profile.PipelineProfile;
+import analyzer.profile.PipelineProfile.Stage;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+class LineBatchPipeline {
+    static final int BATCH_SIZE = 4096;
+
+    private final LogFilter logFilter;
+    private final PipelineProfile profile;
+    private final IngestMetrics metrics;
+    private final String[] lines = new String[BATCH_SIZE];
+    private final boolean[] verified = new boolean[BATCH_SIZE];
+    private final NginxLogEntry[] entries = new NginxLogEntry[BATCH_SIZE];
+
+    private long batchBytes;
+
+    LineBatchPipeline(LogFilter logFilter, PipelineProfile profile, IngestMetrics metrics) {
+        this.logFilter = logFilter;
+        this.profile = profile;
+        this.metrics = metrics;
+    }
+
+    void process(Stream<String> source, StatisticsAggregator target) {
+        Iterator<String> iterator = source.iterator();
+        profile.restart();
+        int count = read(iterator);
+        while (count > 0) {
+            int candidates = filterLines(count);
+            int parsed = parse(candidates);
+            int accepted = filterEntries(parsed);
+            aggregate(accepted, target);
+            metrics.recordBatch(count, batchBytes, count - accepted - (candidates - parsed), candidates - parsed,
+                accepted);
+            count = read(iterator);
+        }
+    }
+
+    private int read(Iterator<String> iterator) {
+        int count = 0;
+        long bytes = 0;
+        while (count < BATCH_SIZE && iterator.hasNext()) {
+            String line = iterator.next();
+            bytes += line.length() + 1;
+            lines[count++] = line;
+        }
+        profile.lap(Stage.READ, count, bytes);
+        batchBytes = bytes;
+        return count;
+    }
+
+    private int filterLines(int count) {
+        FilterBatchEvent event = new FilterBatchEvent();
+        event.begin();
+        int accepted = 0;
+        long bytes = 0;
+        for (int i = 0; i < count; i++) {
+            String line = lines[i];
+            bytes += line.length() + 1;
+            RawMatch match = logFilter.matchRaw(line);
+            if (match != RawMatch.REJECTED) {
+                lines[accepted] = line;
+                verified[accepted] = match == RawMatch.ACCEPTED;
+                accepted++;
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.raw(true).input(count).accepted(accepted).commit();
+        }
+        profile.lap(Stage.FILTER, count, bytes);
+        return accepted;
+    }
+
+    private int parse(int count) {
+        ParseBatchEvent event = new ParseBatchEvent();
+        event.begin();
+        int parsed = 0;
+        long bytes = 0;
+        for (int i = 0; i < count; i++) {
+            bytes += lines[i].length() + 1;
+            Optional<NginxLogEntry> entry = NginxLogEntry.parseNginxLogEntry(lines[i]);
+            if (entry.isPresent()) {
+                entries[parsed] = entry.orElseThrow();
+                verified[parsed] = verified[i];
+                parsed++;
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.lines(count).failed(count - parsed).commit();
+        }
+        profile.addParseFailures(count - parsed);
+        profile.lap(Stage.PARSE, count, bytes);
+        return parsed;
+    }
+
+    private int filterEntries(int count) {
+        FilterBatchEvent event = new FilterBatchEvent();
+        event.begin();
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            NginxLogEntry entry = entries[i];
+            if ((verified[i] || logFilter.matchByFieldAndValue(entry))
+                && logFilter.isWithinRange(entry.localDateTime())) {
+                entries[accepted++] = entry;
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.raw(false).input(count).accepted(accepted).commit();
+        }
+        profile.lap(Stage.FILTER, 0, 0);
+        return accepted;
+    }
+
+    private void aggregate(int count, StatisticsAggregator target) {
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+        for (int i = 0; i < count; i++) {
+            target.addLogEntry(entries[i]);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.entries(count).commit();
+        }
+        profile.lap(Stage.AGGREGATE, count, 0);
+    }
+}
@@ -1,15 +1,27 @@
 package analyzer.analyzer;
 
 import analyzer.config.AnalyzerConfig;
+import analyzer.filter.EntryFieldView;
+import analyzer.filter.FieldView;
+import analyzer.filter.FilterExpression;
+import analyzer.filter.FilterList;
+import analyzer.filter.RawLogLine;
 import analyzer.model.NginxLogEntry;
 import java.time.LocalDateTime;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 public class LogFilter {
     private final AnalyzerConfig analyzerConfig;
+    private final Optional<Predicate<FieldView>> predicate;
+    private final RawLogLine rawLogLine;
 
     public LogFilter(AnalyzerConfig analyzerConfig) {
         this.analyzerConfig = analyzerConfig;
+        this.predicate = compilePredicate(analyzerConfig);
+        this.rawLogLine = new RawLogLine();
     }
 
     public boolean isWithinRange(LocalDateTime dateTime) {
@@ -24,27 +36,56 @@ public class LogFilter {
         return withinFromRange && withinToRange;
     }
 
-    public boolean matchByFieldAndValue(NginxLogEntry entry) {
-        if (analyzerConfig.filterField().isEmpty() || analyzerConfig.filterValue().isEmpty()) {
-            return true;
-        }
+    public enum RawMatch { ACCEPTED, REJECTED, UNDECIDED }
 
-        String actualFilterValue = switch (analyzerConfig.filterField().orElseThrow().toLowerCase()) {
-            case "agent" -> entry.httpUserAgent();
-            case "status" -> String.valueOf(entry.statusCode());
-            case "resource" -> entry.resource();
-            case "method" -> entry.httpMethod();
-            case "ip" -> entry.clientIP();
-            default -> null;
+    public Optional<NginxLogEntry> parseMatching(String line) {
+        return switch (matchRaw(line)) {
+            case ACCEPTED -> NginxLogEntry.parseNginxLogEntry(line);
+            case UNDECIDED -> NginxLogEntry.parseNginxLogEntry(line).filter(this::matchByFieldAndValue);
+            default -> Optional.empty();
         };
+    }
+
+    public RawMatch matchRaw(String line) {
+        if (predicate.isEmpty()) {
+            return RawMatch.ACCEPTED;
+        }
+
+        return matchRaw(rawLogLine, rawLogLine.reset(line));
+    }
+
+    public RawMatch matchRaw(RawLogLine line, boolean tokenized) {
+        if (predicate.isEmpty()) {
+            return RawMatch.ACCEPTED;
+        }
+
+        if (tokenized) {
+            return predicate.orElseThrow().test(line) ? RawMatch.ACCEPTED : RawMatch.REJECTED;
+        }
+
+        return RawMatch.UNDECIDED;
+    }
+
+    public boolean hasPredicate() {
+        return predicate.isPresent();
+    }
+
+    public boolean matchByFieldAndValue(NginxLogEntry entry) {
+        return predicate.map(filter -> filter.test(new EntryFieldView(entry))).orElse(Boolean.TRUE);
+    }
 
-        if (actualFilterValue == null) {
-            return false;
+    public static Optional<Predicate<FieldView>> compilePredicate(AnalyzerConfig analyzerConfig) {
+        List<Predicate<FieldView>> predicates = new ArrayList<>();
+        if (analyzerConfig.filterField().isPresent() && analyzerConfig.filterValue().isPresent()) {
+            predicates.add(FilterExpression.fieldGlob(
+                analyzerConfig.filterField().orElseThrow(), analyzerConfig.filterValue().orElseThrow()));
         }
+        analyzerConfig.filterExpression().map(FilterExpression::compile).ifPresent(predicates::add);
+        analyzerConfig.filterList()
+            .map(FilterList::filterMatcher)
+            .filter(matcher -> !matcher.isEmpty())
+            .ifPresent(predicates::add);
 
-        String filterValue = analyzerConfig.filterValue().orElseThrow();
-        String regex = filterValue.replace("*", ".*");
-        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-        return pattern.matcher(actualFilterValue).matches();
+        return predicates.stream().reduce(Predicate::and);
     }
 }
@@ -0,0 +1,95 @@
+package analyzer.analyzer;
+
+import analyzer.analyzer.LogFilter.RawMatch;
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.LogDataSource;
+import analyzer.datasource.SampledFileDataSource;
+import analyzer.filter.RawLogLine;
+import analyzer.model.NginxLogEntry;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+@Getter
+public class MultiReportAnalyzer {
+    private final List<AnalyzerConfig> reports;
+    private final LogDataSource dataSource;
+    private final List<StatisticsAggregator> statisticsAggregators;
+    private long parsedLines;
+    @Getter(AccessLevel.NONE) private final LogFilter[] filters;
+    @Getter(AccessLevel.NONE) private final RawMatch[] matches;
+    @Getter(AccessLevel.NONE) private final RawLogLine rawLogLine;
+    @Getter(AccessLevel.NONE) private final boolean rawFiltering;
+
+    public MultiReportAnalyzer(List<AnalyzerConfig> reports, LogDataSource dataSource) {
+        this.reports = List.copyOf(reports);
+        this.dataSource = dataSource;
+        this.statisticsAggregators = reports.stream().map(StatisticsAggregator::new).toList();
+        this.filters = reports.stream().map(LogFilter::new).toArray(LogFilter[]::new);
+        this.matches = new RawMatch[filters.length];
+        this.rawLogLine = new RawLogLine();
+        boolean anyPredicate = false;
+        for (LogFilter filter : filters) {
+            anyPredicate |= filter.hasPredicate();
+        }
+        this.rawFiltering = anyPredicate;
+    }
+
+    public void analyze() {
+        if (dataSource instanceof SampledFileDataSource sampledDataSource) {
+            analyzeSample(sampledDataSource);
+        } else {
+            try (Stream<String> lines = dataSource.getDataStream()) {
+                lines.forEach(line -> route(line, statisticsAggregators));
+            }
+        }
+    }
+
+    private void analyzeSample(SampledFileDataSource sampledDataSource) {
+        List<SampleEstimator> estimators = reports.stream()
+            .map(report -> new SampleEstimator(sampledDataSource.rate(), sampledDataSource.seed()))
+            .toList();
+        try (Stream<Stream<String>> blocks = sampledDataSource.getBlockStream()) {
+            blocks.forEach(block -> {
+                List<StatisticsAggregator> blockStatistics = reports.stream().map(StatisticsAggregator::new).toList();
+                try (block) {
+                    block.forEach(line -> route(line, blockStatistics));
+                }
+                for (int i = 0; i < reports.size(); i++) {
+                    estimators.get(i).addBlock(blockStatistics.get(i));
+                    statisticsAggregators.get(i).merge(blockStatistics.get(i));
+                }
+            });
+        }
+        for (int i = 0; i < reports.size(); i++) {
+            statisticsAggregators.get(i).applySampling(estimators.get(i));
+        }
+    }
+
+    private void route(String line, List<StatisticsAggregator> targets) {
+        boolean tokenized = rawFiltering && rawLogLine.reset(line);
+        boolean candidate = false;
+        for (int i = 0; i < filters.length; i++) {
+            matches[i] = filters[i].matchRaw(rawLogLine, tokenized);
+            candidate |= matches[i] != RawMatch.REJECTED;
+        }
+        if (!candidate) {
+            return;
+        }
+
+        Optional<NginxLogEntry> parsed = NginxLogEntry.parseNginxLogEntry(line);
+        parsedLines++;
+        parsed.ifPresent(entry -> dispatch(entry, targets));
+    }
+
+    private void dispatch(NginxLogEntry entry, List<StatisticsAggregator> targets) {
+        for (int i = 0; i < filters.length; i++) {
+            if (matches[i] != RawMatch.REJECTED && filters[i].isWithinRange(entry.localDateTime())
+                && (matches[i] == RawMatch.ACCEPTED || filters[i].matchByFieldAndValue(entry))) {
+                targets.get(i).addLogEntry(entry);
+            }
+        }
+    }
+}
@@ -2,30 +2,54 @@ package analyzer.analyzer;
 
 import analyzer.config.AnalyzerConfig;
 import analyzer.datasource.LogDataSource;
-import analyzer.model.NginxLogEntry;
-import java.util.Optional;
+import analyzer.datasource.SampledFileDataSource;
+import analyzer.metrics.IngestMetrics;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 @Getter
 public class NginxLogAnalyzer {
+    private static final int METRICS_TOP_COUNT = 10;
     private final AnalyzerConfig analyzerConfig;
     private final LogDataSource dataSource;
     private final StatisticsAggregator statisticsAggregator;
     private final LogFilter logFilter;
+    private final IngestMetrics ingestMetrics;
+    @Getter(AccessLevel.NONE) private final LineBatchPipeline pipeline;
 
     public NginxLogAnalyzer(AnalyzerConfig analyzerConfig, LogDataSource dataSource) {
         this.analyzerConfig = analyzerConfig;
         this.dataSource = dataSource;
-        this.statisticsAggregator = new StatisticsAggregator();
+        this.statisticsAggregator = new StatisticsAggregator(analyzerConfig);
         this.logFilter = new LogFilter(analyzerConfig);
+        this.ingestMetrics = new IngestMetrics(statisticsAggregator, METRICS_TOP_COUNT);
+        this.pipeline = new LineBatchPipeline(logFilter, analyzerConfig.pipelineProfile(), ingestMetrics);
     }
 
     public void analyze() {
-        dataSource.getDataStream()
-            .map(NginxLogEntry::parseNginxLogEntry)
-            .flatMap(Optional::stream)
-            .filter(entry -> logFilter.isWithinRange(entry.localDateTime()))
-            .filter(logFilter::matchByFieldAndValue)
-            .forEach(statisticsAggregator::addLogEntry);
+        if (dataSource instanceof SampledFileDataSource sampledDataSource) {
+            analyzeSample(sampledDataSource);
+        } else {
+            try (Stream<String> lines = dataSource.getDataStream()) {
+                pipeline.process(lines, statisticsAggregator);
+            }
+        }
+        ingestMetrics.finish();
+    }
+
+    private void analyzeSample(SampledFileDataSource sampledDataSource) {
+        SampleEstimator estimator = new SampleEstimator(sampledDataSource.rate(), sampledDataSource.seed());
+        try (Stream<Stream<String>> blocks = sampledDataSource.getBlockStream()) {
+            blocks.forEach(block -> {
+                StatisticsAggregator blockStatistics = new StatisticsAggregator(analyzerConfig);
+                try (block) {
+                    pipeline.process(block, blockStatistics);
+                }
+                estimator.addBlock(blockStatistics);
+                statisticsAggregator.merge(blockStatistics);
+            });
+        }
+        statisticsAggregator.applySampling(estimator);
     }
 }
@@ -0,0 +1,67 @@
+package analyzer.analyzer;
+
+import analyzer.ip.IpAddresses;
+import analyzer.ip.IpCounter;
+import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Getter;
+
+public class SampleEstimator {
+    private static final double Z_95 = 1.96;
+
+    @Getter private final double rate;
+    @Getter private final long seed;
+    private final Map<Dimension, Object2DoubleOpenHashMap<Object>> squares;
+    private final IpCounter ipSquares;
+    private double totalSquares;
+    @Getter private int sampledBlocks;
+
+    public SampleEstimator(double rate, long seed) {
+        this.rate = rate;
+        this.seed = seed;
+        this.squares = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            squares.put(dimension, new Object2DoubleOpenHashMap<>());
+        }
+        this.ipSquares = new IpCounter();
+    }
+
+    public void addBlock(StatisticsAggregator block) {
+        double total = block.totalRequests();
+        totalSquares += total * total;
+        addSquares(Dimension.STATUS, block.logStatusCodes());
+        addSquares(Dimension.RESOURCE, block.resources());
+        addSquares(Dimension.METHOD, block.httpMethods());
+        IpCounter ipAddresses = block.ipAddresses();
+        for (int slot = 0; slot < ipAddresses.size(); slot++) {
+            long count = ipAddresses.countAt(slot);
+            ipSquares.add(ipAddresses.highAt(slot), ipAddresses.lowAt(slot), count * count);
+        }
+        sampledBlocks++;
+    }
+
+    public double totalHalfWidth() {
+        return halfWidth(totalSquares);
+    }
+
+    public double halfWidth(Dimension dimension, Object key) {
+        if (dimension == Dimension.IP) {
+            long[] address = new long[2];
+            boolean parsed = IpAddresses.parse(key.toString(), address);
+            return halfWidth(parsed ? ipSquares.count(address[0], address[1]) : 0);
+        }
+        return halfWidth(squares.get(dimension).getDouble(key));
+    }
+
+    private double halfWidth(double sumOfSquares) {
+        return Z_95 * Math.sqrt((1 - rate) * sumOfSquares) / rate;
+    }
+
+    private <T> void addSquares(Dimension dimension, Map<T, Integer> counts) {
+        Object2DoubleOpenHashMap<Object> dimensionSquares = squares.get(dimension);
+        counts.forEach((key, value) -> dimensionSquares.addTo(key, (double) value * value));
+    }
+
+    public enum Dimension { STATUS, RESOURCE, METHOD, IP }
+}
@@ -1,41 +1,469 @@
 package analyzer.analyzer;
 
+import analyzer.agent.AgentClass;
+import analyzer.agent.AgentClassifier;
+import analyzer.agent.AgentFamily;
+import analyzer.config.AnalyzerConfig;
+import analyzer.filter.EntryFieldView;
+import analyzer.filter.FilterList;
+import analyzer.filter.ListMatcher;
+import analyzer.geo.GeoIndex;
+import analyzer.ip.ClientNames;
+import analyzer.ip.IpAddresses;
+import analyzer.ip.IpCounter;
 import analyzer.model.NginxLogEntry;
+import analyzer.profile.Footprint;
+import analyzer.rate.RateLimit;
+import analyzer.rate.RateTracker;
+import analyzer.route.RouteNormalizer;
+import analyzer.session.Sessionizer;
+import analyzer.spill.SpilledCounts;
+import analyzer.spill.SpilledCounts.Entry;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import lombok.Getter;
 
 @Getter
 public class StatisticsAggregator {
     private static final double PERCENT_BASE = 100.;
+    private static final int IPV4_SUBNET_PREFIX = 24;
+    private static final int IPV6_SUBNET_PREFIX = 48;
+    private static final int BUDGET_CHECK_MASK = 4096 - 1;
+    public static final String UNKNOWN_GEO = "-";
     private final List<Integer> responseSizes;
     private final Map<Integer, Integer> logStatusCodes;
-    private final Map<String, Integer> resources;
+    private Map<String, Integer> resources;
     private final Map<String, Integer> httpMethods;
-    private final Map<String, Integer> ipAddresses;
+    private final ClientNames clientNames;
+    private final IpCounter ipAddresses;
+    private final IpCounter subnets;
+    private final Map<String, Integer> tagCounts;
+    private final Map<String, Integer> agentFamilies;
+    private final Map<String, Integer> agentVersions;
+    private final Map<String, Integer> agentDevices;
+    private final Optional<GroupByAggregator> groupByAggregator;
+    private final Optional<ListMatcher> tagMatcher;
+    private final Optional<RateTracker> rateTracker;
+    private final Optional<Sessionizer> sessionizer;
+    private final Optional<RouteNormalizer> routeNormalizer;
+    private final Optional<AgentClassifier> agentClassifier;
+    private final Optional<GeoIndex> geoIndex;
+    private final SpilledCounts spilledResources;
+    private final SpilledCounts spilledIpAddresses;
+    private final SpilledCounts spilledSubnets;
+    private OptionalLong memoryBudget;
+    private long resourceBytes;
+    private Optional<SampleEstimator> sampleEstimator;
     private int totalRequests;
+    private boolean responseSizesSorted;
 
     public StatisticsAggregator() {
+        this(List.of(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty());
+    }
+
+    public StatisticsAggregator(AnalyzerConfig analyzerConfig) {
+        this(analyzerConfig.groupBy(), analyzerConfig.filterList()
+            .map(FilterList::tagMatcher)
+            .filter(matcher -> !matcher.isEmpty()), rateTracker(analyzerConfig),
+            sessionizer(analyzerConfig), analyzerConfig.routeRules().map(RouteNormalizer::new),
+            analyzerConfig.agentClassifier(), analyzerConfig.geoIndex());
+        this.memoryBudget = analyzerConfig.memoryBudget();
+    }
+
+    private StatisticsAggregator(
+        List<GroupByField> groupBy,
+        Optional<ListMatcher> tagMatcher,
+        Optional<RateTracker> rateTracker,
+        Optional<Sessionizer> sessionizer,
+        Optional<RouteNormalizer> routeNormalizer,
+        Optional<AgentClassifier> agentClassifier,
+        Optional<GeoIndex> geoIndex
+    ) {
         this.logStatusCodes = new HashMap<>();
         this.responseSizes = new ArrayList<>();
         this.resources = new HashMap<>();
         this.httpMethods = new HashMap<>();
-        this.ipAddresses = new HashMap<>();
+        this.clientNames = new ClientNames();
+        this.ipAddresses = new IpCounter(clientNames);
+        this.subnets = new IpCounter(IPV4_SUBNET_PREFIX, IPV6_SUBNET_PREFIX, clientNames);
+        this.tagCounts = new HashMap<>();
+        this.agentFamilies = new HashMap<>();
+        this.agentVersions = new HashMap<>();
+        this.agentDevices = new HashMap<>();
+        this.tagMatcher = tagMatcher;
+        this.groupByAggregator = groupBy.isEmpty() ? Optional.empty()
+            : Optional.of(new GroupByAggregator(groupBy, clientNames));
+        this.rateTracker = rateTracker;
+        this.sessionizer = sessionizer;
+        this.routeNormalizer = routeNormalizer;
+        this.agentClassifier = agentClassifier;
+        this.geoIndex = geoIndex;
+        this.spilledResources = new SpilledCounts("resources");
+        this.spilledIpAddresses = new SpilledCounts("ips");
+        this.spilledSubnets = new SpilledCounts("subnets");
+        this.memoryBudget = OptionalLong.empty();
+        this.sampleEstimator = Optional.empty();
+    }
+
+    private static Optional<RateTracker> rateTracker(AnalyzerConfig analyzerConfig) {
+        List<RateLimit> limits = analyzerConfig.rateLimits();
+        return limits.isEmpty() ? Optional.empty() : Optional.of(new RateTracker(limits, analyzerConfig.rateKeys()));
+    }
+
+    private static Optional<Sessionizer> sessionizer(AnalyzerConfig analyzerConfig) {
+        OptionalInt timeout = analyzerConfig.sessionTimeout();
+        return timeout.isPresent() ? Optional.of(new Sessionizer(timeout.getAsInt())) : Optional.empty();
     }
 
     public void addLogEntry(NginxLogEntry entry) {
-        addStatusCode(entry.statusCode());
-        addResource(entry.resource());
-        addHttpMethod(entry.httpMethod());
-        addIpAddress(entry.clientIP());
+        if (entry.clientName() != null) {
+            clientNames.add(entry.ipLow(), entry.clientName());
+        }
+        String route = route(entry.resource());
+        addCounts(entry.statusCode(), route, entry.httpMethod(), entry.ipHigh(), entry.ipLow(),
+            entry.bodyBytesSent());
+        groupByAggregator.ifPresent(aggregator -> aggregator.addLogEntry(entry, route));
+        tagMatcher.ifPresent(matcher -> addTags(matcher, matcher.classify(new EntryFieldView(entry))));
+        agentClassifier.ifPresent(classifier -> addAgent(classifier.classify(entry.httpUserAgent())));
+        if (rateTracker.isPresent() || sessionizer.isPresent()) {
+            long epochSecond = entry.localDateTime().toEpochSecond(ZoneOffset.UTC);
+            rateTracker.ifPresent(tracker -> tracker.add(entry.ipHigh(), entry.ipLow(), entry.clientName(),
+                epochSecond));
+            sessionizer.ifPresent(sessions -> sessions.add(entry.ipHigh(), entry.ipLow(), entry.httpUserAgent(),
+                epochSecond));
+        }
+    }
+
+    public void addRequest(int statusCode, String resource, String httpMethod, long ipHigh, long ipLow, int bytes) {
+        addCounts(statusCode, route(resource), httpMethod, ipHigh, ipLow, bytes);
+    }
+
+    public void addClientName(long key, String name) {
+        clientNames.add(key, name);
+    }
+
+    private String route(String resource) {
+        return routeNormalizer.isPresent() ? routeNormalizer.orElseThrow().normalize(resource) : resource;
+    }
 
-        responseSizes.add(entry.bodyBytesSent());
+    private void addCounts(int statusCode, String resource, String httpMethod, long ipHigh, long ipLow, int bytes) {
+        addStatusCode(statusCode);
+        addResource(resource);
+        addHttpMethod(httpMethod);
+        addIpAddress(ipHigh, ipLow);
+
+        responseSizes.add(bytes);
+        responseSizesSorted = false;
         totalRequests++;
+        if (memoryBudget.isPresent() && (totalRequests & BUDGET_CHECK_MASK) == 0) {
+            enforceMemoryBudget();
+        }
+    }
+
+    public long keyTableBytes() {
+        return resourceBytes + ipAddresses.footprintBytes() + subnets.footprintBytes();
+    }
+
+    public boolean isSpilled() {
+        return !spilledResources.isEmpty() || !spilledIpAddresses.isEmpty() || !spilledSubnets.isEmpty();
+    }
+
+    private void enforceMemoryBudget() {
+        if (memoryBudget.isEmpty() || keyTableBytes() <= memoryBudget.getAsLong()) {
+            return;
+        }
+
+        try {
+            if (!resources.isEmpty()) {
+                spilledResources.spill(resourceEntries());
+                resources = new HashMap<>();
+                resourceBytes = 0;
+            }
+            if (ipAddresses.size() > 0) {
+                spilledIpAddresses.spill(addressEntries(ipAddresses));
+                ipAddresses.clear();
+            }
+            if (subnets.size() > 0) {
+                spilledSubnets.spill(addressEntries(subnets));
+                subnets.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot spill key tables to disk", e);
+        }
+    }
+
+    private List<Entry> resourceEntries() {
+        List<Entry> entries = new ArrayList<>(resources.size());
+        resources.forEach((key, value) -> entries.add(Entry.ofText(key, value)));
+        return entries;
+    }
+
+    private static List<Entry> addressEntries(IpCounter counter) {
+        List<Entry> entries = new ArrayList<>(counter.size());
+        for (int slot = 0; slot < counter.size(); slot++) {
+            entries.add(Entry.ofAddress(counter.highAt(slot), counter.lowAt(slot), counter.countAt(slot)));
+        }
+        return entries;
+    }
+
+    private void forEachIpAddress(Consumer<Entry> action) {
+        try {
+            spilledIpAddresses.forEach(addressEntries(ipAddresses), action);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read spilled IP addresses", e);
+        }
+    }
+
+    private void recountResourceBytes() {
+        if (memoryBudget.isPresent()) {
+            resourceBytes = Footprint.ofMap(resources);
+        }
+    }
+
+    public void merge(StatisticsAggregator other) {
+        clientNames.merge(other.clientNames);
+        other.logStatusCodes.forEach((key, value) -> logStatusCodes.merge(key, value, Integer::sum));
+        other.resources.forEach((key, value) -> resources.merge(key, value, Integer::sum));
+        other.httpMethods.forEach((key, value) -> httpMethods.merge(key, value, Integer::sum));
+        ipAddresses.merge(other.ipAddresses);
+        subnets.merge(other.subnets);
+        other.tagCounts.forEach((key, value) -> tagCounts.merge(key, value, Integer::sum));
+        other.agentFamilies.forEach((key, value) -> agentFamilies.merge(key, value, Integer::sum));
+        other.agentVersions.forEach((key, value) -> agentVersions.merge(key, value, Integer::sum));
+        other.agentDevices.forEach((key, value) -> agentDevices.merge(key, value, Integer::sum));
+        groupByAggregator.ifPresent(aggregator -> other.groupByAggregator.ifPresent(aggregator::merge));
+        rateTracker.ifPresent(tracker -> other.rateTracker.ifPresent(tracker::merge));
+        sessionizer.ifPresent(sessions -> other.sessionizer.ifPresent(sessions::merge));
+        try {
+            spilledResources.adopt(other.spilledResources);
+            spilledIpAddresses.adopt(other.spilledIpAddresses);
+            spilledSubnets.adopt(other.spilledSubnets);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot merge spilled key tables", e);
+        }
+
+        responseSizes.addAll(other.responseSizes);
+        responseSizesSorted = false;
+        totalRequests += other.totalRequests;
+        recountResourceBytes();
+        enforceMemoryBudget();
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(totalRequests);
+        writeResponseSizes(out);
+        out.writeInt(logStatusCodes.size());
+        for (Map.Entry<Integer, Integer> entry : logStatusCodes.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+        writeResources(out);
+        writeCounts(out, httpMethods);
+        writeAddresses(out, ipAddresses, spilledIpAddresses);
+        writeAddresses(out, subnets, spilledSubnets);
+        clientNames.writeTo(out);
+        writeCounts(out, tagCounts);
+        writeCounts(out, agentFamilies);
+        writeCounts(out, agentVersions);
+        writeCounts(out, agentDevices);
+        out.writeBoolean(groupByAggregator.isPresent());
+        if (groupByAggregator.isPresent()) {
+            groupByAggregator.orElseThrow().writeTo(out);
+        }
+        out.writeBoolean(rateTracker.isPresent());
+        if (rateTracker.isPresent()) {
+            rateTracker.orElseThrow().writeTo(out);
+        }
+        out.writeBoolean(sessionizer.isPresent());
+        if (sessionizer.isPresent()) {
+            sessionizer.orElseThrow().writeTo(out);
+        }
+    }
+
+    public void mergeFrom(DataInput in) throws IOException {
+        totalRequests += in.readInt();
+        readResponseSizes(in);
+        int statusCodes = in.readInt();
+        for (int i = 0; i < statusCodes; i++) {
+            logStatusCodes.merge(in.readInt(), in.readInt(), Integer::sum);
+        }
+        readCounts(in, resources);
+        recountResourceBytes();
+        readCounts(in, httpMethods);
+        ipAddresses.mergeFrom(in);
+        enforceMemoryBudget();
+        subnets.mergeFrom(in);
+        enforceMemoryBudget();
+        clientNames.mergeFrom(in);
+        readCounts(in, tagCounts);
+        readCounts(in, agentFamilies);
+        readCounts(in, agentVersions);
+        readCounts(in, agentDevices);
+        if (in.readBoolean() != groupByAggregator.isPresent()) {
+            throw new IOException("Group-by data does not match the --group-by option");
+        }
+        if (groupByAggregator.isPresent()) {
+            groupByAggregator.orElseThrow().mergeFrom(in);
+        }
+        if (in.readBoolean() != rateTracker.isPresent()) {
+            throw new IOException("Rate data does not match the --rate-limit option");
+        }
+        if (rateTracker.isPresent()) {
+            rateTracker.orElseThrow().mergeFrom(in);
+        }
+        if (in.readBoolean() != sessionizer.isPresent()) {
+            throw new IOException("Session data does not match the --sessions option");
+        }
+        if (sessionizer.isPresent()) {
+            sessionizer.orElseThrow().mergeFrom(in);
+        }
+    }
+
+    private void writeResponseSizes(DataOutput out) throws IOException {
+        if (!responseSizesSorted) {
+            Collections.sort(responseSizes);
+            responseSizesSorted = true;
+        }
+
+        IntArrayList runs = new IntArrayList();
+        for (int size : responseSizes) {
+            if (runs.isEmpty() || runs.getInt(runs.size() - 2) != size) {
+                runs.add(size);
+                runs.add(1);
+            } else {
+                runs.set(runs.size() - 1, runs.getInt(runs.size() - 1) + 1);
+            }
+        }
+        out.writeInt(runs.size() / 2);
+        for (int i = 0; i < runs.size(); i++) {
+            out.writeInt(runs.getInt(i));
+        }
+    }
+
+    private void readResponseSizes(DataInput in) throws IOException {
+        int runs = in.readInt();
+        for (int i = 0; i < runs; i++) {
+            int size = in.readInt();
+            responseSizes.addAll(Collections.nCopies(in.readInt(), size));
+        }
+        responseSizesSorted = false;
+    }
+
+    private void writeResources(DataOutput out) throws IOException {
+        if (spilledResources.isEmpty()) {
+            writeCounts(out, resources);
+        } else {
+            out.writeInt(spilledResources.distinct(resourceEntries()));
+            writeSpilled(spilledResources, resourceEntries(), entry -> {
+                out.writeUTF(entry.text());
+                out.writeInt(Math.toIntExact(entry.count()));
+            });
+        }
+    }
+
+    private static void writeAddresses(DataOutput out, IpCounter counter, SpilledCounts spilled) throws IOException {
+        if (spilled.isEmpty()) {
+            counter.writeTo(out);
+        } else {
+            out.writeInt(spilled.distinct(addressEntries(counter)));
+            writeSpilled(spilled, addressEntries(counter), entry -> {
+                out.writeLong(entry.high());
+                out.writeLong(entry.low());
+                out.writeLong(entry.count());
+            });
+        }
+    }
+
+    private static void writeSpilled(SpilledCounts spilled, List<Entry> memory, EntryWriter writer)
+        throws IOException {
+        try {
+            spilled.forEach(memory, entry -> {
+                try {
+                    writer.write(entry);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface EntryWriter {
+        void write(Entry entry) throws IOException;
+    }
+
+    private static void writeCounts(DataOutput out, Map<String, Integer> counts) throws IOException {
+        out.writeInt(counts.size());
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    private static void readCounts(DataInput in, Map<String, Integer> counts) throws IOException {
+        int entries = in.readInt();
+        for (int i = 0; i < entries; i++) {
+            counts.merge(in.readUTF(), in.readInt(), Integer::sum);
+        }
+    }
+
+    public void applySampling(SampleEstimator estimator) {
+        double factor = 1 / estimator.rate();
+        scaleCounts(logStatusCodes, factor);
+        scaleCounts(resources, factor);
+        scaleCounts(httpMethods, factor);
+        ipAddresses.scale(factor);
+        spilledResources.scale(factor);
+        spilledIpAddresses.scale(factor);
+        subnets.scale(factor);
+        spilledSubnets.scale(factor);
+        scaleCounts(tagCounts, factor);
+        scaleCounts(agentFamilies, factor);
+        scaleCounts(agentVersions, factor);
+        scaleCounts(agentDevices, factor);
+        groupByAggregator.ifPresent(aggregator -> aggregator.scale(factor));
+
+        totalRequests = (int) Math.round(totalRequests * factor);
+        sampleEstimator = Optional.of(estimator);
+    }
+
+    private <T> void scaleCounts(Map<T, Integer> counts, double factor) {
+        counts.replaceAll((key, value) -> (int) Math.round(value * factor));
+    }
+
+    private void addTags(ListMatcher matcher, long mask) {
+        long remaining = mask;
+        while (remaining != 0) {
+            String label = matcher.labels().get(Long.numberOfTrailingZeros(remaining));
+            tagCounts.merge(label.substring(ListMatcher.TAG_PREFIX.length()), 1, Integer::sum);
+            remaining &= remaining - 1;
+        }
+    }
+
+    private void addAgent(AgentClass agent) {
+        agentFamilies.merge(agent.family().familyName(), 1, Integer::sum);
+        agentVersions.merge(agent.label(), 1, Integer::sum);
+        if (agent.family() == AgentFamily.BROWSER) {
+            agentDevices.merge(agent.device(), 1, Integer::sum);
+        }
     }
 
     private void addStatusCode(int statusCode) {
@@ -43,15 +471,19 @@ public class StatisticsAggregator {
     }
 
     private void addResource(String resource) {
-        resources.put(resource, resources.getOrDefault(resource, 0) + 1);
+        Integer count = resources.put(resource, resources.getOrDefault(resource, 0) + 1);
+        if (count == null && memoryBudget.isPresent()) {
+            resourceBytes += Footprint.ofEntry(resource);
+        }
     }
 
     private void addHttpMethod(String httpMethod) {
         httpMethods.put(httpMethod, httpMethods.getOrDefault(httpMethod, 0) + 1);
     }
 
-    private void addIpAddress(String ipAddress) {
-        ipAddresses.put(ipAddress, ipAddresses.getOrDefault(ipAddress, 0) + 1);
+    private void addIpAddress(long high, long low) {
+        ipAddresses.increment(high, low);
+        subnets.increment(high, low);
     }
 
     public int getPercentileResponseSize(int percentile) {
@@ -59,7 +491,10 @@ public class StatisticsAggregator {
             return 0;
         }
 
-        Collections.sort(responseSizes);
+        if (!responseSizesSorted) {
+            Collections.sort(responseSizes);
+            responseSizesSorted = true;
+        }
         int index = (int) (Math.ceil((percentile / PERCENT_BASE) * responseSizes.size()) - 1);
         return responseSizes.get(index);
     }
@@ -73,8 +508,37 @@ public class StatisticsAggregator {
         return (int) Math.round(average);
     }
 
+    public Map<String, Long> getFootprint() {
+        Map<String, Long> footprint = new LinkedHashMap<>();
+        footprint.put("responseSizes", Footprint.ofBoxedList(responseSizes.size()));
+        footprint.put("statusCodes", Footprint.ofMap(logStatusCodes));
+        footprint.put("resources", Footprint.ofMap(resources));
+        footprint.put("httpMethods", Footprint.ofMap(httpMethods));
+        footprint.put("ipAddresses", ipAddresses.footprintBytes());
+        footprint.put("subnets", subnets.footprintBytes());
+        if (clientNames.size() > 0) {
+            footprint.put("clientNames", clientNames.footprintBytes());
+        }
+        footprint.put("tags", Footprint.ofMap(tagCounts));
+        if (agentClassifier.isPresent()) {
+            footprint.put("agents", Footprint.ofMap(agentFamilies) + Footprint.ofMap(agentVersions)
+                + Footprint.ofMap(agentDevices));
+        }
+        rateTracker.ifPresent(tracker -> footprint.put("rateTracker", tracker.footprintBytes()));
+        sessionizer.ifPresent(sessions -> footprint.put("sessions", sessions.footprintBytes()));
+        return footprint;
+    }
+
     public Map<String, Integer> getTopResources(int count) {
-        return getTopEntries(resources, count);
+        if (spilledResources.isEmpty()) {
+            return getTopEntries(resources, count);
+        }
+
+        Map<String, Integer> top = new LinkedHashMap<>();
+        for (Entry entry : topSpilled(spilledResources, resourceEntries(), count)) {
+            top.put(entry.text(), (int) entry.count());
+        }
+        return top;
     }
 
     public Map<Integer, Integer> getTopStatusCodes(int count) {
@@ -86,7 +550,88 @@ public class StatisticsAggregator {
     }
 
     public Map<String, Integer> getTopIpAddresses(int count) {
-        return getTopEntries(ipAddresses, count);
+        if (spilledIpAddresses.isEmpty()) {
+            return ipAddresses.getTopEntries(count);
+        }
+
+        Map<String, Integer> top = new LinkedHashMap<>();
+        for (Entry entry : topSpilled(spilledIpAddresses, addressEntries(ipAddresses), count)) {
+            top.put(clientNames.format(entry.high(), entry.low()), (int) entry.count());
+        }
+        return top;
+    }
+
+    private static List<Entry> topSpilled(SpilledCounts spilled, List<Entry> memory, int count) {
+        try {
+            return spilled.top(memory, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read spilled key tables", e);
+        }
+    }
+
+    public Map<String, Integer> getTopSubnets(int count) {
+        if (spilledSubnets.isEmpty()) {
+            return subnets.getTopEntries(count);
+        }
+
+        Map<String, Integer> top = new LinkedHashMap<>();
+        for (Entry entry : topSpilled(spilledSubnets, addressEntries(subnets), count)) {
+            top.put(subnets.format(entry.high(), entry.low()), (int) entry.count());
+        }
+        return top;
+    }
+
+    public Map<String, Integer> getTopTags(int count) {
+        return getTopEntries(tagCounts, count);
+    }
+
+    public Map<String, Integer> getTopCountries(int count) {
+        GeoIndex index = geoIndex.orElseThrow();
+        return getTopEntries(countByRange(index, index::country), count);
+    }
+
+    public Map<String, Integer> getTopAsns(int count) {
+        GeoIndex index = geoIndex.orElseThrow();
+        return getTopEntries(countByRange(index, range -> asnLabel(index, range)), count);
+    }
+
+    public static String asnLabel(GeoIndex index, int range) {
+        int asn = index.asn(range);
+        String organization = index.organization(range);
+        if (asn == 0) {
+            return UNKNOWN_GEO;
+        }
+        return organization.isEmpty() ? "AS" + asn : "AS" + asn + ' ' + organization;
+    }
+
+    private Map<String, Integer> countByRange(GeoIndex index, IntFunction<String> key) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (spilledIpAddresses.isEmpty()) {
+            for (int slot = 0; slot < ipAddresses.size(); slot++) {
+                addRangeCount(counts, index.find(ipAddresses.highAt(slot), ipAddresses.lowAt(slot)), key,
+                    ipAddresses.countAt(slot));
+            }
+        } else {
+            forEachIpAddress(entry -> addRangeCount(counts, index.find(entry.high(), entry.low()), key, entry.count()));
+        }
+        return counts;
+    }
+
+    private static void addRangeCount(Map<String, Integer> counts, int range, IntFunction<String> key, long count) {
+        String value = range == GeoIndex.NOT_FOUND ? UNKNOWN_GEO : key.apply(range);
+        counts.merge(value.isEmpty() ? UNKNOWN_GEO : value, (int) count, Integer::sum);
+    }
+
+    public Map<String, Integer> getTopAgentFamilies(int count) {
+        return getTopEntries(agentFamilies, count);
+    }
+
+    public Map<String, Integer> getTopAgentVersions(int count) {
+        return getTopEntries(agentVersions, count);
+    }
+
+    public Map<String, Integer> getTopAgentDevices(int count) {
+        return getTopEntries(agentDevices, count);
     }
 
     private <T, V extends Comparable<V>> Map<T, V> getTopEntries(Map<T, V> map, int topCount) {
@@ -0,0 +1,47 @@
+package analyzer.analyzer;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ValueDictionary {
+    public static final int NOT_FOUND = -1;
+    private final Object2IntOpenHashMap<String> ids;
+    private final List<String> values;
+    private final int maxSize;
+
+    public ValueDictionary() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public ValueDictionary(int maxSize) {
+        this.ids = new Object2IntOpenHashMap<>();
+        this.ids.defaultReturnValue(NOT_FOUND);
+        this.values = new ArrayList<>();
+        this.maxSize = maxSize;
+    }
+
+    public int idOf(String value) {
+        int id = ids.getInt(value);
+        if (id != NOT_FOUND || values.size() >= maxSize) {
+            return id;
+        }
+
+        id = values.size();
+        ids.put(value, id);
+        values.add(value);
+        return id;
+    }
+
+    public int find(String value) {
+        return ids.getInt(value);
+    }
+
+    public String valueOf(int id) {
+        return values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,113 @@
+package analyzer.cache;
+
+import analyzer.analyzer.GroupByField;
+import analyzer.config.AnalyzerConfig;
+import analyzer.route.RouteRules;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class CacheKey {
+    static final int FORMAT_VERSION = 2;
+    private static final char SEPARATOR = '\n';
+
+    public static Optional<String> of(AnalyzerConfig config) {
+        if (config.urlString().isPresent() || config.profile() || config.files().isEmpty()) {
+            return Optional.empty();
+        }
+
+        StringBuilder key = parameterText(config);
+        try {
+            if (config.filterFile().isPresent()) {
+                key.append("filterFile=").append(fingerprint(config.filterFile().orElseThrow())).append(SEPARATOR);
+            }
+            if (config.routeFile().isPresent()) {
+                key.append("routeFile=").append(fingerprint(config.routeFile().orElseThrow())).append(SEPARATOR);
+            }
+            if (config.agentRulesFile().isPresent()) {
+                key.append("agentRules=").append(fingerprint(config.agentRulesFile().orElseThrow()))
+                    .append(SEPARATOR);
+            }
+            if (config.geoDatabase().isPresent()) {
+                key.append("geo=").append(fingerprint(config.geoDatabase().orElseThrow())).append(SEPARATOR);
+            }
+            for (Path file : config.files()) {
+                key.append("file=").append(fingerprint(file)).append(SEPARATOR);
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        return Optional.of(sha256(key.toString()));
+    }
+
+    public static String ofParameters(AnalyzerConfig config) {
+        StringBuilder key = parameterText(config);
+        append(key, "filterFile", config.filterFile().map(Path::getFileName));
+        append(key, "routeFile", config.routeFile().map(Path::getFileName));
+        append(key, "agentRules", config.agentRulesFile().map(Path::getFileName));
+        return sha256(key.toString());
+    }
+
+    private static StringBuilder parameterText(AnalyzerConfig config) {
+        StringBuilder key = new StringBuilder().append("v").append(FORMAT_VERSION).append(SEPARATOR);
+        append(key, "from", config.from());
+        append(key, "to", config.to());
+        append(key, "filterField", config.filterField());
+        append(key, "filterValue", config.filterValue());
+        append(key, "filter", config.filterExpression());
+        append(key, "groupBy", Optional.of(config.groupBy().stream()
+            .map(GroupByField::fieldName)
+            .collect(Collectors.joining(","))));
+        append(key, "sample", config.sampleRate().isPresent()
+            ? Optional.of(config.sampleRate().getAsDouble() + "@" + config.sampleSeed())
+            : Optional.empty());
+        if (!config.rateLimits().isEmpty()) {
+            append(key, "rateLimits", Optional.of(config.rateLimits() + "@" + config.rateKeys()));
+        }
+        if (config.routeRules().isPresent()) {
+            append(key, "routes", config.routeRules().map(RouteRules::queryMode));
+        }
+        if (config.agentClassifier().isPresent()) {
+            append(key, "agents", Optional.of(true));
+        }
+        if (config.mergeTolerance().isPresent()) {
+            append(key, "merge", Optional.of(config.mergeTolerance().getAsInt()));
+        }
+        if (config.sessionTimeout().isPresent()) {
+            append(key, "sessions", Optional.of(config.sessionTimeout().getAsInt()));
+        }
+        return key;
+    }
+
+    public static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String fingerprint(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return String.join("|", List.of(
+            file.toAbsolutePath().normalize().toString(),
+            String.valueOf(attributes.size()),
+            String.valueOf(attributes.lastModifiedTime().toMillis()),
+            String.valueOf(attributes.fileKey())));
+    }
+
+    private static void append(StringBuilder key, String name, Optional<?> value) {
+        key.append(name).append('=').append(value.map(Object::toString).orElse("")).append(SEPARATOR);
+    }
+}
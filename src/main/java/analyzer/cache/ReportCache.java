@@ -0,0 +1,125 @@
+package analyzer.cache;
+
+import analyzer.output.ReportModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+public class ReportCache {
+    public static final long DEFAULT_MEMORY_CELLS = 1_000_000;
+    public static final long DEFAULT_DISK_BYTES = 256L * 1024 * 1024;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(7);
+    private static final Logger LOGGER = Logger.getLogger(ReportCache.class.getName());
+    private static final String SUFFIX = ".json";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Cache<String, ReportModel> memory;
+    private final Optional<Path> directory;
+    private final long maxDiskBytes;
+    private final Duration maxAge;
+
+    public ReportCache(Optional<Path> directory) {
+        this(directory, DEFAULT_MEMORY_CELLS, DEFAULT_DISK_BYTES, DEFAULT_MAX_AGE);
+    }
+
+    public ReportCache(Optional<Path> directory, long maxMemoryCells, long maxDiskBytes, Duration maxAge) {
+        this.memory = Caffeine.newBuilder()
+            .maximumWeight(maxMemoryCells)
+            .weigher((String key, ReportModel model) -> cellCount(model))
+            .expireAfterWrite(maxAge)
+            .build();
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.maxAge = maxAge;
+    }
+
+    public Optional<ReportModel> get(String key) {
+        ReportModel model = memory.getIfPresent(key);
+        if (model != null) {
+            return Optional.of(model);
+        }
+
+        Optional<ReportModel> stored = directory.flatMap(dir -> read(dir.resolve(key + SUFFIX)));
+        stored.ifPresent(value -> memory.put(key, value));
+        return stored;
+    }
+
+    public void put(String key, ReportModel model) {
+        memory.put(key, model);
+        directory.ifPresent(dir -> write(dir, key, model));
+    }
+
+    private Optional<ReportModel> read(Path file) {
+        try {
+            if (!Files.exists(file) || isExpired(Files.getLastModifiedTime(file))) {
+                return Optional.empty();
+            }
+            return Optional.of(MAPPER.readValue(file.toFile(), ReportModel.class));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable cache entry " + file + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void write(Path dir, String key, ReportModel model) {
+        try {
+            Files.createDirectories(dir);
+            Path partial = Files.createTempFile(dir, key, ".tmp");
+            MAPPER.writeValue(partial.toFile(), model);
+            Path entry = dir.resolve(key + SUFFIX);
+            Files.move(partial, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            evict(dir, entry);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write cache entry to " + dir + ": " + e.getMessage());
+        }
+    }
+
+    private void evict(Path dir, Path written) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(dir)) {
+            entries = files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                .filter(file -> !file.equals(written))
+                .sorted(Comparator.comparing(ReportCache::lastModified).reversed())
+                .toList();
+        }
+
+        long total = Files.size(written);
+        for (Path entry : entries) {
+            total += Files.size(entry);
+            if (total > maxDiskBytes || isExpired(lastModified(entry))) {
+                Files.deleteIfExists(entry);
+            }
+        }
+    }
+
+    private boolean isExpired(FileTime modified) {
+        return modified.toInstant().isBefore(Instant.now().minus(maxAge));
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static int cellCount(ReportModel model) {
+        return model.sections().stream()
+            .mapToInt(section -> section.rows().stream().mapToInt(List::size).sum() + 1)
+            .sum();
+    }
+}
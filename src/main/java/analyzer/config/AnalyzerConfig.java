@@ -1,83 +1,31 @@
 package analyzer.config;
 
+import analyzer.agent.AgentClassifier;
+import analyzer.analyzer.GroupByField;
+import analyzer.filter.FilterList;
+import analyzer.geo.GeoIndex;
 import analyzer.output.OutputFormat;
+import analyzer.profile.PipelineProfile;
+import analyzer.rate.RateLimit;
+import analyzer.rate.RateTracker;
+import analyzer.route.RouteRules;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import lombok.Getter;
+import lombok.Setter;
 
 @Getter
 public class AnalyzerConfig {
-    private static final Map<Integer, String> STATUS_CODES = Map.<Integer, String>ofEntries(
-        Map.entry(100, "Continue"),
-        Map.entry(101, "Switching Protocols"),
-        Map.entry(102, "Processing"),
-        Map.entry(103, "Early Hints"),
-        Map.entry(200, "OK"),
-        Map.entry(201, "Created"),
-        Map.entry(202, "Accepted"),
-        Map.entry(203, "Non-Authoritative Information"),
-        Map.entry(204, "No Content"),
-        Map.entry(205, "Reset Content"),
-        Map.entry(206, "Partial Content"),
-        Map.entry(207, "Multi-Status"),
-        Map.entry(208, "Already Reported"),
-        Map.entry(226, "IM Used"),
-        Map.entry(300, "Multiple Choices"),
-        Map.entry(301, "Moved Permanently"),
-        Map.entry(302, "Found"),
-        Map.entry(303, "See Other"),
-        Map.entry(304, "Not Modified"),
-        Map.entry(305, "Use Proxy"),
-        Map.entry(306, "Unused"),
-        Map.entry(307, "Temporary Redirect"),
-        Map.entry(308, "Permanent Redirect"),
-        Map.entry(400, "Bad Request"),
-        Map.entry(401, "Unauthorized"),
-        Map.entry(402, "Payment Required"),
-        Map.entry(403, "Forbidden"),
-        Map.entry(404, "Not Found"),
-        Map.entry(405, "Method Not Allowed"),
-        Map.entry(406, "Not Acceptable"),
-        Map.entry(407, "Proxy Authentication Required"),
-        Map.entry(408, "Request Timeout"),
-        Map.entry(409, "Conflict"),
-        Map.entry(410, "Gone"),
-        Map.entry(411, "Length Required"),
-        Map.entry(412, "Precondition Failed"),
-        Map.entry(413, "Content Too Large"),
-        Map.entry(414, "URI Too Long"),
-        Map.entry(415, "Unsupported Media Type"),
-        Map.entry(416, "Range Not Satisfiable"),
-        Map.entry(417, "Expectation Failed"),
-        Map.entry(418, "I'm a teapot"),
-        Map.entry(421, "Misdirected Request"),
-        Map.entry(422, "Unprocessable Content"),
-        Map.entry(423, "Locked"),
-        Map.entry(424, "Failed Dependency"),
-        Map.entry(425, "Too Early"),
-        Map.entry(426, "Upgrade Required"),
-        Map.entry(428, "Precondition Required"),
-        Map.entry(429, "Too Many Requests"),
-        Map.entry(431, "Request Header Fields Too Large"),
-        Map.entry(451, "Unavailable For Legal Reasons"),
-        Map.entry(500, "Internal Server Error"),
-        Map.entry(501, "Not Implemented"),
-        Map.entry(502, "Bad Gateway"),
-        Map.entry(503, "Service Unavailable"),
-        Map.entry(504, "Gateway Timeout"),
-        Map.entry(505, "HTTP Version Not Supported"),
-        Map.entry(506, "Variant Also Negotiates"),
-        Map.entry(507, "Insufficient Storage"),
-        Map.entry(508, "Loop Detected"),
-        Map.entry(510, "Not Extended"),
-        Map.entry(511, "Network Authentication Required"));
-
     private static final Path MARKDOWN_PATH = Path.of("src/main/resources/statistics.md");
     private static final Path ADOC_PATH = Path.of("src/main/resources/statistics.adoc");
+    private static final Path JSON_PATH = Path.of("src/main/resources/statistics.json");
     private static final int MAX_LENGTH_URL = 30;
 
     private final Optional<LocalDateTime> from;
@@ -87,6 +35,29 @@ public class AnalyzerConfig {
     private final Optional<String> urlString;
     private final Optional<String> filterField;
     private final Optional<String> filterValue;
+    @Setter private Optional<String> filterExpression = Optional.empty();
+    @Setter private Optional<FilterList> filterList = Optional.empty();
+    @Setter private Optional<Path> filterFile = Optional.empty();
+    @Setter private boolean useIndex;
+    @Setter private List<GroupByField> groupBy = List.of();
+    @Setter private OptionalDouble sampleRate = OptionalDouble.empty();
+    @Setter private long sampleSeed;
+    @Setter private boolean profile;
+    @Setter private PipelineProfile pipelineProfile = new PipelineProfile();
+    @Setter private OptionalInt metricsPort = OptionalInt.empty();
+    @Setter private Optional<Path> cacheDirectory = Optional.empty();
+    @Setter private Optional<Path> outputFile = Optional.empty();
+    @Setter private List<RateLimit> rateLimits = List.of();
+    @Setter private int rateKeys = RateTracker.DEFAULT_MAX_KEYS;
+    @Setter private OptionalInt sessionTimeout = OptionalInt.empty();
+    @Setter private Optional<RouteRules> routeRules = Optional.empty();
+    @Setter private Optional<Path> routeFile = Optional.empty();
+    @Setter private Optional<AgentClassifier> agentClassifier = Optional.empty();
+    @Setter private Optional<Path> agentRulesFile = Optional.empty();
+    @Setter private Optional<GeoIndex> geoIndex = Optional.empty();
+    @Setter private Optional<Path> geoDatabase = Optional.empty();
+    @Setter private OptionalInt mergeTolerance = OptionalInt.empty();
+    @Setter private OptionalLong memoryBudget = OptionalLong.empty();
 
     public AnalyzerConfig(
         Optional<LocalDateTime> from,
@@ -107,15 +78,20 @@ public class AnalyzerConfig {
     }
 
     public Path getOutputPath() {
+        if (outputFile.isPresent()) {
+            return outputFile.orElseThrow();
+        }
+
         return switch (format) {
             case MARKDOWN -> MARKDOWN_PATH;
             case ADOC -> ADOC_PATH;
+            case JSON -> JSON_PATH;
             default -> MARKDOWN_PATH;
         };
     }
 
     public String getStatusDescription(int code) {
-        return STATUS_CODES.getOrDefault(code, "Unknown Status");
+        return StatusCodes.DESCRIPTIONS.getOrDefault(code, "Unknown Status");
     }
 
     public String getDataSourceAsString() {
@@ -135,4 +111,71 @@ public class AnalyzerConfig {
 
         return "-";
     }
+
+    private static final class StatusCodes {
+        private static final Map<Integer, String> DESCRIPTIONS = Map.<Integer, String>ofEntries(
+            Map.entry(100, "Continue"),
+            Map.entry(101, "Switching Protocols"),
+            Map.entry(102, "Processing"),
+            Map.entry(103, "Early Hints"),
+            Map.entry(200, "OK"),
+            Map.entry(201, "Created"),
+            Map.entry(202, "Accepted"),
+            Map.entry(203, "Non-Authoritative Information"),
+            Map.entry(204, "No Content"),
+            Map.entry(205, "Reset Content"),
+            Map.entry(206, "Partial Content"),
+            Map.entry(207, "Multi-Status"),
+            Map.entry(208, "Already Reported"),
+            Map.entry(226, "IM Used"),
+            Map.entry(300, "Multiple Choices"),
+            Map.entry(301, "Moved Permanently"),
+            Map.entry(302, "Found"),
+            Map.entry(303, "See Other"),
+            Map.entry(304, "Not Modified"),
+            Map.entry(305, "Use Proxy"),
+            Map.entry(306, "Unused"),
+            Map.entry(307, "Temporary Redirect"),
+            Map.entry(308, "Permanent Redirect"),
+            Map.entry(400, "Bad Request"),
+            Map.entry(401, "Unauthorized"),
+            Map.entry(402, "Payment Required"),
+            Map.entry(403, "Forbidden"),
+            Map.entry(404, "Not Found"),
+            Map.entry(405, "Method Not Allowed"),
+            Map.entry(406, "Not Acceptable"),
+            Map.entry(407, "Proxy Authentication Required"),
+            Map.entry(408, "Request Timeout"),
+            Map.entry(409, "Conflict"),
+            Map.entry(410, "Gone"),
+            Map.entry(411, "Length Required"),
+            Map.entry(412, "Precondition Failed"),
+            Map.entry(413, "Content Too Large"),
+            Map.entry(414, "URI Too Long"),
+            Map.entry(415, "Unsupported Media Type"),
+            Map.entry(416, "Range Not Satisfiable"),
+            Map.entry(417, "Expectation Failed"),
+            Map.entry(418, "I'm a teapot"),
+            Map.entry(421, "Misdirected Request"),
+            Map.entry(422, "Unprocessable Content"),
+            Map.entry(423, "Locked"),
+            Map.entry(424, "Failed Dependency"),
+            Map.entry(425, "Too Early"),
+            Map.entry(426, "Upgrade Required"),
+            Map.entry(428, "Precondition Required"),
+            Map.entry(429, "Too Many Requests"),
+            Map.entry(431, "Request Header Fields Too Large"),
+            Map.entry(451, "Unavailable For Legal Reasons"),
+            Map.entry(500, "Internal Server Error"),
+            Map.entry(501, "Not Implemented"),
+            Map.entry(502, "Bad Gateway"),
+            Map.entry(503, "Service Unavailable"),
+            Map.entry(504, "Gateway Timeout"),
+            Map.entry(505, "HTTP Version Not Supported"),
+            Map.entry(506, "Variant Also Negotiates"),
+            Map.entry(507, "Insufficient Storage"),
+            Map.entry(508, "Loop Detected"),
+            Map.entry(510, "Not Extended"),
+            Map.entry(511, "Network Authentication Required"));
+    }
 }
@@ -0,0 +1,69 @@
+package analyzer.config;
+
+import analyzer.output.OutputFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class ArgumentParsers {
+    private static final Logger LOGGER = Logger.getLogger(ArgumentParsers.class.getName());
+    private static final String BYTE_UNITS = "kmg";
+    private static final int BITS_PER_UNIT = 10;
+
+    public static Optional<LocalDateTime> parseDate(Optional<String> dateString) {
+        if (dateString.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(LocalDateTime.parse(dateString.orElseThrow(), DateTimeFormatter.ISO_DATE_TIME));
+        } catch (DateTimeParseException firstException) {
+            try {
+                return Optional.of(
+                    LocalDate.parse(dateString.orElseThrow(), DateTimeFormatter.ISO_DATE).atStartOfDay());
+            } catch (DateTimeParseException secondException) {
+                LOGGER.log(Level.WARNING, "Invalid date format: " + dateString);
+                return Optional.empty();
+            }
+        }
+    }
+
+    public static OptionalLong parseByteSize(Optional<String> sizeString) {
+        if (sizeString.isEmpty()) {
+            return OptionalLong.empty();
+        }
+
+        String text = sizeString.orElseThrow().strip().toLowerCase(Locale.ROOT);
+        int unit = text.isEmpty() ? -1 : BYTE_UNITS.indexOf(text.charAt(text.length() - 1));
+        int shift = unit < 0 ? 0 : BITS_PER_UNIT * (unit + 1);
+        long value;
+        try {
+            value = Long.parseLong(unit < 0 ? text : text.substring(0, text.length() - 1));
+        } catch (NumberFormatException e) {
+            value = -1;
+        }
+        if (value > 0 && value <= Long.MAX_VALUE >> shift) {
+            return OptionalLong.of(value << shift);
+        }
+
+        LOGGER.log(Level.WARNING, "Invalid size: " + sizeString.orElseThrow());
+        return OptionalLong.empty();
+    }
+
+    public static OutputFormat parseOutputFormat(String format) {
+        try {
+            return OutputFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Invalid output format: " + format);
+            return OutputFormat.MARKDOWN;
+        }
+    }
+}
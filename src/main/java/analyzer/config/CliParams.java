@@ -2,6 +2,8 @@ package analyzer.config;
 
 import com.beust.jcommander.Parameter;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
 
 public class CliParams {
 
@@ -14,7 +16,7 @@ public class CliParams {
     @Parameter(names = {"--to"}, description = "End date in yyyy-MM-dd format")
     private String to;
 
-    @Parameter(names = {"--format"}, description = "Output format (markdown or adoc)")
+    @Parameter(names = {"--format"}, description = "Output format (markdown, adoc or json)")
     private String format;
 
     @Parameter(names = {"--filter-field"}, description = "The field to filter logs by ('agent', 'method'...)")
@@ -23,6 +25,93 @@ public class CliParams {
     @Parameter(names = {"--filter-value"}, description = "The value to filter logs for ('Mozilla*', 'GET'...)")
     private String filterValue;
 
+    @Parameter(names = {"--filter"}, description = "Filter expression (\"status>=500 && !agent~'*bot*'\"...)")
+    private String filter;
+
+    @Parameter(names = {"--filter-file"}, description = "File with include/exclude/tag:<name> rules")
+    private String filterFile;
+
+    @Parameter(names = {"--use-index"}, description = "Build block index sidecars and read only matching blocks")
+    private boolean useIndex;
+
+    @Parameter(names = {"--group-by"}, description = "Fields to group by ('status,resource', 'ip,hour'...)")
+    private String groupBy;
+
+    @Parameter(names = {"--sample"}, description = "Fraction of file blocks to read (0 < rate < 1)")
+    private Double sample;
+
+    @Parameter(names = {"--seed"}, description = "Random seed for --sample")
+    private long seed;
+
+    @Parameter(names = {"--profile"}, description = "Append a per-stage timing and memory breakdown to the report")
+    private boolean profile;
+
+    @Parameter(names = {"--metrics-port"}, description = "Serve Prometheus metrics on this port while analyzing")
+    private Integer metricsPort;
+
+    @Parameter(names = {"--cache-dir"}, description = "Directory caching reports of identical earlier runs")
+    private String cacheDirectory;
+
+    @Parameter(names = {"--serve"}, description = "Load the logs once and answer report queries on this port")
+    private Integer servePort;
+
+    @Parameter(names = {"--shard"}, description = "Analyze only shard <index>/<count> of the files ('0/4'...)")
+    private String shard;
+
+    @Parameter(names = {"--shard-by"}, description = "How files are assigned to shards (index or hash)")
+    private String shardBy;
+
+    @Parameter(names = {"--partial-output"}, description = "File the --shard partial aggregate is written to")
+    private String partialOutput;
+
+    @Parameter(names = {"--workers"}, description = "Split the files across this many local worker processes")
+    private Integer workers;
+
+    @Parameter(names = {"--merge-partials"}, description = "Merge the partial aggregates matched by --path")
+    private boolean mergePartials;
+
+    @Parameter(names = {"--report-spec"}, description = "File listing reports (output, format, range, filters)")
+    private String reportSpec;
+
+    @Parameter(names = {"--rate-limit"}, description = "Per-client request limits to check ('100/10s,600/1m'...)")
+    private String rateLimit;
+
+    @Parameter(names = {"--rate-keys"}, description = "Clients tracked exactly before falling back to count-min")
+    private Integer rateKeys;
+
+    @Parameter(names = {"--sessions"}, description = "Report sessions per IP and user agent")
+    private boolean sessions;
+
+    @Parameter(names = {"--session-timeout"}, description = "Minutes of inactivity that end a session (30)")
+    private Integer sessionTimeout;
+
+    @Parameter(names = {"--normalize-routes"}, description = "Replace ids, UUIDs and hashes in resources")
+    private boolean normalizeRoutes;
+
+    @Parameter(names = {"--route-file"}, description = "File with route patterns ('/users/{id}/orders'...)")
+    private String routeFile;
+
+    @Parameter(names = {"--query-keys"}, description = "Keep sorted query parameter names in normalized routes")
+    private boolean queryKeys;
+
+    @Parameter(names = {"--agents"}, description = "Break requests down by user-agent family, version and device")
+    private boolean agents;
+
+    @Parameter(names = {"--agent-rules"}, description = "File with user-agent rules ('<family> <name> <regex>')")
+    private String agentRules;
+
+    @Parameter(names = {"--geo-db"}, description = "CSV or compiled range database for country/ASN tables")
+    private String geoDatabase;
+
+    @Parameter(names = {"--merge-by-time"}, description = "Merge the files in timestamp order instead of one by one")
+    private boolean mergeByTime;
+
+    @Parameter(names = {"--merge-tolerance"}, description = "Seconds a line may be out of order within a file (0)")
+    private Integer mergeTolerance;
+
+    @Parameter(names = {"--memory-budget"}, description = "Heap for resource and IP tables before spilling (512m, 2g)")
+    private String memoryBudget;
+
     public Optional<String> from() {
         return Optional.ofNullable(from);
     }
@@ -46,4 +135,120 @@ public class CliParams {
     public Optional<String> filterValue() {
         return Optional.ofNullable(filterValue);
     }
+
+    public boolean useIndex() {
+        return useIndex;
+    }
+
+    public Optional<String> groupBy() {
+        return Optional.ofNullable(groupBy);
+    }
+
+    public OptionalDouble sample() {
+        return sample == null ? OptionalDouble.empty() : OptionalDouble.of(sample);
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public boolean profile() {
+        return profile;
+    }
+
+    public OptionalInt metricsPort() {
+        return metricsPort == null ? OptionalInt.empty() : OptionalInt.of(metricsPort);
+    }
+
+    public OptionalInt servePort() {
+        return servePort == null ? OptionalInt.empty() : OptionalInt.of(servePort);
+    }
+
+    public Optional<String> cacheDirectory() {
+        return Optional.ofNullable(cacheDirectory);
+    }
+
+    public Optional<String> filter() {
+        return Optional.ofNullable(filter);
+    }
+
+    public Optional<String> filterFile() {
+        return Optional.ofNullable(filterFile);
+    }
+
+    public Optional<String> shard() {
+        return Optional.ofNullable(shard);
+    }
+
+    public Optional<String> shardBy() {
+        return Optional.ofNullable(shardBy);
+    }
+
+    public Optional<String> partialOutput() {
+        return Optional.ofNullable(partialOutput);
+    }
+
+    public OptionalInt workers() {
+        return workers == null ? OptionalInt.empty() : OptionalInt.of(workers);
+    }
+
+    public boolean mergePartials() {
+        return mergePartials;
+    }
+
+    public Optional<String> reportSpec() {
+        return Optional.ofNullable(reportSpec);
+    }
+
+    public Optional<String> rateLimit() {
+        return Optional.ofNullable(rateLimit);
+    }
+
+    public OptionalInt rateKeys() {
+        return rateKeys == null ? OptionalInt.empty() : OptionalInt.of(rateKeys);
+    }
+
+    public boolean sessions() {
+        return sessions;
+    }
+
+    public OptionalInt sessionTimeout() {
+        return sessionTimeout == null ? OptionalInt.empty() : OptionalInt.of(sessionTimeout);
+    }
+
+    public boolean normalizeRoutes() {
+        return normalizeRoutes;
+    }
+
+    public Optional<String> routeFile() {
+        return Optional.ofNullable(routeFile);
+    }
+
+    public boolean queryKeys() {
+        return queryKeys;
+    }
+
+    public boolean agents() {
+        return agents;
+    }
+
+    public Optional<String> agentRules() {
+        return Optional.ofNullable(agentRules);
+    }
+
+    public Optional<String> geoDatabase() {
+        return Optional.ofNullable(geoDatabase);
+    }
+
+    public boolean mergeByTime() {
+        return mergeByTime;
+    }
+
+    public OptionalInt mergeTolerance() {
+        return mergeTolerance == null ? OptionalInt.empty() : OptionalInt.of(mergeTolerance);
+    }
+
+    public Optional<String> memoryBudget() {
+        return Optional.ofNullable(memoryBudget);
+    }
 }
@@ -0,0 +1,101 @@
+package analyzer.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class ReportSpec {
+    private static final String COMMENT_PREFIX = "#";
+    private static final String OPTION_SEPARATOR = ";";
+    private static final String OUTPUT = "output";
+    private static final String FORMAT = "format";
+    private static final String FROM = "from";
+    private static final String TO = "to";
+    private static final String FILTER_FIELD = "filter-field";
+    private static final String FILTER_VALUE = "filter-value";
+    private static final String FILTER = "filter";
+    private static final Set<String> OPTIONS = Set.of(OUTPUT, FORMAT, FROM, TO, FILTER_FIELD, FILTER_VALUE, FILTER);
+
+    public static List<AnalyzerConfig> load(Path path, AnalyzerConfig defaults) throws IOException {
+        return parse(Files.readAllLines(path), defaults);
+    }
+
+    public static List<AnalyzerConfig> parse(List<String> lines, AnalyzerConfig defaults) {
+        List<AnalyzerConfig> reports = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX)) {
+                reports.add(parseReport(parseOptions(line, i + 1), i + 1, defaults));
+            }
+        }
+        return reports;
+    }
+
+    private static Map<String, String> parseOptions(String line, int lineNumber) {
+        Map<String, String> options = new HashMap<>();
+        for (String option : line.split(OPTION_SEPARATOR)) {
+            if (option.isBlank()) {
+                continue;
+            }
+            int separator = option.indexOf('=');
+            String name = separator < 0 ? option.strip() : option.substring(0, separator).strip();
+            if (separator < 0 || !OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Invalid report option at line " + lineNumber + ": " + option);
+            }
+            options.put(name, option.substring(separator + 1).strip());
+        }
+        if (!options.containsKey(OUTPUT)) {
+            throw new IllegalArgumentException("Report at line " + lineNumber + " has no " + OUTPUT + " path");
+        }
+        return options;
+    }
+
+    private static AnalyzerConfig parseReport(Map<String, String> options, int lineNumber, AnalyzerConfig defaults) {
+        return new AnalyzerConfig(
+            options.containsKey(FROM) ? parseDate(options.get(FROM), lineNumber) : defaults.from(),
+            options.containsKey(TO) ? parseDate(options.get(TO), lineNumber) : defaults.to(),
+            Optional.ofNullable(options.get(FORMAT)).map(ArgumentParsers::parseOutputFormat).orElse(defaults.format()),
+            defaults.files(),
+            defaults.urlString(),
+            Optional.ofNullable(options.get(FILTER_FIELD)).or(defaults::filterField),
+            Optional.ofNullable(options.get(FILTER_VALUE)).or(defaults::filterValue))
+            .filterExpression(Optional.ofNullable(options.get(FILTER)).or(defaults::filterExpression))
+            .filterList(defaults.filterList())
+            .filterFile(defaults.filterFile())
+            .useIndex(defaults.useIndex())
+            .groupBy(defaults.groupBy())
+            .sampleRate(defaults.sampleRate())
+            .sampleSeed(defaults.sampleSeed())
+            .pipelineProfile(defaults.pipelineProfile())
+            .cacheDirectory(defaults.cacheDirectory())
+            .rateLimits(defaults.rateLimits())
+            .rateKeys(defaults.rateKeys())
+            .sessionTimeout(defaults.sessionTimeout())
+            .routeRules(defaults.routeRules())
+            .routeFile(defaults.routeFile())
+            .agentClassifier(defaults.agentClassifier())
+            .agentRulesFile(defaults.agentRulesFile())
+            .geoIndex(defaults.geoIndex())
+            .geoDatabase(defaults.geoDatabase())
+            .mergeTolerance(defaults.mergeTolerance())
+            .memoryBudget(defaults.memoryBudget())
+            .outputFile(Optional.of(Path.of(options.get(OUTPUT))));
+    }
+
+    private static Optional<LocalDateTime> parseDate(String date, int lineNumber) {
+        Optional<LocalDateTime> parsed = ArgumentParsers.parseDate(Optional.of(date));
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Invalid date at line " + lineNumber + ": " + date);
+        }
+        return parsed;
+    }
+}
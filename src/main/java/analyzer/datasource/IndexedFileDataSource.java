@@ -0,0 +1,78 @@
+package analyzer.datasource;
+
+import analyzer.index.BlockIndex;
+import analyzer.index.BlockIndexBuilder;
+import analyzer.index.IndexedField;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+public class IndexedFileDataSource implements LogDataSource {
+    private static final Logger LOGGER = Logger.getLogger(IndexedFileDataSource.class.getName());
+    private final List<Path> files;
+    private final IndexedField field;
+    private final String value;
+    private final BlockIndexBuilder indexBuilder;
+
+    public IndexedFileDataSource(List<Path> files, IndexedField field, String value) {
+        this(files, field, value, new BlockIndexBuilder());
+    }
+
+    public IndexedFileDataSource(List<Path> files, IndexedField field, String value, BlockIndexBuilder indexBuilder) {
+        this.files = files;
+        this.field = field;
+        this.value = value;
+        this.indexBuilder = indexBuilder;
+    }
+
+    public static boolean isExactValue(String filterValue) {
+        return !filterValue.contains("*");
+    }
+
+    @Override
+    public Stream<String> getDataStream() {
+        if (files.isEmpty()) {
+            LOGGER.log(Level.WARNING, "No files provided for reading");
+            return Stream.empty();
+        }
+
+        return files.stream().flatMap(this::readMatchingBlocks);
+    }
+
+    private Stream<String> readMatchingBlocks(Path file) {
+        if (LocalFileDataSource.isCompressed(file)) {
+            return LocalFileDataSource.lines(file);
+        }
+
+        BlockIndex index;
+        try {
+            index = indexBuilder.update(file);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error indexing file " + file + ": " + e.getMessage());
+            return Stream.empty();
+        }
+
+        List<long[]> ranges = toRanges(index, index.blocksFor(field, value));
+        ranges.add(new long[] {index.indexedLength(), Long.MAX_VALUE});
+        return ranges.stream().flatMap(range -> LineRangeReader.lines(file, range[0], range[1]));
+    }
+
+    private List<long[]> toRanges(BlockIndex index, int[] blocks) {
+        List<long[]> ranges = new ArrayList<>();
+        long blockSize = index.blockSize();
+        for (int block : blocks) {
+            long start = block * blockSize;
+            long end = Math.min(start + blockSize, index.indexedLength());
+            if (!ranges.isEmpty() && ranges.getLast()[1] == start) {
+                ranges.getLast()[1] = end;
+            } else {
+                ranges.add(new long[] {start, end});
+            }
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,170 @@
+package analyzer.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.Getter;
+
+public final class LineRangeReader implements Iterator<String>, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(LineRangeReader.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_LINE_CAPACITY = 512;
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final FileChannel channel;
+    private final long end;
+    private final ByteBuffer buffer;
+    private byte[] lineBytes;
+    private long readPosition;
+    private boolean endOfFile;
+    private String nextLine;
+    private long nextLineOffset;
+    private boolean nextLineTerminated;
+    @Getter private long lineOffset;
+    @Getter private boolean lineTerminated;
+
+    public LineRangeReader(Path file, long start, long end) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.end = end;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        this.lineBytes = new byte[INITIAL_LINE_CAPACITY];
+        this.readPosition = start;
+
+        try {
+            if (start > 0 && !startsAtLineBoundary(start)) {
+                skipPartialLine();
+            }
+            advance();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static Stream<String> lines(Path file, long start, long end) {
+        try {
+            LineRangeReader reader = new LineRangeReader(file, start, end);
+            return StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::closeQuietly);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error processing file " + file + ": " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    public long position() {
+        return readPosition - buffer.remaining();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public String next() {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+
+        String line = nextLine;
+        lineOffset = nextLineOffset;
+        lineTerminated = nextLineTerminated;
+        try {
+            advance();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to close channel: " + e.getMessage());
+        }
+    }
+
+    private boolean startsAtLineBoundary(long start) throws IOException {
+        ByteBuffer previous = ByteBuffer.allocate(1);
+        return channel.read(previous, start - 1) == 1 && previous.get(0) == NEW_LINE;
+    }
+
+    private void skipPartialLine() throws IOException {
+        while (fillBuffer()) {
+            if (buffer.get() == NEW_LINE) {
+                return;
+            }
+        }
+    }
+
+    private void advance() throws IOException {
+        nextLine = null;
+        long offset = position();
+        if (offset >= end || !fillBuffer()) {
+            return;
+        }
+
+        int length = 0;
+        boolean terminated = false;
+        while (fillBuffer()) {
+            byte current = buffer.get();
+            if (current == NEW_LINE) {
+                terminated = true;
+                break;
+            }
+            if (length == lineBytes.length) {
+                lineBytes = Arrays.copyOf(lineBytes, length * 2);
+            }
+            lineBytes[length++] = current;
+        }
+
+        if (length > 0 && lineBytes[length - 1] == CARRIAGE_RETURN) {
+            length--;
+        }
+        nextLine = new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+        nextLineOffset = offset;
+        nextLineTerminated = terminated;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        if (buffer.hasRemaining()) {
+            return true;
+        }
+        if (endOfFile) {
+            return false;
+        }
+
+        buffer.clear();
+        int read = channel.read(buffer, readPosition);
+        buffer.flip();
+        if (read <= 0) {
+            endOfFile = true;
+            return false;
+        }
+        readPosition += read;
+        return true;
+    }
+}
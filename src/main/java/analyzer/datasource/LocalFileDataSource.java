@@ -1,18 +1,25 @@
 package analyzer.datasource;
 
+import analyzer.profile.FileOpenEvent;
+import analyzer.profile.FileReadEvent;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 @SuppressFBWarnings("OS_OPEN_STREAM")
 public class LocalFileDataSource implements LogDataSource {
+    public static final String GZIP_SUFFIX = ".gz";
     private static final Logger LOGGER = Logger.getLogger(LocalFileDataSource.class.getName());
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
     private final List<Path> files;
 
     public LocalFileDataSource(List<Path> files) {
@@ -26,21 +33,39 @@ public class LocalFileDataSource implements LogDataSource {
             return Stream.empty();
         }
 
-        return files.stream()
-            .flatMap(file -> {
+        return files.stream().flatMap(LocalFileDataSource::lines);
+    }
+
+    public static boolean isCompressed(Path file) {
+        return file.getFileName().toString().endsWith(GZIP_SUFFIX);
+    }
+
+    public static Stream<String> lines(Path file) {
+        FileOpenEvent openEvent = new FileOpenEvent();
+        openEvent.begin();
+        try {
+            long bytes = Files.size(file);
+            BufferedReader reader = isCompressed(file)
+                ? new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file), GZIP_BUFFER_SIZE), StandardCharsets.UTF_8))
+                : Files.newBufferedReader(file);
+            openEvent.path(file.toString()).compressed(isCompressed(file)).commit();
+            FileReadEvent readEvent = new FileReadEvent();
+            readEvent.begin();
+            return reader.lines().onClose(() -> {
                 try {
-                    BufferedReader reader = Files.newBufferedReader(file);
-                    return reader.lines().onClose(() -> {
-                        try {
-                            reader.close();
-                        } catch (IOException e) {
-                            LOGGER.log(Level.WARNING, "Failed to close reader for file: " + file, e.getMessage());
-                        }
-                    });
+                    reader.close();
                 } catch (IOException e) {
-                    LOGGER.log(Level.WARNING, "Error processing file " + file + ": " + e.getMessage());
-                    return Stream.empty();
+                    LOGGER.log(Level.WARNING, "Failed to close reader for file " + file + ": " + e.getMessage());
+                }
+                readEvent.end();
+                if (readEvent.shouldCommit()) {
+                    readEvent.path(file.toString()).bytes(bytes).commit();
                 }
             });
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error processing file " + file + ": " + e.getMessage());
+            return Stream.empty();
+        }
     }
 }
@@ -1,5 +1,7 @@
 package analyzer.datasource;
 
+import analyzer.index.BlockIndexBuilder;
+import analyzer.profile.FileSearchEvent;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.IOException;
 import java.nio.file.FileSystems;
@@ -28,6 +30,8 @@ public class LogFileFinder {
     }
 
     public void findLogFiles() {
+        FileSearchEvent event = new FileSearchEvent();
+        event.begin();
         try {
             PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + normalizeGlob(pathPattern));
             Path startDir = determineStartDir(pathPattern);
@@ -35,6 +39,9 @@ public class LogFileFinder {
             Files.walkFileTree(startDir, new SimpleFileVisitor<>() {
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (isIndexSidecar(file)) {
+                        return FileVisitResult.CONTINUE;
+                    }
                     if (matcher.matches(startDir.relativize(file)) || matcher.matches(file.toAbsolutePath())) {
                         files.add(file);
                     }
@@ -49,6 +56,11 @@ public class LogFileFinder {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        event.pattern(pathPattern).files(files.size()).commit();
+    }
+
+    private boolean isIndexSidecar(Path file) {
+        return file.getFileName().toString().endsWith(BlockIndexBuilder.INDEX_SUFFIX);
     }
 
     private Path determineStartDir(String path) {
@@ -0,0 +1,153 @@
+package analyzer.datasource;
+
+import analyzer.model.JsonLogEntryParser;
+import analyzer.model.NginxTimestamps;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class MergedFileDataSource implements LogDataSource {
+    public static final int DEFAULT_READ_AHEAD = 4096;
+    private static final Logger LOGGER = Logger.getLogger(MergedFileDataSource.class.getName());
+    private static final Comparator<Buffered> BUFFERED_ORDER =
+        Comparator.comparingLong(Buffered::timestamp).thenComparingLong(Buffered::sequence);
+    private static final Comparator<Cursor> CURSOR_ORDER =
+        Comparator.comparingLong((Cursor cursor) -> cursor.head.timestamp()).thenComparingInt(cursor -> cursor.order);
+
+    private final List<Path> files;
+    private final int toleranceSeconds;
+    private final Optional<LocalDateTime> until;
+    private final int readAhead;
+
+    public MergedFileDataSource(List<Path> files, int toleranceSeconds, Optional<LocalDateTime> until) {
+        this(files, toleranceSeconds, until, DEFAULT_READ_AHEAD);
+    }
+
+    public MergedFileDataSource(List<Path> files, int toleranceSeconds, Optional<LocalDateTime> until, int readAhead) {
+        this.files = files;
+        this.toleranceSeconds = Math.max(0, toleranceSeconds);
+        this.until = until;
+        this.readAhead = Math.max(1, readAhead);
+    }
+
+    @Override
+    public Stream<String> getDataStream() {
+        if (files.isEmpty()) {
+            LOGGER.log(Level.WARNING, "No files provided for reading");
+            return Stream.empty();
+        }
+
+        List<Stream<String>> inputs = new ArrayList<>(files.size());
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(files.size(), CURSOR_ORDER);
+        for (int i = 0; i < files.size(); i++) {
+            Stream<String> lines = LocalFileDataSource.lines(files.get(i));
+            inputs.add(lines);
+            Cursor cursor = new Cursor(lines.iterator(), i, toleranceSeconds, readAhead);
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+
+        long stopAfter = until.map(time -> time.toEpochSecond(ZoneOffset.UTC) + toleranceSeconds)
+            .orElse(Long.MAX_VALUE);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                new MergeIterator(cursors, stopAfter), Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(() -> inputs.forEach(Stream::close));
+    }
+
+    static long timestamp(String line, long fallback) {
+        if (JsonLogEntryParser.isJson(line)) {
+            return JsonLogEntryParser.localDateTime(line)
+                .map(time -> time.toEpochSecond(ZoneOffset.UTC))
+                .orElse(fallback);
+        }
+
+        int open = line.indexOf('[');
+        int close = open < 0 ? -1 : line.indexOf(']', open + 1);
+        if (close < 0) {
+            return fallback;
+        }
+
+        try {
+            return NginxTimestamps.parse(line, open + 1, close).toEpochSecond(ZoneOffset.UTC);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return fallback;
+        }
+    }
+
+    private record Buffered(long timestamp, long sequence, String line) {
+    }
+
+    private static final class Cursor {
+        private final Iterator<String> input;
+        private final int order;
+        private final int toleranceSeconds;
+        private final int readAhead;
+        private final PriorityQueue<Buffered> buffer = new PriorityQueue<>(BUFFERED_ORDER);
+        private long sequence;
+        private long newest;
+        private Buffered head;
+
+        private Cursor(Iterator<String> input, int order, int toleranceSeconds, int readAhead) {
+            this.input = input;
+            this.order = order;
+            this.toleranceSeconds = toleranceSeconds;
+            this.readAhead = readAhead;
+        }
+
+        private boolean advance() {
+            while (input.hasNext() && buffer.size() < readAhead
+                && (buffer.isEmpty() || newest - buffer.peek().timestamp() < toleranceSeconds)) {
+                String line = input.next();
+                long timestamp = timestamp(line, newest);
+                newest = Math.max(newest, timestamp);
+                buffer.add(new Buffered(timestamp, sequence++, line));
+            }
+            head = buffer.poll();
+            return head != null;
+        }
+    }
+
+    private static final class MergeIterator implements Iterator<String> {
+        private final PriorityQueue<Cursor> cursors;
+        private final long stopAfter;
+
+        private MergeIterator(PriorityQueue<Cursor> cursors, long stopAfter) {
+            this.cursors = cursors;
+            this.stopAfter = stopAfter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty() && cursors.peek().head.timestamp() <= stopAfter;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Cursor cursor = cursors.poll();
+            String line = cursor.head.line();
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+            return line;
+        }
+    }
+}
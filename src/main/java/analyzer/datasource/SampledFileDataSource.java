@@ -0,0 +1,77 @@
+package analyzer.datasource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import lombok.Getter;
+
+public class SampledFileDataSource implements LogDataSource {
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    private static final Logger LOGGER = Logger.getLogger(SampledFileDataSource.class.getName());
+    private final List<Path> files;
+    @Getter private final double rate;
+    @Getter private final long seed;
+    private final int blockSize;
+
+    public SampledFileDataSource(List<Path> files, double rate, long seed) {
+        this(files, rate, seed, DEFAULT_BLOCK_SIZE);
+    }
+
+    public SampledFileDataSource(List<Path> files, double rate, long seed, int blockSize) {
+        this.files = files;
+        this.rate = rate;
+        this.seed = seed;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public Stream<String> getDataStream() {
+        return getBlockStream().flatMap(block -> block);
+    }
+
+    public Stream<Stream<String>> getBlockStream() {
+        if (files.isEmpty()) {
+            LOGGER.log(Level.WARNING, "No files provided for reading");
+            return Stream.empty();
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<SampledBlock> blocks = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                sampleBlocks(file, random, blocks);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error processing file " + file + ": " + e.getMessage());
+            }
+        }
+
+        return blocks.stream().map(block -> LocalFileDataSource.isCompressed(block.file())
+            ? LocalFileDataSource.lines(block.file())
+            : LineRangeReader.lines(block.file(), block.start(), block.end()));
+    }
+
+    private void sampleBlocks(Path file, SplittableRandom random, List<SampledBlock> blocks) throws IOException {
+        if (LocalFileDataSource.isCompressed(file)) {
+            if (random.nextDouble() < rate) {
+                blocks.add(new SampledBlock(file, 0, Long.MAX_VALUE));
+            }
+            return;
+        }
+
+        long size = Files.size(file);
+        for (long start = 0; start < size; start += blockSize) {
+            if (random.nextDouble() < rate) {
+                blocks.add(new SampledBlock(file, start, start + blockSize));
+            }
+        }
+    }
+
+    private record SampledBlock(Path file, long start, long end) {
+    }
+}
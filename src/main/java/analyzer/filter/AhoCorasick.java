@@ -0,0 +1,104 @@
+package analyzer.filter;
+
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AhoCorasick {
+    private static final int ROOT = 0;
+    private static final int NO_STATE = -1;
+    private static final int CHAR_BITS = Character.SIZE;
+
+    private final Long2IntOpenHashMap transitions;
+    private final int[] failure;
+    private final long[] outputs;
+
+    public AhoCorasick(List<String> patterns, long[] patternMasks) {
+        this.transitions = new Long2IntOpenHashMap();
+        this.transitions.defaultReturnValue(NO_STATE);
+
+        List<IntArrayList> children = new ArrayList<>(List.of(new IntArrayList()));
+        LongArrayList stateOutputs = new LongArrayList(new long[] {0});
+        for (int i = 0; i < patterns.size(); i++) {
+            int state = ROOT;
+            String pattern = patterns.get(i);
+            for (int j = 0; j < pattern.length(); j++) {
+                long key = key(state, Character.toLowerCase(pattern.charAt(j)));
+                int next = transitions.get(key);
+                if (next == NO_STATE) {
+                    next = children.size();
+                    children.add(new IntArrayList());
+                    stateOutputs.add(0);
+                    transitions.put(key, next);
+                    children.get(state).add(next);
+                }
+                state = next;
+            }
+            stateOutputs.set(state, stateOutputs.getLong(state) | patternMasks[i]);
+        }
+
+        this.outputs = stateOutputs.toLongArray();
+        this.failure = new int[outputs.length];
+        buildFailureLinks(children);
+    }
+
+    public long scan(String text, int start, int end) {
+        int state = ROOT;
+        long mask = 0;
+        for (int i = start; i < end; i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+            mask |= outputs[state];
+        }
+        return mask;
+    }
+
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    private int step(int state, char symbol) {
+        int current = state;
+        while (true) {
+            int next = transitions.get(key(current, symbol));
+            if (next != NO_STATE) {
+                return next;
+            }
+            if (current == ROOT) {
+                return ROOT;
+            }
+            current = failure[current];
+        }
+    }
+
+    private void buildFailureLinks(List<IntArrayList> children) {
+        IntArrayFIFOQueue queue = new IntArrayFIFOQueue();
+        for (int child : children.get(ROOT)) {
+            failure[child] = ROOT;
+            queue.enqueue(child);
+        }
+
+        char[] symbols = symbolsByState(children.size());
+        while (!queue.isEmpty()) {
+            int state = queue.dequeueInt();
+            for (int child : children.get(state)) {
+                int fallback = failure[state];
+                failure[child] = step(fallback, symbols[child]);
+                outputs[child] |= outputs[failure[child]];
+                queue.enqueue(child);
+            }
+        }
+    }
+
+    private char[] symbolsByState(int stateCount) {
+        char[] symbols = new char[stateCount];
+        transitions.long2IntEntrySet().forEach(entry -> symbols[entry.getIntValue()] = (char) entry.getLongKey());
+        return symbols;
+    }
+
+    private static long key(int state, char symbol) {
+        return ((long) state << CHAR_BITS) | symbol;
+    }
+}
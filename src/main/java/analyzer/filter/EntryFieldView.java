@@ -0,0 +1,54 @@
+package analyzer.filter;
+
+import analyzer.model.NginxLogEntry;
+import analyzer.model.NginxTimestamps;
+
+public class EntryFieldView implements FieldView {
+    private final NginxLogEntry entry;
+
+    public EntryFieldView(NginxLogEntry entry) {
+        this.entry = entry;
+    }
+
+    @Override
+    public String source(LogField field) {
+        return switch (field) {
+            case IP -> entry.clientIP();
+            case USER -> entry.remoteUser();
+            case TIME -> NginxTimestamps.format(entry.localDateTime());
+            case REQUEST -> entry.request();
+            case METHOD -> entry.httpMethod();
+            case RESOURCE -> entry.resource();
+            case STATUS -> String.valueOf(entry.statusCode());
+            case BYTES -> String.valueOf(entry.bodyBytesSent());
+            case REFERER -> entry.httpReferer();
+            case AGENT -> entry.httpUserAgent();
+        };
+    }
+
+    @Override
+    public int start(LogField field) {
+        return 0;
+    }
+
+    @Override
+    public int end(LogField field) {
+        return source(field).length();
+    }
+
+    @Override
+    public boolean address(long[] result) {
+        result[0] = entry.ipHigh();
+        result[1] = entry.ipLow();
+        return entry.clientName() == null;
+    }
+
+    @Override
+    public long number(LogField field) {
+        return switch (field) {
+            case STATUS -> entry.statusCode();
+            case BYTES -> entry.bodyBytesSent();
+            default -> FieldView.super.number(field);
+        };
+    }
+}
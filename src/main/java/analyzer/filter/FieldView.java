@@ -0,0 +1,37 @@
+package analyzer.filter;
+
+import analyzer.ip.IpAddresses;
+
+public interface FieldView {
+    long NOT_A_NUMBER = Long.MIN_VALUE;
+    int DECIMAL_RADIX = 10;
+
+    String source(LogField field);
+
+    int start(LogField field);
+
+    int end(LogField field);
+
+    default boolean address(long[] result) {
+        return IpAddresses.parse(source(LogField.IP), start(LogField.IP), end(LogField.IP), result);
+    }
+
+    default long number(LogField field) {
+        String source = source(field);
+        int start = start(field);
+        int end = end(field);
+        if (start >= end) {
+            return NOT_A_NUMBER;
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(source.charAt(i), DECIMAL_RADIX);
+            if (digit < 0) {
+                return NOT_A_NUMBER;
+            }
+            value = value * DECIMAL_RADIX + digit;
+        }
+        return value;
+    }
+}
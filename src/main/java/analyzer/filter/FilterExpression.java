@@ -0,0 +1,231 @@
+package analyzer.filter;
+
+import analyzer.ip.CidrTrie;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public final class FilterExpression {
+    private static final List<String> OPERATORS = List.of(">=", "<=", "==", "!=", "!~", "=", "~", ">", "<");
+    private static final String VALUE_DELIMITERS = "()&|";
+    private static final int NUMERIC_COST = 1;
+    private static final int LITERAL_COST = 2;
+    private static final int REGEX_COST = 10;
+
+    private final String input;
+    private int position;
+
+    private FilterExpression(String input) {
+        this.input = input;
+    }
+
+    public static Predicate<FieldView> compile(String expression) {
+        FilterExpression parser = new FilterExpression(expression);
+        Node node = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.position < expression.length()) {
+            throw parser.error("unexpected input");
+        }
+        return node.predicate();
+    }
+
+    public static Predicate<FieldView> fieldGlob(String fieldName, String value) {
+        return LogField.fromName(fieldName)
+            .map(field -> textPredicate(field, TextMatcher.glob(value)))
+            .orElse(view -> false);
+    }
+
+    private Node parseOr() {
+        List<Node> nodes = new ArrayList<>(List.of(parseAnd()));
+        while (consume("||")) {
+            nodes.add(parseAnd());
+        }
+        return combine(nodes, Predicate::or);
+    }
+
+    private Node parseAnd() {
+        List<Node> nodes = new ArrayList<>(List.of(parseUnary()));
+        while (consume("&&")) {
+            nodes.add(parseUnary());
+        }
+        return combine(nodes, Predicate::and);
+    }
+
+    private Node parseUnary() {
+        if (consume("!")) {
+            Node operand = parseUnary();
+            return new Node(operand.predicate().negate(), operand.cost());
+        }
+        if (consume("(")) {
+            Node inner = parseOr();
+            if (!consume(")")) {
+                throw error("expected ')'");
+            }
+            return inner;
+        }
+        return parseComparison();
+    }
+
+    private Node parseComparison() {
+        skipWhitespace();
+        int start = position;
+        while (position < input.length() && Character.isLetter(input.charAt(position))) {
+            position++;
+        }
+        String name = input.substring(start, position);
+        LogField field = LogField.fromName(name).orElseThrow(() -> error("unknown field '" + name + "'"));
+
+        skipWhitespace();
+        String operator = OPERATORS.stream()
+            .filter(candidate -> input.startsWith(candidate, position))
+            .findFirst()
+            .orElseThrow(() -> error("expected operator"));
+        position += operator.length();
+
+        return comparison(field, operator, parseValue());
+    }
+
+    private Node comparison(LogField field, String operator, String value) {
+        return switch (operator) {
+            case ">" -> numericRange(field, parseNumber(value) + 1, Long.MAX_VALUE);
+            case ">=" -> numericRange(field, parseNumber(value), Long.MAX_VALUE);
+            case "<" -> numericRange(field, Long.MIN_VALUE + 1, parseNumber(value) - 1);
+            case "<=" -> numericRange(field, Long.MIN_VALUE + 1, parseNumber(value));
+            case "!=" -> negate(equality(field, value));
+            case "~" -> match(field, value);
+            case "!~" -> negate(match(field, value));
+            default -> equality(field, value);
+        };
+    }
+
+    private Node equality(LogField field, String value) {
+        if (field.numeric() && !value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            long number = parseNumber(value);
+            return numericRange(field, number, number);
+        }
+        if (field == LogField.IP && value.indexOf('/') > 0) {
+            return cidr(value);
+        }
+        return text(field, TextMatcher.glob(value));
+    }
+
+    private Node match(LogField field, String value) {
+        if (value.length() > 1 && value.startsWith("/") && value.endsWith("/")) {
+            try {
+                Pattern pattern = Pattern.compile(value.substring(1, value.length() - 1), Pattern.CASE_INSENSITIVE);
+                return new Node(textPredicate(field, TextMatcher.regex(pattern)), REGEX_COST);
+            } catch (PatternSyntaxException e) {
+                throw error("invalid regex " + value);
+            }
+        }
+        return text(field, TextMatcher.glob(value));
+    }
+
+    private Node cidr(String value) {
+        CidrTrie trie = new CidrTrie();
+        try {
+            trie.add(value, 1);
+        } catch (IllegalArgumentException e) {
+            throw error("invalid CIDR " + value);
+        }
+        return new Node(view -> {
+            long[] address = new long[2];
+            return view.address(address) && trie.contains(address[0], address[1]);
+        }, LITERAL_COST);
+    }
+
+    private Node text(LogField field, TextMatcher matcher) {
+        return new Node(textPredicate(field, matcher), LITERAL_COST);
+    }
+
+    private static Predicate<FieldView> textPredicate(LogField field, TextMatcher matcher) {
+        return view -> matcher.matches(view.source(field), view.start(field), view.end(field));
+    }
+
+    private Node numericRange(LogField field, long min, long max) {
+        if (!field.numeric()) {
+            throw error("field '" + field.fieldName() + "' is not numeric");
+        }
+        return new Node(view -> {
+            long number = view.number(field);
+            return number != FieldView.NOT_A_NUMBER && number >= min && number <= max;
+        }, NUMERIC_COST);
+    }
+
+    private Node negate(Node node) {
+        return new Node(node.predicate().negate(), node.cost());
+    }
+
+    private long parseNumber(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw error("expected number but was '" + value + "'");
+        }
+    }
+
+    private String parseValue() {
+        skipWhitespace();
+        if (position < input.length() && (input.charAt(position) == '\'' || input.charAt(position) == '"')) {
+            char quote = input.charAt(position);
+            int end = input.indexOf(quote, position + 1);
+            if (end < 0) {
+                throw error("unterminated quoted value");
+            }
+            String value = input.substring(position + 1, end);
+            position = end + 1;
+            return value;
+        }
+
+        int start = position;
+        while (position < input.length() && !Character.isWhitespace(input.charAt(position))
+            && VALUE_DELIMITERS.indexOf(input.charAt(position)) < 0) {
+            position++;
+        }
+        if (start == position) {
+            throw error("expected value");
+        }
+        return input.substring(start, position);
+    }
+
+    private boolean consume(String token) {
+        skipWhitespace();
+        if (input.startsWith(token, position)) {
+            position += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String reason) {
+        return new IllegalArgumentException(
+            "Invalid filter expression '" + input + "' at position " + position + ": " + reason);
+    }
+
+    private static Node combine(List<Node> nodes, CombineOperator operator) {
+        nodes.sort(Comparator.comparingInt(Node::cost));
+        Predicate<FieldView> predicate = nodes.getFirst().predicate();
+        int cost = nodes.getFirst().cost();
+        for (int i = 1; i < nodes.size(); i++) {
+            predicate = operator.apply(predicate, nodes.get(i).predicate());
+            cost += nodes.get(i).cost();
+        }
+        return new Node(predicate, cost);
+    }
+
+    private interface CombineOperator {
+        Predicate<FieldView> apply(Predicate<FieldView> left, Predicate<FieldView> right);
+    }
+
+    private record Node(Predicate<FieldView> predicate, int cost) {
+    }
+}
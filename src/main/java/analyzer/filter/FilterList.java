@@ -0,0 +1,68 @@
+package analyzer.filter;
+
+import analyzer.filter.ListMatcher.ListRule;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+
+@Getter
+public class FilterList {
+    private static final String COMMENT_PREFIX = "#";
+
+    private final ListMatcher filterMatcher;
+    private final ListMatcher tagMatcher;
+
+    public FilterList(List<ListRule> rules) {
+        this.filterMatcher = new ListMatcher(rules.stream()
+            .filter(rule -> !rule.label().startsWith(ListMatcher.TAG_PREFIX))
+            .toList());
+        this.tagMatcher = new ListMatcher(rules.stream()
+            .filter(rule -> rule.label().startsWith(ListMatcher.TAG_PREFIX))
+            .toList());
+    }
+
+    public static FilterList load(Path path) throws IOException {
+        return parse(Files.readAllLines(path));
+    }
+
+    public static FilterList parse(List<String> lines) {
+        List<ListRule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX)) {
+                rules.add(parseRule(line, i + 1));
+            }
+        }
+        return new FilterList(rules);
+    }
+
+    private static ListRule parseRule(String line, int lineNumber) {
+        String[] parts = line.split("\\s+", 2);
+        String label = parts[0];
+        boolean validLabel = ListMatcher.INCLUDE.equals(label) || ListMatcher.EXCLUDE.equals(label)
+            || label.startsWith(ListMatcher.TAG_PREFIX) && label.length() > ListMatcher.TAG_PREFIX.length();
+        int operator = parts.length < 2 ? -1 : indexOfOperator(parts[1]);
+        if (!validLabel || operator <= 0) {
+            throw new IllegalArgumentException("Invalid filter list rule at line " + lineNumber + ": " + line);
+        }
+
+        String fieldName = parts[1].substring(0, operator).strip();
+        LogField field = LogField.fromName(fieldName).orElseThrow(() ->
+            new IllegalArgumentException("Unknown field '" + fieldName + "' at line " + lineNumber));
+        String value = parts[1].substring(operator + 1).strip();
+        return new ListRule(label, field, parts[1].charAt(operator) == '~', value);
+    }
+
+    private static int indexOfOperator(String rule) {
+        for (int i = 0; i < rule.length(); i++) {
+            char current = rule.charAt(i);
+            if (current == '=' || current == '~') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,96 @@
+package analyzer.filter;
+
+import analyzer.ip.CidrTrie;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+import lombok.Getter;
+
+public class ListMatcher implements Predicate<FieldView> {
+    public static final String INCLUDE = "include";
+    public static final String EXCLUDE = "exclude";
+    public static final String TAG_PREFIX = "tag:";
+    private static final int MAX_LABELS = Long.SIZE;
+
+    @Getter private final List<String> labels;
+    private final Map<LogField, AhoCorasick> substringMatchers;
+    private final Map<LogField, Map<String, Long>> exactValues;
+    private final CidrTrie addresses;
+    private final long includeMask;
+    private final long excludeMask;
+
+    public ListMatcher(List<ListRule> rules) {
+        this.labels = rules.stream().map(ListRule::label).distinct().toList();
+        if (labels.size() > MAX_LABELS) {
+            throw new IllegalArgumentException("Too many distinct list labels: " + labels.size());
+        }
+
+        this.exactValues = new EnumMap<>(LogField.class);
+        this.addresses = new CidrTrie();
+        Map<LogField, List<String>> substrings = new EnumMap<>(LogField.class);
+        Map<LogField, List<Long>> substringMasks = new EnumMap<>(LogField.class);
+        for (ListRule rule : rules) {
+            long mask = maskOf(rule.label());
+            if (rule.substring()) {
+                substrings.computeIfAbsent(rule.field(), field -> new ArrayList<>()).add(rule.value());
+                substringMasks.computeIfAbsent(rule.field(), field -> new ArrayList<>()).add(mask);
+            } else if (rule.field() == LogField.IP) {
+                addresses.add(rule.value(), mask);
+            } else {
+                exactValues.computeIfAbsent(rule.field(), field -> new HashMap<>())
+                    .merge(normalize(rule.value()), mask, (left, right) -> left | right);
+            }
+        }
+
+        this.substringMatchers = new EnumMap<>(LogField.class);
+        substrings.forEach((field, patterns) -> substringMatchers.put(field, new AhoCorasick(patterns,
+            substringMasks.get(field).stream().mapToLong(Long::longValue).toArray())));
+        this.includeMask = labels.contains(INCLUDE) ? maskOf(INCLUDE) : 0;
+        this.excludeMask = labels.contains(EXCLUDE) ? maskOf(EXCLUDE) : 0;
+    }
+
+    public long classify(FieldView view) {
+        long mask = 0;
+        for (Map.Entry<LogField, AhoCorasick> matcher : substringMatchers.entrySet()) {
+            LogField field = matcher.getKey();
+            mask |= matcher.getValue().scan(view.source(field), view.start(field), view.end(field));
+        }
+        for (Map.Entry<LogField, Map<String, Long>> values : exactValues.entrySet()) {
+            LogField field = values.getKey();
+            String value = normalize(view.source(field).substring(view.start(field), view.end(field)));
+            mask |= values.getValue().getOrDefault(value, 0L);
+        }
+        if (!addresses.isEmpty()) {
+            long[] address = new long[2];
+            if (view.address(address)) {
+                mask |= addresses.match(address[0], address[1]);
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public boolean test(FieldView view) {
+        long mask = classify(view);
+        return (includeMask == 0 || (mask & includeMask) != 0) && (mask & excludeMask) == 0;
+    }
+
+    public boolean isEmpty() {
+        return labels.isEmpty();
+    }
+
+    private long maskOf(String label) {
+        return 1L << labels.indexOf(label);
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    public record ListRule(String label, LogField field, boolean substring, String value) {
+    }
+}
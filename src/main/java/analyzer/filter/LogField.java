@@ -0,0 +1,41 @@
+package analyzer.filter;
+
+import java.util.Optional;
+
+public enum LogField {
+    IP("ip", false),
+    USER("user", false),
+    TIME("time", false),
+    REQUEST("request", false),
+    METHOD("method", false),
+    RESOURCE("resource", false),
+    STATUS("status", true),
+    BYTES("bytes", true),
+    REFERER("referer", false),
+    AGENT("agent", false);
+
+    private final String fieldName;
+    private final boolean numeric;
+
+    LogField(String fieldName, boolean numeric) {
+        this.fieldName = fieldName;
+        this.numeric = numeric;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public boolean numeric() {
+        return numeric;
+    }
+
+    public static Optional<LogField> fromName(String name) {
+        for (LogField field : values()) {
+            if (field.fieldName.equalsIgnoreCase(name)) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,246 @@
+package analyzer.filter;
+
+import analyzer.ip.IpAddresses;
+import analyzer.model.NginxTimestamps;
+import java.time.DateTimeException;
+
+public class RawLogLine implements FieldView {
+    private static final String UNKNOWN_RESOURCE = "Unknown Resource";
+    private static final String HTTP_VERSION_PREFIX = "HTTP/";
+    private static final int STATUS_CODE_LENGTH = 3;
+    private static final int INVALID = -1;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final long[] address;
+    private String line;
+    private boolean resourceFound;
+    private boolean addressResolved;
+    private boolean addressParsed;
+    private String canonicalAddress;
+    private boolean timeResolved;
+    private String canonicalTime;
+
+    public RawLogLine() {
+        this.starts = new int[LogField.values().length];
+        this.ends = new int[LogField.values().length];
+        this.address = new long[2];
+        this.line = "";
+    }
+
+    public boolean reset(String logLine) {
+        this.line = logLine;
+        this.addressResolved = false;
+        this.timeResolved = false;
+        int position = token(0, LogField.IP);
+        position = hyphen(position);
+        position = token(position, LogField.USER);
+        position = bracketed(position, LogField.TIME);
+        position = quoted(position, LogField.REQUEST);
+        position = digits(position, LogField.STATUS);
+        position = digits(position, LogField.BYTES);
+        position = quoted(position, LogField.REFERER);
+        boolean valid = lastQuoted(position, LogField.AGENT)
+            && ends[LogField.STATUS.ordinal()] - starts[LogField.STATUS.ordinal()] == STATUS_CODE_LENGTH;
+        if (valid) {
+            splitRequest();
+        }
+        return valid;
+    }
+
+    public String line() {
+        return line;
+    }
+
+    @Override
+    public String source(LogField field) {
+        String canonical = canonical(field);
+        if (canonical != null) {
+            return canonical;
+        }
+        return field == LogField.RESOURCE && !resourceFound ? UNKNOWN_RESOURCE : line;
+    }
+
+    @Override
+    public int start(LogField field) {
+        if (canonical(field) != null) {
+            return 0;
+        }
+        return field == LogField.RESOURCE && !resourceFound ? 0 : starts[field.ordinal()];
+    }
+
+    @Override
+    public int end(LogField field) {
+        String canonical = canonical(field);
+        if (canonical != null) {
+            return canonical.length();
+        }
+        return field == LogField.RESOURCE && !resourceFound ? UNKNOWN_RESOURCE.length() : ends[field.ordinal()];
+    }
+
+    @Override
+    public boolean address(long[] result) {
+        resolveAddress();
+        result[0] = address[0];
+        result[1] = address[1];
+        return addressParsed;
+    }
+
+    private String canonical(LogField field) {
+        if (field == LogField.IP) {
+            resolveAddress();
+            return canonicalAddress;
+        }
+        if (field == LogField.TIME) {
+            resolveTime();
+            return canonicalTime;
+        }
+        return null;
+    }
+
+    private void resolveTime() {
+        if (timeResolved) {
+            return;
+        }
+
+        try {
+            canonicalTime = NginxTimestamps.format(
+                NginxTimestamps.parse(line, starts[LogField.TIME.ordinal()], ends[LogField.TIME.ordinal()]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            canonicalTime = null;
+        }
+        timeResolved = true;
+    }
+
+    private void resolveAddress() {
+        if (addressResolved) {
+            return;
+        }
+
+        int start = starts[LogField.IP.ordinal()];
+        int end = ends[LogField.IP.ordinal()];
+        addressParsed = IpAddresses.parse(line, start, end, address);
+        canonicalAddress = null;
+        if (addressParsed) {
+            String formatted = IpAddresses.format(address[0], address[1]);
+            if (formatted.length() != end - start || !line.startsWith(formatted, start)) {
+                canonicalAddress = formatted;
+            }
+        }
+        addressResolved = true;
+    }
+
+    private void splitRequest() {
+        int requestStart = starts[LogField.REQUEST.ordinal()];
+        int requestEnd = ends[LogField.REQUEST.ordinal()];
+        int methodEnd = line.indexOf(' ', requestStart);
+        if (methodEnd < 0 || methodEnd > requestEnd) {
+            methodEnd = requestEnd;
+        }
+        set(LogField.METHOD, requestStart, methodEnd);
+
+        int resourceEnd = methodEnd < requestEnd ? line.indexOf(' ', methodEnd + 1) : INVALID;
+        resourceFound = resourceEnd > methodEnd + 1 && resourceEnd < requestEnd
+            && isHttpVersion(resourceEnd + 1, requestEnd);
+        if (resourceFound) {
+            set(LogField.RESOURCE, methodEnd + 1, resourceEnd);
+        }
+    }
+
+    private boolean isHttpVersion(int start, int end) {
+        int versionStart = start + HTTP_VERSION_PREFIX.length();
+        return line.startsWith(HTTP_VERSION_PREFIX, start) && versionStart + 2 < end
+            && Character.isDigit(line.charAt(versionStart)) && line.charAt(versionStart + 1) == '.'
+            && Character.isDigit(line.charAt(versionStart + 2));
+    }
+
+    private int token(int position, LogField field) {
+        if (position == INVALID) {
+            return INVALID;
+        }
+
+        int end = position;
+        while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+            end++;
+        }
+        if (end == position) {
+            return INVALID;
+        }
+        set(field, position, end);
+        return skipWhitespace(end);
+    }
+
+    private int hyphen(int position) {
+        if (position == INVALID || position + 1 >= line.length() || line.charAt(position) != '-') {
+            return INVALID;
+        }
+        return skipWhitespace(position + 1);
+    }
+
+    private int bracketed(int position, LogField field) {
+        if (position == INVALID || position >= line.length() || line.charAt(position) != '[') {
+            return INVALID;
+        }
+
+        int end = line.indexOf(']', position + 1);
+        if (end < 0) {
+            return INVALID;
+        }
+        set(field, position + 1, end);
+        return skipWhitespace(end + 1);
+    }
+
+    private int quoted(int position, LogField field) {
+        if (position == INVALID || position >= line.length() || line.charAt(position) != '"') {
+            return INVALID;
+        }
+
+        int end = line.indexOf('"', position + 1);
+        while (end >= 0 && (end + 1 >= line.length() || !Character.isWhitespace(line.charAt(end + 1)))) {
+            end = line.indexOf('"', end + 1);
+        }
+        if (end < 0) {
+            return INVALID;
+        }
+        set(field, position + 1, end);
+        return skipWhitespace(end + 1);
+    }
+
+    private int digits(int position, LogField field) {
+        if (position == INVALID) {
+            return INVALID;
+        }
+
+        int end = position;
+        while (end < line.length() && Character.isDigit(line.charAt(end))) {
+            end++;
+        }
+        if (end == position) {
+            return INVALID;
+        }
+        set(field, position, end);
+        return skipWhitespace(end);
+    }
+
+    private boolean lastQuoted(int position, LogField field) {
+        int last = line.length() - 1;
+        if (position == INVALID || position >= last || line.charAt(position) != '"' || line.charAt(last) != '"') {
+            return false;
+        }
+        set(field, position + 1, last);
+        return true;
+    }
+
+    private int skipWhitespace(int position) {
+        int end = position;
+        while (end < line.length() && Character.isWhitespace(line.charAt(end))) {
+            end++;
+        }
+        return end == position ? INVALID : end;
+    }
+
+    private void set(LogField field, int start, int end) {
+        starts[field.ordinal()] = start;
+        ends[field.ordinal()] = end;
+    }
+}
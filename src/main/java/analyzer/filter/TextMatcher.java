@@ -0,0 +1,76 @@
+package analyzer.filter;
+
+import java.nio.CharBuffer;
+import java.util.regex.Pattern;
+
+public interface TextMatcher {
+    boolean matches(String source, int start, int end);
+
+    static TextMatcher exact(String value) {
+        return (source, start, end) -> end - start == value.length()
+            && source.regionMatches(true, start, value, 0, value.length());
+    }
+
+    static TextMatcher prefix(String value) {
+        return (source, start, end) -> end - start >= value.length()
+            && source.regionMatches(true, start, value, 0, value.length());
+    }
+
+    static TextMatcher suffix(String value) {
+        return (source, start, end) -> end - start >= value.length()
+            && source.regionMatches(true, end - value.length(), value, 0, value.length());
+    }
+
+    static TextMatcher contains(String value) {
+        return (source, start, end) -> {
+            for (int i = start; i <= end - value.length(); i++) {
+                if (source.regionMatches(true, i, value, 0, value.length())) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    static TextMatcher regex(Pattern pattern) {
+        return (source, start, end) -> pattern.matcher(CharBuffer.wrap(source, start, end)).matches();
+    }
+
+    static TextMatcher any() {
+        return (source, start, end) -> true;
+    }
+
+    static TextMatcher glob(String glob) {
+        int firstWildcard = glob.indexOf('*');
+        if (firstWildcard < 0) {
+            return exact(glob);
+        }
+
+        String inner = glob.substring(1, Math.max(1, glob.length() - 1));
+        boolean leading = glob.startsWith("*");
+        boolean trailing = glob.endsWith("*");
+        if (glob.chars().allMatch(c -> c == '*')) {
+            return any();
+        } else if (leading && trailing && !inner.contains("*")) {
+            return contains(inner);
+        } else if (trailing && firstWildcard == glob.length() - 1) {
+            return prefix(glob.substring(0, firstWildcard));
+        } else if (leading && glob.lastIndexOf('*') == 0) {
+            return suffix(glob.substring(1));
+        }
+        return regex(globToPattern(glob));
+    }
+
+    static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : glob.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            if (!part.isEmpty()) {
+                regex.append(Pattern.quote(part));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+}
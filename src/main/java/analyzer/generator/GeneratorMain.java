@@ -0,0 +1,39 @@
+package analyzer.generator;
+
+import com.beust.jcommander.JCommander;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class GeneratorMain {
+    private static final Logger LOGGER = Logger.getLogger(GeneratorMain.class.getName());
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    public static void main(String[] args) throws IOException {
+        GeneratorParams params = new GeneratorParams();
+        JCommander.newBuilder()
+            .addObject(params)
+            .build()
+            .parse(args);
+
+        if (params.junkRate() < 0 || params.junkRate() >= 1) {
+            throw new IllegalArgumentException("Junk rate must be in [0, 1): " + params.junkRate());
+        }
+
+        LogLineGenerator lineGenerator =
+            new LogLineGenerator(params.seed(), params.ips(), params.resources(), params.junkRate());
+        LogGenerator generator = new LogGenerator(
+            lineGenerator, LocalDate.parse(params.start()).atStartOfDay(), params.rate(), params.threads());
+
+        long startTime = System.nanoTime();
+        List<Path> files = generator.generate(
+            Path.of(params.output()), params.name(), params.lines(), params.files(), params.gzip());
+        LOGGER.log(Level.INFO, String.format("Generated %d lines in %d files in %.1f s", params.lines(),
+            files.size(), (System.nanoTime() - startTime) / NANOS_PER_SECOND));
+    }
+}
@@ -0,0 +1,94 @@
+package analyzer.generator;
+
+import com.beust.jcommander.Parameter;
+
+public class GeneratorParams {
+    private static final long DEFAULT_LINES = 1_000_000;
+    private static final double DEFAULT_RATE = 100;
+    private static final int DEFAULT_IPS = 100_000;
+    private static final int DEFAULT_RESOURCES = 10_000;
+
+    @Parameter(names = {"--output"}, description = "Directory to write the log files to", required = true)
+    private String output;
+
+    @Parameter(names = {"--name"}, description = "Base file name of the rotated set")
+    private String name = "access.log";
+
+    @Parameter(names = {"--lines"}, description = "Total number of lines across all files")
+    private long lines = DEFAULT_LINES;
+
+    @Parameter(names = {"--files"}, description = "Number of files in the rotated set (name, name.1, name.2...)")
+    private int files = 1;
+
+    @Parameter(names = {"--gzip"}, description = "Compress rotated files (name.1.gz, name.2.gz...)")
+    private boolean gzip;
+
+    @Parameter(names = {"--threads"}, description = "Number of generator threads")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(names = {"--seed"}, description = "Random seed; the same seed produces the same files")
+    private long seed;
+
+    @Parameter(names = {"--junk-rate"}, description = "Fraction of malformed lines (0 <= rate < 1)")
+    private double junkRate;
+
+    @Parameter(names = {"--start"}, description = "Timestamp of the first line in yyyy-MM-dd format")
+    private String start = "2015-05-17";
+
+    @Parameter(names = {"--rate"}, description = "Average requests per second")
+    private double rate = DEFAULT_RATE;
+
+    @Parameter(names = {"--ips"}, description = "Number of distinct client addresses")
+    private int ips = DEFAULT_IPS;
+
+    @Parameter(names = {"--resources"}, description = "Number of distinct resources")
+    private int resources = DEFAULT_RESOURCES;
+
+    public String output() {
+        return output;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long lines() {
+        return lines;
+    }
+
+    public int files() {
+        return files;
+    }
+
+    public boolean gzip() {
+        return gzip;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public double junkRate() {
+        return junkRate;
+    }
+
+    public String start() {
+        return start;
+    }
+
+    public double rate() {
+        return rate;
+    }
+
+    public int ips() {
+        return ips;
+    }
+
+    public int resources() {
+        return resources;
+    }
+}
@@ -0,0 +1,147 @@
+package analyzer.generator;
+
+import analyzer.datasource.LocalFileDataSource;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+public class LogGenerator {
+    private static final int CHUNK_LINES = 65_536;
+    private static final int OUTPUT_BUFFER_SIZE = 1024 * 1024;
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
+    private final LogLineGenerator lineGenerator;
+    private final long startSecond;
+    private final double secondsPerLine;
+    private final int threads;
+
+    public LogGenerator(LogLineGenerator lineGenerator, LocalDateTime start, double requestsPerSecond, int threads) {
+        if (requestsPerSecond <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Rate and thread count must be positive");
+        }
+
+        this.lineGenerator = lineGenerator;
+        this.startSecond = start.toEpochSecond(ZoneOffset.UTC);
+        this.secondsPerLine = 1 / requestsPerSecond;
+        this.threads = threads;
+    }
+
+    public static Path rotatedPath(Path directory, String name, int generation, boolean gzip) {
+        if (generation == 0) {
+            return directory.resolve(name);
+        }
+        return directory.resolve(name + '.' + generation + (gzip ? LocalFileDataSource.GZIP_SUFFIX : ""));
+    }
+
+    public List<Path> generate(Path directory, String name, long totalLines, int fileCount, boolean gzip)
+        throws IOException {
+        if (fileCount <= 0 || totalLines < 0) {
+            throw new IllegalArgumentException("File and line counts must not be negative");
+        }
+
+        Files.createDirectories(directory);
+        List<ChunkSpec> chunks = planChunks(directory, name, totalLines, fileCount, gzip);
+        List<Path> files = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            writeChunks(executor, chunks, files);
+        } finally {
+            executor.shutdownNow();
+        }
+        return files;
+    }
+
+    private List<ChunkSpec> planChunks(Path directory, String name, long totalLines, int fileCount, boolean gzip) {
+        List<ChunkSpec> chunks = new ArrayList<>();
+        long chunkIndex = 0;
+        for (int generation = fileCount - 1; generation >= 0; generation--) {
+            long fileLines = totalLines / fileCount + (generation == 0 ? totalLines % fileCount : 0);
+            Path file = rotatedPath(directory, name, generation, gzip);
+            boolean compressed = gzip && generation > 0;
+            long written = 0;
+            do {
+                int lines = (int) Math.min(CHUNK_LINES, fileLines - written);
+                chunks.add(new ChunkSpec(file, compressed, chunkIndex++, lines));
+                written += lines;
+            } while (written < fileLines);
+        }
+        return chunks;
+    }
+
+    private void writeChunks(ExecutorService executor, List<ChunkSpec> chunks, List<Path> files) throws IOException {
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        int submitted = 0;
+        OutputStream output = null;
+        Path currentFile = null;
+        try {
+            for (ChunkSpec chunk : chunks) {
+                while (submitted < chunks.size() && pending.size() < threads * CHUNKS_IN_FLIGHT_PER_THREAD) {
+                    ChunkSpec next = chunks.get(submitted++);
+                    pending.add(executor.submit(() -> render(next)));
+                }
+
+                if (!chunk.file().equals(currentFile)) {
+                    if (output != null) {
+                        output.close();
+                    }
+                    currentFile = chunk.file();
+                    files.add(currentFile);
+                    output = new BufferedOutputStream(Files.newOutputStream(currentFile), OUTPUT_BUFFER_SIZE);
+                }
+                output.write(await(pending.poll()));
+            }
+        } finally {
+            if (output != null) {
+                output.close();
+            }
+        }
+    }
+
+    private byte[] render(ChunkSpec chunk) throws IOException {
+        long firstLine = chunk.index() * CHUNK_LINES;
+        double span = chunk.lines() * secondsPerLine;
+        byte[] text = lineGenerator.generateChunk(chunk.index(), chunk.lines(),
+            startSecond + (long) (firstLine * secondsPerLine), span);
+        if (!chunk.compressed()) {
+            return text;
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(text.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, OUTPUT_BUFFER_SIZE)) {
+            gzip.write(text);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] await(Future<byte[]> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating logs", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        }
+    }
+
+    private record ChunkSpec(Path file, boolean compressed, long index, int lines) {
+    }
+}
@@ -0,0 +1,209 @@
+package analyzer.generator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+public class LogLineGenerator {
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final double IPV6_SHARE = 0.05;
+    private static final double REFERER_SHARE = 0.4;
+    private static final double BURST_ENTER = 0.002;
+    private static final double BURST_LEAVE = 0.02;
+    private static final double BURST_GAP = 0.05;
+    private static final double BYTES_MEAN_LOG = 8;
+    private static final double BYTES_SIGMA_LOG = 1.5;
+    private static final int MAX_BYTES = 50_000_000;
+    private static final int NOT_MODIFIED = 304;
+    private static final int OCTET = 256;
+    private static final int IPV6_GROUP_LIMIT = 0x10000;
+    private static final int TWO_DIGITS = 10;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int LINE_CAPACITY = 256;
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd/MMM/yyyy:", Locale.US);
+
+    private static final String[] METHODS = {"GET", "POST", "HEAD", "PUT", "DELETE", "OPTIONS"};
+    private static final double[] METHOD_WEIGHTS = {85, 10, 3, 1, 0.5, 0.5};
+    private static final int[] STATUSES = {200, 304, 404, 206, 301, 302, 403, 400, 500, 502, 503};
+    private static final double[] STATUS_WEIGHTS = {75, 8, 6, 2, 1.5, 1.5, 1, 1, 1.5, 1, 1.5};
+    private static final String[] PROTOCOLS = {"HTTP/1.1", "HTTP/1.0", "HTTP/2.0"};
+    private static final double[] PROTOCOL_WEIGHTS = {80, 5, 15};
+    private static final String[] RESOURCE_TEMPLATES = {"/downloads/product_%d", "/api/v1/items/%d",
+        "/api/v1/items?page=%d&sort=price", "/static/js/app.%x.js", "/blog/2015/05/post-%d.html",
+        "/images/%d/thumbnail.png", "/search?q=term%d"};
+    private static final String[] USER_AGENTS = {
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 "
+            + "Safari/537.36",
+        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.1 "
+            + "Safari/605.1.15",
+        "Mozilla/5.0 (X11; Linux x86_64; rv:121.0) Gecko/20100101 Firefox/121.0",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) "
+            + "Version/17.1 Mobile/15E148 Safari/604.1",
+        "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 "
+            + "Mobile Safari/537.36",
+        "Debian APT-HTTP/1.3 (1.0.1ubuntu2)",
+        "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+        "Mozilla/5.0 (compatible; bingbot/2.0; +http://www.bing.com/bingbot.htm)",
+        "curl/8.4.0",
+        "python-requests/2.31.0",
+        "Wget/1.21.4",
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 "
+            + "Safari/537.36 Edg/120.0.2210.91"};
+    private static final String[] JUNK_LINES = {"", "-", "GET / HTTP/1.1", "\u0016\u0003\u0001\u0002\u0000",
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\""};
+
+    private final long seed;
+    private final double junkRate;
+    private final String[] addresses;
+    private final String[] resources;
+    private final ZipfSampler addressSampler;
+    private final ZipfSampler resourceSampler;
+    private final ZipfSampler agentSampler;
+    private final double[] methodWeights;
+    private final double[] statusWeights;
+    private final double[] protocolWeights;
+
+    public LogLineGenerator(long seed, int addressCount, int resourceCount, double junkRate) {
+        this.seed = seed;
+        this.junkRate = junkRate;
+        SplittableRandom random = new SplittableRandom(seed);
+        this.addresses = new String[addressCount];
+        for (int i = 0; i < addressCount; i++) {
+            addresses[i] = randomAddress(random);
+        }
+        this.resources = new String[resourceCount];
+        for (int i = 0; i < resourceCount; i++) {
+            resources[i] = String.format(RESOURCE_TEMPLATES[i % RESOURCE_TEMPLATES.length], i);
+        }
+        this.addressSampler = new ZipfSampler(addressCount, ZIPF_EXPONENT);
+        this.resourceSampler = new ZipfSampler(resourceCount, ZIPF_EXPONENT);
+        this.agentSampler = new ZipfSampler(USER_AGENTS.length, ZIPF_EXPONENT);
+        this.methodWeights = cumulative(METHOD_WEIGHTS);
+        this.statusWeights = cumulative(STATUS_WEIGHTS);
+        this.protocolWeights = cumulative(PROTOCOL_WEIGHTS);
+    }
+
+    public byte[] generateChunk(long chunkIndex, int lineCount, long startSecond, double spanSeconds) {
+        SplittableRandom random = new SplittableRandom(seed + chunkIndex * SEED_STRIDE);
+        double[] times = arrivalTimes(random, lineCount, spanSeconds);
+        StringBuilder chunk = new StringBuilder(lineCount * LINE_CAPACITY);
+        TimestampFormatter timestamps = new TimestampFormatter();
+        for (int i = 0; i < lineCount; i++) {
+            if (junkRate > 0 && random.nextDouble() < junkRate) {
+                chunk.append(JUNK_LINES[random.nextInt(JUNK_LINES.length)]);
+            } else {
+                appendLine(chunk, random, timestamps.format(startSecond + (long) times[i]));
+            }
+            chunk.append('\n');
+        }
+        return chunk.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendLine(StringBuilder line, SplittableRandom random, String timestamp) {
+        int status = STATUSES[pick(random, statusWeights)];
+        String resource = resources[resourceSampler.sample(random)];
+        line.append(addresses[addressSampler.sample(random)]).append(" - - [").append(timestamp).append("] \"")
+            .append(METHODS[pick(random, methodWeights)]).append(' ').append(resource).append(' ')
+            .append(PROTOCOLS[pick(random, protocolWeights)]).append("\" ").append(status).append(' ')
+            .append(status == NOT_MODIFIED ? 0 : responseBytes(random)).append(" \"");
+        if (random.nextDouble() < REFERER_SHARE) {
+            line.append("https://example.com").append(resources[resourceSampler.sample(random)]);
+        } else {
+            line.append('-');
+        }
+        line.append("\" \"").append(USER_AGENTS[agentSampler.sample(random)]).append('"');
+    }
+
+    private static double[] arrivalTimes(SplittableRandom random, int lineCount, double spanSeconds) {
+        double[] times = new double[lineCount];
+        boolean burst = false;
+        double time = 0;
+        for (int i = 0; i < lineCount; i++) {
+            burst = burst ? random.nextDouble() >= BURST_LEAVE : random.nextDouble() < BURST_ENTER;
+            time += -Math.log(1 - random.nextDouble()) * (burst ? BURST_GAP : 1);
+            times[i] = time;
+        }
+
+        double scale = time == 0 ? 0 : spanSeconds / time;
+        for (int i = 0; i < lineCount; i++) {
+            times[i] = Math.min(times[i] * scale, Math.nextDown(spanSeconds));
+        }
+        return times;
+    }
+
+    private static long responseBytes(SplittableRandom random) {
+        double radius = Math.sqrt(-2 * Math.log(1 - random.nextDouble()));
+        double gaussian = radius * Math.cos(2 * Math.PI * random.nextDouble());
+        return Math.min(MAX_BYTES, Math.round(Math.exp(BYTES_MEAN_LOG + BYTES_SIGMA_LOG * gaussian)));
+    }
+
+    private static String randomAddress(SplittableRandom random) {
+        if (random.nextDouble() < IPV6_SHARE) {
+            return "2001:db8:" + Integer.toHexString(random.nextInt(IPV6_GROUP_LIMIT)) + "::"
+                + Integer.toHexString(random.nextInt(IPV6_GROUP_LIMIT));
+        }
+        return random.nextInt(1, OCTET - 1) + "." + random.nextInt(OCTET) + "." + random.nextInt(OCTET) + "."
+            + random.nextInt(1, OCTET - 1);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(SplittableRandom random, double[] cumulative) {
+        double value = random.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (value < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    private static final class TimestampFormatter {
+        private long day = Long.MIN_VALUE;
+        private String dayPrefix;
+        private long second = Long.MIN_VALUE;
+        private String formatted;
+
+        String format(long epochSecond) {
+            if (epochSecond == second) {
+                return formatted;
+            }
+
+            long currentDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+            if (currentDay != day) {
+                day = currentDay;
+                dayPrefix = DAY_FORMAT.format(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC));
+            }
+
+            int secondOfDay = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+            StringBuilder builder = new StringBuilder(dayPrefix);
+            appendTwoDigits(builder, secondOfDay / SECONDS_PER_HOUR).append(':');
+            appendTwoDigits(builder, secondOfDay % SECONDS_PER_HOUR / SECONDS_PER_MINUTE).append(':');
+            appendTwoDigits(builder, secondOfDay % SECONDS_PER_MINUTE).append(" +0000");
+            second = epochSecond;
+            formatted = builder.toString();
+            return formatted;
+        }
+
+        private static StringBuilder appendTwoDigits(StringBuilder builder, int value) {
+            return builder.append((char) ('0' + value / TWO_DIGITS)).append((char) ('0' + value % TWO_DIGITS));
+        }
+    }
+}
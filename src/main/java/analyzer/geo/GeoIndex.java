@@ -0,0 +1,179 @@
+package analyzer.geo;
+
+import analyzer.ip.IpAddresses;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.Getter;
+
+public final class GeoIndex {
+    public static final int NOT_FOUND = -1;
+    public static final String SIDECAR_SUFFIX = ".geoidx";
+    static final int MAGIC = 0x47454F49;
+    static final int VERSION = 1;
+    private static final Logger LOGGER = Logger.getLogger(GeoIndex.class.getName());
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final int HEADER_INTS = 3;
+    private static final int LONG_COLUMNS = 4;
+    private static final int INT_COLUMNS = 3;
+
+    private final MemorySegment segment;
+    @Getter private final int size;
+    private final long startHighs;
+    private final long startLows;
+    private final long endHighs;
+    private final long endLows;
+    private final long countries;
+    private final long asns;
+    private final long organizations;
+    private final String[] strings;
+
+    private GeoIndex(MemorySegment segment) throws IOException {
+        if (segment.byteSize() < HEADER_INTS * Integer.BYTES || segment.get(INT, 0) != MAGIC
+            || segment.get(INT, Integer.BYTES) != VERSION) {
+            throw new IOException("Not a compiled geo index");
+        }
+
+        this.segment = segment;
+        this.size = segment.get(INT, 2L * Integer.BYTES);
+        long longColumn = (long) size * Long.BYTES;
+        long intColumn = (long) size * Integer.BYTES;
+        this.startHighs = HEADER_INTS * Integer.BYTES;
+        this.startLows = startHighs + longColumn;
+        this.endHighs = startLows + longColumn;
+        this.endLows = endHighs + longColumn;
+        this.countries = endLows + longColumn;
+        this.asns = countries + intColumn;
+        this.organizations = asns + intColumn;
+        long stringsOffset = startHighs + LONG_COLUMNS * longColumn + INT_COLUMNS * intColumn;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+            segment.asSlice(stringsOffset).toArray(ValueLayout.JAVA_BYTE)))) {
+            this.strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated geo index", e);
+        }
+    }
+
+    public static GeoIndex open(Path database) throws IOException {
+        if (isCompiled(database)) {
+            return map(database);
+        }
+
+        Path sidecar = database.resolveSibling(database.getFileName() + SIDECAR_SUFFIX);
+        if (Files.isRegularFile(sidecar)
+            && Files.getLastModifiedTime(sidecar).compareTo(Files.getLastModifiedTime(database)) >= 0) {
+            try {
+                return map(sidecar);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Rebuilding unreadable geo index " + sidecar + ": " + e.getMessage());
+            }
+        }
+
+        try {
+            compile(database, sidecar);
+            return map(sidecar);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot write geo index " + sidecar + ", keeping it in memory: "
+                + e.getMessage());
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            GeoIndexBuilder.compile(database, bytes);
+            return new GeoIndex(MemorySegment.ofArray(bytes.toByteArray()));
+        }
+    }
+
+    public static void compile(Path csv, Path output) throws IOException {
+        Path tempPath = output.resolveSibling(output.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempPath))) {
+            GeoIndexBuilder.compile(csv, out);
+        }
+        Files.move(tempPath, output, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public int find(CharSequence address) {
+        long[] parsed = new long[2];
+        return IpAddresses.parse(address, parsed) ? find(parsed[0], parsed[1]) : NOT_FOUND;
+    }
+
+    public int find(long high, long low) {
+        if (IpAddresses.isName(high)) {
+            return NOT_FOUND;
+        }
+
+        int lowIndex = 0;
+        int highIndex = size - 1;
+        int found = NOT_FOUND;
+        while (lowIndex <= highIndex) {
+            int middle = (lowIndex + highIndex) >>> 1;
+            if (compare(longAt(startHighs, middle), longAt(startLows, middle), high, low) <= 0) {
+                found = middle;
+                lowIndex = middle + 1;
+            } else {
+                highIndex = middle - 1;
+            }
+        }
+        return found != NOT_FOUND && compare(high, low, longAt(endHighs, found), longAt(endLows, found)) <= 0
+            ? found
+            : NOT_FOUND;
+    }
+
+    public String country(int range) {
+        return strings[intAt(countries, range)];
+    }
+
+    public int asn(int range) {
+        return intAt(asns, range);
+    }
+
+    public String organization(int range) {
+        return strings[intAt(organizations, range)];
+    }
+
+    public long byteSize() {
+        return segment.byteSize();
+    }
+
+    static int compare(long high, long low, long otherHigh, long otherLow) {
+        int byHigh = Long.compareUnsigned(high, otherHigh);
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(low, otherLow);
+    }
+
+    private long longAt(long column, int index) {
+        return segment.get(LONG, column + (long) index * Long.BYTES);
+    }
+
+    private int intAt(long column, int index) {
+        return segment.get(INT, column + (long) index * Integer.BYTES);
+    }
+
+    private static boolean isCompiled(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            return channel.read(header) == Integer.BYTES && header.getInt(0) == MAGIC;
+        }
+    }
+
+    private static GeoIndex map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new GeoIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto()));
+        }
+    }
+}
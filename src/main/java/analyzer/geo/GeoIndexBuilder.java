@@ -0,0 +1,181 @@
+package analyzer.geo;
+
+import analyzer.ip.IpAddresses;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public final class GeoIndexBuilder {
+    private static final String COMMENT_PREFIX = "#";
+    private static final String ASN_PREFIX = "as";
+    private static final String AT_LINE = " at line ";
+    private static final int CIDR_COLUMNS = 2;
+    private static final int RANGE_COLUMNS = 3;
+
+    private final List<Range> ranges = new ArrayList<>();
+    private final long[] address = new long[2];
+    private final long[] end = new long[2];
+    private boolean started;
+
+    public static void compile(Path csv, OutputStream target) throws IOException {
+        GeoIndexBuilder builder = new GeoIndexBuilder();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            int lineNumber = 1;
+            while (line != null) {
+                builder.addLine(line, lineNumber++);
+                line = reader.readLine();
+            }
+        }
+        builder.write(target);
+    }
+
+    void addLine(String line, int lineNumber) {
+        String stripped = line.strip();
+        if (!stripped.isEmpty() && !stripped.startsWith(COMMENT_PREFIX)) {
+            List<String> fields = splitCsv(stripped);
+            boolean cidr = fields.getFirst().indexOf('/') >= 0;
+            int firstValue = cidr ? 1 : 2;
+            if (fields.size() >= (cidr ? CIDR_COLUMNS : RANGE_COLUMNS) && parseRange(fields, cidr)) {
+                ranges.add(new Range(address[0], address[1], end[0], end[1], fields.get(firstValue),
+                    parseAsn(field(fields, firstValue + 1), lineNumber), field(fields, firstValue + 2)));
+            } else if (started) {
+                throw new IllegalArgumentException("Invalid geo range" + AT_LINE + lineNumber + ": " + line);
+            }
+            started = true;
+        }
+    }
+
+    private boolean parseRange(List<String> fields, boolean cidr) {
+        if (!cidr) {
+            return IpAddresses.parse(fields.get(1), end) && IpAddresses.parse(fields.getFirst(), address)
+                && GeoIndex.compare(address[0], address[1], end[0], end[1]) <= 0;
+        }
+
+        String network = fields.getFirst();
+        int slash = network.indexOf('/');
+        if (!IpAddresses.parse(network, 0, slash, address)) {
+            return false;
+        }
+        int prefix;
+        try {
+            prefix = Integer.parseInt(network.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        int bits = IpAddresses.isIpv4(address[0], address[1]) ? IpAddresses.IPV4_MAPPED_PREFIX + prefix : prefix;
+        if (prefix < 0 || bits > IpAddresses.IPV6_BITS) {
+            return false;
+        }
+        address[0] = IpAddresses.maskHigh(address[0], bits);
+        address[1] = IpAddresses.maskLow(address[1], bits);
+        end[0] = address[0] | ~IpAddresses.maskHigh(-1L, bits);
+        end[1] = address[1] | ~IpAddresses.maskLow(-1L, bits);
+        return true;
+    }
+
+    void write(OutputStream target) throws IOException {
+        ranges.sort(Comparator.comparing(Range::startHigh, Long::compareUnsigned)
+            .thenComparing(Range::startLow, Long::compareUnsigned));
+        for (int i = 1; i < ranges.size(); i++) {
+            Range previous = ranges.get(i - 1);
+            Range current = ranges.get(i);
+            if (GeoIndex.compare(current.startHigh(), current.startLow(), previous.endHigh(), previous.endLow()) <= 0) {
+                throw new IllegalArgumentException("Overlapping geo ranges starting at "
+                    + IpAddresses.format(previous.startHigh(), previous.startLow()) + " and "
+                    + IpAddresses.format(current.startHigh(), current.startLow()));
+            }
+        }
+
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(GeoIndex.MAGIC);
+        out.writeInt(GeoIndex.VERSION);
+        out.writeInt(ranges.size());
+        for (Range range : ranges) {
+            out.writeLong(range.startHigh());
+        }
+        for (Range range : ranges) {
+            out.writeLong(range.startLow());
+        }
+        for (Range range : ranges) {
+            out.writeLong(range.endHigh());
+        }
+        for (Range range : ranges) {
+            out.writeLong(range.endLow());
+        }
+        for (Range range : ranges) {
+            out.writeInt(strings.computeIfAbsent(range.country(), key -> strings.size()));
+        }
+        for (Range range : ranges) {
+            out.writeInt(range.asn());
+        }
+        for (Range range : ranges) {
+            out.writeInt(strings.computeIfAbsent(range.organization(), key -> strings.size()));
+        }
+        out.writeInt(strings.size());
+        for (String value : strings.keySet()) {
+            out.writeUTF(value);
+        }
+        out.flush();
+    }
+
+    private static int parseAsn(String value, int lineNumber) {
+        String digits = value.toLowerCase(Locale.ROOT).startsWith(ASN_PREFIX)
+            ? value.substring(ASN_PREFIX.length())
+            : value;
+        try {
+            return digits.isEmpty() ? 0 : Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ASN" + AT_LINE + lineNumber + ": " + value, e);
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (c == '"' && quoted && i < line.length() && line.charAt(i) == '"') {
+                field.append(c);
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    private record Range(
+        long startHigh,
+        long startLow,
+        long endHigh,
+        long endLow,
+        String country,
+        int asn,
+        String organization
+    ) {
+    }
+}
@@ -0,0 +1,154 @@
+package analyzer.index;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.Getter;
+
+@Getter
+public class BlockIndex {
+    private static final Logger LOGGER = Logger.getLogger(BlockIndex.class.getName());
+    private static final int MAGIC = 0x4C494458;
+    private static final int VERSION = 1;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+    private static final int VARINT_SHIFT = 7;
+    private static final int[] NO_BLOCKS = new int[0];
+
+    private final int blockSize;
+    private final Map<IndexedField, Map<String, IntArrayList>> postings;
+    private long indexedLength;
+    private long headerChecksum;
+
+    public BlockIndex(int blockSize) {
+        this.blockSize = blockSize;
+        this.postings = new EnumMap<>(IndexedField.class);
+        for (IndexedField field : IndexedField.values()) {
+            postings.put(field, new HashMap<>());
+        }
+    }
+
+    public void add(IndexedField field, String value, int block) {
+        IntArrayList blocks = postings.get(field).computeIfAbsent(value, key -> new IntArrayList(1));
+        if (blocks.isEmpty() || blocks.getInt(blocks.size() - 1) != block) {
+            blocks.add(block);
+        }
+    }
+
+    public int[] blocksFor(IndexedField field, String value) {
+        IntArrayList blocks = postings.get(field).get(IndexedField.normalize(value));
+        return blocks == null ? NO_BLOCKS : blocks.toIntArray();
+    }
+
+    public int blockOf(long offset) {
+        return (int) (offset / blockSize);
+    }
+
+    void markIndexed(long length, long checksum) {
+        this.indexedLength = length;
+        this.headerChecksum = checksum;
+    }
+
+    public void save(Path path) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(blockSize);
+            out.writeLong(indexedLength);
+            out.writeLong(headerChecksum);
+            out.writeInt(postings.size());
+            for (Map.Entry<IndexedField, Map<String, IntArrayList>> fieldEntry : postings.entrySet()) {
+                out.writeUTF(fieldEntry.getKey().name());
+                out.writeInt(fieldEntry.getValue().size());
+                for (Map.Entry<String, IntArrayList> valueEntry : fieldEntry.getValue().entrySet()) {
+                    out.writeUTF(valueEntry.getKey());
+                    writePostingList(out, valueEntry.getValue());
+                }
+            }
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static Optional<BlockIndex> load(Path path, int expectedBlockSize) {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != expectedBlockSize) {
+                LOGGER.log(Level.INFO, "Ignoring incompatible index " + path);
+                return Optional.empty();
+            }
+
+            BlockIndex index = new BlockIndex(expectedBlockSize);
+            index.markIndexed(in.readLong(), in.readLong());
+            int fieldCount = in.readInt();
+            for (int i = 0; i < fieldCount; i++) {
+                Map<String, IntArrayList> values = index.postings.get(IndexedField.valueOf(in.readUTF()));
+                int valueCount = in.readInt();
+                for (int j = 0; j < valueCount; j++) {
+                    values.put(in.readUTF(), readPostingList(in));
+                }
+            }
+            return Optional.of(index);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Failed to read index " + path + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static void writePostingList(DataOutputStream out, IntArrayList blocks) throws IOException {
+        writeVarInt(out, blocks.size());
+        int previous = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            int block = blocks.getInt(i);
+            writeVarInt(out, block - previous);
+            previous = block;
+        }
+    }
+
+    private static IntArrayList readPostingList(DataInputStream in) throws IOException {
+        int size = readVarInt(in);
+        IntArrayList blocks = new IntArrayList(size);
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous += readVarInt(in);
+            blocks.add(previous);
+        }
+        return blocks;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~VARINT_PAYLOAD_MASK) != 0) {
+            out.writeByte((remaining & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION);
+            remaining >>>= VARINT_SHIFT;
+        }
+        out.writeByte(remaining);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int current;
+        do {
+            current = in.readUnsignedByte();
+            value |= (current & VARINT_PAYLOAD_MASK) << shift;
+            shift += VARINT_SHIFT;
+        } while ((current & VARINT_CONTINUATION) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,97 @@
+package analyzer.index;
+
+import analyzer.datasource.LineRangeReader;
+import analyzer.model.NginxLogEntry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+public class BlockIndexBuilder {
+    public static final String INDEX_SUFFIX = ".idx";
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    private static final Logger LOGGER = Logger.getLogger(BlockIndexBuilder.class.getName());
+    private static final int HEADER_CHECKSUM_LENGTH = 4096;
+
+    private final int blockSize;
+
+    public BlockIndexBuilder() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public BlockIndexBuilder(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public static Path indexPathFor(Path file) {
+        return file.resolveSibling(file.getFileName() + INDEX_SUFFIX);
+    }
+
+    public BlockIndex update(Path file) throws IOException {
+        Path indexPath = indexPathFor(file);
+        long fileSize = Files.size(file);
+        BlockIndex index = BlockIndex.load(indexPath, blockSize)
+            .filter(existing -> isValidFor(existing, file, fileSize))
+            .orElseGet(() -> new BlockIndex(blockSize));
+
+        if (index.indexedLength() == fileSize) {
+            return index;
+        }
+
+        long indexedLength = appendBlocks(index, file, index.indexedLength());
+        index.markIndexed(indexedLength, headerChecksum(file, indexedLength));
+        try {
+            index.save(indexPath);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save index " + indexPath + ": " + e.getMessage());
+        }
+        return index;
+    }
+
+    private long appendBlocks(BlockIndex index, Path file, long from) throws IOException {
+        long indexedLength = from;
+        try (LineRangeReader reader = new LineRangeReader(file, from, Long.MAX_VALUE)) {
+            while (reader.hasNext()) {
+                String line = reader.next();
+                if (!reader.lineTerminated()) {
+                    break;
+                }
+
+                int block = index.blockOf(reader.lineOffset());
+                Optional<NginxLogEntry> entry = NginxLogEntry.parseNginxLogEntry(line);
+                if (entry.isPresent()) {
+                    for (IndexedField field : IndexedField.values()) {
+                        index.add(field, field.extract(entry.orElseThrow()), block);
+                    }
+                }
+                indexedLength = reader.position();
+            }
+        }
+        return indexedLength;
+    }
+
+    private boolean isValidFor(BlockIndex index, Path file, long fileSize) {
+        if (index.indexedLength() > fileSize) {
+            return false;
+        }
+
+        try {
+            return index.headerChecksum() == headerChecksum(file, index.indexedLength());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long headerChecksum(Path file, long indexedLength) throws IOException {
+        int length = (int) Math.min(HEADER_CHECKSUM_LENGTH, indexedLength);
+        CRC32 checksum = new CRC32();
+        try (InputStream in = Files.newInputStream(file)) {
+            checksum.update(in.readNBytes(length));
+        }
+        return checksum.getValue();
+    }
+}
@@ -0,0 +1,47 @@
+package analyzer.index;
+
+import analyzer.model.NginxLogEntry;
+import java.util.Locale;
+import java.util.Optional;
+
+public enum IndexedField {
+    AGENT("agent"),
+    STATUS("status"),
+    RESOURCE("resource"),
+    METHOD("method"),
+    IP("ip");
+
+    private final String fieldName;
+
+    IndexedField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public String extract(NginxLogEntry entry) {
+        String value = switch (this) {
+            case AGENT -> entry.httpUserAgent();
+            case STATUS -> String.valueOf(entry.statusCode());
+            case RESOURCE -> entry.resource();
+            case METHOD -> entry.httpMethod();
+            case IP -> entry.clientIP();
+        };
+        return normalize(value);
+    }
+
+    public static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    public static Optional<IndexedField> fromName(String name) {
+        for (IndexedField field : values()) {
+            if (field.fieldName.equalsIgnoreCase(name)) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,99 @@
+package analyzer.ip;
+
+import java.util.Arrays;
+
+public class CidrTrie {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int ROOT = 0;
+    private static final int NO_CHILD = 0;
+    private static final int HIGH = 0;
+    private static final int LOW = 1;
+
+    private int[] zeroChildren;
+    private int[] oneChildren;
+    private long[] masks;
+    private int size;
+    private int prefixes;
+
+    public CidrTrie() {
+        this.zeroChildren = new int[INITIAL_CAPACITY];
+        this.oneChildren = new int[INITIAL_CAPACITY];
+        this.masks = new long[INITIAL_CAPACITY];
+        this.size = 1;
+    }
+
+    public void add(String cidr, long mask) {
+        int slash = cidr.indexOf('/');
+        String address = slash < 0 ? cidr : cidr.substring(0, slash);
+        long[] key = new long[2];
+        if (!IpAddresses.parse(address.strip(), key)) {
+            throw new IllegalArgumentException("Invalid CIDR: " + cidr);
+        }
+
+        int maxLength = IpAddresses.isIpv4(key[HIGH], key[LOW]) ? IpAddresses.IPV4_BITS : IpAddresses.IPV6_BITS;
+        int length = maxLength;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(cidr.substring(slash + 1).strip());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CIDR prefix: " + cidr, e);
+            }
+        }
+        if (length < 0 || length > maxLength) {
+            throw new IllegalArgumentException("Invalid CIDR prefix: " + cidr);
+        }
+
+        add(key[HIGH], key[LOW], length + IpAddresses.IPV6_BITS - maxLength, mask);
+    }
+
+    public void add(long high, long low, int prefixLength, long mask) {
+        int node = ROOT;
+        for (int bit = 0; bit < prefixLength; bit++) {
+            int[] children = bitAt(high, low, bit) ? oneChildren : zeroChildren;
+            int child = children[node];
+            if (child == NO_CHILD) {
+                child = newNode();
+                (bitAt(high, low, bit) ? oneChildren : zeroChildren)[node] = child;
+            }
+            node = child;
+        }
+        masks[node] |= mask;
+        prefixes++;
+    }
+
+    public long match(long high, long low) {
+        long mask = masks[ROOT];
+        int node = ROOT;
+        for (int bit = 0; bit < IpAddresses.IPV6_BITS; bit++) {
+            node = bitAt(high, low, bit) ? oneChildren[node] : zeroChildren[node];
+            if (node == NO_CHILD) {
+                break;
+            }
+            mask |= masks[node];
+        }
+        return mask;
+    }
+
+    public boolean contains(long high, long low) {
+        return match(high, low) != 0;
+    }
+
+    public boolean isEmpty() {
+        return prefixes == 0;
+    }
+
+    private static boolean bitAt(long high, long low, int bit) {
+        long word = bit < Long.SIZE ? high : low;
+        return (word << (bit & (Long.SIZE - 1))) < 0;
+    }
+
+    private int newNode() {
+        if (size == masks.length) {
+            int capacity = size * 2;
+            zeroChildren = Arrays.copyOf(zeroChildren, capacity);
+            oneChildren = Arrays.copyOf(oneChildren, capacity);
+            masks = Arrays.copyOf(masks, capacity);
+        }
+        return size++;
+    }
+}
@@ -0,0 +1,60 @@
+package analyzer.ip;
+
+import analyzer.profile.Footprint;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ClientNames {
+    private static final Logger LOGGER = Logger.getLogger(ClientNames.class.getName());
+
+    private final Map<Long, String> names = new HashMap<>();
+
+    public void add(long key, String name) {
+        String existing = names.putIfAbsent(key, name);
+        if (existing != null && !existing.equals(name)) {
+            LOGGER.log(Level.WARNING, "Client names \"" + existing + "\" and \"" + name
+                + "\" have the same key and are counted together");
+        }
+    }
+
+    public String get(long high, long low) {
+        return high == IpAddresses.NAME_HIGH ? names.get(low) : null;
+    }
+
+    public String format(long high, long low) {
+        String name = get(high, low);
+        return name != null ? name : IpAddresses.format(high, low);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public void merge(ClientNames other) {
+        other.names.forEach(this::add);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(names.size());
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+    }
+
+    public void mergeFrom(DataInput in) throws IOException {
+        int entries = in.readInt();
+        for (int i = 0; i < entries; i++) {
+            add(in.readLong(), in.readUTF());
+        }
+    }
+
+    public long footprintBytes() {
+        return Footprint.ofMap(names);
+    }
+}
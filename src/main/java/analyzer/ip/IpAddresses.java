@@ -0,0 +1,267 @@
+package analyzer.ip;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class IpAddresses {
+    public static final long NAME_HIGH = 0x0100_0000_0000_0000L;
+    public static final int IPV4_BITS = 32;
+    public static final int IPV6_BITS = 128;
+    public static final int IPV4_MAPPED_PREFIX = IPV6_BITS - IPV4_BITS;
+
+    private static final long IPV4_MAPPED_MARKER = 0xFFFFL << IPV4_BITS;
+    private static final long IPV4_MASK = 0xFFFFFFFFL;
+    private static final int GROUP_BITS = 16;
+    private static final int GROUP_MASK = 0xFFFF;
+    private static final int GROUPS = 8;
+    private static final int GROUPS_PER_LONG = 4;
+    private static final int IPV4_GROUPS = 2;
+    private static final int OCTET_BITS = 8;
+    private static final int OCTETS = 4;
+    private static final int MAX_OCTET = 255;
+    private static final int MAX_GROUP_DIGITS = 4;
+    private static final int HEX_RADIX = 16;
+    private static final int DECIMAL_RADIX = 10;
+    private static final int HIGH = 0;
+    private static final int LOW = 1;
+    private static final long NAME_HASH_OFFSET = 0xCBF2_9CE4_8422_2325L;
+    private static final long NAME_HASH_PRIME = 0x0000_0100_0000_01B3L;
+
+    public static boolean parse(CharSequence text, int start, int end, long[] result) {
+        long ipv4 = parseIpv4(text, start, end);
+        if (ipv4 >= 0) {
+            result[HIGH] = 0;
+            result[LOW] = IPV4_MAPPED_MARKER | ipv4;
+            return true;
+        }
+        return parseIpv6(text, start, end, result);
+    }
+
+    public static boolean parse(CharSequence text, long[] result) {
+        return parse(text, 0, text.length(), result);
+    }
+
+    public static boolean parseOrName(CharSequence text, int start, int end, long[] result) {
+        if (parse(text, start, end, result)) {
+            return true;
+        }
+        result[HIGH] = NAME_HIGH;
+        result[LOW] = nameKey(text, start, end);
+        return false;
+    }
+
+    public static boolean isName(long high) {
+        return high == NAME_HIGH;
+    }
+
+    public static boolean isIpv4(long high, long low) {
+        return high == 0 && (low & ~IPV4_MASK) == IPV4_MAPPED_MARKER;
+    }
+
+    public static long maskHigh(long high, int prefixLength) {
+        if (prefixLength >= Long.SIZE) {
+            return high;
+        }
+        return prefixLength <= 0 ? 0 : high & (-1L << (Long.SIZE - prefixLength));
+    }
+
+    public static long maskLow(long low, int prefixLength) {
+        if (prefixLength <= Long.SIZE) {
+            return 0;
+        }
+        return prefixLength >= IPV6_BITS ? low : low & (-1L << (IPV6_BITS - prefixLength));
+    }
+
+    public static String format(long high, long low) {
+        if (isIpv4(high, low)) {
+            return formatIpv4(low & IPV4_MASK);
+        }
+        return formatIpv6(high, low);
+    }
+
+    public static String formatPrefix(long high, long low, int prefixLength) {
+        if (isIpv4(high, low)) {
+            return format(high, low) + '/' + (prefixLength - IPV4_MAPPED_PREFIX);
+        }
+        return format(high, low) + '/' + prefixLength;
+    }
+
+    private static long nameKey(CharSequence text, int start, int end) {
+        long hash = NAME_HASH_OFFSET;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ text.charAt(i)) * NAME_HASH_PRIME;
+        }
+        return hash;
+    }
+
+    private static long parseIpv4(CharSequence text, int start, int end) {
+        long value = 0;
+        int octets = 0;
+        int position = start;
+        while (position < end && octets < OCTETS) {
+            int octet = 0;
+            int digits = 0;
+            while (position < end && Character.isDigit(text.charAt(position)) && digits <= MAX_GROUP_DIGITS) {
+                octet = octet * DECIMAL_RADIX + (text.charAt(position++) - '0');
+                digits++;
+            }
+            if (digits == 0 || octet > MAX_OCTET) {
+                return -1;
+            }
+            value = (value << OCTET_BITS) | octet;
+            octets++;
+            if (octets < OCTETS && (position >= end || text.charAt(position++) != '.')) {
+                return -1;
+            }
+        }
+        return octets == OCTETS && position == end ? value : -1;
+    }
+
+    private static boolean parseIpv6(CharSequence text, int start, int end, long[] result) {
+        int compression = indexOf(text, start, end);
+        if (compression < 0) {
+            return parseGroups(text, start, end, result) == GROUPS;
+        }
+
+        long[] tail = new long[2];
+        int headGroups = compression == start ? 0 : parseGroups(text, start, compression, result);
+        int tailGroups = compression + 2 == end ? 0 : parseGroups(text, compression + 2, end, tail);
+        if (compression == start) {
+            result[HIGH] = 0;
+            result[LOW] = 0;
+        }
+        if (headGroups < 0 || tailGroups < 0 || headGroups + tailGroups >= GROUPS) {
+            return false;
+        }
+
+        for (int i = headGroups; i < GROUPS; i++) {
+            shiftLeft(result);
+        }
+        result[HIGH] |= tail[HIGH];
+        result[LOW] |= tail[LOW];
+        return true;
+    }
+
+    private static int parseGroups(CharSequence text, int start, int end, long[] result) {
+        result[HIGH] = 0;
+        result[LOW] = 0;
+        int groups = 0;
+        int position = start;
+        while (position < end) {
+            int groupEnd = position;
+            while (groupEnd < end && text.charAt(groupEnd) != ':') {
+                groupEnd++;
+            }
+
+            if (groupEnd == end && containsDot(text, position, end)) {
+                long ipv4 = parseIpv4(text, position, end);
+                if (ipv4 < 0) {
+                    return -1;
+                }
+                shiftLeft(result);
+                shiftLeft(result);
+                result[LOW] |= ipv4;
+                return groups + IPV4_GROUPS;
+            }
+
+            int group = parseHexGroup(text, position, groupEnd);
+            if (group < 0 || groups == GROUPS) {
+                return -1;
+            }
+            shiftLeft(result);
+            result[LOW] |= group;
+            groups++;
+            position = groupEnd + 1;
+            if (groupEnd < end && position == end) {
+                return -1;
+            }
+        }
+        return groups;
+    }
+
+    private static int parseHexGroup(CharSequence text, int start, int end) {
+        if (start == end || end - start > MAX_GROUP_DIGITS) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(text.charAt(i), HEX_RADIX);
+            if (digit < 0) {
+                return -1;
+            }
+            value = value * HEX_RADIX + digit;
+        }
+        return value;
+    }
+
+    private static void shiftLeft(long[] value) {
+        value[HIGH] = (value[HIGH] << GROUP_BITS) | (value[LOW] >>> (Long.SIZE - GROUP_BITS));
+        value[LOW] <<= GROUP_BITS;
+    }
+
+    private static int indexOf(CharSequence text, int start, int end) {
+        for (int i = start; i + 1 < end; i++) {
+            if (text.charAt(i) == ':' && text.charAt(i + 1) == ':') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean containsDot(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String formatIpv4(long ipv4) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = OCTETS - 1; i >= 0; i--) {
+            builder.append((ipv4 >>> (i * OCTET_BITS)) & MAX_OCTET);
+            if (i > 0) {
+                builder.append('.');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String formatIpv6(long high, long low) {
+        int[] groups = new int[GROUPS];
+        for (int i = 0; i < GROUPS_PER_LONG; i++) {
+            int shift = (GROUPS_PER_LONG - 1 - i) * GROUP_BITS;
+            groups[i] = (int) ((high >>> shift) & GROUP_MASK);
+            groups[i + GROUPS_PER_LONG] = (int) ((low >>> shift) & GROUP_MASK);
+        }
+
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < GROUPS; i++) {
+            int length = 0;
+            while (i + length < GROUPS && groups[i + length] == 0) {
+                length++;
+            }
+            if (length > bestLength) {
+                bestStart = i;
+                bestLength = length;
+            }
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < GROUPS; i++) {
+            if (i == bestStart) {
+                builder.append("::");
+                i += bestLength - 1;
+            } else {
+                if (!builder.isEmpty() && builder.charAt(builder.length() - 1) != ':') {
+                    builder.append(':');
+                }
+                builder.append(Integer.toHexString(groups[i]));
+            }
+        }
+        return builder.toString();
+    }
+}
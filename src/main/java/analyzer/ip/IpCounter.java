@@ -0,0 +1,219 @@
+package analyzer.ip;
+
+import analyzer.profile.Footprint;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+public class IpCounter {
+    public static final int NOT_FOUND = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int EMPTY = 0;
+
+    private final int ipv4Prefix;
+    private final int ipv6Prefix;
+    private final ClientNames names;
+    private int[] table;
+    private long[] highs;
+    private long[] lows;
+    private long[] counts;
+    private int size;
+
+    public IpCounter() {
+        this(new ClientNames());
+    }
+
+    public IpCounter(ClientNames names) {
+        this(IpAddresses.IPV4_BITS, IpAddresses.IPV6_BITS, names);
+    }
+
+    public IpCounter(int ipv4Prefix, int ipv6Prefix) {
+        this(ipv4Prefix, ipv6Prefix, new ClientNames());
+    }
+
+    public IpCounter(int ipv4Prefix, int ipv6Prefix, ClientNames names) {
+        this.ipv4Prefix = ipv4Prefix;
+        this.ipv6Prefix = ipv6Prefix;
+        this.names = names;
+        this.table = new int[HashCommon.arraySize(INITIAL_CAPACITY, LOAD_FACTOR)];
+        this.highs = new long[INITIAL_CAPACITY];
+        this.lows = new long[INITIAL_CAPACITY];
+        this.counts = new long[INITIAL_CAPACITY];
+    }
+
+    public void increment(long high, long low) {
+        add(high, low, 1);
+    }
+
+    public void add(long high, long low, long count) {
+        int prefix = prefixLength(high, low);
+        int slot = slotOf(IpAddresses.maskHigh(high, prefix), IpAddresses.maskLow(low, prefix));
+        counts[slot] += count;
+    }
+
+    public int slotOf(long high, long low) {
+        int position = position(high, low);
+        while (table[position] != EMPTY) {
+            int slot = table[position] - 1;
+            if (highs[slot] == high && lows[slot] == low) {
+                return slot;
+            }
+            position = (position + 1) & (table.length - 1);
+        }
+
+        if (size == highs.length) {
+            grow();
+            return slotOf(high, low);
+        }
+
+        int slot = size++;
+        highs[slot] = high;
+        lows[slot] = low;
+        table[position] = slot + 1;
+        return slot;
+    }
+
+    public int find(long high, long low) {
+        int position = position(high, low);
+        while (table[position] != EMPTY) {
+            int slot = table[position] - 1;
+            if (highs[slot] == high && lows[slot] == low) {
+                return slot;
+            }
+            position = (position + 1) & (table.length - 1);
+        }
+        return NOT_FOUND;
+    }
+
+    public long count(long high, long low) {
+        int prefix = prefixLength(high, low);
+        int slot = find(IpAddresses.maskHigh(high, prefix), IpAddresses.maskLow(low, prefix));
+        return slot == NOT_FOUND ? 0 : counts[slot];
+    }
+
+    public long countAt(int slot) {
+        return counts[slot];
+    }
+
+    public long highAt(int slot) {
+        return highs[slot];
+    }
+
+    public long lowAt(int slot) {
+        return lows[slot];
+    }
+
+    public String formatAt(int slot) {
+        return format(highs[slot], lows[slot]);
+    }
+
+    public String format(long high, long low) {
+        int prefix = prefixLength(high, low);
+        if (prefix == IpAddresses.IPV6_BITS) {
+            return names.format(high, low);
+        }
+        return IpAddresses.formatPrefix(high, low, prefix);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void merge(IpCounter other) {
+        for (int slot = 0; slot < other.size; slot++) {
+            add(other.highs[slot], other.lows[slot], other.counts[slot]);
+        }
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int slot = 0; slot < size; slot++) {
+            out.writeLong(highs[slot]);
+            out.writeLong(lows[slot]);
+            out.writeLong(counts[slot]);
+        }
+    }
+
+    public void mergeFrom(DataInput in) throws IOException {
+        int entries = in.readInt();
+        for (int i = 0; i < entries; i++) {
+            add(in.readLong(), in.readLong(), in.readLong());
+        }
+    }
+
+    public void clear() {
+        table = new int[HashCommon.arraySize(INITIAL_CAPACITY, LOAD_FACTOR)];
+        highs = new long[INITIAL_CAPACITY];
+        lows = new long[INITIAL_CAPACITY];
+        counts = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    public void scale(double factor) {
+        for (int slot = 0; slot < size; slot++) {
+            counts[slot] = Math.round(counts[slot] * factor);
+        }
+    }
+
+    public Map<String, Integer> getTopEntries(int topCount) {
+        PriorityQueue<Integer> top = new PriorityQueue<>(topCount + 1, (a, b) -> Long.compare(counts[a], counts[b]));
+        for (int slot = 0; slot < size; slot++) {
+            if (top.size() < topCount) {
+                top.add(slot);
+            } else if (!top.isEmpty() && counts[slot] > counts[top.peek()]) {
+                top.poll();
+                top.add(slot);
+            }
+        }
+
+        IntArrayList ordered = new IntArrayList(top.size());
+        while (!top.isEmpty()) {
+            ordered.add(top.poll().intValue());
+        }
+
+        Map<String, Integer> entries = new LinkedHashMap<>();
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            int slot = ordered.getInt(i);
+            entries.put(formatAt(slot), (int) counts[slot]);
+        }
+        return entries;
+    }
+
+    private int prefixLength(long high, long low) {
+        if (IpAddresses.isName(high)) {
+            return IpAddresses.IPV6_BITS;
+        }
+        return IpAddresses.isIpv4(high, low) ? IpAddresses.IPV4_MAPPED_PREFIX + ipv4Prefix : ipv6Prefix;
+    }
+
+    private int position(long high, long low) {
+        return (int) HashCommon.mix(HashCommon.mix(high) ^ low) & (table.length - 1);
+    }
+
+    private void grow() {
+        int capacity = highs.length * 2;
+        highs = Arrays.copyOf(highs, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        table = new int[HashCommon.arraySize(capacity, LOAD_FACTOR)];
+        for (int slot = 0; slot < size; slot++) {
+            int position = position(highs[slot], lows[slot]);
+            while (table[position] != EMPTY) {
+                position = (position + 1) & (table.length - 1);
+            }
+            table[position] = slot + 1;
+        }
+    }
+
+    public long footprintBytes() {
+        return Footprint.ofArray(table.length, Integer.BYTES) + Footprint.ofArray(highs.length, Long.BYTES)
+            + Footprint.ofArray(lows.length, Long.BYTES) + Footprint.ofArray(counts.length, Long.BYTES);
+    }
+}
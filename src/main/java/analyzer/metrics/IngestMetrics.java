@@ -0,0 +1,98 @@
+package analyzer.metrics;
+
+import analyzer.analyzer.StatisticsAggregator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class IngestMetrics {
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final StatisticsAggregator statisticsAggregator;
+    private final int topCount;
+    private final AtomicReference<CompletableFuture<Map<String, Map<String, Integer>>>> topRequest =
+        new AtomicReference<>();
+    private volatile MetricsSnapshot snapshot = MetricsSnapshot.EMPTY;
+    private volatile Map<String, Map<String, Integer>> topCounters = Map.of();
+    private volatile boolean finished;
+    private long linesRead;
+    private long bytesRead;
+    private long linesFiltered;
+    private long parseFailures;
+    private long entries;
+    private double linesPerSecond;
+    private long windowStartNanos = System.nanoTime();
+    private long windowStartLines;
+
+    public IngestMetrics(StatisticsAggregator statisticsAggregator, int topCount) {
+        this.statisticsAggregator = statisticsAggregator;
+        this.topCount = topCount;
+    }
+
+    public void recordBatch(int lines, long bytes, int filtered, int failures, int accepted) {
+        linesRead += lines;
+        bytesRead += bytes;
+        linesFiltered += filtered;
+        parseFailures += failures;
+        entries += accepted;
+
+        long now = System.nanoTime();
+        if (now - windowStartNanos >= RATE_WINDOW_NANOS) {
+            linesPerSecond = (linesRead - windowStartLines) * NANOS_PER_SECOND / (now - windowStartNanos);
+            windowStartNanos = now;
+            windowStartLines = linesRead;
+        }
+        snapshot = new MetricsSnapshot(
+            linesRead, bytesRead, linesFiltered, parseFailures, entries, linesPerSecond, lines, Map.of());
+
+        if (topRequest.get() != null) {
+            publishTopCounters();
+        }
+    }
+
+    public void finish() {
+        snapshot = new MetricsSnapshot(linesRead, bytesRead, linesFiltered, parseFailures, entries, 0, 0, Map.of());
+        publishTopCounters();
+        finished = true;
+    }
+
+    public MetricsSnapshot snapshot(long timeoutMillis) {
+        if (finished) {
+            return snapshot.withTopCounters(topCounters);
+        }
+
+        CompletableFuture<Map<String, Map<String, Integer>>> request = new CompletableFuture<>();
+        CompletableFuture<Map<String, Map<String, Integer>>> pending = topRequest.compareAndExchange(null, request);
+        CompletableFuture<Map<String, Map<String, Integer>>> awaited = pending == null ? request : pending;
+        try {
+            awaited.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            topRequest.compareAndSet(awaited, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return snapshot.withTopCounters(topCounters);
+    }
+
+    private void publishTopCounters() {
+        Map<String, Map<String, Integer>> counters = new LinkedHashMap<>();
+        counters.put("resource", statisticsAggregator.getTopResources(topCount));
+        counters.put("method", statisticsAggregator.getTopHttpMethods(topCount));
+        counters.put("ip", statisticsAggregator.getTopIpAddresses(topCount));
+        Map<String, Integer> statusCodes = new LinkedHashMap<>();
+        statisticsAggregator.getTopStatusCodes(topCount).forEach((code, count) ->
+            statusCodes.put(String.valueOf(code), count));
+        counters.put("status", statusCodes);
+        topCounters = counters;
+
+        CompletableFuture<Map<String, Map<String, Integer>>> request = topRequest.getAndSet(null);
+        if (request != null) {
+            request.complete(counters);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package analyzer.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MetricsServer implements Closeable {
+    public static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String COUNTER = "counter";
+    private static final String GAUGE = "gauge";
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_ALLOWED = 405;
+    private static final long SNAPSHOT_TIMEOUT_MILLIS = 250;
+
+    private final IngestMetrics metrics;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public MetricsServer(int port, IngestMetrics metrics) throws IOException {
+        this.metrics = metrics;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon().name("metrics").factory());
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(HTTP_NOT_ALLOWED, -1);
+                return;
+            }
+
+            byte[] body = render(metrics.snapshot(SNAPSHOT_TIMEOUT_MILLIS)).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(HTTP_OK, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    static String render(MetricsSnapshot snapshot) {
+        StringBuilder builder = new StringBuilder();
+        metric(builder, "analyzer_lines_read_total", COUNTER, "Lines read from the data source", snapshot.linesRead());
+        metric(builder, "analyzer_bytes_read_total", COUNTER, "Characters read, including line breaks",
+            snapshot.bytesRead());
+        header(builder, "analyzer_lines_rejected_total", COUNTER, "Lines dropped by filters or failed to parse");
+        sample(builder, "analyzer_lines_rejected_total{reason=\"filter\"}", snapshot.linesFiltered());
+        sample(builder, "analyzer_lines_rejected_total{reason=\"parse\"}", snapshot.parseFailures());
+        metric(builder, "analyzer_entries_total", COUNTER, "Entries added to the statistics", snapshot.entries());
+        metric(builder, "analyzer_lines_per_second", GAUGE, "Lines read per second over the last second",
+            snapshot.linesPerSecond());
+        header(builder, "analyzer_queue_depth", GAUGE, "Lines buffered between pipeline stages");
+        sample(builder, "analyzer_queue_depth{queue=\"batch\"}", snapshot.batchDepth());
+        header(builder, "analyzer_top_count", GAUGE, "Current top counters per dimension");
+        for (Map.Entry<String, Map<String, Integer>> dimension : snapshot.topCounters().entrySet()) {
+            dimension.getValue().forEach((key, count) -> sample(builder, "analyzer_top_count{dimension=\""
+                + dimension.getKey() + "\",key=\"" + escapeLabel(key) + "\"}", count));
+        }
+        return builder.toString();
+    }
+
+    private static void metric(StringBuilder builder, String name, String type, String help, double value) {
+        header(builder, name, type, help);
+        sample(builder, name, value);
+    }
+
+    private static void header(StringBuilder builder, String name, String type, String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder builder, String series, double value) {
+        builder.append(series).append(' ');
+        if (value == Math.rint(value)) {
+            builder.append((long) value);
+        } else {
+            builder.append(String.format(Locale.ROOT, "%.3f", value));
+        }
+        builder.append('\n');
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
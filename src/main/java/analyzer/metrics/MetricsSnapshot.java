@@ -0,0 +1,21 @@
+package analyzer.metrics;
+
+import java.util.Map;
+
+public record MetricsSnapshot(
+    long linesRead,
+    long bytesRead,
+    long linesFiltered,
+    long parseFailures,
+    long entries,
+    double linesPerSecond,
+    int batchDepth,
+    Map<String, Map<String, Integer>> topCounters
+) {
+    public static final MetricsSnapshot EMPTY = new MetricsSnapshot(0, 0, 0, 0, 0, 0, 0, Map.of());
+
+    MetricsSnapshot withTopCounters(Map<String, Map<String, Integer>> counters) {
+        return new MetricsSnapshot(linesRead, bytesRead, linesFiltered, parseFailures, entries, linesPerSecond,
+            batchDepth, counters);
+    }
+}
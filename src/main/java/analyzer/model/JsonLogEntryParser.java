@@ -0,0 +1,156 @@
+package analyzer.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class JsonLogEntryParser {
+    private static final Logger LOGGER = Logger.getLogger(JsonLogEntryParser.class.getName());
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Map<String, Field> FIELDS = fieldNames();
+    private static final String NO_VALUE = "-";
+    private static final String DEFAULT_PROTOCOL = "HTTP/1.1";
+    private static final int INVALID = -1;
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 999;
+
+    private enum Field {
+        ADDRESS("remote_addr", "client_ip", "clientip", "ip"),
+        USER("remote_user"),
+        TIME_LOCAL("time_local"),
+        TIME_ISO8601("time_iso8601", "@timestamp", "timestamp"),
+        REQUEST("request"),
+        METHOD("request_method", "method"),
+        URI("request_uri", "uri"),
+        PROTOCOL("server_protocol", "protocol"),
+        STATUS("status"),
+        BYTES("body_bytes_sent", "bytes_sent"),
+        REFERER("http_referer", "referer", "referrer"),
+        AGENT("http_user_agent", "user_agent", "agent");
+
+        private final String[] names;
+
+        Field(String... names) {
+            this.names = names;
+        }
+    }
+
+    public static boolean isJson(CharSequence line) {
+        return !line.isEmpty() && line.charAt(0) == '{';
+    }
+
+    public static Optional<NginxLogEntry> parse(String line) {
+        JsonEntry entry = new JsonEntry();
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    Field field = FIELDS.get(parser.currentName());
+                    JsonToken value = parser.nextToken();
+                    if (field == null || !value.isScalarValue()) {
+                        parser.skipChildren();
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        entry.read(field, parser);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException | DateTimeException e) {
+            LOGGER.log(Level.WARNING, "Error parsing JSON log entry: " + line);
+            return Optional.empty();
+        }
+
+        if (!entry.isComplete()) {
+            LOGGER.log(Level.WARNING, "JSON log entry lacks time, request or status: " + line);
+            return Optional.empty();
+        }
+        return Optional.of(entry.build());
+    }
+
+    public static Optional<LocalDateTime> localDateTime(String line) {
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    Field field = FIELDS.get(parser.currentName());
+                    if (parser.nextToken() == JsonToken.VALUE_STRING
+                        && (field == Field.TIME_LOCAL || field == Field.TIME_ISO8601)) {
+                        return Optional.of(parseTime(field, parser.getText()));
+                    }
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException | IllegalArgumentException | DateTimeException e) {
+            LOGGER.log(Level.FINE, "No timestamp in JSON log entry: " + line);
+        }
+        return Optional.empty();
+    }
+
+    private static LocalDateTime parseTime(Field field, String text) {
+        return field == Field.TIME_LOCAL
+            ? NginxTimestamps.parse(text, 0, text.length())
+            : OffsetDateTime.parse(text).toLocalDateTime();
+    }
+
+    private static Map<String, Field> fieldNames() {
+        Map<String, Field> fields = new HashMap<>();
+        for (Field field : Field.values()) {
+            for (String name : field.names) {
+                fields.put(name, field);
+            }
+        }
+        return fields;
+    }
+
+    private static final class JsonEntry {
+        private final NginxLogEntry.Builder builder = new NginxLogEntry.Builder()
+            .clientIP(NO_VALUE)
+            .remoteUser(NO_VALUE)
+            .httpReferer(NO_VALUE)
+            .httpUserAgent(NO_VALUE);
+        private LocalDateTime time;
+        private String request;
+        private String method;
+        private String uri;
+        private String protocol = DEFAULT_PROTOCOL;
+        private int status = INVALID;
+
+        private void read(Field field, JsonParser parser) throws IOException {
+            switch (field) {
+                case ADDRESS -> builder.clientIP(parser.getText());
+                case USER -> builder.remoteUser(parser.getText());
+                case TIME_LOCAL, TIME_ISO8601 -> time = parseTime(field, parser.getText());
+                case REQUEST -> request = parser.getText();
+                case METHOD -> method = parser.getText();
+                case URI -> uri = parser.getText();
+                case PROTOCOL -> protocol = parser.getText();
+                case STATUS -> status = parser.getValueAsInt(INVALID);
+                case BYTES -> builder.bodyBytesSent(Math.max(0, parser.getValueAsInt(0)));
+                case REFERER -> builder.httpReferer(parser.getText());
+                case AGENT -> builder.httpUserAgent(parser.getText());
+                default -> throw new IllegalStateException("Unexpected field: " + field);
+            }
+        }
+
+        private boolean isComplete() {
+            return time != null && status >= MIN_STATUS && status <= MAX_STATUS
+                && (request != null || (method != null && uri != null));
+        }
+
+        private NginxLogEntry build() {
+            return builder
+                .localDateTime(time)
+                .statusCode(status)
+                .request(request != null ? request : method + ' ' + uri + ' ' + protocol)
+                .build();
+        }
+    }
+}
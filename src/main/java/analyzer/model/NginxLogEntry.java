@@ -1,8 +1,7 @@
 package analyzer.model;
 
+import analyzer.ip.IpAddresses;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -35,8 +34,6 @@ public class NginxLogEntry {
     private static final String HTTP_REFERER = REQUEST;
     private static final String HTTP_USER_AGENT = "\"(.*?)\"";
 
-    private static final DateTimeFormatter NGINX_DATE_FORMATTER =
-        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US);
     private static final Pattern LOG_PATTERN = Pattern.compile(
         "^"
             + CLIENT_IP
@@ -51,7 +48,9 @@ public class NginxLogEntry {
             + "$");
     private static final Pattern RESOURCE_PATTERN = Pattern.compile("\\S+\\s(\\S+)\\sHTTP/\\d\\.\\d");
 
-    private final String clientIP;
+    private final long ipHigh;
+    private final long ipLow;
+    private final String clientName;
     private final String remoteUser;
     private final LocalDateTime localDateTime;
     private final String request;
@@ -63,7 +62,9 @@ public class NginxLogEntry {
     private final String resource;
 
     private NginxLogEntry(Builder builder) {
-        this.clientIP = builder.clientIP;
+        this.ipHigh = builder.ipHigh;
+        this.ipLow = builder.ipLow;
+        this.clientName = builder.clientName;
         this.remoteUser = builder.remoteUser;
         this.localDateTime = builder.localDateTime;
         this.request = builder.request;
@@ -76,6 +77,10 @@ public class NginxLogEntry {
     }
 
     public static Optional<NginxLogEntry> parseNginxLogEntry(String logEntry) {
+        if (JsonLogEntryParser.isJson(logEntry)) {
+            return JsonLogEntryParser.parse(logEntry);
+        }
+
         Matcher matcher = LOG_PATTERN.matcher(logEntry);
 
         if (!matcher.matches()) {
@@ -85,9 +90,10 @@ public class NginxLogEntry {
 
         try {
             return Optional.of(new Builder()
-                .clientIP(matcher.group(GROUP_CLIENT_IP))
+                .clientIP(logEntry, matcher.start(GROUP_CLIENT_IP), matcher.end(GROUP_CLIENT_IP))
                 .remoteUser(matcher.group(GROUP_REMOTE_USER))
-                .localDateTime(LocalDateTime.parse(matcher.group(GROUP_LOCAL_TIME), NGINX_DATE_FORMATTER))
+                .localDateTime(NginxTimestamps.parse(
+                    logEntry, matcher.start(GROUP_LOCAL_TIME), matcher.end(GROUP_LOCAL_TIME)))
                 .request(matcher.group(GROUP_REQUEST))
                 .statusCode(Integer.parseInt(matcher.group(GROUP_STATUS_CODE)))
                 .bodyBytesSent(Integer.parseInt(matcher.group(GROUP_BODY_BYTES_SENT)))
@@ -100,6 +106,10 @@ public class NginxLogEntry {
         }
     }
 
+    public String clientIP() {
+        return clientName != null ? clientName : IpAddresses.format(ipHigh, ipLow);
+    }
+
     private static void logWarning(String message) {
         LOGGER.log(Level.WARNING, message);
     }
@@ -107,7 +117,9 @@ public class NginxLogEntry {
     @Accessors(chain = true)
     @Setter
     public static class Builder {
-        private String clientIP;
+        private long ipHigh;
+        private long ipLow;
+        private String clientName;
         private String remoteUser;
         private LocalDateTime localDateTime;
         private String request;
@@ -118,6 +130,19 @@ public class NginxLogEntry {
         private String httpMethod;
         private String resource;
 
+        public Builder clientIP(String clientIP) {
+            return clientIP(clientIP, 0, clientIP.length());
+        }
+
+        public Builder clientIP(CharSequence text, int start, int end) {
+            long[] address = new long[2];
+            boolean parsed = IpAddresses.parseOrName(text, start, end, address);
+            this.ipHigh = address[0];
+            this.ipLow = address[1];
+            this.clientName = parsed ? null : text.subSequence(start, end).toString();
+            return this;
+        }
+
         public Builder request(String request) {
             this.request = request;
             this.httpMethod = extractHttpMethod(request);
@@ -0,0 +1,102 @@
+package analyzer.model;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class NginxTimestamps {
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+    private static final int MONTH_LENGTH = 3;
+    private static final int DAY = 0;
+    private static final int MONTH = 3;
+    private static final int YEAR = 7;
+    private static final int YEAR_DIGITS = 4;
+    private static final int HOUR = 12;
+    private static final int MINUTE = 15;
+    private static final int SECOND = 18;
+    private static final int OFFSET_SIGN = 21;
+    private static final int OFFSET = 22;
+    private static final int OFFSET_DIGITS = 4;
+    private static final int LENGTH = OFFSET + OFFSET_DIGITS;
+    private static final int DECIMAL_RADIX = 10;
+    private static final int MAX_DAY = 31;
+    private static final String SEPARATORS = "//::: ";
+    private static final int[] SEPARATOR_POSITIONS = {2, 6, 11, 14, 17, 20};
+    private static final int ISO_LENGTH = 19;
+
+    public static LocalDateTime parse(CharSequence text, int start, int end) {
+        if (end - start != LENGTH || !hasSeparators(text, start)) {
+            throw invalid(text, start, end);
+        }
+
+        int day = digits(text, start + DAY, 2);
+        int month = month(text, start + MONTH);
+        int year = digits(text, start + YEAR, YEAR_DIGITS);
+        int hour = digits(text, start + HOUR, 2);
+        int minute = digits(text, start + MINUTE, 2);
+        int second = digits(text, start + SECOND, 2);
+        char sign = text.charAt(start + OFFSET_SIGN);
+        if (day < 1 || day > MAX_DAY || month < 0 || year < 0 || hour < 0 || minute < 0 || second < 0
+            || (sign != '+' && sign != '-') || digits(text, start + OFFSET, OFFSET_DIGITS) < 0) {
+            throw invalid(text, start, end);
+        }
+
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return LocalDateTime.of(year, month, Math.min(day, yearMonth.lengthOfMonth()), hour, minute, second);
+    }
+
+    public static String format(LocalDateTime time) {
+        StringBuilder builder = new StringBuilder(ISO_LENGTH);
+        pad(builder, time.getYear(), YEAR_DIGITS).append('-');
+        pad(builder, time.getMonthValue(), 2).append('-');
+        pad(builder, time.getDayOfMonth(), 2).append('T');
+        pad(builder, time.getHour(), 2).append(':');
+        pad(builder, time.getMinute(), 2).append(':');
+        return pad(builder, time.getSecond(), 2).toString();
+    }
+
+    private static StringBuilder pad(StringBuilder builder, int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            builder.append('0');
+        }
+        return builder.append(digits);
+    }
+
+    private static boolean hasSeparators(CharSequence text, int start) {
+        for (int i = 0; i < SEPARATOR_POSITIONS.length; i++) {
+            if (text.charAt(start + SEPARATOR_POSITIONS[i]) != SEPARATORS.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int month(CharSequence text, int position) {
+        for (int i = 0; i < MONTHS.length(); i += MONTH_LENGTH) {
+            if (MONTHS.charAt(i) == text.charAt(position)
+                && MONTHS.charAt(i + 1) == text.charAt(position + 1)
+                && MONTHS.charAt(i + 2) == text.charAt(position + 2)) {
+                return i / MONTH_LENGTH + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int digits(CharSequence text, int position, int count) {
+        int value = 0;
+        for (int i = position; i < position + count; i++) {
+            int digit = Character.digit(text.charAt(i), DECIMAL_RADIX);
+            if (digit < 0) {
+                return -1;
+            }
+            value = value * DECIMAL_RADIX + digit;
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException invalid(CharSequence text, int start, int end) {
+        return new IllegalArgumentException("Invalid nginx timestamp: " + text.subSequence(start, end));
+    }
+}
@@ -0,0 +1,50 @@
+package analyzer.output;
+
+import analyzer.output.ReportModel.Cell;
+import analyzer.output.ReportModel.Column;
+import analyzer.output.ReportModel.Section;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+public class JsonReportRenderer implements ReportRenderer {
+    private static final JsonFactory JSON_FACTORY =
+        new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    @Override
+    public void render(ReportModel model, Writer writer) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            for (Section section : model.sections()) {
+                generator.writeObjectFieldStart(section.id());
+                generator.writeStringField("title", section.title());
+                generator.writeArrayFieldStart("rows");
+                for (List<Cell> row : section.rows()) {
+                    writeRow(generator, section.columns(), row);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+        writer.write(System.lineSeparator());
+    }
+
+    private void writeRow(JsonGenerator generator, List<Column> columns, List<Cell> row) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.size(); i++) {
+            generator.writeFieldName(columns.get(i).id());
+            switch (row.get(i).value()) {
+                case Long number -> generator.writeNumber(number);
+                case Integer number -> generator.writeNumber(number);
+                case Double number -> generator.writeNumber(number);
+                case null -> generator.writeNull();
+                case Object value -> generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+    }
+}
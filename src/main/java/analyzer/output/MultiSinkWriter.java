@@ -0,0 +1,39 @@
+package analyzer.output;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+public class MultiSinkWriter extends Writer {
+    private final List<Writer> sinks;
+
+    public MultiSinkWriter(List<Writer> sinks) {
+        this.sinks = List.copyOf(sinks);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+        for (Writer sink : sinks) {
+            sink.write(buffer, offset, length);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        for (Writer sink : sinks) {
+            sink.write(text, offset, length);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (Writer sink : sinks) {
+            sink.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -1,3 +1,3 @@
 package analyzer.output;
 
-public enum OutputFormat { MARKDOWN, ADOC }
+public enum OutputFormat { MARKDOWN, ADOC, JSON }
@@ -1,169 +1,466 @@
 package analyzer.output;
 
+import analyzer.analyzer.GroupByAggregator;
+import analyzer.analyzer.GroupByField;
+import analyzer.analyzer.SampleEstimator;
+import analyzer.analyzer.SampleEstimator.Dimension;
 import analyzer.analyzer.StatisticsAggregator;
 import analyzer.config.AnalyzerConfig;
+import analyzer.geo.GeoIndex;
+import analyzer.output.ReportModel.Cell;
+import analyzer.output.ReportModel.Column;
+import analyzer.output.ReportModel.Section;
+import analyzer.profile.PipelineProfile;
+import analyzer.profile.PipelineProfile.Stage;
+import analyzer.profile.PipelineProfile.StageTiming;
+import analyzer.rate.RateTracker;
+import analyzer.session.SessionStats;
+import analyzer.spill.SpilledCounts;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class ReportGenerator {
     private static final int TOP_ENTRIES_LIMIT = 10;
     private static final int PERCENTILE_95 = 95;
+    private static final int DIGIT_GROUP_SIZE = 3;
+    private static final double PERCENT_BASE = 100.;
     private static final String BYTE_SUFFIX = "b";
-    private static final String HEADER_MARKDOWN = "#### ";
-    private static final String HEADER_ADOC = "==== ";
-    private static final String ADOC_TABLE_BORDER = "|===";
     private static final String COLUMN_NAME_COUNT = "Количество";
+    private static final String COLUMN_COUNT = "count";
+    private static final String COLUMN_VALUE = "value";
+    private static final String COLUMN_IP = "ip";
+    private static final String COLUMN_NAME_IP = "IP-адрес";
+    private static final String COLUMN_COUNTRY = "country";
+    private static final String COLUMN_NAME_COUNTRY = "Страна";
+    private static final String COLUMN_ASN = "asn";
+    private static final String COLUMN_NAME_ASN = "ASN";
+    private static final String COLUMN_METRIC = "metric";
+    private static final String COLUMN_NAME_METRIC = "Метрика";
+    private static final String COLUMN_NAME_VALUE = "Значение";
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final String SECONDS_SUFFIX = "s";
 
     private final AnalyzerConfig analyzerConfig;
     private final StatisticsAggregator statisticsAggregator;
+    private ReportModel reportModel;
 
     public ReportGenerator(AnalyzerConfig analyzerConfig, StatisticsAggregator statisticsAggregator) {
         this.analyzerConfig = analyzerConfig;
         this.statisticsAggregator = statisticsAggregator;
     }
 
+    public ReportGenerator(AnalyzerConfig analyzerConfig, ReportModel reportModel) {
+        this(analyzerConfig, (StatisticsAggregator) null);
+        this.reportModel = reportModel;
+    }
+
     public void saveStatisticsToFile(OutputFormat format) throws IOException {
-        Files.write(analyzerConfig.getOutputPath(), generateStatisticsReport(format), StandardOpenOption.CREATE,
-            StandardOpenOption.TRUNCATE_EXISTING);
+        try (Writer file = openOutputFile()) {
+            writeReport(format, List.of(file));
+        }
     }
 
-    public void printStatisticsToConsole(OutputFormat format) {
-        generateStatisticsReport(format).forEach(System.out::println);
+    public void printStatisticsToConsole(OutputFormat format) throws IOException {
+        writeReport(format, List.of(consoleWriter()));
     }
 
-    private List<String> generateStatisticsReport(OutputFormat format) {
-        List<String> lines = new ArrayList<>();
+    public void saveAndPrintStatistics(OutputFormat format) throws IOException {
+        try (Writer file = openOutputFile()) {
+            writeReport(format, List.of(file, consoleWriter()));
+        }
+    }
 
-        addSection(lines, "Общая информация", generateGeneralInfoTable(), format);
-        addSection(lines, "Запрашиваемые ресурсы", generateResourcesTable(), format);
-        addSection(lines, "Коды ответа", generateStatusCodesTable(), format);
-        addSection(lines, "Http-методы", generateHttpMethodsTable(), format);
-        addSection(lines, "Топ активных IP-адресов", generateIpTable(), format);
+    public void writeReport(OutputFormat format, List<Writer> sinks) throws IOException {
+        try (Writer writer = new BufferedWriter(new MultiSinkWriter(sinks))) {
+            ReportRenderer.forFormat(format).render(getReportModel(), writer);
+        }
+    }
 
-        return lines;
+    public ReportModel getReportModel() {
+        if (reportModel == null) {
+            reportModel = generateReportModel();
+        }
+        return reportModel;
     }
 
-    private void addSection(List<String> lines, String title, List<String> data, OutputFormat format) {
-        addSectionHeader(lines, title, format);
-        lines.addAll(data);
-        lines.add("\n");
+    private Writer openOutputFile() throws IOException {
+        Path outputPath = analyzerConfig.getOutputPath();
+        if (outputPath.getParent() != null) {
+            Files.createDirectories(outputPath.getParent());
+        }
+        return Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8);
+    }
+
+    private static Writer consoleWriter() {
+        return new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+    }
+
+    private ReportModel generateReportModel() {
+        List<Section> sections = new ArrayList<>();
+
+        sections.add(generateGeneralInfoTable());
+        sections.add(generateResourcesTable());
+        sections.add(generateStatusCodesTable());
+        sections.add(generateHttpMethodsTable());
+        sections.add(generateIpTable());
+        sections.add(generateSubnetTable());
+        if (statisticsAggregator.tagMatcher().isPresent()) {
+            sections.add(generateTagsTable());
+        }
+        if (statisticsAggregator.agentClassifier().isPresent()) {
+            sections.add(generateAgentFamiliesTable());
+            sections.add(generateAgentVersionsTable());
+            sections.add(generateAgentDevicesTable());
+        }
+        if (statisticsAggregator.geoIndex().isPresent()) {
+            sections.add(generateCountriesTable());
+            sections.add(generateAsnsTable());
+        }
+        statisticsAggregator.groupByAggregator().ifPresent(groupBy -> sections.add(generateGroupByTable(groupBy)));
+        statisticsAggregator.rateTracker().ifPresent(tracker -> sections.add(generateRateTable(tracker)));
+        statisticsAggregator.sessionizer().ifPresent(sessionizer -> {
+            SessionStats sessions = sessionizer.snapshot();
+            sections.add(generateSessionsTable(sessions, sessionizer.timeoutSeconds()));
+            sections.add(generateHistogramTable("sessionLength", "Длительность сессий", sessions.lengthCounts(),
+                SessionStats.LENGTH_BOUNDS, sessions.sessions(), SECONDS_SUFFIX));
+            sections.add(generateHistogramTable("sessionPages", "Запросов за сессию", sessions.pageCounts(),
+                SessionStats.PAGE_BOUNDS, sessions.sessions(), ""));
+        });
+        if (analyzerConfig.profile()) {
+            sections.add(generateProfileTable(analyzerConfig.pipelineProfile()));
+            sections.add(generateMemoryTable(analyzerConfig.pipelineProfile()));
+        }
+
+        return new ReportModel(List.copyOf(sections));
     }
 
-    private List<String> generateGeneralInfoTable() {
-        return generateTable(List.of(
-            new String[] {"Метрика", "Значение"},
-            new String[] {"Источник данных", analyzerConfig.getDataSourceAsString()},
-            new String[] {"Начальная дата", analyzerConfig.from().map(LocalDateTime::toString).orElse("-")},
-            new String[] {"Конечная дата", analyzerConfig.to().map(LocalDateTime::toString).orElse("-")},
-            new String[] {"Количество запросов", formatNumber(statisticsAggregator.totalRequests())},
-            new String[] {"Средний размер ответа",
-                formatNumberWithUnderscores(statisticsAggregator.getAverageResponseSize(), BYTE_SUFFIX)},
-            new String[] {"95p размера ответа",
-                formatNumberWithUnderscores(statisticsAggregator.getPercentileResponseSize(PERCENTILE_95), BYTE_SUFFIX)}
+    private Section generateGeneralInfoTable() {
+        Optional<SampleEstimator> estimator = statisticsAggregator.sampleEstimator();
+        long totalRequests = statisticsAggregator.totalRequests();
+        String totalRequestsText = formatNumber(totalRequests)
+            + estimator.map(sample -> formatHalfWidth(sample.totalHalfWidth())).orElse("");
+        long averageResponseSize = statisticsAggregator.getAverageResponseSize();
+        long percentileResponseSize = statisticsAggregator.getPercentileResponseSize(PERCENTILE_95);
+
+        List<List<Cell>> rows = new ArrayList<>(List.of(
+            infoRow("Источник данных", Cell.of(analyzerConfig.getDataSourceAsString())),
+            infoRow("Начальная дата", Cell.of(analyzerConfig.from().map(LocalDateTime::toString).orElse("-"))),
+            infoRow("Конечная дата", Cell.of(analyzerConfig.to().map(LocalDateTime::toString).orElse("-"))),
+            infoRow("Количество запросов", new Cell(totalRequests, totalRequestsText)),
+            infoRow("Средний размер ответа",
+                new Cell(averageResponseSize, formatNumberWithUnderscores(averageResponseSize, BYTE_SUFFIX))),
+            infoRow("95p размера ответа",
+                new Cell(percentileResponseSize, formatNumberWithUnderscores(percentileResponseSize, BYTE_SUFFIX)))
         ));
+        estimator.ifPresent(sample -> rows.add(infoRow("Выборка", new Cell(sample.rate(),
+            String.format(Locale.US, "%.2f%% блоков (%d, seed %d), 95%% ДИ", sample.rate() * PERCENT_BASE,
+                sample.sampledBlocks(), sample.seed())))));
+        return new Section("general", "Общая информация", metricColumns(), rows);
+    }
+
+    private Section generateResourcesTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopResources(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(new Cell(key, '`' + key + '`'), countCell(Dimension.RESOURCE, key, value))));
+        return new Section("resources", "Запрашиваемые ресурсы",
+            List.of(new Column("resource", "Ресурс"), countColumn()), rows);
     }
 
-    private List<String> generateResourcesTable() {
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[] {"Ресурс", COLUMN_NAME_COUNT});
-        statisticsAggregator.getTopResources(TOP_ENTRIES_LIMIT)
-            .forEach((key, value) -> data.add(new String[] {'`' + key + '`', formatNumber(value)}));
-        return generateTable(data);
+    private Section generateStatusCodesTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopStatusCodes(TOP_ENTRIES_LIMIT).forEach((key, value) -> rows.add(List.of(
+            new Cell(key, String.valueOf(key)),
+            Cell.of(analyzerConfig.getStatusDescription(key)),
+            countCell(Dimension.STATUS, key, value))));
+        return new Section("statusCodes", "Коды ответа",
+            List.of(new Column("code", "Код"), new Column("name", "Имя"), countColumn()), rows);
     }
 
-    private List<String> generateStatusCodesTable() {
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[] {"Код", "Имя", COLUMN_NAME_COUNT});
-        statisticsAggregator.getTopStatusCodes(TOP_ENTRIES_LIMIT).forEach((key, value) -> {
-            String statusName = analyzerConfig.getStatusDescription(key);
-            data.add(new String[] {String.valueOf(key), statusName, formatNumber(value)});
+    private Section generateHttpMethodsTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopHttpMethods(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(new Cell(key, '`' + key + '`'), countCell(Dimension.METHOD, key, value))));
+        return new Section("httpMethods", "Http-методы",
+            List.of(new Column("method", "Метод"), countColumn()), rows);
+    }
+
+    private Section generateIpTable() {
+        Optional<GeoIndex> geoIndex = statisticsAggregator.geoIndex();
+        if (geoIndex.isPresent()) {
+            return generateGeoIpTable(geoIndex.orElseThrow());
+        }
+
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopIpAddresses(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(Cell.of(key), countCell(Dimension.IP, key, value))));
+        return new Section("ipAddresses", "Топ активных IP-адресов",
+            List.of(new Column(COLUMN_IP, COLUMN_NAME_IP), countColumn()), rows);
+    }
+
+    private Section generateGeoIpTable(GeoIndex geoIndex) {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopIpAddresses(TOP_ENTRIES_LIMIT).forEach((key, value) -> {
+            int range = geoIndex.find(key);
+            rows.add(List.of(
+                Cell.of(key),
+                Cell.of(range == GeoIndex.NOT_FOUND ? StatisticsAggregator.UNKNOWN_GEO : geoIndex.country(range)),
+                Cell.of(range == GeoIndex.NOT_FOUND ? StatisticsAggregator.UNKNOWN_GEO
+                    : StatisticsAggregator.asnLabel(geoIndex, range)),
+                countCell(Dimension.IP, key, value)));
         });
-        return generateTable(data);
+        return new Section("ipAddresses", "Топ активных IP-адресов", List.of(new Column(COLUMN_IP, COLUMN_NAME_IP),
+            new Column(COLUMN_COUNTRY, COLUMN_NAME_COUNTRY), new Column(COLUMN_ASN, COLUMN_NAME_ASN), countColumn()),
+            rows);
     }
 
-    private List<String> generateHttpMethodsTable() {
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[] {"Метод", COLUMN_NAME_COUNT});
-        statisticsAggregator.getTopHttpMethods(TOP_ENTRIES_LIMIT)
-            .forEach((key, value) -> data.add(new String[] {'`' + key + '`', formatNumber(value)}));
-        return generateTable(data);
+    private Section generateSubnetTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopSubnets(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(Cell.of(key), numberCell(value))));
+        return new Section("subnets", "Топ подсетей (/24, /48)",
+            List.of(new Column("subnet", "Подсеть"), countColumn()), rows);
     }
 
-    private List<String> generateIpTable() {
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[] {"IP-адрес", COLUMN_NAME_COUNT});
-        statisticsAggregator.getTopIpAddresses(TOP_ENTRIES_LIMIT)
-            .forEach((key, value) -> data.add((new String[] {key, formatNumber(value)})));
-        return generateTable(data);
+    private Section generateTagsTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopTags(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(Cell.of(key), numberCell(value))));
+        return new Section("tags", "Метки из списков", List.of(new Column("tag", "Метка"), countColumn()), rows);
     }
 
-    private void addSectionHeader(List<String> lines, String title, OutputFormat format) {
-        switch (format) {
-            case MARKDOWN -> lines.add(HEADER_MARKDOWN + title);
-            case ADOC -> lines.add(HEADER_ADOC + title);
-            default -> lines.add(HEADER_MARKDOWN + title);
-        }
+    private Section generateAgentFamiliesTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopAgentFamilies(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(Cell.of(key), numberCell(value))));
+        return new Section("agentFamilies", "Семейства user-agent",
+            List.of(new Column("family", "Семейство"), countColumn()), rows);
     }
 
-    private List<String> generateTable(List<String[]> data) {
-        List<String> table = new ArrayList<>(data.size());
-        int[] columnWidths = getMaxColumnWidths(data);
-        OutputFormat format = analyzerConfig.format();
+    private Section generateAgentVersionsTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopAgentVersions(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(Cell.of(key), numberCell(value))));
+        return new Section("agentVersions", "Версии user-agent",
+            List.of(new Column("agent", "Агент"), countColumn()), rows);
+    }
+
+    private Section generateAgentDevicesTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopAgentDevices(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(Cell.of(key), numberCell(value))));
+        return new Section("agentDevices", "Устройства браузеров",
+            List.of(new Column("device", "Устройство"), countColumn()), rows);
+    }
+
+    private Section generateCountriesTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopCountries(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(Cell.of(key), numberCell(value))));
+        return new Section("countries", "Страны",
+            List.of(new Column(COLUMN_COUNTRY, COLUMN_NAME_COUNTRY), countColumn()), rows);
+    }
+
+    private Section generateAsnsTable() {
+        List<List<Cell>> rows = new ArrayList<>();
+        statisticsAggregator.getTopAsns(TOP_ENTRIES_LIMIT).forEach((key, value) ->
+            rows.add(List.of(Cell.of(key), numberCell(value))));
+        return new Section("asns", "Автономные системы",
+            List.of(new Column(COLUMN_ASN, COLUMN_NAME_ASN), countColumn()), rows);
+    }
+
+    private Section generateGroupByTable(GroupByAggregator groupBy) {
+        List<Column> columns = new ArrayList<>();
+        groupBy.dimensions().forEach(field -> columns.add(new Column(field.fieldName(), field.fieldName())));
+        columns.addAll(List.of(countColumn(), new Column("bytesSum", "Сумма байт"),
+            new Column("bytesMax", "Макс. размер")));
 
-        if (format == OutputFormat.ADOC) {
-            table.add(ADOC_TABLE_BORDER);
+        List<List<Cell>> rows = new ArrayList<>();
+        for (GroupByAggregator.GroupRow row : groupBy.getTopGroups(TOP_ENTRIES_LIMIT)) {
+            List<Cell> cells = new ArrayList<>();
+            row.values().forEach(value -> cells.add(Cell.of(value)));
+            cells.add(numberCell(row.count()));
+            cells.add(new Cell(row.bytesSum(), formatNumberWithUnderscores(row.bytesSum(), BYTE_SUFFIX)));
+            cells.add(new Cell((long) row.bytesMax(), formatNumberWithUnderscores(row.bytesMax(), BYTE_SUFFIX)));
+            rows.add(cells);
         }
 
-        String headerFormat = Arrays.stream(columnWidths)
-            .mapToObj(width -> "| %-" + width + "s ")
-            .collect(Collectors.joining()) + "|";
-        if (format == OutputFormat.ADOC) {
-            headerFormat = headerFormat.substring(0, headerFormat.length() - 1);
+        String title = groupBy.dimensions().stream()
+            .map(GroupByField::fieldName)
+            .collect(Collectors.joining(", ", "Группировка: ", ""));
+        return new Section("groupBy", title, List.copyOf(columns), rows);
+    }
+
+    private static Section generateRateTable(RateTracker tracker) {
+        List<List<Cell>> rows = new ArrayList<>();
+        for (RateTracker.Violation violation : tracker.getTopViolations(TOP_ENTRIES_LIMIT)) {
+            LocalDateTime first = LocalDateTime.ofEpochSecond(violation.firstSecond(), 0, ZoneOffset.UTC);
+            rows.add(List.of(
+                Cell.of(violation.ip()),
+                Cell.of(violation.limit().windowSeconds() + SECONDS_SUFFIX),
+                numberCell(violation.limit().maxRequests()),
+                numberCell(violation.peak()),
+                Cell.of(first.toString()),
+                Cell.of(violation.approximate() ? "≈ count-min" : "точно")));
         }
-        table.add(String.format(headerFormat, (Object[]) data.getFirst()));
+        return new Section("rateViolations", "Превышения частоты запросов", List.of(
+            new Column(COLUMN_IP, COLUMN_NAME_IP),
+            new Column("window", "Окно"),
+            new Column("limit", "Лимит"),
+            new Column("peak", "Пик"),
+            new Column("firstViolation", "Первое превышение"),
+            new Column("accuracy", "Точность")), rows);
+    }
 
-        if (format == OutputFormat.MARKDOWN) {
-            String separator = Arrays.stream(columnWidths)
-                .mapToObj(width -> "|:" + "-".repeat(width) + ":")
-                .collect(Collectors.joining()) + "|";
-            table.add(separator);
+    private static Section generateSessionsTable(SessionStats sessions, int timeoutSeconds) {
+        List<List<Cell>> rows = List.of(
+            infoRow("Тайм-аут неактивности", Cell.of(timeoutSeconds / SECONDS_PER_MINUTE + " мин")),
+            infoRow("Сессий", numberCell(sessions.sessions())),
+            infoRow("Средняя длительность", new Cell(sessions.averageSeconds(),
+                String.format(Locale.US, "%.1f%s", sessions.averageSeconds(), SECONDS_SUFFIX))),
+            infoRow("Запросов за сессию в среднем", new Cell(sessions.averagePages(),
+                String.format(Locale.US, "%.2f", sessions.averagePages()))),
+            infoRow("Макс. открытых сессий", numberCell(sessions.peakOpenSessions())));
+        return new Section("sessions", "Сессии (IP + User-Agent)", metricColumns(), rows);
+    }
+
+    private static Section generateHistogramTable(
+        String id,
+        String title,
+        long[] counts,
+        long[] bounds,
+        long total,
+        String suffix
+    ) {
+        List<List<Cell>> rows = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            long upper = i == counts.length - 1 ? Long.MAX_VALUE : bounds[i + 1] - 1;
+            String range = upper == Long.MAX_VALUE ? "≥ " + bounds[i] + suffix
+                : (upper == bounds[i] ? "" : bounds[i] + "–") + upper + suffix;
+            double share = total == 0 ? 0 : counts[i] * PERCENT_BASE / total;
+            rows.add(List.of(Cell.of(range), numberCell(counts[i]),
+                new Cell(share, String.format(Locale.US, "%.1f%%", share))));
         }
+        return new Section(id, title, List.of(new Column("range", "Диапазон"), countColumn(),
+            new Column("share", "Доля")), rows);
+    }
 
-        for (int i = 1; i < data.size(); i++) {
-            table.add(String.format(headerFormat, (Object[]) data.get(i)));
+    private static Section generateProfileTable(PipelineProfile profile) {
+        List<List<Cell>> rows = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            StageTiming timing = profile.timing(stage);
+            rows.add(List.of(
+                Cell.of(stage.name().toLowerCase(Locale.ROOT)),
+                numberCell(timing.lines()),
+                millisCell(timing.wallNanos()),
+                millisCell(timing.cpuNanos()),
+                numberCell(Math.round(timing.linesPerSecond())),
+                timing.bytes() == 0 ? new Cell(null, "-") : numberCell(Math.round(timing.bytesPerSecond()))));
         }
+        return new Section("profile", "Профиль этапов", List.of(
+            new Column("stage", "Этап"),
+            new Column("lines", "Строк"),
+            new Column("wallMs", "Время, мс"),
+            new Column("cpuMs", "CPU, мс"),
+            new Column("linesPerSecond", "Строк/с"),
+            new Column("bytesPerSecond", "Байт/с")), rows);
+    }
 
-        if (format == OutputFormat.ADOC) {
-            table.add(ADOC_TABLE_BORDER);
+    private Section generateMemoryTable(PipelineProfile profile) {
+        List<List<Cell>> rows = new ArrayList<>();
+        rows.add(infoRow("Доля ошибок разбора", new Cell(profile.parseFailureRate(),
+            String.format(Locale.US, "%.2f%% (%s)", profile.parseFailureRate() * PERCENT_BASE,
+                formatNumber(profile.parseFailures())))));
+        rows.add(infoRow("Пик кучи JVM", bytesCell(PipelineProfile.peakHeapBytes())));
+        statisticsAggregator.getFootprint().forEach((structure, bytes) ->
+            rows.add(infoRow('`' + structure + '`', bytesCell(bytes))));
+        if (statisticsAggregator.isSpilled()) {
+            SpilledCounts resources = statisticsAggregator.spilledResources();
+            SpilledCounts ipAddresses = statisticsAggregator.spilledIpAddresses();
+            SpilledCounts subnets = statisticsAggregator.spilledSubnets();
+            rows.add(infoRow("Сбросов таблиц на диск (ресурсы / IP / подсети)",
+                Cell.of(formatNumber(resources.spills()) + " / " + formatNumber(ipAddresses.spills()) + " / "
+                    + formatNumber(subnets.spills()))));
+            rows.add(infoRow("Записано на диск",
+                bytesCell(resources.bytes() + ipAddresses.bytes() + subnets.bytes())));
         }
+        statisticsAggregator.geoIndex().ifPresent(geoIndex ->
+            rows.add(infoRow("Гео-индекс (диапазонов: " + formatNumber(geoIndex.size()) + ")",
+                bytesCell(geoIndex.byteSize()))));
+        statisticsAggregator.agentClassifier().ifPresent(classifier -> {
+            CacheStats stats = classifier.stats();
+            rows.add(infoRow("Кэш user-agent: попадания", new Cell(stats.hitRate(),
+                String.format(Locale.US, "%.2f%% (%s из %s)", stats.hitRate() * PERCENT_BASE,
+                    formatNumber(stats.hitCount()), formatNumber(stats.requestCount())))));
+            rows.add(infoRow("Кэш user-agent: записей / вытеснено", Cell.of(formatNumber(classifier.cachedAgents())
+                + " / " + formatNumber(stats.evictionCount()))));
+        });
+        return new Section("memory", "Ошибки разбора и память", metricColumns(), rows);
+    }
 
-        return table;
+    private static List<Column> metricColumns() {
+        return List.of(new Column(COLUMN_METRIC, COLUMN_NAME_METRIC), new Column(COLUMN_VALUE, COLUMN_NAME_VALUE));
     }
 
-    private String formatNumber(int value) {
-        return String.format(Locale.US, "%,d", value).replace(',', '_');
+    private static Cell millisCell(long nanos) {
+        double millis = nanos / NANOS_PER_MILLI;
+        return new Cell(millis, String.format(Locale.US, "%.1f", millis));
     }
 
-    private String formatNumberWithUnderscores(int value, String suffix) {
-        return formatNumber(value) + suffix;
+    private static Cell bytesCell(long bytes) {
+        return new Cell(bytes, formatNumberWithUnderscores(bytes, BYTE_SUFFIX));
+    }
+
+    private static List<Cell> infoRow(String metric, Cell value) {
+        return List.of(Cell.of(metric), value);
+    }
+
+    private static Column countColumn() {
+        return new Column(COLUMN_COUNT, COLUMN_NAME_COUNT);
     }
 
-    private int[] getMaxColumnWidths(List<String[]> data) {
-        int columns = data.getFirst().length;
-        int[] maxWidths = new int[columns];
+    private static Cell numberCell(long value) {
+        return new Cell(value, formatNumber(value));
+    }
+
+    private Cell countCell(Dimension dimension, Object key, long value) {
+        return new Cell(value, formatNumber(value) + statisticsAggregator.sampleEstimator()
+            .map(sample -> formatHalfWidth(sample.halfWidth(dimension, key)))
+            .orElse(""));
+    }
+
+    private static String formatHalfWidth(double halfWidth) {
+        return " ± " + formatNumber(Math.round(halfWidth));
+    }
+
+    private static String formatNumberWithUnderscores(long value, String suffix) {
+        return formatNumber(value) + suffix;
+    }
 
-        for (String[] row : data) {
-            for (int i = 0; i < columns; i++) {
-                maxWidths[i] = Math.max(maxWidths[i], row[i].length());
+    private static String formatNumber(long value) {
+        String digits = Long.toString(value);
+        int signLength = value < 0 ? 1 : 0;
+        StringBuilder builder = new StringBuilder(digits.length() + digits.length() / DIGIT_GROUP_SIZE);
+        builder.append(digits, 0, signLength);
+        for (int i = signLength; i < digits.length(); i++) {
+            if (i > signLength && (digits.length() - i) % DIGIT_GROUP_SIZE == 0) {
+                builder.append('_');
             }
+            builder.append(digits.charAt(i));
         }
-        return maxWidths;
+        return builder.toString();
     }
 }
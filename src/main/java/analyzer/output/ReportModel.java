@@ -0,0 +1,17 @@
+package analyzer.output;
+
+import java.util.List;
+
+public record ReportModel(List<Section> sections) {
+    public record Section(String id, String title, List<Column> columns, List<List<Cell>> rows) {
+    }
+
+    public record Column(String id, String title) {
+    }
+
+    public record Cell(Object value, String text) {
+        public static Cell of(String text) {
+            return new Cell(text, text);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package analyzer.output;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public interface ReportRenderer {
+    void render(ReportModel model, Writer writer) throws IOException;
+
+    static ReportRenderer forFormat(OutputFormat format) {
+        return switch (format) {
+            case JSON -> new JsonReportRenderer();
+            default -> new TableReportRenderer(format);
+        };
+    }
+}
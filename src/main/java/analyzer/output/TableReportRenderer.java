@@ -0,0 +1,96 @@
+package analyzer.output;
+
+import analyzer.output.ReportModel.Cell;
+import analyzer.output.ReportModel.Column;
+import analyzer.output.ReportModel.Section;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+public class TableReportRenderer implements ReportRenderer {
+    private static final String HEADER_MARKDOWN = "#### ";
+    private static final String HEADER_ADOC = "==== ";
+    private static final String ADOC_TABLE_BORDER = "|===";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final OutputFormat format;
+
+    public TableReportRenderer(OutputFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public void render(ReportModel model, Writer writer) throws IOException {
+        for (Section section : model.sections()) {
+            writeLine(writer, (format == OutputFormat.ADOC ? HEADER_ADOC : HEADER_MARKDOWN) + section.title());
+            writeTable(writer, section);
+            writeLine(writer, "\n");
+        }
+    }
+
+    private void writeTable(Writer writer, Section section) throws IOException {
+        int[] columnWidths = getMaxColumnWidths(section);
+        if (format == OutputFormat.ADOC) {
+            writeLine(writer, ADOC_TABLE_BORDER);
+        }
+
+        StringBuilder line = new StringBuilder();
+        List<Column> columns = section.columns();
+        for (int i = 0; i < columns.size(); i++) {
+            appendCell(line, columns.get(i).title(), columnWidths[i]);
+        }
+        writeRow(writer, line);
+
+        if (format == OutputFormat.MARKDOWN) {
+            for (int width : columnWidths) {
+                line.append("|:").append("-".repeat(width)).append(':');
+            }
+            line.append('|');
+            writeLine(writer, line);
+            line.setLength(0);
+        }
+
+        for (List<Cell> row : section.rows()) {
+            for (int i = 0; i < row.size(); i++) {
+                appendCell(line, row.get(i).text(), columnWidths[i]);
+            }
+            writeRow(writer, line);
+        }
+
+        if (format == OutputFormat.ADOC) {
+            writeLine(writer, ADOC_TABLE_BORDER);
+        }
+    }
+
+    private void appendCell(StringBuilder line, String text, int width) {
+        line.append("| ").append(text);
+        line.repeat(' ', width - text.length() + 1);
+    }
+
+    private void writeRow(Writer writer, StringBuilder line) throws IOException {
+        if (format != OutputFormat.ADOC) {
+            line.append('|');
+        }
+        writeLine(writer, line);
+        line.setLength(0);
+    }
+
+    private static void writeLine(Writer writer, CharSequence line) throws IOException {
+        writer.append(line).append(LINE_SEPARATOR);
+    }
+
+    private static int[] getMaxColumnWidths(Section section) {
+        List<Column> columns = section.columns();
+        int[] maxWidths = new int[columns.size()];
+        for (int i = 0; i < maxWidths.length; i++) {
+            maxWidths[i] = columns.get(i).title().length();
+        }
+
+        for (List<Cell> row : section.rows()) {
+            for (int i = 0; i < maxWidths.length; i++) {
+                maxWidths[i] = Math.max(maxWidths[i], row.get(i).text().length());
+            }
+        }
+        return maxWidths;
+    }
+}
@@ -0,0 +1,16 @@
+package analyzer.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("analyzer.Aggregation")
+@Label("Aggregation Batch")
+@Category({"Log Analyzer", "Pipeline"})
+@Setter
+public class AggregationEvent extends Event {
+    @Label("Entries")
+    private int entries;
+}
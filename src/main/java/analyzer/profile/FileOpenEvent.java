@@ -0,0 +1,19 @@
+package analyzer.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("analyzer.FileOpen")
+@Label("Log File Open")
+@Category({"Log Analyzer", "I/O"})
+@Setter
+public class FileOpenEvent extends Event {
+    @Label("Path")
+    private String path;
+
+    @Label("Compressed")
+    private boolean compressed;
+}
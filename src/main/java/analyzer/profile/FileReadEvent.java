@@ -0,0 +1,21 @@
+package analyzer.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("analyzer.FileRead")
+@Label("Log File Read")
+@Category({"Log Analyzer", "I/O"})
+@Setter
+public class FileReadEvent extends Event {
+    @Label("Path")
+    private String path;
+
+    @Label("File Size")
+    @DataAmount
+    private long bytes;
+}
@@ -0,0 +1,19 @@
+package analyzer.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("analyzer.FileSearch")
+@Label("Log File Search")
+@Category({"Log Analyzer", "I/O"})
+@Setter
+public class FileSearchEvent extends Event {
+    @Label("Pattern")
+    private String pattern;
+
+    @Label("Files Found")
+    private int files;
+}
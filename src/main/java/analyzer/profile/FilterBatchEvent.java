@@ -0,0 +1,22 @@
+package analyzer.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("analyzer.FilterBatch")
+@Label("Filter Batch")
+@Category({"Log Analyzer", "Pipeline"})
+@Setter
+public class FilterBatchEvent extends Event {
+    @Label("Raw Line Check")
+    private boolean raw;
+
+    @Label("Input")
+    private int input;
+
+    @Label("Accepted")
+    private int accepted;
+}
@@ -0,0 +1,44 @@
+package analyzer.profile;
+
+import java.util.Collection;
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class Footprint {
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int BOXED_BYTES = 16;
+    private static final int MAP_ENTRY_BYTES = 32;
+    private static final int STRING_BYTES = 24 + ARRAY_HEADER_BYTES;
+
+    public static long ofArray(int length, int elementBytes) {
+        return ARRAY_HEADER_BYTES + (long) length * elementBytes;
+    }
+
+    public static long ofBoxedList(int size) {
+        return ofArray(size, REFERENCE_BYTES) + (long) size * BOXED_BYTES;
+    }
+
+    public static long ofMap(Map<?, ?> map) {
+        long total = ofArray(Integer.highestOneBit(Math.max(map.size(), 1)) * 2, REFERENCE_BYTES)
+            + (long) map.size() * (MAP_ENTRY_BYTES + BOXED_BYTES);
+        return total + ofKeys(map.keySet());
+    }
+
+    public static long ofEntry(Object key) {
+        return 2 * REFERENCE_BYTES + MAP_ENTRY_BYTES + BOXED_BYTES + ofKey(key);
+    }
+
+    private static long ofKeys(Collection<?> keys) {
+        long total = 0;
+        for (Object key : keys) {
+            total += ofKey(key);
+        }
+        return total;
+    }
+
+    private static long ofKey(Object key) {
+        return key instanceof String text ? STRING_BYTES + text.length() : BOXED_BYTES;
+    }
+}
@@ -0,0 +1,19 @@
+package analyzer.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("analyzer.ParseBatch")
+@Label("Parse Batch")
+@Category({"Log Analyzer", "Pipeline"})
+@Setter
+public class ParseBatchEvent extends Event {
+    @Label("Lines")
+    private int lines;
+
+    @Label("Failed Lines")
+    private int failed;
+}
@@ -0,0 +1,96 @@
+package analyzer.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import lombok.Getter;
+
+public class PipelineProfile {
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final long[] wallNanos = new long[Stage.values().length];
+    private final long[] cpuNanos = new long[Stage.values().length];
+    private final long[] lines = new long[Stage.values().length];
+    private final long[] bytes = new long[Stage.values().length];
+    private final boolean measureCpu;
+    @Getter private long parseFailures;
+    private long lastWall;
+    private long lastCpu;
+
+    public enum Stage { FIND, READ, FILTER, PARSE, AGGREGATE }
+
+    public record StageTiming(Stage stage, long wallNanos, long cpuNanos, long lines, long bytes) {
+        public double linesPerSecond() {
+            return perSecond(lines);
+        }
+
+        public double bytesPerSecond() {
+            return perSecond(bytes);
+        }
+
+        private double perSecond(long amount) {
+            return wallNanos == 0 ? 0 : amount * NANOS_PER_SECOND / wallNanos;
+        }
+    }
+
+    public PipelineProfile() {
+        this(false);
+    }
+
+    public PipelineProfile(boolean measureCpu) {
+        this.measureCpu = measureCpu;
+    }
+
+    public void restart() {
+        lastWall = System.nanoTime();
+        lastCpu = currentThreadCpuTime();
+    }
+
+    public void lap(Stage stage, long lineCount, long byteCount) {
+        long wall = System.nanoTime();
+        long cpu = currentThreadCpuTime();
+        wallNanos[stage.ordinal()] += wall - lastWall;
+        cpuNanos[stage.ordinal()] += cpu - lastCpu;
+        lines[stage.ordinal()] += lineCount;
+        bytes[stage.ordinal()] += byteCount;
+        lastWall = wall;
+        lastCpu = cpu;
+    }
+
+    public void addParseFailures(long count) {
+        parseFailures += count;
+    }
+
+    public StageTiming timing(Stage stage) {
+        int index = stage.ordinal();
+        return new StageTiming(stage, wallNanos[index], cpuNanos[index], lines[index], bytes[index]);
+    }
+
+    public double parseFailureRate() {
+        long parsed = lines[Stage.PARSE.ordinal()];
+        return parsed == 0 ? 0 : (double) parseFailures / parsed;
+    }
+
+    public static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private long currentThreadCpuTime() {
+        return measureCpu ? ThreadClock.cpuTime() : 0;
+    }
+
+    private static final class ThreadClock {
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+        static long cpuTime() {
+            return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package analyzer.rate;
+
+import analyzer.profile.Footprint;
+import it.unimi.dsi.fastutil.HashCommon;
+import java.util.Arrays;
+
+public class CountMinSketch {
+    private static final int DEPTH = 4;
+    private static final long ROW_SEED = 0x9E3779B97F4A7C15L;
+
+    private final int[] counts;
+    private final int width;
+
+    public CountMinSketch(int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two: " + width);
+        }
+        this.width = width;
+        this.counts = new int[DEPTH * width];
+    }
+
+    public int add(long key) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(row, key);
+            counts[index]++;
+            estimate = Math.min(estimate, counts[index]);
+        }
+        return estimate;
+    }
+
+    public int estimate(long key) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts[index(row, key)]);
+        }
+        return estimate;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    public long footprintBytes() {
+        return Footprint.ofArray(counts.length, Integer.BYTES);
+    }
+
+    private int index(int row, long key) {
+        return row * width + (int) (HashCommon.murmurHash3(key ^ (row + 1) * ROW_SEED) & (width - 1));
+    }
+}
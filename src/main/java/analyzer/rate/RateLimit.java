@@ -0,0 +1,39 @@
+package analyzer.rate;
+
+import java.util.Locale;
+
+public record RateLimit(int maxRequests, int windowSeconds) {
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+
+    public RateLimit {
+        if (maxRequests < 1 || windowSeconds < 1 || windowSeconds > SECONDS_PER_HOUR) {
+            throw new IllegalArgumentException("Invalid rate limit " + maxRequests + "/" + windowSeconds + "s");
+        }
+    }
+
+    public static RateLimit parse(String text) {
+        String value = text.strip().toLowerCase(Locale.ROOT);
+        int separator = value.indexOf('/');
+        if (separator <= 0 || separator == value.length() - 1) {
+            throw new IllegalArgumentException("Rate limit must look like <requests>/<window>: " + text);
+        }
+
+        String window = value.substring(separator + 1);
+        int unit = switch (window.charAt(window.length() - 1)) {
+            case 'h' -> SECONDS_PER_HOUR;
+            case 'm' -> SECONDS_PER_MINUTE;
+            case 's' -> 1;
+            default -> 0;
+        };
+        String amount = unit == 0 ? window : window.substring(0, window.length() - 1);
+        long seconds = (long) Integer.parseInt(amount) * Math.max(unit, 1);
+        return new RateLimit(Integer.parseInt(value.substring(0, separator)),
+            (int) Math.min(seconds, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public String toString() {
+        return maxRequests + "/" + windowSeconds + "s";
+    }
+}
@@ -0,0 +1,391 @@
+package analyzer.rate;
+
+import analyzer.ip.IpAddresses;
+import analyzer.profile.Footprint;
+import it.unimi.dsi.fastutil.HashCommon;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+public class RateTracker {
+    public static final int DEFAULT_MAX_KEYS = 65_536;
+    private static final int MAX_BUCKETS = 60;
+    private static final int MAX_OFFENDERS = 10_000;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int SKETCH_WIDTH = 1 << 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int EMPTY = 0;
+    private static final int NOT_TRACKED = -1;
+
+    @Getter private final List<RateLimit> limits;
+    private final int[] bucketSeconds;
+    private final int[] windowBuckets;
+    private final int[] ringOffsets;
+    private final int ringSize;
+    private final long idleSeconds;
+    private final int maxKeys;
+    private final CountMinSketch[] currentSketches;
+    private final CountMinSketch[] previousSketches;
+    private final long[] sketchPeriods;
+    private final Map<String, Offender> offenders;
+    private int[] table;
+    private long[] highs;
+    private long[] lows;
+    private long[] lastBuckets;
+    private long[] lastSeconds;
+    private int[] ring;
+    private int[] sums;
+    private Offender[] slotOffenders;
+    private int size;
+    private long lastSweepSecond = Long.MIN_VALUE;
+    @Getter private long evictedKeys;
+    @Getter private long approximateRequests;
+
+    public RateTracker(List<RateLimit> limits, int maxKeys) {
+        if (limits.isEmpty() || maxKeys < 1) {
+            throw new IllegalArgumentException("Rate tracking needs at least one limit and one key");
+        }
+
+        this.limits = List.copyOf(limits);
+        this.bucketSeconds = limits.stream()
+            .mapToInt(limit -> (limit.windowSeconds() + MAX_BUCKETS - 1) / MAX_BUCKETS)
+            .toArray();
+        this.windowBuckets = new int[limits.size()];
+        this.ringOffsets = new int[limits.size()];
+        int offset = 0;
+        long longestSpan = 0;
+        for (int window = 0; window < limits.size(); window++) {
+            windowBuckets[window] = (limits.get(window).windowSeconds() + bucketSeconds[window] - 1)
+                / bucketSeconds[window];
+            ringOffsets[window] = offset;
+            offset += windowBuckets[window];
+            longestSpan = Math.max(longestSpan, (long) windowBuckets[window] * bucketSeconds[window]);
+        }
+        this.ringSize = offset;
+        this.idleSeconds = longestSpan;
+        this.maxKeys = maxKeys;
+        this.currentSketches = new CountMinSketch[limits.size()];
+        this.previousSketches = new CountMinSketch[limits.size()];
+        this.sketchPeriods = new long[limits.size()];
+        this.offenders = new HashMap<>();
+        allocate(Math.min(INITIAL_CAPACITY, maxKeys));
+    }
+
+    public void add(long high, long low, long epochSecond) {
+        add(high, low, null, epochSecond);
+    }
+
+    public void add(long high, long low, String name, long epochSecond) {
+        int slot = slotOf(high, low, epochSecond);
+        if (slot == NOT_TRACKED) {
+            addApproximate(high, low, name, epochSecond);
+        } else {
+            addExact(slot, name, epochSecond);
+        }
+    }
+
+    public int trackedKeys() {
+        return size;
+    }
+
+    public List<Violation> getTopViolations(int count) {
+        List<Violation> violations = new ArrayList<>();
+        for (Offender offender : offenders.values()) {
+            for (int window = 0; window < limits.size(); window++) {
+                if (offender.peaks[window] > 0) {
+                    violations.add(new Violation(offender.ip, limits.get(window), offender.peaks[window],
+                        offender.firstSeconds[window], offender.approximate[window]));
+                }
+            }
+        }
+        return violations.stream()
+            .sorted(Comparator.comparingDouble(Violation::excess).reversed().thenComparing(Violation::ip))
+            .limit(count)
+            .toList();
+    }
+
+    public void merge(RateTracker other) {
+        for (Offender offender : other.offenders.values()) {
+            recordOffender(offender);
+        }
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(offenders.size());
+        for (Offender offender : offenders.values()) {
+            out.writeUTF(offender.ip);
+            for (int window = 0; window < limits.size(); window++) {
+                out.writeInt(offender.peaks[window]);
+                out.writeLong(offender.firstSeconds[window]);
+                out.writeBoolean(offender.approximate[window]);
+            }
+        }
+    }
+
+    public void mergeFrom(DataInput in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            Offender offender = new Offender(in.readUTF(), limits.size());
+            for (int window = 0; window < limits.size(); window++) {
+                offender.peaks[window] = in.readInt();
+                offender.firstSeconds[window] = in.readLong();
+                offender.approximate[window] = in.readBoolean();
+            }
+            recordOffender(offender);
+        }
+    }
+
+    public long footprintBytes() {
+        long bytes = Footprint.ofArray(table.length, Integer.BYTES) + Footprint.ofArray(highs.length, Long.BYTES)
+            + Footprint.ofArray(lows.length, Long.BYTES) + Footprint.ofArray(lastBuckets.length, Long.BYTES)
+            + Footprint.ofArray(lastSeconds.length, Long.BYTES)
+            + Footprint.ofArray(ring.length, Integer.BYTES) + Footprint.ofArray(sums.length, Integer.BYTES)
+            + Footprint.ofMap(offenders);
+        for (int window = 0; window < limits.size(); window++) {
+            bytes += currentSketches[window] == null ? 0
+                : currentSketches[window].footprintBytes() + previousSketches[window].footprintBytes();
+        }
+        return bytes;
+    }
+
+    private void addExact(int slot, String name, long epochSecond) {
+        lastSeconds[slot] = Math.max(lastSeconds[slot], epochSecond);
+        for (int window = 0; window < windowBuckets.length; window++) {
+            int index = slot * windowBuckets.length + window;
+            long bucket = Math.floorDiv(epochSecond, bucketSeconds[window]);
+            advance(slot, window, bucket);
+            if (lastBuckets[index] - bucket >= windowBuckets[window]) {
+                continue;
+            }
+
+            ring[slot * ringSize + ringOffsets[window] + Math.floorMod(bucket, windowBuckets[window])]++;
+            int count = ++sums[index];
+            if (count > limits.get(window).maxRequests()) {
+                recordExactViolation(slot, name, window, count, epochSecond);
+            }
+        }
+    }
+
+    private void advance(int slot, int window, long bucket) {
+        int index = slot * windowBuckets.length + window;
+        long last = lastBuckets[index];
+        if (bucket <= last) {
+            return;
+        }
+
+        int buckets = windowBuckets[window];
+        int ringStart = slot * ringSize + ringOffsets[window];
+        if (bucket - last >= buckets) {
+            Arrays.fill(ring, ringStart, ringStart + buckets, 0);
+            sums[index] = 0;
+        } else {
+            for (long next = last + 1; next <= bucket; next++) {
+                int cell = ringStart + Math.floorMod(next, buckets);
+                sums[index] -= ring[cell];
+                ring[cell] = 0;
+            }
+        }
+        lastBuckets[index] = bucket;
+    }
+
+    private void addApproximate(long high, long low, String name, long epochSecond) {
+        approximateRequests++;
+        long key = HashCommon.mix(HashCommon.mix(high) ^ low);
+        for (int window = 0; window < limits.size(); window++) {
+            int seconds = limits.get(window).windowSeconds();
+            rotateSketches(window, Math.floorDiv(epochSecond, seconds));
+            long elapsed = Math.floorMod(epochSecond, seconds);
+            long estimate = currentSketches[window].add(key)
+                + previousSketches[window].estimate(key) * (seconds - elapsed) / seconds;
+            if (estimate > limits.get(window).maxRequests()) {
+                Offender offender = offender(name != null ? name : IpAddresses.format(high, low));
+                if (offender != null) {
+                    offender.record(window, (int) Math.min(estimate, Integer.MAX_VALUE), epochSecond, true);
+                }
+            }
+        }
+    }
+
+    private void rotateSketches(int window, long period) {
+        if (currentSketches[window] == null) {
+            currentSketches[window] = new CountMinSketch(SKETCH_WIDTH);
+            previousSketches[window] = new CountMinSketch(SKETCH_WIDTH);
+            sketchPeriods[window] = period;
+        } else if (period > sketchPeriods[window]) {
+            CountMinSketch previous = previousSketches[window];
+            previousSketches[window] = currentSketches[window];
+            currentSketches[window] = previous;
+            currentSketches[window].clear();
+            if (period > sketchPeriods[window] + 1) {
+                previousSketches[window].clear();
+            }
+            sketchPeriods[window] = period;
+        }
+    }
+
+    private void recordExactViolation(int slot, String name, int window, int count, long epochSecond) {
+        if (slotOffenders[slot] == null) {
+            slotOffenders[slot] = offender(name != null ? name : IpAddresses.format(highs[slot], lows[slot]));
+        }
+        if (slotOffenders[slot] != null) {
+            slotOffenders[slot].record(window, count, epochSecond, false);
+        }
+    }
+
+    private void recordOffender(Offender other) {
+        Offender offender = offender(other.ip);
+        if (offender == null) {
+            return;
+        }
+        for (int window = 0; window < limits.size(); window++) {
+            if (other.peaks[window] > 0) {
+                offender.record(window, other.peaks[window], other.firstSeconds[window], other.approximate[window]);
+            }
+        }
+    }
+
+    private Offender offender(String ip) {
+        Offender offender = offenders.get(ip);
+        if (offender == null && offenders.size() < MAX_OFFENDERS) {
+            offender = new Offender(ip, limits.size());
+            offenders.put(ip, offender);
+        }
+        return offender;
+    }
+
+    private int slotOf(long high, long low, long epochSecond) {
+        int position = position(high, low);
+        while (table[position] != EMPTY) {
+            int slot = table[position] - 1;
+            if (highs[slot] == high && lows[slot] == low) {
+                return slot;
+            }
+            position = (position + 1) & (table.length - 1);
+        }
+
+        if (size == highs.length) {
+            if (highs.length < maxKeys) {
+                grow();
+            } else if (epochSecond > lastSweepSecond) {
+                lastSweepSecond = epochSecond;
+                evictIdle(epochSecond);
+            }
+            return size == highs.length ? NOT_TRACKED : slotOf(high, low, epochSecond);
+        }
+
+        int slot = size++;
+        highs[slot] = high;
+        lows[slot] = low;
+        lastSeconds[slot] = epochSecond;
+        for (int window = 0; window < windowBuckets.length; window++) {
+            lastBuckets[slot * windowBuckets.length + window] = Math.floorDiv(epochSecond, bucketSeconds[window]);
+        }
+        Arrays.fill(ring, slot * ringSize, (slot + 1) * ringSize, 0);
+        Arrays.fill(sums, slot * windowBuckets.length, (slot + 1) * windowBuckets.length, 0);
+        slotOffenders[slot] = null;
+        table[position] = slot + 1;
+        return slot;
+    }
+
+    private void evictIdle(long epochSecond) {
+        int kept = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (epochSecond - lastSeconds[slot] < idleSeconds) {
+                if (kept != slot) {
+                    moveSlot(slot, kept);
+                }
+                kept++;
+            }
+        }
+        evictedKeys += size - kept;
+        size = kept;
+        rebuildTable();
+    }
+
+    private void moveSlot(int from, int to) {
+        highs[to] = highs[from];
+        lows[to] = lows[from];
+        lastSeconds[to] = lastSeconds[from];
+        slotOffenders[to] = slotOffenders[from];
+        System.arraycopy(lastBuckets, from * windowBuckets.length, lastBuckets, to * windowBuckets.length,
+            windowBuckets.length);
+        System.arraycopy(ring, from * ringSize, ring, to * ringSize, ringSize);
+        System.arraycopy(sums, from * windowBuckets.length, sums, to * windowBuckets.length, windowBuckets.length);
+    }
+
+    private void allocate(int capacity) {
+        table = new int[HashCommon.arraySize(capacity, LOAD_FACTOR)];
+        highs = new long[capacity];
+        lows = new long[capacity];
+        lastBuckets = new long[Math.multiplyExact(capacity, windowBuckets.length)];
+        lastSeconds = new long[capacity];
+        ring = new int[Math.multiplyExact(capacity, ringSize)];
+        sums = new int[Math.multiplyExact(capacity, windowBuckets.length)];
+        slotOffenders = new Offender[capacity];
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(maxKeys, highs.length * 2L);
+        highs = Arrays.copyOf(highs, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        lastBuckets = Arrays.copyOf(lastBuckets, Math.multiplyExact(capacity, windowBuckets.length));
+        lastSeconds = Arrays.copyOf(lastSeconds, capacity);
+        ring = Arrays.copyOf(ring, Math.multiplyExact(capacity, ringSize));
+        sums = Arrays.copyOf(sums, Math.multiplyExact(capacity, windowBuckets.length));
+        slotOffenders = Arrays.copyOf(slotOffenders, capacity);
+        table = new int[HashCommon.arraySize(capacity, LOAD_FACTOR)];
+        rebuildTable();
+    }
+
+    private void rebuildTable() {
+        Arrays.fill(table, EMPTY);
+        for (int slot = 0; slot < size; slot++) {
+            int position = position(highs[slot], lows[slot]);
+            while (table[position] != EMPTY) {
+                position = (position + 1) & (table.length - 1);
+            }
+            table[position] = slot + 1;
+        }
+    }
+
+    private int position(long high, long low) {
+        return (int) HashCommon.mix(HashCommon.mix(high) ^ low) & (table.length - 1);
+    }
+
+    public record Violation(String ip, RateLimit limit, int peak, long firstSecond, boolean approximate) {
+        double excess() {
+            return (double) peak / limit.maxRequests();
+        }
+    }
+
+    private static final class Offender {
+        private final String ip;
+        private final int[] peaks;
+        private final long[] firstSeconds;
+        private final boolean[] approximate;
+
+        private Offender(String ip, int windows) {
+            this.ip = ip;
+            this.peaks = new int[windows];
+            this.firstSeconds = new long[windows];
+            this.approximate = new boolean[windows];
+        }
+
+        private void record(int window, int count, long epochSecond, boolean estimated) {
+            if (peaks[window] == 0 || epochSecond < firstSeconds[window]) {
+                firstSeconds[window] = epochSecond;
+            }
+            if (count > peaks[window]) {
+                peaks[window] = count;
+                approximate[window] = estimated;
+            }
+        }
+    }
+}
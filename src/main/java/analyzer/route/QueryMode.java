@@ -0,0 +1,6 @@
+package analyzer.route;
+
+public enum QueryMode {
+    STRIP,
+    KEYS
+}
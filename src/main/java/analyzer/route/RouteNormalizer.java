@@ -0,0 +1,119 @@
+package analyzer.route;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class RouteNormalizer {
+    public static final String ID = "{id}";
+    public static final String UUID = "{uuid}";
+    public static final String HEX = "{hex}";
+    private static final int MAX_CACHED = 65_536;
+    private static final int UUID_LENGTH = 36;
+    private static final int[] UUID_HYPHENS = {8, 13, 18, 23};
+    private static final int MIN_HEX_LENGTH = 16;
+    private static final int HEX_RADIX = 16;
+    private static final String QUERY_SEPARATOR = "&";
+
+    private final RouteRules rules;
+    private final Map<String, String> cache = new HashMap<>();
+    private final Map<String, String> routes = new HashMap<>();
+
+    public RouteNormalizer(RouteRules rules) {
+        this.rules = rules;
+    }
+
+    public String normalize(String resource) {
+        String route = cache.get(resource);
+        if (route == null) {
+            if (cache.size() == MAX_CACHED) {
+                cache.clear();
+            }
+            String normalized = normalizeUncached(resource);
+            route = routes.computeIfAbsent(normalized, key -> key);
+            cache.put(resource, route);
+        }
+        return route;
+    }
+
+    public int cachedResources() {
+        return cache.size();
+    }
+
+    private String normalizeUncached(String resource) {
+        int queryStart = resource.indexOf('?');
+        String path = queryStart < 0 ? resource : resource.substring(0, queryStart);
+        Optional<String> template = rules.match(path);
+        String route = template.isPresent() ? template.orElseThrow() : replaceSegments(path);
+        if (queryStart >= 0 && rules.queryMode() == QueryMode.KEYS) {
+            route += '?' + queryKeys(resource.substring(queryStart + 1));
+        }
+        return route;
+    }
+
+    private static String replaceSegments(String path) {
+        StringBuilder route = new StringBuilder(path.length());
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                route.append(placeholder(path, start, i));
+                if (i < path.length()) {
+                    route.append('/');
+                }
+                start = i + 1;
+            }
+        }
+        return route.toString();
+    }
+
+    private static CharSequence placeholder(String path, int start, int end) {
+        CharSequence segment = path.subSequence(start, end);
+        if (isNumber(path, start, end)) {
+            segment = ID;
+        } else if (isUuid(path, start, end)) {
+            segment = UUID;
+        } else if (isHex(path, start, end)) {
+            segment = HEX;
+        }
+        return segment;
+    }
+
+    private static boolean isNumber(String path, int start, int end) {
+        boolean digits = end > start;
+        for (int i = start; i < end && digits; i++) {
+            digits = Character.isDigit(path.charAt(i));
+        }
+        return digits;
+    }
+
+    private static boolean isUuid(String path, int start, int end) {
+        boolean uuid = end - start == UUID_LENGTH;
+        for (int i = 0; i < UUID_LENGTH && uuid; i++) {
+            char c = path.charAt(start + i);
+            uuid = Arrays.binarySearch(UUID_HYPHENS, i) >= 0 ? c == '-' : Character.digit(c, HEX_RADIX) >= 0;
+        }
+        return uuid;
+    }
+
+    private static boolean isHex(String path, int start, int end) {
+        boolean hex = end - start >= MIN_HEX_LENGTH;
+        boolean hasDigit = false;
+        for (int i = start; i < end && hex; i++) {
+            char c = path.charAt(i);
+            hex = Character.digit(c, HEX_RADIX) >= 0;
+            hasDigit |= Character.isDigit(c);
+        }
+        return hex && hasDigit;
+    }
+
+    private static String queryKeys(String query) {
+        return Arrays.stream(query.split(QUERY_SEPARATOR))
+            .filter(parameter -> !parameter.isEmpty())
+            .map(parameter -> parameter.indexOf('=') < 0 ? parameter : parameter.substring(0, parameter.indexOf('=')))
+            .distinct()
+            .sorted()
+            .collect(Collectors.joining(QUERY_SEPARATOR));
+    }
+}
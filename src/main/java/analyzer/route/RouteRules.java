@@ -0,0 +1,107 @@
+package analyzer.route;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.Getter;
+
+public class RouteRules {
+    private static final String COMMENT_PREFIX = "#";
+    private static final String ANY_SEGMENT = "*";
+    private static final String ANY_REST = "**";
+
+    @Getter private final QueryMode queryMode;
+    @Getter private final int patternCount;
+    private final Node root = new Node();
+
+    public RouteRules(List<String> patterns, QueryMode queryMode) {
+        this.queryMode = queryMode;
+        this.patternCount = patterns.size();
+        for (String pattern : patterns) {
+            add(pattern);
+        }
+    }
+
+    public static RouteRules load(Path path, QueryMode queryMode) throws IOException {
+        List<String> patterns = new ArrayList<>();
+        List<String> lines = Files.readAllLines(path);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX)) {
+                if (!line.startsWith("/")) {
+                    throw new IllegalArgumentException("Route pattern must start with '/' at line " + (i + 1)
+                        + ": " + line);
+                }
+                patterns.add(line);
+            }
+        }
+        return new RouteRules(patterns, queryMode);
+    }
+
+    public Optional<String> match(String path) {
+        return Optional.ofNullable(match(root, segments(path), 0));
+    }
+
+    private void add(String pattern) {
+        List<String> segments = segments(pattern);
+        Node node = root;
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (ANY_REST.equals(segment) && i == segments.size() - 1) {
+                node.rest = node.rest == null ? pattern : node.rest;
+            } else if (ANY_SEGMENT.equals(segment) || isPlaceholder(segment)) {
+                node.wildcard = node.wildcard == null ? new Node() : node.wildcard;
+                node = node.wildcard;
+            } else {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        if (!pattern.endsWith(ANY_REST) && node.template == null) {
+            node.template = pattern;
+        }
+    }
+
+    private static String match(Node node, List<String> segments, int index) {
+        String result = null;
+        if (index == segments.size()) {
+            result = node.template;
+        } else {
+            Node literal = node.children.get(segments.get(index));
+            if (literal != null) {
+                result = match(literal, segments, index + 1);
+            }
+            if (result == null && node.wildcard != null && !segments.get(index).isEmpty()) {
+                result = match(node.wildcard, segments, index + 1);
+            }
+        }
+        return result == null ? node.rest : result;
+    }
+
+    private static boolean isPlaceholder(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = path.startsWith("/") ? 1 : 0;
+        for (int i = start; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                segments.add(path.substring(start, i));
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;
+        private String template;
+        private String rest;
+    }
+}
@@ -0,0 +1,303 @@
+package analyzer.server;
+
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.analyzer.ValueDictionary;
+import analyzer.filter.FieldView;
+import analyzer.filter.LogField;
+import analyzer.ip.ClientNames;
+import analyzer.ip.IpCounter;
+import analyzer.model.NginxLogEntry;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import java.lang.foreign.Arena;
+import java.lang.foreign.ValueLayout;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.Getter;
+
+public class LogTable implements AutoCloseable {
+    public static final int SEGMENT_SIZE = 65_536;
+
+    @Getter private final int size;
+    private final Arena arena;
+    private final long baseSecond;
+    private final ValueDictionary users;
+    private final ValueDictionary requests;
+    private final ValueDictionary methods;
+    private final ValueDictionary resources;
+    private final ValueDictionary referers;
+    private final ValueDictionary agents;
+    private final IpCounter addresses;
+    private final ClientNames clientNames;
+    private final OffHeapColumn seconds;
+    private final OffHeapColumn statusCodes;
+    private final OffHeapColumn bodyBytes;
+    private final OffHeapColumn addressIds;
+    private final OffHeapColumn userIds;
+    private final OffHeapColumn requestIds;
+    private final OffHeapColumn methodIds;
+    private final OffHeapColumn resourceIds;
+    private final OffHeapColumn refererIds;
+    private final OffHeapColumn agentIds;
+
+    private LogTable(Builder builder) {
+        this.size = builder.seconds.size();
+        this.baseSecond = builder.baseSecond;
+        this.users = builder.users;
+        this.requests = builder.requests;
+        this.methods = builder.methods;
+        this.resources = builder.resources;
+        this.referers = builder.referers;
+        this.agents = builder.agents;
+        this.addresses = builder.addresses;
+        this.clientNames = builder.clientNames;
+
+        if (builder.sorted) {
+            this.arena = builder.arena;
+            this.seconds = builder.seconds;
+            this.statusCodes = builder.statusCodes;
+            this.bodyBytes = builder.bodyBytes;
+            this.addressIds = builder.addressIds;
+            this.userIds = builder.userIds;
+            this.requestIds = builder.requestIds;
+            this.methodIds = builder.methodIds;
+            this.resourceIds = builder.resourceIds;
+            this.refererIds = builder.refererIds;
+            this.agentIds = builder.agentIds;
+            return;
+        }
+
+        int[] order = timeOrder(builder.seconds, size);
+        this.arena = Arena.ofShared();
+        this.seconds = builder.seconds.permute(arena, order);
+        this.statusCodes = builder.statusCodes.permute(arena, order);
+        this.bodyBytes = builder.bodyBytes.permute(arena, order);
+        this.addressIds = builder.addressIds.permute(arena, order);
+        this.userIds = builder.userIds.permute(arena, order);
+        this.requestIds = builder.requestIds.permute(arena, order);
+        this.methodIds = builder.methodIds.permute(arena, order);
+        this.resourceIds = builder.resourceIds.permute(arena, order);
+        this.refererIds = builder.refererIds.permute(arena, order);
+        this.agentIds = builder.agentIds.permute(arena, order);
+        builder.arena.close();
+    }
+
+    public static LogTable load(Stream<String> lines) {
+        Builder builder = new Builder();
+        lines.map(NginxLogEntry::parseNginxLogEntry)
+            .flatMap(Optional::stream)
+            .forEach(builder::add);
+        return builder.build();
+    }
+
+    public int segmentCount() {
+        return (size + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+    }
+
+    public long offHeapBytes() {
+        return columns().stream().mapToLong(OffHeapColumn::byteSize).sum();
+    }
+
+    public StatisticsAggregator query(
+        Optional<LocalDateTime> from,
+        Optional<LocalDateTime> to,
+        Optional<Predicate<FieldView>> predicate
+    ) {
+        return scan(from, to, predicate, StatisticsAggregator::new, this::addRow, (left, right) -> {
+            left.merge(right);
+            return left;
+        });
+    }
+
+    public <R> R scan(
+        Optional<LocalDateTime> from,
+        Optional<LocalDateTime> to,
+        Optional<Predicate<FieldView>> predicate,
+        Supplier<R> supplier,
+        ObjIntConsumer<R> accumulator,
+        BinaryOperator<R> combiner
+    ) {
+        int start = from.map(time -> lowerBound(toSecond(time))).orElse(0);
+        int end = to.map(time -> lowerBound(toSecond(time) + 1)).orElse(size);
+        if (start >= end) {
+            return supplier.get();
+        }
+
+        return IntStream.rangeClosed(start / SEGMENT_SIZE, (end - 1) / SEGMENT_SIZE)
+            .parallel()
+            .mapToObj(segment -> scanSegment(Math.max(start, segment * SEGMENT_SIZE),
+                Math.min(end, (segment + 1) * SEGMENT_SIZE), predicate, supplier.get(), accumulator))
+            .reduce(combiner)
+            .orElseGet(supplier);
+    }
+
+    public long epochSecond(int row) {
+        return baseSecond + seconds.intAt(row);
+    }
+
+    public int statusCode(int row) {
+        return statusCodes.shortAt(row);
+    }
+
+    public int bodyBytes(int row) {
+        return bodyBytes.intAt(row);
+    }
+
+    public long ipHigh(int row) {
+        return addresses.highAt(addressIds.intAt(row));
+    }
+
+    public long ipLow(int row) {
+        return addresses.lowAt(addressIds.intAt(row));
+    }
+
+    public String clientName(int row) {
+        return clientNames.get(ipHigh(row), ipLow(row));
+    }
+
+    public String clientIP(int row) {
+        return clientNames.format(ipHigh(row), ipLow(row));
+    }
+
+    public String text(LogField field, int row) {
+        return switch (field) {
+            case USER -> users.valueOf(userIds.intAt(row));
+            case REQUEST -> requests.valueOf(requestIds.intAt(row));
+            case METHOD -> methods.valueOf(methodIds.intAt(row));
+            case RESOURCE -> resources.valueOf(resourceIds.intAt(row));
+            case REFERER -> referers.valueOf(refererIds.intAt(row));
+            case AGENT -> agents.valueOf(agentIds.intAt(row));
+            default -> throw new IllegalArgumentException("Not a dictionary column: " + field);
+        };
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private <R> R scanSegment(
+        int start,
+        int end,
+        Optional<Predicate<FieldView>> predicate,
+        R result,
+        ObjIntConsumer<R> accumulator
+    ) {
+        Predicate<FieldView> filter = predicate.orElse(null);
+        RowFieldView view = new RowFieldView(this);
+        for (int row = start; row < end; row++) {
+            if (filter == null || filter.test(view.row(row))) {
+                accumulator.accept(result, row);
+            }
+        }
+        return result;
+    }
+
+    private void addRow(StatisticsAggregator statistics, int row) {
+        int addressId = addressIds.intAt(row);
+        String clientName = clientNames.get(addresses.highAt(addressId), addresses.lowAt(addressId));
+        if (clientName != null) {
+            statistics.addClientName(addresses.lowAt(addressId), clientName);
+        }
+        statistics.addRequest(statusCodes.shortAt(row), resources.valueOf(resourceIds.intAt(row)),
+            methods.valueOf(methodIds.intAt(row)), addresses.highAt(addressId), addresses.lowAt(addressId),
+            bodyBytes.intAt(row));
+    }
+
+    private List<OffHeapColumn> columns() {
+        return List.of(seconds, statusCodes, bodyBytes, addressIds, userIds, requestIds, methodIds, resourceIds,
+            refererIds, agentIds);
+    }
+
+    private int lowerBound(long second) {
+        long delta = second - baseSecond;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (seconds.intAt(middle) < delta) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    static long toSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int[] timeOrder(OffHeapColumn seconds, int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        IntArrays.parallelQuickSort(order, (left, right) -> {
+            int bySecond = Integer.compare(seconds.intAt(left), seconds.intAt(right));
+            return bySecond != 0 ? bySecond : Integer.compare(left, right);
+        });
+        return order;
+    }
+
+    public static class Builder {
+        private final Arena arena = Arena.ofShared();
+        private final ValueDictionary users = new ValueDictionary();
+        private final ValueDictionary requests = new ValueDictionary();
+        private final ValueDictionary methods = new ValueDictionary();
+        private final ValueDictionary resources = new ValueDictionary();
+        private final ValueDictionary referers = new ValueDictionary();
+        private final ValueDictionary agents = new ValueDictionary();
+        private final ClientNames clientNames = new ClientNames();
+        private final IpCounter addresses = new IpCounter(clientNames);
+        private final OffHeapColumn seconds = new OffHeapColumn(arena, ValueLayout.JAVA_INT);
+        private final OffHeapColumn statusCodes = new OffHeapColumn(arena, ValueLayout.JAVA_SHORT);
+        private final OffHeapColumn bodyBytes = new OffHeapColumn(arena, ValueLayout.JAVA_INT);
+        private final OffHeapColumn addressIds = new OffHeapColumn(arena, ValueLayout.JAVA_INT);
+        private final OffHeapColumn userIds = new OffHeapColumn(arena, ValueLayout.JAVA_INT);
+        private final OffHeapColumn requestIds = new OffHeapColumn(arena, ValueLayout.JAVA_INT);
+        private final OffHeapColumn methodIds = new OffHeapColumn(arena, ValueLayout.JAVA_INT);
+        private final OffHeapColumn resourceIds = new OffHeapColumn(arena, ValueLayout.JAVA_INT);
+        private final OffHeapColumn refererIds = new OffHeapColumn(arena, ValueLayout.JAVA_INT);
+        private final OffHeapColumn agentIds = new OffHeapColumn(arena, ValueLayout.JAVA_INT);
+        private long baseSecond;
+        private int lastDelta;
+        private boolean sorted = true;
+
+        public Builder add(NginxLogEntry entry) {
+            long second = toSecond(entry.localDateTime());
+            if (seconds.size() == 0) {
+                baseSecond = second;
+            }
+            int delta = Math.toIntExact(second - baseSecond);
+            sorted &= delta >= lastDelta;
+            lastDelta = delta;
+
+            seconds.addInt(delta);
+            statusCodes.addShort((short) entry.statusCode());
+            bodyBytes.addInt(entry.bodyBytesSent());
+            addressIds.addInt(addresses.slotOf(entry.ipHigh(), entry.ipLow()));
+            if (entry.clientName() != null) {
+                clientNames.add(entry.ipLow(), entry.clientName());
+            }
+            userIds.addInt(users.idOf(entry.remoteUser()));
+            requestIds.addInt(requests.idOf(entry.request()));
+            methodIds.addInt(methods.idOf(entry.httpMethod()));
+            resourceIds.addInt(resources.idOf(entry.resource()));
+            refererIds.addInt(referers.idOf(entry.httpReferer()));
+            agentIds.addInt(agents.idOf(entry.httpUserAgent()));
+            return this;
+        }
+
+        public LogTable build() {
+            return new LogTable(this);
+        }
+    }
+}
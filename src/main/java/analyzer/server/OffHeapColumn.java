@@ -0,0 +1,66 @@
+package analyzer.server;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.List;
+
+final class OffHeapColumn {
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(LogTable.SEGMENT_SIZE);
+    private static final int CHUNK_MASK = LogTable.SEGMENT_SIZE - 1;
+
+    private final Arena arena;
+    private final ValueLayout layout;
+    private final List<MemorySegment> chunks;
+    private int size;
+
+    OffHeapColumn(Arena arena, ValueLayout layout) {
+        this.arena = arena;
+        this.layout = layout;
+        this.chunks = new ArrayList<>();
+    }
+
+    int size() {
+        return size;
+    }
+
+    void addShort(short value) {
+        nextSlot().setAtIndex(ValueLayout.JAVA_SHORT, size++ & CHUNK_MASK, value);
+    }
+
+    void addInt(int value) {
+        nextSlot().setAtIndex(ValueLayout.JAVA_INT, size++ & CHUNK_MASK, value);
+    }
+
+    short shortAt(int row) {
+        return chunks.get(row >>> CHUNK_SHIFT).getAtIndex(ValueLayout.JAVA_SHORT, row & CHUNK_MASK);
+    }
+
+    int intAt(int row) {
+        return chunks.get(row >>> CHUNK_SHIFT).getAtIndex(ValueLayout.JAVA_INT, row & CHUNK_MASK);
+    }
+
+    OffHeapColumn permute(Arena target, int[] order) {
+        OffHeapColumn result = new OffHeapColumn(target, layout);
+        long width = layout.byteSize();
+        for (int row = 0; row < order.length; row++) {
+            int source = order[row];
+            MemorySegment.copy(chunks.get(source >>> CHUNK_SHIFT), (source & CHUNK_MASK) * width,
+                result.nextSlot(), (row & CHUNK_MASK) * width, width);
+            result.size++;
+        }
+        return result;
+    }
+
+    long byteSize() {
+        return (long) chunks.size() * LogTable.SEGMENT_SIZE * layout.byteSize();
+    }
+
+    private MemorySegment nextSlot() {
+        if (size >>> CHUNK_SHIFT == chunks.size()) {
+            chunks.add(arena.allocate(LogTable.SEGMENT_SIZE * layout.byteSize(), layout.byteAlignment()));
+        }
+        return chunks.get(size >>> CHUNK_SHIFT);
+    }
+}
@@ -0,0 +1,145 @@
+package analyzer.server;
+
+import analyzer.analyzer.LogFilter;
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.cache.CacheKey;
+import analyzer.cache.ReportCache;
+import analyzer.config.AnalyzerConfig;
+import analyzer.config.ArgumentParsers;
+import analyzer.output.OutputFormat;
+import analyzer.output.ReportGenerator;
+import analyzer.output.ReportModel;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class QueryServer implements Closeable {
+    public static final String PATH = "/report";
+    private static final Logger LOGGER = Logger.getLogger(QueryServer.class.getName());
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String TEXT_TYPE = "text/plain; charset=utf-8";
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_NOT_ALLOWED = 405;
+    private static final String FORMAT_PARAMETER = "format";
+
+    private final LogTable table;
+    private final List<Path> files;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ReportCache reportCache;
+
+    public QueryServer(int port, LogTable table, List<Path> files, int threads) throws IOException {
+        this.table = table;
+        this.files = files;
+        this.reportCache = new ReportCache(Optional.empty());
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("query-", 0).factory());
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(HTTP_NOT_ALLOWED, -1);
+                return;
+            }
+
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            OutputFormat format = ArgumentParsers.parseOutputFormat(parameters.getOrDefault(FORMAT_PARAMETER, "json"));
+            AnalyzerConfig config = new AnalyzerConfig(
+                ArgumentParsers.parseDate(Optional.ofNullable(parameters.get("from"))),
+                ArgumentParsers.parseDate(Optional.ofNullable(parameters.get("to"))),
+                format,
+                files,
+                Optional.empty(),
+                Optional.ofNullable(parameters.get("filter-field")),
+                Optional.ofNullable(parameters.get("filter-value")))
+                .filterExpression(Optional.ofNullable(parameters.get("filter")));
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try {
+                Writer writer = new OutputStreamWriter(body, StandardCharsets.UTF_8);
+                new ReportGenerator(config, reportModel(config, parameters)).writeReport(format, List.of(writer));
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Invalid query: " + exchange.getRequestURI(), e);
+                respond(exchange, HTTP_BAD_REQUEST, TEXT_TYPE,
+                    String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            String contentType = format == OutputFormat.JSON ? "application/json" : TEXT_TYPE;
+            respond(exchange, HTTP_OK, contentType, body.toByteArray());
+        }
+    }
+
+    private ReportModel reportModel(AnalyzerConfig config, Map<String, String> parameters) {
+        Map<String, String> queryParameters = new TreeMap<>(parameters);
+        queryParameters.remove(FORMAT_PARAMETER);
+        String key = CacheKey.sha256(queryParameters.toString());
+        Optional<ReportModel> cached = reportCache.get(key);
+        if (cached.isPresent()) {
+            return cached.orElseThrow();
+        }
+
+        StatisticsAggregator statistics = table.query(config.from(), config.to(), LogFilter.compilePredicate(config));
+        ReportModel model = new ReportGenerator(config, statistics).getReportModel();
+        reportCache.put(key, model);
+        return model;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+        throws IOException {
+        exchange.getResponseHeaders().set(CONTENT_TYPE, contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+}
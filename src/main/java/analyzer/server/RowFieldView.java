@@ -0,0 +1,58 @@
+package analyzer.server;
+
+import analyzer.filter.FieldView;
+import analyzer.filter.LogField;
+import analyzer.model.NginxTimestamps;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+class RowFieldView implements FieldView {
+    private final LogTable table;
+    private int row;
+
+    RowFieldView(LogTable table) {
+        this.table = table;
+    }
+
+    RowFieldView row(int index) {
+        this.row = index;
+        return this;
+    }
+
+    @Override
+    public String source(LogField field) {
+        return switch (field) {
+            case IP -> table.clientIP(row);
+            case TIME -> NginxTimestamps.format(LocalDateTime.ofEpochSecond(table.epochSecond(row), 0, ZoneOffset.UTC));
+            case STATUS -> String.valueOf(table.statusCode(row));
+            case BYTES -> String.valueOf(table.bodyBytes(row));
+            default -> table.text(field, row);
+        };
+    }
+
+    @Override
+    public int start(LogField field) {
+        return 0;
+    }
+
+    @Override
+    public int end(LogField field) {
+        return source(field).length();
+    }
+
+    @Override
+    public boolean address(long[] result) {
+        result[0] = table.ipHigh(row);
+        result[1] = table.ipLow(row);
+        return table.clientName(row) == null;
+    }
+
+    @Override
+    public long number(LogField field) {
+        return switch (field) {
+            case STATUS -> table.statusCode(row);
+            case BYTES -> table.bodyBytes(row);
+            default -> FieldView.super.number(field);
+        };
+    }
+}
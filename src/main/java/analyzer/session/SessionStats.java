@@ -0,0 +1,89 @@
+package analyzer.session;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import lombok.Getter;
+
+@Getter
+public class SessionStats {
+    public static final long[] LENGTH_BOUNDS = {0, 1, 60, 300, 900, 1800, 3600, 7200};
+    public static final long[] PAGE_BOUNDS = {1, 2, 3, 6, 11, 21, 51};
+
+    private final long[] lengthCounts = new long[LENGTH_BOUNDS.length];
+    private final long[] pageCounts = new long[PAGE_BOUNDS.length];
+    private long sessions;
+    private long totalSeconds;
+    private long totalPages;
+    private int peakOpenSessions;
+
+    public void record(long lengthSeconds, int pages) {
+        lengthCounts[bucket(LENGTH_BOUNDS, lengthSeconds)]++;
+        pageCounts[bucket(PAGE_BOUNDS, pages)]++;
+        sessions++;
+        totalSeconds += lengthSeconds;
+        totalPages += pages;
+    }
+
+    public void observeOpenSessions(int open) {
+        peakOpenSessions = Math.max(peakOpenSessions, open);
+    }
+
+    public double averageSeconds() {
+        return sessions == 0 ? 0 : (double) totalSeconds / sessions;
+    }
+
+    public double averagePages() {
+        return sessions == 0 ? 0 : (double) totalPages / sessions;
+    }
+
+    public SessionStats copy() {
+        SessionStats copy = new SessionStats();
+        copy.merge(this);
+        return copy;
+    }
+
+    public void merge(SessionStats other) {
+        Arrays.setAll(lengthCounts, i -> lengthCounts[i] + other.lengthCounts[i]);
+        Arrays.setAll(pageCounts, i -> pageCounts[i] + other.pageCounts[i]);
+        sessions += other.sessions;
+        totalSeconds += other.totalSeconds;
+        totalPages += other.totalPages;
+        peakOpenSessions = Math.max(peakOpenSessions, other.peakOpenSessions);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        for (long count : lengthCounts) {
+            out.writeLong(count);
+        }
+        for (long count : pageCounts) {
+            out.writeLong(count);
+        }
+        out.writeLong(sessions);
+        out.writeLong(totalSeconds);
+        out.writeLong(totalPages);
+        out.writeInt(peakOpenSessions);
+    }
+
+    public void mergeFrom(DataInput in) throws IOException {
+        for (int i = 0; i < lengthCounts.length; i++) {
+            lengthCounts[i] += in.readLong();
+        }
+        for (int i = 0; i < pageCounts.length; i++) {
+            pageCounts[i] += in.readLong();
+        }
+        sessions += in.readLong();
+        totalSeconds += in.readLong();
+        totalPages += in.readLong();
+        peakOpenSessions = Math.max(peakOpenSessions, in.readInt());
+    }
+
+    private static int bucket(long[] bounds, long value) {
+        int bucket = 0;
+        while (bucket + 1 < bounds.length && value >= bounds[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
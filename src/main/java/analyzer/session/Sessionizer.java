@@ -0,0 +1,228 @@
+package analyzer.session;
+
+import analyzer.profile.Footprint;
+import it.unimi.dsi.fastutil.HashCommon;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import lombok.Getter;
+
+public class Sessionizer {
+    public static final int DEFAULT_TIMEOUT_SECONDS = 1800;
+    private static final int TICK_SECONDS = 60;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int EMPTY = 0;
+    private static final int NONE = -1;
+    private static final int WHEEL_SLACK = 3;
+    private static final int LONG_COLUMNS = 5;
+    private static final int INT_COLUMNS = 2;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    @Getter private final int timeoutSeconds;
+    private final int[] wheel;
+    private final SessionStats closed = new SessionStats();
+    private int[] table;
+    private long[] highs;
+    private long[] lows;
+    private long[] agents;
+    private long[] firstSeconds;
+    private long[] lastSeconds;
+    private int[] pages;
+    private int[] next;
+    private int freeHead = NONE;
+    private int allocated;
+    private int size;
+    private long currentTick = Long.MIN_VALUE;
+
+    public Sessionizer(int timeoutSeconds) {
+        if (timeoutSeconds < 1) {
+            throw new IllegalArgumentException("Session timeout must be positive: " + timeoutSeconds);
+        }
+
+        this.timeoutSeconds = timeoutSeconds;
+        this.wheel = new int[timeoutSeconds / TICK_SECONDS + WHEEL_SLACK];
+        Arrays.fill(wheel, NONE);
+        this.table = new int[HashCommon.arraySize(INITIAL_CAPACITY, LOAD_FACTOR)];
+        this.highs = new long[INITIAL_CAPACITY];
+        this.lows = new long[INITIAL_CAPACITY];
+        this.agents = new long[INITIAL_CAPACITY];
+        this.firstSeconds = new long[INITIAL_CAPACITY];
+        this.lastSeconds = new long[INITIAL_CAPACITY];
+        this.pages = new int[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+    }
+
+    public void add(long high, long low, String userAgent, long epochSecond) {
+        advanceTo(epochSecond);
+        long agent = agentHash(userAgent);
+        int position = position(high, low, agent);
+        while (table[position] != EMPTY) {
+            int session = table[position] - 1;
+            if (highs[session] == high && lows[session] == low && agents[session] == agent) {
+                touch(session, epochSecond);
+                return;
+            }
+            position = (position + 1) & (table.length - 1);
+        }
+
+        open(position, high, low, agent, epochSecond);
+    }
+
+    public int openSessions() {
+        return size;
+    }
+
+    public SessionStats snapshot() {
+        SessionStats stats = closed.copy();
+        for (int entry : table) {
+            if (entry != EMPTY) {
+                stats.record(lastSeconds[entry - 1] - firstSeconds[entry - 1], pages[entry - 1]);
+            }
+        }
+        return stats;
+    }
+
+    public void merge(Sessionizer other) {
+        closed.merge(other.snapshot());
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        snapshot().writeTo(out);
+    }
+
+    public void mergeFrom(DataInput in) throws IOException {
+        closed.mergeFrom(in);
+    }
+
+    public long footprintBytes() {
+        return Footprint.ofArray(table.length, Integer.BYTES) + Footprint.ofArray(wheel.length, Integer.BYTES)
+            + Footprint.ofArray(highs.length, Long.BYTES) * LONG_COLUMNS
+            + Footprint.ofArray(pages.length, Integer.BYTES) * INT_COLUMNS;
+    }
+
+    private void touch(int session, long epochSecond) {
+        if (epochSecond - lastSeconds[session] > timeoutSeconds) {
+            closed.record(lastSeconds[session] - firstSeconds[session], pages[session]);
+            firstSeconds[session] = epochSecond;
+            lastSeconds[session] = epochSecond;
+            pages[session] = 1;
+        } else {
+            firstSeconds[session] = Math.min(firstSeconds[session], epochSecond);
+            lastSeconds[session] = Math.max(lastSeconds[session], epochSecond);
+            pages[session]++;
+        }
+    }
+
+    private void open(int position, long high, long low, long agent, long epochSecond) {
+        int session = allocate();
+        highs[session] = high;
+        lows[session] = low;
+        agents[session] = agent;
+        firstSeconds[session] = epochSecond;
+        lastSeconds[session] = epochSecond;
+        pages[session] = 1;
+        table[position] = session + 1;
+        schedule(session);
+        size++;
+        closed.observeOpenSessions(size);
+        if (size > table.length * LOAD_FACTOR) {
+            rehash(HashCommon.arraySize(size * 2, LOAD_FACTOR));
+        }
+    }
+
+    private void advanceTo(long epochSecond) {
+        long tick = Math.floorDiv(epochSecond, TICK_SECONDS);
+        if (currentTick == Long.MIN_VALUE) {
+            currentTick = tick;
+        }
+        if (tick > currentTick) {
+            for (long fired = Math.max(currentTick + 1, tick - wheel.length + 1); fired <= tick; fired++) {
+                expire(Math.floorMod(fired, wheel.length), epochSecond);
+            }
+            currentTick = tick;
+        }
+    }
+
+    private void expire(int slot, long now) {
+        int session = wheel[slot];
+        wheel[slot] = NONE;
+        boolean removed = false;
+        while (session != NONE) {
+            int following = next[session];
+            if (now - lastSeconds[session] > timeoutSeconds) {
+                closed.record(lastSeconds[session] - firstSeconds[session], pages[session]);
+                release(session);
+                removed = true;
+            } else {
+                schedule(session);
+            }
+            session = following;
+        }
+        if (removed) {
+            rehash(table.length);
+        }
+    }
+
+    private void schedule(int session) {
+        long tick = Math.max(Math.floorDiv(lastSeconds[session] + timeoutSeconds, TICK_SECONDS) + 1,
+            currentTick + 1);
+        int slot = Math.floorMod(tick, wheel.length);
+        next[session] = wheel[slot];
+        wheel[slot] = session;
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int session = freeHead;
+            freeHead = next[session];
+            return session;
+        }
+        if (allocated == highs.length) {
+            int capacity = highs.length * 2;
+            highs = Arrays.copyOf(highs, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            agents = Arrays.copyOf(agents, capacity);
+            firstSeconds = Arrays.copyOf(firstSeconds, capacity);
+            lastSeconds = Arrays.copyOf(lastSeconds, capacity);
+            pages = Arrays.copyOf(pages, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return allocated++;
+    }
+
+    private void release(int session) {
+        pages[session] = 0;
+        next[session] = freeHead;
+        freeHead = session;
+        size--;
+    }
+
+    private void rehash(int length) {
+        int[] entries = table;
+        table = new int[length];
+        for (int entry : entries) {
+            if (entry != EMPTY && pages[entry - 1] > 0) {
+                int position = position(highs[entry - 1], lows[entry - 1], agents[entry - 1]);
+                while (table[position] != EMPTY) {
+                    position = (position + 1) & (table.length - 1);
+                }
+                table[position] = entry;
+            }
+        }
+    }
+
+    private int position(long high, long low, long agent) {
+        return (int) HashCommon.mix(HashCommon.mix(HashCommon.mix(high) ^ low) ^ agent) & (table.length - 1);
+    }
+
+    private static long agentHash(String userAgent) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < userAgent.length(); i++) {
+            hash = (hash ^ userAgent.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,78 @@
+package analyzer.shard;
+
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.cache.CacheKey;
+import analyzer.config.AnalyzerConfig;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class PartialAggregate {
+    public static final String SUFFIX = ".partial";
+    private static final Logger LOGGER = Logger.getLogger(PartialAggregate.class.getName());
+    private static final int MAGIC = 0x4C505254;
+    private static final int VERSION = 2;
+
+    public static void write(Path path, Shard shard, AnalyzerConfig config, StatisticsAggregator statistics)
+        throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempPath))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(CacheKey.ofParameters(config));
+            out.writeInt(shard.index());
+            out.writeInt(shard.count());
+            statistics.writeTo(out);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static StatisticsAggregator mergeAll(List<Path> partials, AnalyzerConfig config) throws IOException {
+        StatisticsAggregator statistics = new StatisticsAggregator(config);
+        String parameters = CacheKey.ofParameters(config);
+        BitSet seen = new BitSet();
+        int shardCount = 0;
+        for (Path partial : partials) {
+            Shard shard = mergeInto(partial, parameters, statistics);
+            if (seen.get(shard.index()) || shardCount != 0 && shardCount != shard.count()) {
+                throw new IOException("Partial " + partial + " (shard " + shard + ") does not fit the other partials");
+            }
+            seen.set(shard.index());
+            shardCount = shard.count();
+        }
+        if (seen.cardinality() != shardCount) {
+            LOGGER.log(Level.WARNING, "Only " + seen.cardinality() + " of " + shardCount + " shards were merged");
+        }
+        return statistics;
+    }
+
+    private static Shard mergeInto(Path path, String parameters, StatisticsAggregator statistics)
+        throws IOException {
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a version " + VERSION + " partial aggregate: " + path);
+            }
+            if (!in.readUTF().equals(parameters)) {
+                throw new IOException("Partial " + path + " was produced with different analysis options");
+            }
+            Shard shard = new Shard(in.readInt(), in.readInt());
+            statistics.mergeFrom(in);
+            return shard;
+        }
+    }
+}
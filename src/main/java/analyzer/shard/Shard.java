@@ -0,0 +1,45 @@
+package analyzer.shard;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public record Shard(int index, int count) {
+    private static final char SEPARATOR = '/';
+
+    public Shard {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + SEPARATOR + count);
+        }
+    }
+
+    public static Shard parse(String spec) {
+        int separator = spec.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Shard must look like <index>/<count>: " + spec);
+        }
+        return new Shard(Integer.parseInt(spec.substring(0, separator).trim()),
+            Integer.parseInt(spec.substring(separator + 1).trim()));
+    }
+
+    public List<Path> select(List<Path> files, ShardAssignment assignment) {
+        List<Path> sorted = files.stream().sorted(Comparator.comparing(Path::toString)).toList();
+        List<Path> selected = new ArrayList<>();
+        for (int position = 0; position < sorted.size(); position++) {
+            if (assignment.shardOf(position, sorted.get(position), count) == index) {
+                selected.add(sorted.get(position));
+            }
+        }
+        return selected;
+    }
+
+    public Path partialFile(Path directory) {
+        return directory.resolve("shard-" + index + PartialAggregate.SUFFIX);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(index) + SEPARATOR + count;
+    }
+}
@@ -0,0 +1,35 @@
+package analyzer.shard;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public enum ShardAssignment {
+    INDEX("index"),
+    HASH("hash");
+
+    private final String assignmentName;
+
+    ShardAssignment(String assignmentName) {
+        this.assignmentName = assignmentName;
+    }
+
+    public String assignmentName() {
+        return assignmentName;
+    }
+
+    int shardOf(int position, Path file, int shardCount) {
+        return switch (this) {
+            case INDEX -> position % shardCount;
+            case HASH -> Math.floorMod(file.normalize().toString().hashCode(), shardCount);
+        };
+    }
+
+    public static Optional<ShardAssignment> fromName(String name) {
+        for (ShardAssignment assignment : values()) {
+            if (assignment.assignmentName.equalsIgnoreCase(name.trim())) {
+                return Optional.of(assignment);
+            }
+        }
+        return Optional.empty();
+    }
+}
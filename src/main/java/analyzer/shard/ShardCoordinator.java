@@ -0,0 +1,71 @@
+package analyzer.shard;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShardCoordinator {
+    public static final String WORKERS_OPTION = "--workers";
+    public static final String SHARD_OPTION = "--shard";
+    public static final String PARTIAL_OUTPUT_OPTION = "--partial-output";
+    private final List<String> arguments;
+    private final int workers;
+
+    public ShardCoordinator(String[] arguments, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is required: " + workers);
+        }
+        this.arguments = withoutOption(arguments, WORKERS_OPTION);
+        this.workers = workers;
+    }
+
+    public List<Path> run(Path directory) throws IOException {
+        List<Process> processes = new ArrayList<>(workers);
+        List<Path> partials = new ArrayList<>(workers);
+        try {
+            for (int index = 0; index < workers; index++) {
+                Shard shard = new Shard(index, workers);
+                Path partial = shard.partialFile(directory);
+                processes.add(new ProcessBuilder(command(shard, partial)).inheritIO().start());
+                partials.add(partial);
+            }
+            for (int index = 0; index < workers; index++) {
+                int exitCode = processes.get(index).waitFor();
+                if (exitCode != 0) {
+                    throw new IOException("Worker " + index + " exited with code " + exitCode);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for workers", e);
+        } finally {
+            processes.forEach(Process::destroy);
+        }
+        return partials;
+    }
+
+    List<String> command(Shard shard, Path partial) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("analyzer.Main");
+        command.addAll(arguments);
+        command.addAll(List.of(SHARD_OPTION, shard.toString(), PARTIAL_OUTPUT_OPTION, partial.toString()));
+        return command;
+    }
+
+    private static List<String> withoutOption(String[] arguments, String option) {
+        List<String> remaining = new ArrayList<>();
+        int i = 0;
+        while (i < arguments.length) {
+            if (arguments[i].equals(option)) {
+                i += 2;
+            } else {
+                remaining.add(arguments[i++]);
+            }
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,285 @@
+package analyzer.spill;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import lombok.Getter;
+
+public final class SpilledCounts {
+    public static final int MAX_RUNS = 32;
+    private static final int END_OF_RUN = -1;
+    private static final int IP_KEY_BYTES = 2 * Long.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Comparator<Entry> KEY_ORDER = (first, second) ->
+        Arrays.compareUnsigned(first.key(), second.key());
+
+    private static Path directory;
+
+    private final String name;
+    private final List<Run> runs = new ArrayList<>();
+    @Getter private long bytes;
+    @Getter private int spills;
+
+    public SpilledCounts(String name) {
+        this.name = name;
+    }
+
+    public record Entry(byte[] key, long count) {
+        public static Entry ofText(String text, long count) {
+            return new Entry(text.getBytes(StandardCharsets.UTF_8), count);
+        }
+
+        public static Entry ofAddress(long high, long low, long count) {
+            return new Entry(ByteBuffer.allocate(IP_KEY_BYTES).putLong(high).putLong(low).array(), count);
+        }
+
+        public String text() {
+            return new String(key, StandardCharsets.UTF_8);
+        }
+
+        public long high() {
+            return ByteBuffer.wrap(key).getLong(0);
+        }
+
+        public long low() {
+            return ByteBuffer.wrap(key).getLong(Long.BYTES);
+        }
+    }
+
+    private record Run(Path file, double factor) {
+    }
+
+    public boolean isEmpty() {
+        return runs.isEmpty();
+    }
+
+    public int runs() {
+        return runs.size();
+    }
+
+    public void spill(List<Entry> entries) throws IOException {
+        entries.sort(KEY_ORDER);
+        runs.add(new Run(write(entries.iterator()), 1));
+        spills++;
+        if (runs.size() >= MAX_RUNS) {
+            compact();
+        }
+    }
+
+    public void adopt(SpilledCounts other) throws IOException {
+        runs.addAll(other.runs);
+        bytes += other.bytes;
+        spills += other.spills;
+        other.runs.clear();
+        if (runs.size() >= MAX_RUNS) {
+            compact();
+        }
+    }
+
+    public void scale(double factor) {
+        runs.replaceAll(run -> new Run(run.file(), run.factor() * factor));
+    }
+
+    public void forEach(List<Entry> memory, Consumer<Entry> action) throws IOException {
+        memory.sort(KEY_ORDER);
+        List<Source> sources = new ArrayList<>(runs.size() + 1);
+        try {
+            for (Run run : runs) {
+                sources.add(new RunSource(run));
+            }
+            sources.add(new MemorySource(memory.iterator()));
+            merge(sources, action);
+        } finally {
+            for (Source source : sources) {
+                source.close();
+            }
+        }
+    }
+
+    public int distinct(List<Entry> memory) throws IOException {
+        int[] entries = new int[1];
+        forEach(memory, entry -> entries[0]++);
+        return entries[0];
+    }
+
+    public List<Entry> top(List<Entry> memory, int count) throws IOException {
+        PriorityQueue<Entry> top = new PriorityQueue<>(count + 1, Comparator.comparingLong(Entry::count));
+        forEach(memory, entry -> {
+            if (top.size() < count) {
+                top.add(entry);
+            } else if (!top.isEmpty() && entry.count() > top.peek().count()) {
+                top.poll();
+                top.add(entry);
+            }
+        });
+
+        List<Entry> ordered = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ordered.add(top.poll());
+        }
+        return ordered.reversed();
+    }
+
+    private void compact() throws IOException {
+        List<Run> merged = List.copyOf(runs);
+        Path file = newRunFile();
+        try (DataOutputStream out = openRun(file)) {
+            forEach(new ArrayList<>(), entry -> writeEntry(out, entry));
+            out.writeInt(END_OF_RUN);
+        }
+        bytes += Files.size(file);
+        runs.clear();
+        runs.add(new Run(file, 1));
+        for (Run run : merged) {
+            Files.deleteIfExists(run.file());
+        }
+    }
+
+    private Path write(Iterator<Entry> entries) throws IOException {
+        Path file = newRunFile();
+        try (DataOutputStream out = openRun(file)) {
+            while (entries.hasNext()) {
+                writeEntry(out, entries.next());
+            }
+            out.writeInt(END_OF_RUN);
+        }
+        bytes += Files.size(file);
+        return file;
+    }
+
+    private static void writeEntry(DataOutputStream out, Entry entry) {
+        try {
+            out.writeInt(entry.key().length);
+            out.write(entry.key());
+            out.writeLong(entry.count());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static DataOutputStream openRun(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    private Path newRunFile() throws IOException {
+        Path file = Files.createTempFile(spillDirectory(), name + '-', ".run");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private static synchronized Path spillDirectory() throws IOException {
+        if (directory == null) {
+            directory = Files.createTempDirectory("analyzer-spill-");
+            directory.toFile().deleteOnExit();
+        }
+        return directory;
+    }
+
+    private static void merge(List<Source> sources, Consumer<Entry> action) throws IOException {
+        PriorityQueue<Source> heap = new PriorityQueue<>(sources.size(),
+            (first, second) -> KEY_ORDER.compare(first.current(), second.current()));
+        for (Source source : sources) {
+            if (source.advance()) {
+                heap.add(source);
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            Source source = heap.poll();
+            byte[] key = source.current().key();
+            long count = source.current().count();
+            if (source.advance()) {
+                heap.add(source);
+            }
+            while (!heap.isEmpty() && Arrays.equals(heap.peek().current().key(), key)) {
+                Source same = heap.poll();
+                count += same.current().count();
+                if (same.advance()) {
+                    heap.add(same);
+                }
+            }
+            action.accept(new Entry(key, count));
+        }
+    }
+
+    private interface Source extends Closeable {
+        Entry current();
+
+        boolean advance() throws IOException;
+    }
+
+    private static final class MemorySource implements Source {
+        private final Iterator<Entry> entries;
+        private Entry current;
+
+        private MemorySource(Iterator<Entry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Entry current() {
+            return current;
+        }
+
+        @Override
+        public boolean advance() {
+            current = entries.hasNext() ? entries.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class RunSource implements Source {
+        private final DataInputStream in;
+        private final double factor;
+        private Entry current;
+
+        private RunSource(Run run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.file()), BUFFER_SIZE));
+            this.factor = run.factor();
+        }
+
+        @Override
+        public Entry current() {
+            return current;
+        }
+
+        @Override
+        public boolean advance() throws IOException {
+            int length = in.readInt();
+            if (length == END_OF_RUN) {
+                current = null;
+                return false;
+            }
+
+            byte[] key = new byte[length];
+            in.readFully(key);
+            long count = in.readLong();
+            current = new Entry(key, factor == 1 ? count : Math.round(count * factor));
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package analyzer.agent;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AgentClassifierTest {
+    private static final String CHROME = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+        + "(KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+    private static final String IPHONE_SAFARI = "Mozilla/5.0 (iPhone; CPU iPhone OS 17_1 like Mac OS X) "
+        + "AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.1 Mobile/15E148 Safari/604.1";
+    private static final String ANDROID_TABLET = "Mozilla/5.0 (Linux; Android 13; SM-X200) AppleWebKit/537.36 "
+        + "(KHTML, like Gecko) Chrome/119.0.0.0 Safari/537.36";
+
+    @Test
+    public void classifiesWithDefaultRules() {
+        AgentRules rules = AgentRules.defaults();
+        assertEquals(new AgentClass(AgentFamily.BROWSER, "Chrome", "120", "desktop"), rules.classify(CHROME));
+        assertEquals(new AgentClass(AgentFamily.BROWSER, "Safari", "17.1", "mobile"), rules.classify(IPHONE_SAFARI));
+        assertEquals("tablet", rules.classify(ANDROID_TABLET).device());
+        assertEquals(new AgentClass(AgentFamily.CRAWLER, "Googlebot", "2.1", "-"),
+            rules.classify("Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)"));
+        assertEquals(AgentFamily.CRAWLER, rules.classify("MyCustomCrawler/0.1").family());
+        assertEquals("curl 7.68", rules.classify("curl/7.68.0").label());
+        assertEquals("APT-HTTP 1.3", rules.classify("Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)").label());
+        assertEquals(AgentFamily.MONITORING, rules.classify("Mozilla/5.0+(compatible; UptimeRobot/2.0)").family());
+        assertEquals(new AgentClass(AgentFamily.OTHER, AgentRules.UNKNOWN_NAME, "", "-"), rules.classify("-"));
+    }
+
+    @Test
+    public void cachesClassifications() {
+        AgentClassifier classifier = new AgentClassifier(AgentRules.defaults(), 2);
+        for (int i = 0; i < 10; i++) {
+            classifier.classify(CHROME);
+            classifier.classify(IPHONE_SAFARI);
+        }
+
+        assertEquals(2, classifier.stats().missCount());
+        assertEquals(18, classifier.stats().hitCount());
+        assertEquals(0.9, classifier.stats().hitRate());
+    }
+
+    @Test
+    public void appliesCustomRulesInOrder() {
+        AgentRules rules = new AgentRules(List.of(
+            "# internal clients",
+            "monitoring Healthcheck ^internal-health/(\\d+)",
+            "library Internal ^internal-",
+            "browser Any Mozilla"));
+        assertEquals("Healthcheck 3", rules.classify("internal-health/3").label());
+        assertEquals(AgentFamily.LIBRARY, rules.classify("internal-sync/1").family());
+        assertEquals(new AgentClass(AgentFamily.BROWSER, "Any", "", AgentRules.DEFAULT_DEVICE),
+            rules.classify(CHROME));
+        assertEquals(4, new AgentRules(List.of("device tv SmartTV")).size() + rules.size());
+    }
+
+    @Test
+    public void rejectsInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> new AgentRules(List.of("robot Foo Foo")));
+        assertThrows(IllegalArgumentException.class, () -> new AgentRules(List.of("crawler Foo")));
+        assertThrows(IllegalArgumentException.class, () -> new AgentRules(List.of("crawler Foo (unclosed")));
+    }
+}
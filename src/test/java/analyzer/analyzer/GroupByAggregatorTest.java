@@ -0,0 +1,51 @@
+package analyzer.analyzer;
+
+import analyzer.model.NginxLogEntry;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GroupByAggregatorTest {
+    private static final LocalDateTime DEFAULT_DATE = LocalDateTime.parse("2015-05-17T08:05:32");
+    private static final String EMPTY = "";
+
+    @Test
+    public void groupsByStatusAndResource() {
+        GroupByAggregator aggregator = new GroupByAggregator(List.of(GroupByField.STATUS, GroupByField.RESOURCE));
+        aggregator.addLogEntry(createLogEntry("GET /a HTTP/1.1", 500, 10));
+        aggregator.addLogEntry(createLogEntry("GET /a HTTP/1.1", 500, 30));
+        aggregator.addLogEntry(createLogEntry("GET /a HTTP/1.1", 200, 5));
+        aggregator.addLogEntry(createLogEntry("GET /b HTTP/1.1", 500, 7));
+
+        List<GroupByAggregator.GroupRow> top = aggregator.getTopGroups(2);
+
+        assertEquals(3, aggregator.groupCount());
+        assertEquals(2, top.size());
+        assertEquals(List.of("500", "/a"), top.getFirst().values());
+        assertEquals(2, top.getFirst().count());
+        assertEquals(40, top.getFirst().bytesSum());
+        assertEquals(30, top.getFirst().bytesMax());
+    }
+
+    @Test
+    public void groupsByHour() {
+        GroupByAggregator aggregator = new GroupByAggregator(List.of(GroupByField.HOUR, GroupByField.METHOD));
+        aggregator.addLogEntry(createLogEntry("POST /a HTTP/1.1", 200, 1));
+
+        assertEquals(List.of("2015-05-17T08:00", "POST"), aggregator.getTopGroups(10).getFirst().values());
+    }
+
+    private NginxLogEntry createLogEntry(String request, int status, int bytes) {
+        return new NginxLogEntry.Builder()
+            .clientIP("93.180.71.3")
+            .remoteUser(EMPTY)
+            .localDateTime(DEFAULT_DATE)
+            .request(request)
+            .statusCode(status)
+            .bodyBytesSent(bytes)
+            .httpReferer(EMPTY)
+            .httpUserAgent(EMPTY)
+            .build();
+    }
+}
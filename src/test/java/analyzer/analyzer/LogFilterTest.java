@@ -80,4 +80,20 @@ public class LogFilterTest {
         assertTrue(logFilter.isWithinRange(logEntry1.orElseThrow().localDateTime()));
         assertTrue(logFilter.isWithinRange(logEntry2.orElseThrow().localDateTime()));
     }
+
+    @Test
+    public void parseMatchingWithFieldAndExpression() {
+        AnalyzerConfig configWithFilter = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            List.of(), Optional.empty(), Optional.of("agent"), Optional.of("debian*"))
+            .filterExpression(Optional.of("status=304 && method=GET"));
+        logFilter = new LogFilter(configWithFilter);
+        String matching =
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"";
+        String otherStatus =
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 200 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"";
+
+        assertTrue(logFilter.parseMatching(matching).isPresent());
+        assertFalse(logFilter.parseMatching(otherStatus).isPresent());
+        assertTrue(logFilter.matchByFieldAndValue(NginxLogEntry.parseNginxLogEntry(matching).orElseThrow()));
+    }
 }
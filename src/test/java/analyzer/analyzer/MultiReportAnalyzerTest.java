@@ -0,0 +1,132 @@
+package analyzer.analyzer;
+
+import analyzer.config.AnalyzerConfig;
+import analyzer.config.ReportSpec;
+import analyzer.datasource.LocalFileDataSource;
+import analyzer.datasource.SampledFileDataSource;
+import analyzer.output.OutputFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultiReportAnalyzerTest {
+    private static final int LINES = 20_000;
+    private static final String LOG_LINE = "10.1.%d.%d - - [%02d/May/2015:%02d:00:00 +0000] "
+        + "\"%s /team/%s/%d HTTP/1.1\" %d %d \"-\" \"%s\"";
+    private static final int SAMPLE_BLOCK_SIZE = 16 * 1024;
+    private static final List<String> TEAMS = List.of("search", "billing", "media");
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void eachReportMatchesItsOwnRun() throws IOException {
+        Path file = writeLog();
+        AnalyzerConfig defaults = config(file);
+        List<AnalyzerConfig> reports = ReportSpec.parse(List.of(
+            "# nightly team reports",
+            "output=" + tempDir.resolve("search.md") + "; filter=resource~'/team/search/*'",
+            "output=" + tempDir.resolve("billing.json") + "; format=json; from=2015-05-18; to=2015-05-19T12:00;"
+                + " filter=resource~'/team/billing/*' && status>=500",
+            "output=" + tempDir.resolve("bots.adoc") + "; format=adoc; filter-field=agent; filter-value=*bot*",
+            "output=" + tempDir.resolve("all.md")), defaults);
+
+        MultiReportAnalyzer analyzer = new MultiReportAnalyzer(reports, new LocalFileDataSource(List.of(file)));
+        analyzer.analyze();
+
+        assertEquals(4, reports.size());
+        assertEquals(OutputFormat.JSON, reports.get(1).format());
+        assertEquals(tempDir.resolve("bots.adoc"), reports.get(2).getOutputPath());
+        assertEquals(LINES, analyzer.parsedLines());
+        for (int i = 0; i < reports.size(); i++) {
+            NginxLogAnalyzer single = new NginxLogAnalyzer(reports.get(i), new LocalFileDataSource(List.of(file)));
+            single.analyze();
+            StatisticsAggregator expected = single.statisticsAggregator();
+            StatisticsAggregator actual = analyzer.statisticsAggregators().get(i);
+
+            assertTrue(expected.totalRequests() > 0);
+            assertEquals(expected.totalRequests(), actual.totalRequests());
+            assertEquals(expected.resources(), actual.resources());
+            assertEquals(expected.logStatusCodes(), actual.logStatusCodes());
+            assertEquals(expected.getTopIpAddresses(LINES), actual.getTopIpAddresses(LINES));
+            assertEquals(expected.getPercentileResponseSize(95), actual.getPercentileResponseSize(95));
+        }
+    }
+
+    @Test
+    public void parsesOnlyLinesSomeReportWants() throws IOException {
+        Path file = writeLog();
+        List<AnalyzerConfig> reports = ReportSpec.parse(List.of(
+            "output=a.md; filter=status>=500", "output=b.md; filter=status>=500 && method=POST"), config(file));
+
+        MultiReportAnalyzer analyzer = new MultiReportAnalyzer(reports, new LocalFileDataSource(List.of(file)));
+        analyzer.analyze();
+
+        assertEquals(analyzer.statisticsAggregators().get(0).totalRequests(), analyzer.parsedLines());
+    }
+
+    @Test
+    public void estimatesEachReportFromTheSameSampledBlocks() throws IOException {
+        Path file = writeLog();
+        AnalyzerConfig defaults = config(file).sampleRate(OptionalDouble.of(0.3)).sampleSeed(7);
+        List<AnalyzerConfig> reports = ReportSpec.parse(List.of(
+            "output=a.md; filter=status>=500", "output=b.md; filter=resource~'/team/media/*'"), defaults);
+
+        MultiReportAnalyzer analyzer =
+            new MultiReportAnalyzer(reports, new SampledFileDataSource(List.of(file), 0.3, 7, SAMPLE_BLOCK_SIZE));
+        analyzer.analyze();
+
+        for (int i = 0; i < reports.size(); i++) {
+            assertEquals(defaults.sampleRate(), reports.get(i).sampleRate());
+            assertEquals(defaults.sampleSeed(), reports.get(i).sampleSeed());
+            NginxLogAnalyzer single = new NginxLogAnalyzer(reports.get(i),
+                new SampledFileDataSource(List.of(file), 0.3, 7, SAMPLE_BLOCK_SIZE));
+            single.analyze();
+            StatisticsAggregator expected = single.statisticsAggregator();
+            StatisticsAggregator actual = analyzer.statisticsAggregators().get(i);
+
+            assertTrue(actual.sampleEstimator().isPresent());
+            assertEquals(expected.totalRequests(), actual.totalRequests());
+            assertEquals(expected.logStatusCodes(), actual.logStatusCodes());
+            assertEquals(expected.sampleEstimator().orElseThrow().totalHalfWidth(),
+                actual.sampleEstimator().orElseThrow().totalHalfWidth());
+        }
+    }
+
+    @Test
+    public void rejectsInvalidSpecLines() {
+        AnalyzerConfig defaults = config(tempDir.resolve("access.log"));
+
+        assertThrows(IllegalArgumentException.class, () -> ReportSpec.parse(List.of("format=json"), defaults));
+        assertThrows(IllegalArgumentException.class,
+            () -> ReportSpec.parse(List.of("output=a.md; colour=red"), defaults));
+        assertThrows(IllegalArgumentException.class,
+            () -> ReportSpec.parse(List.of("output=a.md; from=yesterday"), defaults));
+    }
+
+    private Path writeLog() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        List<String> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            lines.add(String.format(LOG_LINE, i % 4, i % 97, 17 + i % 3, i % 24, i % 5 == 0 ? "POST" : "GET",
+                TEAMS.get(i % TEAMS.size()), i % 11, i % 13 == 0 ? 502 : 200, i % 700,
+                i % 9 == 0 ? "Googlebot/2.1" : "Mozilla/5.0"));
+        }
+        Files.write(file, lines);
+        return file;
+    }
+
+    private static AnalyzerConfig config(Path file) {
+        return new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN, List.of(file),
+            Optional.empty(), Optional.empty(), Optional.empty());
+    }
+}
@@ -0,0 +1,65 @@
+package analyzer.analyzer;
+
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.SampledFileDataSource;
+import analyzer.output.OutputFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SampleEstimatorTest {
+    private static final int LINES = 20_000;
+    private static final int BLOCK_SIZE = 4096;
+    private static final String LOG_LINE =
+        "93.180.71.%d - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_%d HTTP/1.1\" %d 0 \"-\" \"Wget\"";
+
+    private Path tempFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("sampled", ".log");
+        List<String> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            lines.add(String.format(LOG_LINE, i % 4, i % 2, i % 10 == 0 ? 500 : 200));
+        }
+        Files.write(tempFile, lines);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void estimatesTotalsWithinConfidenceInterval() {
+        StatisticsAggregator statistics = analyzeSample(7);
+        SampleEstimator estimator = statistics.sampleEstimator().orElseThrow();
+
+        assertTrue(estimator.sampledBlocks() > 0);
+        assertTrue(Math.abs(statistics.totalRequests() - LINES) <= estimator.totalHalfWidth());
+        int errors = statistics.logStatusCodes().get(500);
+        assertTrue(Math.abs(errors - LINES / 10) <= estimator.halfWidth(SampleEstimator.Dimension.STATUS, 500));
+    }
+
+    @Test
+    public void sameSeedGivesSameResult() {
+        assertEquals(analyzeSample(42).totalRequests(), analyzeSample(42).totalRequests());
+    }
+
+    private StatisticsAggregator analyzeSample(long seed) {
+        AnalyzerConfig config = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            List.of(tempFile), Optional.empty(), Optional.empty(), Optional.empty());
+        NginxLogAnalyzer analyzer =
+            new NginxLogAnalyzer(config, new SampledFileDataSource(List.of(tempFile), 0.3, seed, BLOCK_SIZE));
+        analyzer.analyze();
+        return analyzer.statisticsAggregator();
+    }
+}
@@ -1,10 +1,17 @@
 package analyzer.analyzer;
 
 import analyzer.model.NginxLogEntry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public class StatisticsAggregatorTest {
     private StatisticsAggregator statisticsAggregator;
@@ -47,9 +54,33 @@ public class StatisticsAggregatorTest {
         assertEquals(0, statisticsAggregator.getPercentileResponseSize(95));
     }
 
+    @Test
+    public void keepsClientNamesPerAggregator() throws IOException {
+        StatisticsAggregator named = new StatisticsAggregator();
+        named.addLogEntry(createLogEntry("proxy.example.com", 1));
+        named.addLogEntry(createLogEntry("proxy.example.com", 1));
+        statisticsAggregator.addLogEntry(createLogEntry(DEFAULT_IP, 1));
+
+        StatisticsAggregator restored = new StatisticsAggregator();
+        restored.mergeFrom(roundTrip(statisticsAggregator));
+        assertFalse(restored.getFootprint().containsKey("clientNames"));
+        restored.mergeFrom(roundTrip(named));
+        assertEquals(Map.of("proxy.example.com", 2, DEFAULT_IP, 1), restored.getTopIpAddresses(10));
+    }
+
+    private static DataInputStream roundTrip(StatisticsAggregator aggregator) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        aggregator.writeTo(new DataOutputStream(bytes));
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
     private NginxLogEntry createLogEntry(int bodyBytesSent) {
+        return createLogEntry(DEFAULT_IP, bodyBytesSent);
+    }
+
+    private NginxLogEntry createLogEntry(String clientIP, int bodyBytesSent) {
         return new NginxLogEntry.Builder()
-            .clientIP(DEFAULT_IP)
+            .clientIP(clientIP)
             .remoteUser(EMPTY)
             .localDateTime(DEFAULT_DATE)
             .request(DEFAULT_REQUEST)
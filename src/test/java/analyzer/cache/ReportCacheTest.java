@@ -0,0 +1,106 @@
+package analyzer.cache;
+
+import analyzer.analyzer.NginxLogAnalyzer;
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.LocalFileDataSource;
+import analyzer.output.OutputFormat;
+import analyzer.output.ReportGenerator;
+import analyzer.output.ReportModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReportCacheTest {
+    private static final String LOG_LINE =
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Wget\"";
+
+    private static final String CACHED_MODEL = "2:84cf7a2f61bc5ba83df18ae326be4017689f3b2dc91b65692f0caddcde9a84da";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void keyDependsOnParametersAndFileFingerprint() throws IOException {
+        Path file = writeLog(3);
+        String key = CacheKey.of(config(file, Optional.empty())).orElseThrow();
+
+        assertEquals(key, CacheKey.of(config(file, Optional.empty())).orElseThrow());
+        assertNotEquals(key, CacheKey.of(config(file, Optional.of("status=304"))).orElseThrow());
+        writeLog(4);
+        assertNotEquals(key, CacheKey.of(config(file, Optional.empty())).orElseThrow());
+        assertTrue(CacheKey.of(config(file, Optional.empty()).profile(true)).isEmpty());
+    }
+
+    @Test
+    public void rendersCachedModelFromDiskLikeTheOriginal() throws IOException {
+        Path file = writeLog(3);
+        AnalyzerConfig config = config(file, Optional.empty());
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(config, new LocalFileDataSource(List.of(file)));
+        analyzer.analyze();
+        ReportModel model = new ReportGenerator(config, analyzer.statisticsAggregator()).getReportModel();
+        String key = CacheKey.of(config).orElseThrow();
+
+        new ReportCache(Optional.of(tempDir.resolve("cache"))).put(key, model);
+        ReportModel cached = new ReportCache(Optional.of(tempDir.resolve("cache"))).get(key).orElseThrow();
+
+        for (OutputFormat format : OutputFormat.values()) {
+            assertEquals(render(config, model, format), render(config, cached, format));
+        }
+    }
+
+    @Test
+    public void pinsFormatVersionToCachedModel() throws IOException {
+        Path file = writeLog(3);
+        AnalyzerConfig config = config(file, Optional.empty());
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(config, new LocalFileDataSource(List.of(file)));
+        analyzer.analyze();
+        ReportModel model = new ReportGenerator(config, analyzer.statisticsAggregator()).getReportModel();
+        String stored = CacheKey.sha256(new ObjectMapper().writeValueAsString(model));
+
+        assertEquals(CACHED_MODEL, CacheKey.FORMAT_VERSION + ":" + stored,
+            "the cached report changed: bump CacheKey.FORMAT_VERSION and update CACHED_MODEL");
+    }
+
+    @Test
+    public void evictsOldestEntriesBeyondDiskBudget() throws IOException {
+        Path directory = tempDir.resolve("cache");
+        ReportModel model = new ReportModel(List.of());
+        ReportCache cache = new ReportCache(Optional.of(directory), 1, 1, Duration.ofDays(1));
+
+        cache.put("first", model);
+        cache.put("second", model);
+
+        assertTrue(Files.exists(directory.resolve("second.json")));
+        assertTrue(Files.notExists(directory.resolve("first.json")));
+    }
+
+    private Path writeLog(int lines) throws IOException {
+        Path file = tempDir.resolve("access.log");
+        Files.write(file, Collections.nCopies(lines, LOG_LINE));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lines * 1000L));
+        return file;
+    }
+
+    private static AnalyzerConfig config(Path file, Optional<String> filter) {
+        return new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN, List.of(file),
+            Optional.empty(), Optional.empty(), Optional.empty()).filterExpression(filter);
+    }
+
+    private static String render(AnalyzerConfig config, ReportModel model, OutputFormat format) throws IOException {
+        StringWriter writer = new StringWriter();
+        new ReportGenerator(config, model).writeReport(format, List.of(writer));
+        return writer.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package analyzer.datasource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MergedFileDataSourceTest {
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void mergesFilesByTimestamp() throws IOException {
+        Path first = write("a.log", line("a1", 0), line("a2", 2), line("a3", 5));
+        Path second = write("b.log", line("b1", 1), line("b2", 2), line("b3", 3));
+        Path third = writeCompressed("c.log.gz", line("c1", 4));
+
+        assertEquals(List.of("a1", "b1", "a2", "b2", "b3", "c1", "a3"),
+            ids(new MergedFileDataSource(List.of(first, second, third), 0, Optional.empty())));
+    }
+
+    @Test
+    public void reordersLinesWithinTolerance() throws IOException {
+        Path first = write("a.log", line("a1", 0), line("a3", 3), line("a2", 1), line("a4", 4));
+        Path second = write("b.log", line("b1", 2));
+
+        assertEquals(List.of("a1", "a2", "b1", "a3", "a4"),
+            ids(new MergedFileDataSource(List.of(first, second), 2, Optional.empty())));
+        assertEquals(List.of("a1", "b1", "a3", "a2", "a4"),
+            ids(new MergedFileDataSource(List.of(first, second), 0, Optional.empty())));
+        assertEquals(List.of("a1", "b1", "a3", "a2", "a4"),
+            ids(new MergedFileDataSource(List.of(first, second), 2, Optional.empty(), 1)));
+    }
+
+    @Test
+    public void keepsUnparsedLinesInPlace() throws IOException {
+        Path first = write("a.log", "junk-start", line("a1", 1), "junk-a1", line("a2", 3));
+        Path second = write("b.log", line("b1", 2));
+
+        assertEquals(List.of("junk-start", "a1", "junk-a1", "b1", "a2"),
+            ids(new MergedFileDataSource(List.of(first, second), 0, Optional.empty())));
+    }
+
+    @Test
+    public void stopsAfterEndOfRange() throws IOException {
+        Path first = write("a.log", line("a1", 0), line("a2", 10), line("a3", 20));
+        Path second = write("b.log", line("b1", 5), line("b2", 15));
+
+        assertEquals(List.of("a1", "b1", "a2"), ids(new MergedFileDataSource(
+            List.of(first, second), 0, Optional.of(LocalDateTime.of(2015, 5, 17, 8, 5, 10)))));
+        assertEquals(List.of("a1", "b1", "a2", "b2"), ids(new MergedFileDataSource(
+            List.of(first, second), 5, Optional.of(LocalDateTime.of(2015, 5, 17, 8, 5, 10)))));
+    }
+
+    private static List<String> ids(MergedFileDataSource source) {
+        try (Stream<String> lines = source.getDataStream()) {
+            return lines.map(line -> line.split(" ")[0]).collect(Collectors.toList());
+        }
+    }
+
+    private static String line(String id, int second) {
+        return String.format("%s - - [17/May/2015:08:05:%02d +0000] \"GET /%s HTTP/1.1\" 200 0 \"-\" \"test\"",
+            id, second, id);
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(tempDir.resolve(name), List.of(lines));
+    }
+
+    private Path writeCompressed(String name, String... lines) throws IOException {
+        Path file = tempDir.resolve(name);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+}
@@ -0,0 +1,120 @@
+package analyzer.filter;
+
+import analyzer.model.NginxLogEntry;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilterExpressionTest {
+    private static final String POST_ERROR =
+        "10.1.2.3 - - [17/May/2015:08:05:32 +0000] \"POST /api/login HTTP/1.1\" 503 512 \"-\" \"curl/7.0\"";
+    private static final String BOT_REQUEST =
+        "10.1.2.4 - - [17/May/2015:08:05:32 +0000] \"GET /index.html HTTP/1.1\" 200 1024 \"-\" \"Googlebot/2.1\"";
+
+    @Test
+    public void rawLogLineSplitsFields() {
+        RawLogLine rawLogLine = new RawLogLine();
+
+        assertTrue(rawLogLine.reset(POST_ERROR));
+        assertEquals("10.1.2.3", slice(rawLogLine, LogField.IP));
+        assertEquals("POST", slice(rawLogLine, LogField.METHOD));
+        assertEquals("/api/login", slice(rawLogLine, LogField.RESOURCE));
+        assertEquals(503, rawLogLine.number(LogField.STATUS));
+        assertEquals(512, rawLogLine.number(LogField.BYTES));
+        assertEquals("curl/7.0", slice(rawLogLine, LogField.AGENT));
+        assertFalse(rawLogLine.reset("not a log line"));
+    }
+
+    @Test
+    public void evaluatesCombinedExpression() {
+        Predicate<FieldView> predicate = FilterExpression.compile("status>=500 && method=POST && !agent~'*bot*'");
+
+        assertTrue(test(predicate, POST_ERROR));
+        assertFalse(test(predicate, BOT_REQUEST));
+    }
+
+    @Test
+    public void supportsOrParenthesesAndGlobs() {
+        Predicate<FieldView> predicate =
+            FilterExpression.compile("(resource~'/api/*' || agent~'*BOT*') && bytes<2000 && ip!=10.0.0.1");
+
+        assertTrue(test(predicate, POST_ERROR));
+        assertTrue(test(predicate, BOT_REQUEST));
+        assertFalse(test(FilterExpression.compile("resource~'*.html' && status=500"), BOT_REQUEST));
+        assertTrue(test(FilterExpression.compile("agent~/google.*/"), BOT_REQUEST));
+    }
+
+    @Test
+    public void rawAndEntryViewsAgree() {
+        Predicate<FieldView> predicate = FilterExpression.compile("status<300 && resource~'/index*'");
+        NginxLogEntry entry = NginxLogEntry.parseNginxLogEntry(BOT_REQUEST).orElseThrow();
+
+        assertTrue(test(predicate, BOT_REQUEST));
+        assertTrue(predicate.test(new EntryFieldView(entry)));
+
+        String uncompressed = BOT_REQUEST.replace("10.1.2.4", "2001:DB8:0:0::1");
+        NginxLogEntry ipv6Entry = NginxLogEntry.parseNginxLogEntry(uncompressed).orElseThrow();
+        for (String expression : List.of("ip=2001:db8:0*", "ip=2001:db8::1", "ip~'*db8::*'", "ip=2001:db8::/32")) {
+            Predicate<FieldView> ipPredicate = FilterExpression.compile(expression);
+            assertEquals(ipPredicate.test(new EntryFieldView(ipv6Entry)), test(ipPredicate, uncompressed), expression);
+        }
+        assertTrue(test(FilterExpression.compile("ip=2001:db8::1"), uncompressed));
+        assertFalse(test(FilterExpression.compile("ip=2001:db8:0*"), uncompressed));
+
+        String named = BOT_REQUEST.replace("10.1.2.4", "proxy.example.com");
+        NginxLogEntry namedEntry = NginxLogEntry.parseNginxLogEntry(named).orElseThrow();
+        Predicate<FieldView> namePredicate = FilterExpression.compile("ip=proxy.*");
+        assertTrue(test(namePredicate, named));
+        assertTrue(namePredicate.test(new EntryFieldView(namedEntry)));
+    }
+
+    @Test
+    public void matchesTimeInOneFormatOnEveryView() {
+        NginxLogEntry entry = NginxLogEntry.parseNginxLogEntry(BOT_REQUEST).orElseThrow();
+        NginxLogEntry json = NginxLogEntry.parseNginxLogEntry("{\"time_iso8601\":\"2015-05-17T08:05:32+00:00\","
+            + "\"request\":\"GET /index.html HTTP/1.1\",\"status\":200}").orElseThrow();
+
+        for (String expression : List.of("time~'2015-05-17T08:05*'", "time='2015-05-17T08:05:32'",
+            "time~'17/May/2015*'")) {
+            Predicate<FieldView> predicate = FilterExpression.compile(expression);
+            boolean expected = !expression.contains("May");
+            assertEquals(expected, test(predicate, BOT_REQUEST), expression);
+            assertEquals(expected, predicate.test(new EntryFieldView(entry)), expression);
+            assertEquals(expected, predicate.test(new EntryFieldView(json)), expression);
+        }
+    }
+
+    @Test
+    public void matchesCidrOnRawAndEntryViews() {
+        Predicate<FieldView> predicate = FilterExpression.compile("ip=10.1.2.0/30 || ip=2001:db8::/32");
+        NginxLogEntry entry = NginxLogEntry.parseNginxLogEntry(BOT_REQUEST).orElseThrow();
+
+        assertTrue(test(predicate, POST_ERROR));
+        assertFalse(test(predicate, BOT_REQUEST));
+        assertFalse(predicate.test(new EntryFieldView(entry)));
+        assertTrue(test(FilterExpression.compile("ip=10.0.0.0/8"), BOT_REQUEST));
+        assertThrows(IllegalArgumentException.class, () -> FilterExpression.compile("ip=10.0.0.0/40"));
+    }
+
+    @Test
+    public void rejectsInvalidExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> FilterExpression.compile("status>="));
+        assertThrows(IllegalArgumentException.class, () -> FilterExpression.compile("host=abc"));
+        assertThrows(IllegalArgumentException.class, () -> FilterExpression.compile("agent>5"));
+        assertThrows(IllegalArgumentException.class, () -> FilterExpression.compile("(status=200"));
+    }
+
+    private static boolean test(Predicate<FieldView> predicate, String line) {
+        RawLogLine rawLogLine = new RawLogLine();
+        assertTrue(rawLogLine.reset(line));
+        return predicate.test(rawLogLine);
+    }
+
+    private static String slice(FieldView view, LogField field) {
+        return view.source(field).substring(view.start(field), view.end(field));
+    }
+}
@@ -0,0 +1,67 @@
+package analyzer.filter;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilterListTest {
+    private static final String LOG_LINE =
+        "%s - - [17/May/2015:08:05:32 +0000] \"GET %s HTTP/1.1\" 200 10 \"-\" \"%s\"";
+
+    @Test
+    public void ahoCorasickFindsAllPatternsInOnePass() {
+        AhoCorasick automaton = new AhoCorasick(List.of("he", "she", "his", "hers"), new long[] {1, 2, 4, 8});
+        String text = "USHERS";
+
+        assertEquals(1 | 2 | 8, automaton.scan(text, 0, text.length()));
+        assertEquals(0, automaton.scan(text, 0, 2));
+        assertEquals(4, automaton.scan("this", 0, 4));
+    }
+
+    @Test
+    public void excludesAndIncludesByLists() {
+        FilterList filterList = FilterList.parse(List.of(
+            "# bots",
+            "exclude agent~bot",
+            "exclude agent~crawler",
+            "include ip=10.0.0.1",
+            "include resource=/login"));
+        ListMatcher matcher = filterList.filterMatcher();
+
+        assertTrue(matcher.test(view("10.0.0.1", "/", "Mozilla/5.0")));
+        assertTrue(matcher.test(view("10.0.0.2", "/LOGIN", "Mozilla/5.0")));
+        assertFalse(matcher.test(view("10.0.0.2", "/", "Mozilla/5.0")));
+        assertFalse(matcher.test(view("10.0.0.1", "/", "Googlebot/2.1")));
+        assertTrue(filterList.tagMatcher().isEmpty());
+    }
+
+    @Test
+    public void tagsMatchedLines() {
+        ListMatcher tags = FilterList.parse(List.of(
+            "tag:scrapers agent~python-requests",
+            "tag:scrapers agent~scrapy",
+            "tag:abuse ip=1.2.3.4")).tagMatcher();
+
+        long mask = tags.classify(view("1.2.3.4", "/", "python-requests/2.31"));
+
+        assertEquals(List.of("tag:scrapers", "tag:abuse"), tags.labels());
+        assertEquals(3, mask);
+        assertTrue(tags.test(view("5.6.7.8", "/", "curl")));
+    }
+
+    @Test
+    public void rejectsMalformedRules() {
+        assertThrows(IllegalArgumentException.class, () -> FilterList.parse(List.of("drop agent~bot")));
+        assertThrows(IllegalArgumentException.class, () -> FilterList.parse(List.of("exclude host=abc")));
+        assertThrows(IllegalArgumentException.class, () -> FilterList.parse(List.of("exclude agent")));
+    }
+
+    private static RawLogLine view(String ip, String resource, String agent) {
+        RawLogLine rawLogLine = new RawLogLine();
+        assertTrue(rawLogLine.reset(String.format(LOG_LINE, ip, resource, agent)));
+        return rawLogLine;
+    }
+}
@@ -0,0 +1,73 @@
+package analyzer.generator;
+
+import analyzer.analyzer.NginxLogAnalyzer;
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.LocalFileDataSource;
+import analyzer.datasource.LogFileFinder;
+import analyzer.model.NginxLogEntry;
+import analyzer.output.OutputFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogGeneratorTest {
+    private static final long LINES = 150_000;
+    private static final LocalDateTime START = LocalDateTime.of(2015, 5, 17, 0, 0);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void generatesReproducibleGzipRotatedSet() throws IOException {
+        List<Path> files = generate(tempDir.resolve("first"), 4);
+        List<Path> again = generate(tempDir.resolve("second"), 1);
+
+        assertEquals(List.of("access.log.2.gz", "access.log.1.gz", "access.log"),
+            files.stream().map(file -> file.getFileName().toString()).toList());
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(-1, Files.mismatch(files.get(i), again.get(i)));
+        }
+    }
+
+    @Test
+    public void generatedSetIsReadableByAnalyzer() throws IOException {
+        List<Path> files = generate(tempDir, 2);
+        LogFileFinder finder = new LogFileFinder(tempDir + "/*.log*");
+        finder.findLogFiles();
+
+        assertEquals(3, finder.files().size());
+        try (Stream<String> lines = new LocalFileDataSource(files).getDataStream()) {
+            assertEquals(LINES, lines.count());
+        }
+
+        AnalyzerConfig config = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            files, Optional.empty(), Optional.empty(), Optional.empty());
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(config, new LocalFileDataSource(files));
+        analyzer.analyze();
+        int totalRequests = analyzer.statisticsAggregator().totalRequests();
+        assertTrue(totalRequests > LINES * 0.99 && totalRequests < LINES, "parsed " + totalRequests);
+
+        LocalDateTime first = firstEntry(files.getFirst()).localDateTime();
+        LocalDateTime last = firstEntry(files.getLast()).localDateTime();
+        assertTrue(!first.isBefore(START) && first.isBefore(last));
+    }
+
+    private static List<Path> generate(Path directory, int threads) throws IOException {
+        LogLineGenerator lineGenerator = new LogLineGenerator(7, 1000, 200, 0.001);
+        return new LogGenerator(lineGenerator, START, 50, threads).generate(directory, "access.log", LINES, 3, true);
+    }
+
+    private static NginxLogEntry firstEntry(Path file) {
+        try (Stream<String> lines = LocalFileDataSource.lines(file)) {
+            return lines.map(NginxLogEntry::parseNginxLogEntry).flatMap(Optional::stream).findFirst().orElseThrow();
+        }
+    }
+}
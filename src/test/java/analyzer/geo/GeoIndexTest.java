@@ -0,0 +1,91 @@
+package analyzer.geo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GeoIndexTest {
+    private static final String DATABASE = """
+        network,country,asn,organization
+        # documentation ranges
+        192.0.2.0/24,ZZ,AS64500,"Example, Inc."
+        198.51.100.0,198.51.100.127,YY,64501,Test Net
+        2001:db8::/32,XX,64502
+        10.0.0.0/8,LO
+        """;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void findsRangesForBothFormats() throws IOException {
+        Path csv = writeDatabase("geo.csv");
+        GeoIndex index = GeoIndex.open(csv);
+
+        assertEquals(4, index.size());
+        int range = index.find("192.0.2.77");
+        assertEquals("ZZ", index.country(range));
+        assertEquals(64500, index.asn(range));
+        assertEquals("Example, Inc.", index.organization(range));
+        assertEquals("YY", index.country(index.find("198.51.100.127")));
+        assertEquals(64501, index.asn(index.find("198.51.100.0")));
+        assertEquals("XX", index.country(index.find("2001:db8:ffff::1")));
+        assertEquals(0, index.asn(index.find("10.255.255.255")));
+        assertEquals("", index.organization(index.find("10.1.2.3")));
+    }
+
+    @Test
+    public void missesAddressesBetweenRanges() throws IOException {
+        GeoIndex index = GeoIndex.open(writeDatabase("geo.csv"));
+
+        assertEquals(GeoIndex.NOT_FOUND, index.find("198.51.100.128"));
+        assertEquals(GeoIndex.NOT_FOUND, index.find("192.0.3.0"));
+        assertEquals(GeoIndex.NOT_FOUND, index.find("9.255.255.255"));
+        assertEquals(GeoIndex.NOT_FOUND, index.find("2001:db9::"));
+        assertEquals(GeoIndex.NOT_FOUND, index.find("not an address"));
+    }
+
+    @Test
+    public void reusesCompiledSidecar() throws IOException {
+        Path csv = writeDatabase("geo.csv");
+        GeoIndex.open(csv);
+        Path sidecar = tempDir.resolve("geo.csv" + GeoIndex.SIDECAR_SUFFIX);
+        assertTrue(Files.isRegularFile(sidecar));
+
+        FileTime compiled = FileTime.fromMillis(Files.getLastModifiedTime(csv).toMillis() + 1_000);
+        Files.setLastModifiedTime(sidecar, compiled);
+        GeoIndex reopened = GeoIndex.open(csv);
+        assertEquals(compiled, Files.getLastModifiedTime(sidecar));
+        assertEquals("ZZ", reopened.country(reopened.find("192.0.2.1")));
+
+        GeoIndex direct = GeoIndex.open(sidecar);
+        assertEquals(reopened.byteSize(), direct.byteSize());
+        assertEquals("YY", direct.country(direct.find("198.51.100.1")));
+    }
+
+    @Test
+    public void rejectsInvalidDatabases() throws IOException {
+        Path overlapping = tempDir.resolve("overlap.csv");
+        Files.writeString(overlapping, "10.0.0.0/8,AA\n10.1.0.0/16,BB\n");
+        assertThrows(IllegalArgumentException.class,
+            () -> GeoIndexBuilder.compile(overlapping, new ByteArrayOutputStream()));
+
+        Path malformed = tempDir.resolve("malformed.csv");
+        Files.writeString(malformed, "10.0.0.0/8,AA\n10.300.0.0/16,BB\n");
+        assertThrows(IllegalArgumentException.class,
+            () -> GeoIndexBuilder.compile(malformed, new ByteArrayOutputStream()));
+    }
+
+    private Path writeDatabase(String name) throws IOException {
+        Path csv = tempDir.resolve(name);
+        Files.writeString(csv, DATABASE);
+        return csv;
+    }
+}
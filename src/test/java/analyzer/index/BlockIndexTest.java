@@ -0,0 +1,73 @@
+package analyzer.index;
+
+import analyzer.datasource.IndexedFileDataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockIndexTest {
+    private static final int BLOCK_SIZE = 1024;
+    private static final String LOG_LINE =
+        "%s - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_%d HTTP/1.1\" 200 %d \"-\" \"Wget/1.13.4\"";
+
+    private Path tempFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("indexed", ".log");
+        Files.write(tempFile, generateLines(0, 200));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(BlockIndexBuilder.indexPathFor(tempFile));
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void readsOnlyBlocksWithValue() {
+        IndexedFileDataSource dataSource = new IndexedFileDataSource(
+            List.of(tempFile), IndexedField.IP, "10.0.0.7", new BlockIndexBuilder(BLOCK_SIZE));
+
+        List<String> lines;
+        try (Stream<String> stream = dataSource.getDataStream()) {
+            lines = stream.toList();
+        }
+
+        assertTrue(lines.size() < 200);
+        assertEquals(2, lines.stream().filter(line -> line.startsWith("10.0.0.7 ")).count());
+        assertTrue(Files.exists(BlockIndexBuilder.indexPathFor(tempFile)));
+    }
+
+    @Test
+    public void updatesIndexIncrementally() throws IOException {
+        BlockIndexBuilder builder = new BlockIndexBuilder(BLOCK_SIZE);
+        BlockIndex initial = builder.update(tempFile);
+        assertEquals(0, initial.blocksFor(IndexedField.RESOURCE, "/downloads/product_250").length);
+
+        Files.write(tempFile, generateLines(200, 300), StandardOpenOption.APPEND);
+        BlockIndex updated = builder.update(tempFile);
+
+        assertEquals(Files.size(tempFile), updated.indexedLength());
+        assertEquals(1, updated.blocksFor(IndexedField.RESOURCE, "/downloads/product_250").length);
+        assertTrue(updated.blocksFor(IndexedField.STATUS, "200").length
+            > initial.blocksFor(IndexedField.STATUS, "200").length);
+    }
+
+    private static List<String> generateLines(int from, int to) {
+        List<String> lines = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            lines.add(String.format(LOG_LINE, "10.0.0." + (i % 100), i, i));
+        }
+        return lines;
+    }
+}
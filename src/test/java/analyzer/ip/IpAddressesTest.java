@@ -0,0 +1,102 @@
+package analyzer.ip;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IpAddressesTest {
+    @Test
+    public void parsesAndFormatsAddresses() {
+        for (String address : List.of("93.180.71.3", "0.0.0.0", "2001:db8::1", "::1", "::", "fe80::1:2:0:0:3",
+            "2001:db8:0:1:1:1:1:1", "::ffff:c000:280")) {
+            long[] parsed = new long[2];
+            assertTrue(IpAddresses.parse(address, parsed), address);
+            assertEquals(address.equals("::ffff:c000:280") ? "192.0.2.128" : address,
+                IpAddresses.format(parsed[0], parsed[1]));
+        }
+
+        long[] parsed = new long[2];
+        assertTrue(IpAddresses.parse("2001:0DB8:0000:0000:0000:0000:0000:0001", parsed));
+        assertEquals("2001:db8::1", IpAddresses.format(parsed[0], parsed[1]));
+        for (String invalid : List.of("256.1.1.1", "1.2.3", "1.2.3.4.5", "1::2::3", "1:2:3:4:5:6:7:8:9", "unix:",
+            "12345::", "1:2:3:4:5:6:7:8:", "", "-")) {
+            assertFalse(IpAddresses.parse(invalid, parsed), invalid);
+        }
+    }
+
+    @Test
+    public void matchesPrefixesWithCidrTrie() {
+        CidrTrie trie = new CidrTrie();
+        trie.add("10.0.0.0/8", 1);
+        trie.add("10.1.2.0/24", 2);
+        trie.add("2001:db8::/32", 4);
+        trie.add("192.168.1.7", 8);
+
+        assertEquals(1 | 2, match(trie, "10.1.2.3"));
+        assertEquals(1, match(trie, "10.200.0.1"));
+        assertEquals(4, match(trie, "2001:db8:ffff::1"));
+        assertEquals(8, match(trie, "192.168.1.7"));
+        assertEquals(0, match(trie, "192.168.1.8"));
+        assertEquals(0, match(trie, "11.0.0.1"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("10.0.0.0/33", 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("example.com/8", 1));
+    }
+
+    @Test
+    public void countsAddressesAndSubnets() {
+        IpCounter addresses = new IpCounter();
+        IpCounter subnets = new IpCounter(24, 48);
+        long[] parsed = new long[2];
+        for (int i = 0; i < 3000; i++) {
+            String address = i % 5 == 0 ? "10.9.9." + (i % 200)
+                : i % 2 == 0 ? "10.0." + (i / 2 % 4) + ".1" : "2001:db8:" + (i % 3) + "::" + i;
+            assertTrue(IpAddresses.parse(address, parsed));
+            addresses.increment(parsed[0], parsed[1]);
+            subnets.increment(parsed[0], parsed[1]);
+        }
+
+        assertEquals(8, subnets.size());
+        assertEquals(Map.of("10.9.9.0/24", 600), subnets.getTopEntries(1));
+        assertTrue(IpAddresses.parse("10.9.9.0", parsed));
+        assertEquals(15, addresses.count(parsed[0], parsed[1]));
+        assertEquals(600, subnets.count(parsed[0], parsed[1]));
+        assertEquals("2001:db8:1::/48", subnets.formatAt(subnets.find(0x20010db800010000L, 0)));
+    }
+
+    @Test
+    public void keepsUnparsedClientsAsSeparateNames() {
+        ClientNames names = new ClientNames();
+        IpCounter addresses = new IpCounter(names);
+        IpCounter subnets = new IpCounter(24, 48, names);
+        long[] parsed = new long[2];
+        for (String client : List.of("-", "proxy.example.com", "-", "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff")) {
+            if (!IpAddresses.parseOrName(client, 0, client.length(), parsed)) {
+                names.add(parsed[1], client);
+            }
+            addresses.increment(parsed[0], parsed[1]);
+            subnets.increment(parsed[0], parsed[1]);
+        }
+
+        assertEquals(Map.of("-", 2, "proxy.example.com", 1, "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff", 1),
+            addresses.getTopEntries(10));
+        assertEquals(Map.of("-", 2, "proxy.example.com", 1, "ffff:ffff:ffff::/48", 1), subnets.getTopEntries(10));
+        assertEquals(2, names.size());
+        assertFalse(IpAddresses.parseOrName("proxy.example.com", 0, 17, parsed));
+        assertEquals("proxy.example.com", names.format(parsed[0], parsed[1]));
+        assertEquals(IpAddresses.format(parsed[0], parsed[1]), new ClientNames().format(parsed[0], parsed[1]));
+
+        names.add(parsed[1], "other.example.com");
+        assertEquals("proxy.example.com", names.format(parsed[0], parsed[1]));
+        assertEquals(2, names.size());
+    }
+
+    private static long match(CidrTrie trie, String address) {
+        long[] parsed = new long[2];
+        assertTrue(IpAddresses.parse(address, parsed));
+        return trie.match(parsed[0], parsed[1]);
+    }
+}
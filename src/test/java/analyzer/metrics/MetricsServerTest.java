@@ -0,0 +1,70 @@
+package analyzer.metrics;
+
+import analyzer.analyzer.NginxLogAnalyzer;
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.LocalFileDataSource;
+import analyzer.output.OutputFormat;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsServerTest {
+    private static final int LINES = 5_000;
+    private static final String LOG_LINE =
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/%d HTTP/1.1\" %d 0 \"-\" \"Wget\"";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void servesCountersAndTopEntriesInPrometheusFormat() throws IOException, InterruptedException {
+        Path file = tempDir.resolve("access.log");
+        List<String> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            lines.add(i % 50 == 0 ? "garbage" : String.format(LOG_LINE, i % 2, i % 5 == 0 ? 500 : 200));
+        }
+        Files.write(file, lines);
+
+        AnalyzerConfig config = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            List.of(file), Optional.empty(), Optional.empty(), Optional.empty())
+            .filterExpression(Optional.of("status=200"));
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(config, new LocalFileDataSource(List.of(file)));
+        analyzer.analyze();
+
+        try (MetricsServer server = new MetricsServer(0, analyzer.ingestMetrics())) {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + MetricsServer.PATH)).build(),
+                HttpResponse.BodyHandlers.ofString());
+            List<String> metrics = response.body().lines().toList();
+
+            assertEquals(200, response.statusCode());
+            assertTrue(metrics.contains("analyzer_lines_read_total " + LINES));
+            assertTrue(metrics.contains("analyzer_lines_rejected_total{reason=\"parse\"} 100"));
+            assertTrue(metrics.contains("analyzer_lines_rejected_total{reason=\"filter\"} 900"));
+            assertTrue(metrics.contains("analyzer_entries_total 4000"));
+            assertTrue(metrics.contains("analyzer_top_count{dimension=\"status\",key=\"200\"} 4000"));
+            assertTrue(metrics.contains("analyzer_top_count{dimension=\"resource\",key=\"/downloads/1\"} 2000"));
+        }
+    }
+
+    @Test
+    public void escapesLabelValues() {
+        MetricsSnapshot snapshot =
+            MetricsSnapshot.EMPTY.withTopCounters(Map.of("agent", Map.of("say \"hi\"\\", 1)));
+
+        assertTrue(MetricsServer.render(snapshot)
+            .contains("analyzer_top_count{dimension=\"agent\",key=\"say \\\"hi\\\"\\\\\"} 1"));
+    }
+}
@@ -0,0 +1,90 @@
+package analyzer.model;
+
+import analyzer.analyzer.NginxLogAnalyzer;
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.LocalFileDataSource;
+import analyzer.output.OutputFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonLogEntryParserTest {
+    private static final String ESCAPED_JSON = "{\"time_local\":\"17/May/2015:08:05:32 +0000\","
+        + "\"remote_addr\":\"93.180.71.3\",\"remote_user\":\"\",\"request\":\"GET /downloads/product_1 HTTP/1.1\","
+        + "\"status\":\"304\",\"body_bytes_sent\":\"0\",\"request_time\":\"0.000\",\"http_referrer\":\"\","
+        + "\"http_user_agent\":\"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"}";
+    private static final String COMBINED = "93.180.71.3 - - [17/May/2015:08:05:32 +0000] "
+        + "\"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void parsesEscapedJsonLikeTheCombinedFormat() {
+        NginxLogEntry json = NginxLogEntry.parseNginxLogEntry(ESCAPED_JSON).orElseThrow();
+        NginxLogEntry combined = NginxLogEntry.parseNginxLogEntry(COMBINED).orElseThrow();
+
+        assertEquals(combined.clientIP(), json.clientIP());
+        assertEquals(combined.localDateTime(), json.localDateTime());
+        assertEquals(combined.request(), json.request());
+        assertEquals(combined.httpMethod(), json.httpMethod());
+        assertEquals(combined.resource(), json.resource());
+        assertEquals(combined.statusCode(), json.statusCode());
+        assertEquals(combined.bodyBytesSent(), json.bodyBytesSent());
+        assertEquals(combined.httpUserAgent(), json.httpUserAgent());
+        assertEquals("-", json.httpReferer());
+    }
+
+    @Test
+    public void readsAlternativeFieldsAndSkipsUnknownValues() {
+        NginxLogEntry entry = JsonLogEntryParser.parse("{\"upstream\":{\"addr\":[\"10.0.0.1:80\",{\"x\":1}]},"
+            + "\"@timestamp\":\"2015-05-17T08:05:32+03:00\",\"client_ip\":\"2001:db8::1\",\"request_method\":\"POST\","
+            + "\"request_uri\":\"/api/items?id=1\",\"status\":201,\"bytes_sent\":512,\"referer\":null,"
+            + "\"user_agent\":\"curl/8.0\",\"tags\":[]}").orElseThrow();
+
+        assertEquals(LocalDateTime.parse("2015-05-17T08:05:32"), entry.localDateTime());
+        assertEquals("2001:db8::1", entry.clientIP());
+        assertEquals("POST", entry.httpMethod());
+        assertEquals("/api/items?id=1", entry.resource());
+        assertEquals(201, entry.statusCode());
+        assertEquals(512, entry.bodyBytesSent());
+        assertEquals("-", entry.httpReferer());
+        assertEquals("curl/8.0", entry.httpUserAgent());
+    }
+
+    @Test
+    public void rejectsIncompleteOrMalformedLines() {
+        assertTrue(JsonLogEntryParser.parse("{\"status\":\"200\",\"request\":\"GET / HTTP/1.1\"}").isEmpty());
+        assertTrue(JsonLogEntryParser.parse("{\"time_local\":\"17/May/2015:08:05:32 +0000\","
+            + "\"request\":\"GET / HTTP/1.1\",\"status\":\"-\"}").isEmpty());
+        assertTrue(JsonLogEntryParser.parse("{\"time_local\":\"yesterday\",\"request\":\"GET / HTTP/1.1\","
+            + "\"status\":\"200\"}").isEmpty());
+        assertTrue(NginxLogEntry.parseNginxLogEntry("{\"time_local\":").isEmpty());
+        assertEquals(Optional.of(LocalDateTime.parse("2015-05-17T08:05:32")),
+            JsonLogEntryParser.localDateTime(ESCAPED_JSON));
+    }
+
+    @Test
+    public void analyzesMixedFormatsInOneRun() throws IOException {
+        Path json = Files.write(tempDir.resolve("json.log"), List.of(ESCAPED_JSON, ESCAPED_JSON));
+        Path combined = Files.write(tempDir.resolve("combined.log"), List.of(COMBINED));
+        AnalyzerConfig config = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            List.of(json, combined), Optional.empty(), Optional.of("status"), Optional.of("304"));
+
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(config, new LocalFileDataSource(config.files()));
+        analyzer.analyze();
+        StatisticsAggregator statistics = analyzer.statisticsAggregator();
+
+        assertEquals(3, statistics.totalRequests());
+        assertEquals(Map.of("/downloads/product_1", 3), statistics.resources());
+    }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class NginxLogEntryTest {
@@ -23,4 +24,15 @@ public class NginxLogEntryTest {
         assertEquals("-", logEntry.orElseThrow().remoteUser());
         assertEquals("-", logEntry.orElseThrow().httpReferer());
     }
+
+    @Test
+    public void parseTimestampsLikeTheNginxPattern() {
+        assertEquals(LocalDateTime.parse("2015-12-31T23:59:59"),
+            NginxTimestamps.parse("[31/Dec/2015:23:59:59 -0700]", 1, 27));
+        assertEquals(LocalDateTime.parse("2016-02-29T00:00"),
+            NginxTimestamps.parse("31/Feb/2016:00:00:00 +0000", 0, 26));
+        assertThrows(IllegalArgumentException.class, () -> NginxTimestamps.parse("17/may/2015:08:05:32 +0000", 0, 26));
+        assertThrows(IllegalArgumentException.class, () -> NginxTimestamps.parse("17/May/2015 08:05:32 +0000", 0, 26));
+        assertThrows(IllegalArgumentException.class, () -> NginxTimestamps.parse("32/Jan/2015:08:05:32 +0000", 0, 26));
+    }
 }
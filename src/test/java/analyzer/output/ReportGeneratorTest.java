@@ -2,7 +2,10 @@ package analyzer.output;
 
 import analyzer.analyzer.StatisticsAggregator;
 import analyzer.config.AnalyzerConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
@@ -11,6 +14,7 @@ import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -131,4 +135,22 @@ public class ReportGeneratorTest {
 
         Files.deleteIfExists(tempFile);
     }
+
+    @Test
+    public void writesJsonToEverySinkFromOneModel() throws IOException {
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+
+        reportGenerator.writeReport(OutputFormat.JSON, List.of(first, second));
+        JsonNode report = new ObjectMapper().readTree(first.toString());
+
+        assertEquals(first.toString(), second.toString());
+        assertEquals("Общая информация", report.get("general").get("title").asText());
+        assertEquals(1000, report.get("general").get("rows").get(3).get("value").asLong());
+        assertEquals(500, report.get("resources").get("rows").get(0).get("count").asInt());
+        for (JsonNode row : report.get("statusCodes").get("rows")) {
+            assertEquals(row.get("code").asInt() == 200 ? 800 : 200, row.get("count").asInt());
+        }
+        assertEquals(2, report.get("ipAddresses").get("rows").size());
+    }
 }
@@ -0,0 +1,60 @@
+package analyzer.profile;
+
+import analyzer.analyzer.NginxLogAnalyzer;
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.LocalFileDataSource;
+import analyzer.output.OutputFormat;
+import analyzer.output.ReportGenerator;
+import analyzer.output.ReportModel.Section;
+import analyzer.profile.PipelineProfile.Stage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipelineProfileTest {
+    private static final int LINES = 10_000;
+    private static final String LOG_LINE =
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_%d HTTP/1.1\" %d 0 \"-\" \"Wget\"";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void countsLinesPerStageAndParseFailures() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        List<String> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            lines.add(i % 100 == 0 ? "garbage" : String.format(LOG_LINE, i % 2, i % 10 == 0 ? 500 : 200));
+        }
+        Files.write(file, lines);
+
+        AnalyzerConfig config = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            List.of(file), Optional.empty(), Optional.empty(), Optional.empty())
+            .filterExpression(Optional.of("status=200"))
+            .profile(true);
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(config, new LocalFileDataSource(List.of(file)));
+        analyzer.analyze();
+
+        PipelineProfile profile = config.pipelineProfile();
+        int failed = LINES / 100;
+        int errors = LINES / 10;
+        assertEquals(LINES, profile.timing(Stage.READ).lines());
+        assertEquals(LINES, profile.timing(Stage.FILTER).lines());
+        assertEquals(LINES - errors + failed, profile.timing(Stage.PARSE).lines());
+        assertEquals(failed, profile.parseFailures());
+        assertEquals(LINES - errors, profile.timing(Stage.AGGREGATE).lines());
+        assertEquals(LINES - errors, analyzer.statisticsAggregator().totalRequests());
+        assertTrue(profile.timing(Stage.READ).wallNanos() > 0);
+
+        List<String> sections = new ReportGenerator(config, analyzer.statisticsAggregator()).getReportModel()
+            .sections().stream().map(Section::id).toList();
+        assertTrue(sections.containsAll(List.of("profile", "memory")));
+    }
+}
@@ -0,0 +1,144 @@
+package analyzer.rate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateTrackerTest {
+    private static final long START = 1_431_820_800L;
+    private static final long IPV4_HIGH = 0L;
+
+    @Test
+    public void parsesLimits() {
+        assertEquals(new RateLimit(100, 10), RateLimit.parse("100/10s"));
+        assertEquals(new RateLimit(600, 60), RateLimit.parse(" 600/1M "));
+        assertEquals(new RateLimit(1, 3600), RateLimit.parse("1/1h"));
+        assertEquals(new RateLimit(5, 30), RateLimit.parse("5/30"));
+        assertEquals("5/30s", RateLimit.parse("5/30").toString());
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("100"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("0/10s"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("1/2h"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("x/10s"));
+    }
+
+    @Test
+    public void reportsExactSlidingWindowViolations() {
+        RateTracker tracker = new RateTracker(List.of(new RateLimit(3, 10), new RateLimit(10, 60)), 16);
+        for (int second = 0; second < 30; second++) {
+            tracker.add(IPV4_HIGH, ip(1), START + second);
+            if (second % 2 == 0) {
+                tracker.add(IPV4_HIGH, ip(2), START + second);
+            }
+        }
+        tracker.add(IPV4_HIGH, ip(3), START + 5);
+
+        List<RateTracker.Violation> violations = tracker.getTopViolations(10);
+        assertEquals(4, violations.size());
+        RateTracker.Violation busiest = violations.getFirst();
+        assertEquals("0.0.0.1", busiest.ip());
+        assertEquals(new RateLimit(3, 10), busiest.limit());
+        assertEquals(10, busiest.peak());
+        assertEquals(START + 3, busiest.firstSecond());
+        assertFalse(busiest.approximate());
+        assertEquals(new RateTracker.Violation("0.0.0.1", new RateLimit(10, 60), 30, START + 10, false),
+            violations.get(1));
+        assertTrue(violations.stream()
+            .anyMatch(violation -> violation.ip().equals("0.0.0.2") && violation.limit().windowSeconds() == 10
+                && violation.peak() == 5 && violation.firstSecond() == START + 6));
+        assertTrue(violations.stream().noneMatch(violation -> violation.ip().equals("0.0.0.3")));
+    }
+
+    @Test
+    public void keepsShortWindowsExactNextToLongOnes() {
+        RateTracker tracker = new RateTracker(List.of(new RateLimit(100, 10), new RateLimit(600, 3600)), 16);
+        for (int second = 0; second < 60; second++) {
+            tracker.add(IPV4_HIGH, ip(1), START + second);
+            tracker.add(IPV4_HIGH, ip(1), START + second);
+        }
+        for (int request = 0; request < 110; request++) {
+            tracker.add(IPV4_HIGH, ip(2), START + request / 22);
+        }
+        for (int request = 0; request < 700; request++) {
+            tracker.add(IPV4_HIGH, ip(3), START + request * 5L);
+        }
+
+        List<RateTracker.Violation> violations = tracker.getTopViolations(10);
+        assertEquals(2, violations.size());
+        assertEquals(new RateTracker.Violation("0.0.0.3", new RateLimit(600, 3600), 700, START + 3000, false),
+            violations.getFirst());
+        assertEquals(new RateTracker.Violation("0.0.0.2", new RateLimit(100, 10), 110, START + 4, false),
+            violations.get(1));
+    }
+
+    @Test
+    public void slidesTheWindowOverGaps() {
+        RateTracker tracker = new RateTracker(List.of(new RateLimit(2, 5)), 4);
+        tracker.add(IPV4_HIGH, ip(1), START);
+        tracker.add(IPV4_HIGH, ip(1), START + 4);
+        tracker.add(IPV4_HIGH, ip(1), START + 5);
+        tracker.add(IPV4_HIGH, ip(1), START + 100);
+        tracker.add(IPV4_HIGH, ip(1), START + 101);
+        assertTrue(tracker.getTopViolations(10).isEmpty());
+
+        tracker.add(IPV4_HIGH, ip(1), START + 99);
+        assertEquals(3, tracker.getTopViolations(10).getFirst().peak());
+    }
+
+    @Test
+    public void evictsIdleClientsBeforeApproximating() {
+        RateTracker tracker = new RateTracker(List.of(new RateLimit(5, 10)), 8);
+        for (int client = 0; client < 100; client++) {
+            for (int request = 0; request < 6; request++) {
+                tracker.add(IPV4_HIGH, ip(client), START + client * 20L);
+            }
+        }
+
+        assertEquals(100, tracker.getTopViolations(1000).size());
+        assertTrue(tracker.evictedKeys() > 0);
+        assertEquals(0, tracker.approximateRequests());
+        assertTrue(tracker.trackedKeys() <= 8);
+    }
+
+    @Test
+    public void fallsBackToCountMinWhenAllKeysAreActive() {
+        RateTracker tracker = new RateTracker(List.of(new RateLimit(5, 10)), 2);
+        for (int second = 0; second < 10; second++) {
+            for (int client = 0; client < 4; client++) {
+                tracker.add(IPV4_HIGH, ip(client), START + second);
+            }
+        }
+
+        List<RateTracker.Violation> violations = tracker.getTopViolations(10);
+        assertEquals(4, violations.size());
+        assertEquals(2, violations.stream().filter(RateTracker.Violation::approximate).count());
+        assertTrue(violations.stream().allMatch(violation -> violation.peak() >= 6));
+        assertEquals(20, tracker.approximateRequests());
+    }
+
+    @Test
+    public void roundTripsOffenders() throws IOException {
+        List<RateLimit> limits = List.of(new RateLimit(1, 1));
+        RateTracker tracker = new RateTracker(limits, 4);
+        tracker.add(IPV4_HIGH, ip(7), START);
+        tracker.add(IPV4_HIGH, ip(7), START);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        tracker.writeTo(new DataOutputStream(bytes));
+        RateTracker merged = new RateTracker(limits, 4);
+        merged.mergeFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(tracker.getTopViolations(10), merged.getTopViolations(10));
+    }
+
+    private static long ip(int value) {
+        return 0xFFFF_0000_0000L | value;
+    }
+}
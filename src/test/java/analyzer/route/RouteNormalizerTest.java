@@ -0,0 +1,72 @@
+package analyzer.route;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RouteNormalizerTest {
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void replacesIdentifierSegments() {
+        RouteNormalizer normalizer = new RouteNormalizer(new RouteRules(List.of(), QueryMode.STRIP));
+        assertEquals("/users/{id}/orders/{id}", normalizer.normalize("/users/42/orders/7?page=2"));
+        assertEquals("/files/{uuid}", normalizer.normalize("/files/123e4567-e89b-12d3-a456-426614174000"));
+        assertEquals("/blobs/{hex}/", normalizer.normalize("/blobs/9f86d081884c7d659a2feaa0c55ad015/"));
+        assertEquals("/downloads/product_1", normalizer.normalize("/downloads/product_1"));
+        assertEquals("/deadbeefdeadbeef", normalizer.normalize("/deadbeefdeadbeef"));
+        assertEquals("/", normalizer.normalize("/?utm_source=mail"));
+        assertEquals("Unknown Resource", normalizer.normalize("Unknown Resource"));
+    }
+
+    @Test
+    public void keepsSortedQueryKeys() {
+        RouteNormalizer normalizer = new RouteNormalizer(new RouteRules(List.of(), QueryMode.KEYS));
+        assertEquals("/search?page&q", normalizer.normalize("/search?q=shoes&page=2&q=boots"));
+        assertEquals("/search?debug", normalizer.normalize("/search?debug"));
+        assertEquals("/search", normalizer.normalize("/search"));
+    }
+
+    @Test
+    public void prefersUserPatterns() throws IOException {
+        Path routes = tempDir.resolve("routes.txt");
+        Files.write(routes, List.of(
+            "# shop routes",
+            "/products/{slug}",
+            "/products/{slug}/reviews",
+            "/products/new",
+            "/static/**",
+            "/api/*/status"));
+        RouteNormalizer normalizer = new RouteNormalizer(RouteRules.load(routes, QueryMode.STRIP));
+
+        assertEquals("/products/{slug}", normalizer.normalize("/products/red-shoes?ref=home"));
+        assertEquals("/products/new", normalizer.normalize("/products/new"));
+        assertEquals("/products/{slug}/reviews", normalizer.normalize("/products/red-shoes/reviews"));
+        assertEquals("/static/**", normalizer.normalize("/static/css/site.css"));
+        assertEquals("/api/*/status", normalizer.normalize("/api/v2/status"));
+        assertEquals("/api/v2/{id}", normalizer.normalize("/api/v2/17"));
+    }
+
+    @Test
+    public void cachesAndSharesRoutes() {
+        RouteNormalizer normalizer = new RouteNormalizer(new RouteRules(List.of(), QueryMode.STRIP));
+        String first = normalizer.normalize("/users/1");
+        assertSame(first, normalizer.normalize("/users/2"));
+        assertSame(first, normalizer.normalize("/users/1"));
+        assertEquals(2, normalizer.cachedResources());
+    }
+
+    @Test
+    public void rejectsRelativePatterns() throws IOException {
+        Path routes = tempDir.resolve("routes.txt");
+        Files.write(routes, List.of("users/{id}"));
+        assertThrows(IllegalArgumentException.class, () -> RouteRules.load(routes, QueryMode.STRIP));
+    }
+}
@@ -0,0 +1,58 @@
+package analyzer.server;
+
+import analyzer.filter.FilterExpression;
+import analyzer.filter.LogField;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LogTableTest {
+    private static final int ROWS = 3 * LogTable.SEGMENT_SIZE + 17;
+    private static final String LOG_LINE = "2001:db8::%x - - [17/May/2015:%02d:%02d:%02d +0000] "
+        + "\"GET /item/%d HTTP/1.1\" %d %d \"-\" \"agent-%d\"";
+
+    @Test
+    public void scansPackedColumnsAcrossSegments() {
+        List<String> lines = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            int second = i / 4;
+            lines.add(String.format(LOG_LINE, i % 50, second / 3600, second / 60 % 60, second % 60, i % 7,
+                i % 10 == 0 ? 503 : 200, i, i % 3));
+        }
+
+        try (LogTable table = LogTable.load(lines.stream())) {
+            long[] byStatus = table.scan(Optional.of(LocalDateTime.parse("2015-05-17T01:00")), Optional.empty(),
+                Optional.of(FilterExpression.compile("agent=agent-1")), () -> new long[2],
+                (counts, row) -> counts[table.statusCode(row) == 503 ? 1 : 0] += table.bodyBytes(row),
+                (left, right) -> new long[] {left[0] + right[0], left[1] + right[1]});
+
+            long[] expected = new long[2];
+            for (int i = 3600 * 4; i < ROWS; i++) {
+                if (i % 3 == 1) {
+                    expected[i % 10 == 0 ? 1 : 0] += i;
+                }
+            }
+            assertArrayEquals(expected, byStatus);
+            assertEquals(ROWS, table.size());
+            assertEquals(4, table.segmentCount());
+            assertEquals("/item/" + (ROWS - 1) % 7, table.text(LogField.RESOURCE, ROWS - 1));
+            assertEquals(LocalDateTime.parse("2015-05-17T00:00:01"),
+                LocalDateTime.ofEpochSecond(table.epochSecond(4), 0, ZoneOffset.UTC));
+            assertThrows(IllegalArgumentException.class, () -> table.text(LogField.STATUS, 0));
+        }
+    }
+
+    @Test
+    public void emptyTableAnswersEmptyQueries() {
+        try (LogTable table = LogTable.load(Stream.empty())) {
+            assertEquals(0, table.query(Optional.empty(), Optional.empty(), Optional.empty()).totalRequests());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package analyzer.server;
+
+import analyzer.analyzer.LogFilter;
+import analyzer.analyzer.NginxLogAnalyzer;
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.LocalFileDataSource;
+import analyzer.output.OutputFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class QueryServerTest {
+    private static final int LINES = 150_000;
+    private static final String LOG_LINE = "10.0.%d.%d - - [17/May/2015:%02d:%02d:00 +0000] "
+        + "\"%s /downloads/product_%d HTTP/1.1\" %d %d \"-\" \"Wget\"";
+    private static final String FILTER = "status>=400 && method=GET";
+
+    @TempDir
+    private Path tempDir;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = tempDir.resolve("access.log");
+        List<String> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            int minute = (i * 7) % (24 * 60);
+            lines.add(String.format(LOG_LINE, i % 3, i % 200, minute / 60, minute % 60, i % 4 == 0 ? "POST" : "GET",
+                i % 5, i % 6 == 0 ? 404 : 200, i % 1000));
+        }
+        Files.write(file, lines);
+    }
+
+    @Test
+    public void answersQueriesLikeTheAnalyzer() {
+        AnalyzerConfig config = config(Optional.of(LocalDateTime.parse("2015-05-17T06:30")),
+            Optional.of(LocalDateTime.parse("2015-05-17T18:00")), Optional.of(FILTER));
+        try (LogTable table = load()) {
+            StatisticsAggregator expected = analyze(config);
+            StatisticsAggregator actual = table.query(config.from(), config.to(), LogFilter.compilePredicate(config));
+
+            assertEquals(expected.totalRequests(), actual.totalRequests());
+            assertEquals(expected.getTopResources(10), actual.getTopResources(10));
+            assertEquals(expected.getTopStatusCodes(10), actual.getTopStatusCodes(10));
+            assertEquals(expected.getTopIpAddresses(LINES), actual.getTopIpAddresses(LINES));
+            assertEquals(expected.getPercentileResponseSize(95), actual.getPercentileResponseSize(95));
+            assertEquals(LINES, table.query(Optional.empty(), Optional.empty(), Optional.empty()).totalRequests());
+        }
+    }
+
+    @Test
+    public void servesJsonReports() throws IOException, InterruptedException {
+        AnalyzerConfig config = config(Optional.empty(), Optional.of(LocalDateTime.parse("2015-05-17T12:00")),
+            Optional.of(FILTER));
+        try (LogTable table = load(); QueryServer server = new QueryServer(0, table, List.of(file), 2)) {
+            String query = "?to=2015-05-17T12:00&filter=" + URLEncoder.encode(FILTER, StandardCharsets.UTF_8);
+            HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + server.port() + QueryServer.PATH + query)).build(),
+                HttpResponse.BodyHandlers.ofString());
+            JsonNode report = new ObjectMapper().readTree(response.body());
+
+            assertEquals(200, response.statusCode());
+            assertEquals(analyze(config).totalRequests(),
+                report.get("general").get("rows").get(3).get("value").asInt());
+        }
+    }
+
+    private LogTable load() {
+        try (Stream<String> lines = new LocalFileDataSource(List.of(file)).getDataStream()) {
+            return LogTable.load(lines);
+        }
+    }
+
+    private StatisticsAggregator analyze(AnalyzerConfig config) {
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(config, new LocalFileDataSource(List.of(file)));
+        analyzer.analyze();
+        return analyzer.statisticsAggregator();
+    }
+
+    private AnalyzerConfig config(Optional<LocalDateTime> from, Optional<LocalDateTime> to, Optional<String> filter) {
+        return new AnalyzerConfig(from, to, OutputFormat.JSON, List.of(file), Optional.empty(), Optional.empty(),
+            Optional.empty()).filterExpression(filter);
+    }
+}
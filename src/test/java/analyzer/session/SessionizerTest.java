@@ -0,0 +1,95 @@
+package analyzer.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SessionizerTest {
+    private static final long START = 1_431_820_800L;
+    private static final long IPV4_MARKER = 0xFFFF_0000_0000L;
+    private static final String FIREFOX = "Mozilla/5.0 Firefox";
+    private static final String CURL = "curl/7.68.0";
+
+    @Test
+    public void splitsSessionsByClientAgentAndInactivity() {
+        Sessionizer sessionizer = new Sessionizer(Sessionizer.DEFAULT_TIMEOUT_SECONDS);
+        sessionizer.add(0, ip(1), FIREFOX, START);
+        sessionizer.add(0, ip(1), FIREFOX, START + 120);
+        sessionizer.add(0, ip(1), FIREFOX, START + 1_921);
+        sessionizer.add(0, ip(1), CURL, START + 10);
+        sessionizer.add(0, ip(1), FIREFOX, START + 1_921 + 1_801);
+        sessionizer.add(0, ip(2), FIREFOX, START + 1_000);
+
+        SessionStats stats = sessionizer.snapshot();
+        assertEquals(5, stats.sessions());
+        assertEquals(6, stats.totalPages());
+        assertEquals(120, stats.totalSeconds());
+        assertArrayEquals(new long[] {4, 0, 1, 0, 0, 0, 0, 0}, stats.lengthCounts());
+        assertArrayEquals(new long[] {4, 1, 0, 0, 0, 0, 0}, stats.pageCounts());
+    }
+
+    @Test
+    public void keepsOnlyOpenSessionsInMemory() {
+        Sessionizer sessionizer = new Sessionizer(600);
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            for (int client = 0; client < 50; client++) {
+                sessionizer.add(0, ip(minute * 50 + client), FIREFOX, START + minute * 60L + client);
+                sessionizer.add(0, ip(minute * 50 + client), FIREFOX, START + minute * 60L + client + 30);
+            }
+            assertTrue(sessionizer.openSessions() <= 50 * 13);
+        }
+
+        SessionStats stats = sessionizer.snapshot();
+        assertEquals(24 * 60 * 50, stats.sessions());
+        assertEquals(24 * 60 * 50, stats.pageCounts()[1]);
+        assertEquals(24 * 60 * 50, stats.lengthCounts()[1]);
+        assertTrue(stats.peakOpenSessions() <= 50 * 13);
+    }
+
+    @Test
+    public void countsLateEntriesInTheOpenSession() {
+        Sessionizer sessionizer = new Sessionizer(300);
+        sessionizer.add(0, ip(1), CURL, START + 200);
+        sessionizer.add(0, ip(1), CURL, START + 100);
+        sessionizer.add(0, ip(2), CURL, START + 10_000);
+
+        SessionStats stats = sessionizer.snapshot();
+        assertEquals(2, stats.sessions());
+        assertEquals(100, stats.totalSeconds());
+        assertEquals(3, stats.totalPages());
+    }
+
+    @Test
+    public void mergesSerializedStatistics() throws IOException {
+        Sessionizer first = new Sessionizer(300);
+        first.add(0, ip(1), CURL, START);
+        first.add(0, ip(1), CURL, START + 30);
+        Sessionizer second = new Sessionizer(300);
+        second.add(0, ip(2), CURL, START);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        first.writeTo(new DataOutputStream(bytes));
+        second.mergeFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        SessionStats stats = second.snapshot();
+        assertEquals(2, stats.sessions());
+        assertEquals(30, stats.totalSeconds());
+        assertEquals(1.5, stats.averagePages());
+    }
+
+    @Test
+    public void rejectsNonPositiveTimeout() {
+        assertThrows(IllegalArgumentException.class, () -> new Sessionizer(0));
+    }
+
+    private static long ip(int value) {
+        return IPV4_MARKER | value;
+    }
+}
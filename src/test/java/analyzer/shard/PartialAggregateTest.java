@@ -0,0 +1,102 @@
+package analyzer.shard;
+
+import analyzer.analyzer.GroupByAggregator.GroupRow;
+import analyzer.analyzer.GroupByField;
+import analyzer.analyzer.NginxLogAnalyzer;
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.config.AnalyzerConfig;
+import analyzer.datasource.LocalFileDataSource;
+import analyzer.generator.LogGenerator;
+import analyzer.generator.LogLineGenerator;
+import analyzer.output.OutputFormat;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PartialAggregateTest {
+    private static final int SHARDS = 3;
+    private static final int ALL = 100_000;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void mergedShardsMatchSingleProcessRun() throws IOException {
+        List<Path> files = new LogGenerator(new LogLineGenerator(3, 500, 100, 0.01),
+            LocalDateTime.of(2015, 5, 17, 0, 0), 20, 2).generate(tempDir, "access.log", 30_000, 5, true);
+        AnalyzerConfig config = config(files);
+        StatisticsAggregator expected = analyze(config, files);
+
+        for (ShardAssignment assignment : ShardAssignment.values()) {
+            List<Path> partials = new ArrayList<>();
+            List<Path> assigned = new ArrayList<>();
+            for (int index = 0; index < SHARDS; index++) {
+                Shard shard = new Shard(index, SHARDS);
+                List<Path> shardFiles = shard.select(files, assignment);
+                Path partial = shard.partialFile(tempDir.resolve(assignment.assignmentName()));
+                partial.getParent().toFile().mkdirs();
+                PartialAggregate.write(partial, shard, config, analyze(config, shardFiles));
+                partials.add(partial);
+                assigned.addAll(shardFiles);
+            }
+            StatisticsAggregator merged = PartialAggregate.mergeAll(partials, config);
+
+            assertEquals(new HashSet<>(files), new HashSet<>(assigned));
+            assertEquals(files.size(), assigned.size());
+            assertEquals(expected.totalRequests(), merged.totalRequests());
+            assertEquals(expected.logStatusCodes(), merged.logStatusCodes());
+            assertEquals(expected.resources(), merged.resources());
+            assertEquals(expected.httpMethods(), merged.httpMethods());
+            assertEquals(expected.getTopIpAddresses(ALL), merged.getTopIpAddresses(ALL));
+            assertEquals(expected.getTopSubnets(ALL), merged.getTopSubnets(ALL));
+            assertEquals(expected.getAverageResponseSize(), merged.getAverageResponseSize());
+            assertEquals(expected.getPercentileResponseSize(95), merged.getPercentileResponseSize(95));
+            assertEquals(groups(expected), groups(merged));
+        }
+    }
+
+    @Test
+    public void rejectsPartialsFromDifferentOptions() throws IOException {
+        Path partial = new Shard(0, 1).partialFile(tempDir);
+        PartialAggregate.write(partial, new Shard(0, 1), config(List.of()), new StatisticsAggregator());
+
+        AnalyzerConfig filtered = config(List.of()).filterExpression(Optional.of("status=200"));
+        assertThrows(IOException.class, () -> PartialAggregate.mergeAll(List.of(partial), filtered));
+        assertThrows(IOException.class, () -> PartialAggregate.mergeAll(List.of(partial, partial), config(List.of())));
+    }
+
+    @Test
+    public void workerCommandReplacesWorkersWithShardOptions() {
+        ShardCoordinator coordinator = new ShardCoordinator(new String[] {"--path", "*.log", "--workers", "4"}, 4);
+
+        List<String> command = coordinator.command(new Shard(2, 4), Path.of("out.partial"));
+
+        assertEquals(List.of("analyzer.Main", "--path", "*.log", "--shard", "2/4", "--partial-output", "out.partial"),
+            command.subList(command.indexOf("analyzer.Main"), command.size()));
+        assertEquals(new Shard(2, 4), Shard.parse("2/4"));
+        assertThrows(IllegalArgumentException.class, () -> Shard.parse("4/4"));
+    }
+
+    private static AnalyzerConfig config(List<Path> files) {
+        return new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.JSON, files, Optional.empty(),
+            Optional.empty(), Optional.empty()).groupBy(List.of(GroupByField.STATUS, GroupByField.IP));
+    }
+
+    private static StatisticsAggregator analyze(AnalyzerConfig config, List<Path> files) {
+        NginxLogAnalyzer analyzer = new NginxLogAnalyzer(config, new LocalFileDataSource(files));
+        analyzer.analyze();
+        return analyzer.statisticsAggregator();
+    }
+
+    private static HashSet<GroupRow> groups(StatisticsAggregator statistics) {
+        return new HashSet<>(statistics.groupByAggregator().orElseThrow().getTopGroups(ALL));
+    }
+}
@@ -0,0 +1,94 @@
+package analyzer.spill;
+
+import analyzer.analyzer.StatisticsAggregator;
+import analyzer.config.AnalyzerConfig;
+import analyzer.output.OutputFormat;
+import analyzer.spill.SpilledCounts.Entry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpilledCountsTest {
+    private static final int ALL = 1_000_000;
+    private static final long IPV4_MAPPED = 0xFFFF_0000_0000L;
+
+    @Test
+    public void mergesRunsWithMemory() throws IOException {
+        SpilledCounts spilled = new SpilledCounts("test");
+        spilled.spill(new ArrayList<>(List.of(Entry.ofText("/b", 2), Entry.ofText("/a", 1))));
+        spilled.spill(new ArrayList<>(List.of(Entry.ofText("/c", 4), Entry.ofText("/a", 5))));
+
+        List<Entry> memory = new ArrayList<>(List.of(Entry.ofText("/b", 1), Entry.ofText("/d", 1)));
+        Map<String, Long> merged = new LinkedHashMap<>();
+        spilled.forEach(memory, entry -> merged.put(entry.text(), entry.count()));
+
+        assertEquals(Map.of("/a", 6L, "/b", 3L, "/c", 4L, "/d", 1L), merged);
+        assertEquals(List.of("/a", "/b", "/c", "/d"), new ArrayList<>(merged.keySet()));
+        assertEquals(List.of("/a", "/c"), spilled.top(memory, 2).stream().map(Entry::text).toList());
+        assertEquals(4, spilled.distinct(memory));
+    }
+
+    @Test
+    public void compactsManyRuns() throws IOException {
+        SpilledCounts spilled = new SpilledCounts("test");
+        for (int i = 0; i < SpilledCounts.MAX_RUNS * 2; i++) {
+            spilled.spill(new ArrayList<>(List.of(Entry.ofAddress(0, i % 3, 1), Entry.ofAddress(1, 0, 2))));
+        }
+        spilled.scale(0.5);
+
+        assertTrue(spilled.runs() < SpilledCounts.MAX_RUNS);
+        assertEquals(SpilledCounts.MAX_RUNS * 2, spilled.spills());
+        List<Entry> top = spilled.top(new ArrayList<>(), 2);
+        assertEquals(1, top.getFirst().high());
+        assertEquals(SpilledCounts.MAX_RUNS * 2, top.getFirst().count());
+        assertEquals(0, top.get(1).low());
+    }
+
+    @Test
+    public void budgetedAggregatorMatchesUnbounded() throws IOException {
+        AnalyzerConfig unbounded = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            List.of(), Optional.empty(), Optional.empty(), Optional.empty());
+        AnalyzerConfig budgeted = new AnalyzerConfig(Optional.empty(), Optional.empty(), OutputFormat.MARKDOWN,
+            List.of(), Optional.empty(), Optional.empty(), Optional.empty()).memoryBudget(OptionalLong.of(64 * 1024));
+        StatisticsAggregator expected = new StatisticsAggregator(unbounded);
+        StatisticsAggregator actual = new StatisticsAggregator(budgeted);
+
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            String resource = "/items/" + random.nextInt(20_000);
+            long address = IPV4_MAPPED | (long) random.nextInt(30_000) << 4;
+            expected.addRequest(200, resource, "GET", 0, address, 10);
+            actual.addRequest(200, resource, "GET", 0, address, 10);
+        }
+
+        assertFalse(expected.isSpilled());
+        assertTrue(actual.isSpilled());
+        assertEquals(expected.getTopResources(ALL), actual.getTopResources(ALL));
+        assertEquals(expected.getTopIpAddresses(ALL), actual.getTopIpAddresses(ALL));
+        assertTrue(actual.spilledSubnets().spills() > 0);
+        assertEquals(expected.getTopSubnets(ALL), actual.getTopSubnets(ALL));
+        assertEquals(new ArrayList<>(expected.getTopResources(1).values()),
+            new ArrayList<>(actual.getTopResources(1).values()));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        actual.writeTo(new DataOutputStream(bytes));
+        StatisticsAggregator restored = new StatisticsAggregator(unbounded);
+        restored.mergeFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(expected.resources(), restored.resources());
+        assertEquals(expected.getTopIpAddresses(ALL), restored.getTopIpAddresses(ALL));
+        assertEquals(expected.getTopSubnets(ALL), restored.getTopSubnets(ALL));
+    }
+}